@@ -1,12 +1,45 @@
 package backend;
 
+import backend.model.request.AdvisorRequest;
+import backend.model.request.CacheModeRequest;
+import backend.model.request.ChangeFeedRequest;
+import backend.model.request.ConsistencyRequest;
+import backend.model.request.CoveringIndexRequest;
 import backend.model.request.CustomRequest;
 import backend.model.request.CustomWorkloadRequest;
+import backend.model.request.DurabilityRequest;
+import backend.model.request.FlameGraphDiffRequest;
+import backend.model.request.IndexSearchRequest;
+import backend.model.request.InterferenceRequest;
+import backend.model.request.KeyValueRequest;
+import backend.model.request.MatrixRequest;
+import backend.model.request.ScanRequest;
+import backend.model.request.StatisticsRequest;
+import backend.model.request.SweepRequest;
+import backend.model.request.TransactionRequest;
+import backend.model.request.TunerRequest;
 import backend.model.request.UniqueRequest;
 import backend.model.request.WorkloadRequest;
+import backend.model.result.MatrixResult;
 import backend.service.BenchmarkService;
+import backend.service.CacheModeBenchmarkService;
+import backend.service.ChangeFeedBenchmarkService;
+import backend.service.ConfigurationTunerService;
+import backend.service.ConsistencyBenchmarkService;
+import backend.service.CoveringIndexService;
+import backend.service.DurabilityBenchmarkService;
+import backend.service.FlameGraphService;
+import backend.service.IndexAdvisorService;
+import backend.service.IndexSearchService;
+import backend.service.InterferenceBenchmarkService;
+import backend.service.KeyValueBenchmarkService;
+import backend.service.MatrixBenchmarkService;
 import backend.service.MetadataService;
 import backend.service.ReportService;
+import backend.service.ScanBenchmarkService;
+import backend.service.StatisticsExperimentService;
+import backend.service.SweepBenchmarkService;
+import backend.service.TransactionBenchmarkService;
 import backend.ssh.SSHTunnel;
 import com.jcraft.jsch.JSchException;
 import io.javalin.Javalin;
@@ -25,8 +58,24 @@ import io.javalin.plugin.bundled.CorsPluginConfig;
 public class WebServer {
 
     private final BenchmarkService benchmarkService;
+    private final InterferenceBenchmarkService interferenceBenchmarkService;
+    private final DurabilityBenchmarkService durabilityBenchmarkService;
+    private final KeyValueBenchmarkService keyValueBenchmarkService;
+    private final ScanBenchmarkService scanBenchmarkService;
+    private final TransactionBenchmarkService transactionBenchmarkService;
+    private final ChangeFeedBenchmarkService changeFeedBenchmarkService;
+    private final ConsistencyBenchmarkService consistencyBenchmarkService;
+    private final SweepBenchmarkService sweepBenchmarkService;
+    private final IndexAdvisorService indexAdvisorService;
+    private final IndexSearchService indexSearchService;
+    private final StatisticsExperimentService statisticsExperimentService;
+    private final CoveringIndexService coveringIndexService;
+    private final MatrixBenchmarkService matrixBenchmarkService;
+    private final ConfigurationTunerService configurationTunerService;
+    private final CacheModeBenchmarkService cacheModeBenchmarkService;
     private final MetadataService metadataService;
     private final ReportService reportService;
+    private final FlameGraphService flameGraphService;
 
     // The port on which the server will listen for incoming requests
     private static final int SERVER_PORT = 7070;
@@ -40,8 +89,24 @@ public class WebServer {
      */
     public WebServer() {
         this.benchmarkService = new BenchmarkService();
+        this.interferenceBenchmarkService = new InterferenceBenchmarkService();
+        this.durabilityBenchmarkService = new DurabilityBenchmarkService();
+        this.keyValueBenchmarkService = new KeyValueBenchmarkService();
+        this.scanBenchmarkService = new ScanBenchmarkService();
+        this.transactionBenchmarkService = new TransactionBenchmarkService();
+        this.changeFeedBenchmarkService = new ChangeFeedBenchmarkService();
+        this.consistencyBenchmarkService = new ConsistencyBenchmarkService();
+        this.sweepBenchmarkService = new SweepBenchmarkService();
+        this.indexAdvisorService = new IndexAdvisorService();
+        this.indexSearchService = new IndexSearchService();
+        this.statisticsExperimentService = new StatisticsExperimentService();
+        this.coveringIndexService = new CoveringIndexService();
+        this.matrixBenchmarkService = new MatrixBenchmarkService();
+        this.configurationTunerService = new ConfigurationTunerService();
+        this.cacheModeBenchmarkService = new CacheModeBenchmarkService();
         this.metadataService = new MetadataService();
         this.reportService = new ReportService();
+        this.flameGraphService = new FlameGraphService();
     }
 
     /**
@@ -96,6 +161,146 @@ public class WebServer {
                 }
             });
 
+            app.post(BENCHMARK_ENDPOINT + "/interference", ctx -> {
+                try {
+                    InterferenceRequest request = ctx.bodyAsClass(InterferenceRequest.class);
+                    ctx.json(interferenceBenchmarkService.runInterferenceBenchmark(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post(BENCHMARK_ENDPOINT + "/durability", ctx -> {
+                try {
+                    DurabilityRequest request = ctx.bodyAsClass(DurabilityRequest.class);
+                    ctx.json(durabilityBenchmarkService.runDurabilityBenchmark(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post(BENCHMARK_ENDPOINT + "/key-value", ctx -> {
+                try {
+                    KeyValueRequest request = ctx.bodyAsClass(KeyValueRequest.class);
+                    ctx.json(keyValueBenchmarkService.runKeyValueBenchmark(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post(BENCHMARK_ENDPOINT + "/scan", ctx -> {
+                try {
+                    ScanRequest request = ctx.bodyAsClass(ScanRequest.class);
+                    ctx.json(scanBenchmarkService.runScanBenchmark(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post(BENCHMARK_ENDPOINT + "/transaction", ctx -> {
+                try {
+                    TransactionRequest request = ctx.bodyAsClass(TransactionRequest.class);
+                    ctx.json(transactionBenchmarkService.runTransactionBenchmark(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post(BENCHMARK_ENDPOINT + "/change-feed", ctx -> {
+                try {
+                    ChangeFeedRequest request = ctx.bodyAsClass(ChangeFeedRequest.class);
+                    ctx.json(changeFeedBenchmarkService.runChangeFeedBenchmark(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post(BENCHMARK_ENDPOINT + "/consistency", ctx -> {
+                try {
+                    ConsistencyRequest request = ctx.bodyAsClass(ConsistencyRequest.class);
+                    ctx.json(consistencyBenchmarkService.runConsistencyBenchmark(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post(BENCHMARK_ENDPOINT + "/sweep", ctx -> {
+                try {
+                    SweepRequest request = ctx.bodyAsClass(SweepRequest.class);
+                    ctx.json(sweepBenchmarkService.runSweepBenchmark(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post(BENCHMARK_ENDPOINT + "/index-advisor", ctx -> {
+                try {
+                    AdvisorRequest request = ctx.bodyAsClass(AdvisorRequest.class);
+                    ctx.json(indexAdvisorService.runAdvisorBenchmark(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post(BENCHMARK_ENDPOINT + "/index-search", ctx -> {
+                try {
+                    IndexSearchRequest request = ctx.bodyAsClass(IndexSearchRequest.class);
+                    ctx.json(indexSearchService.runIndexSearch(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post(BENCHMARK_ENDPOINT + "/statistics", ctx -> {
+                try {
+                    StatisticsRequest request = ctx.bodyAsClass(StatisticsRequest.class);
+                    ctx.json(statisticsExperimentService.runStatisticsExperiment(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post(BENCHMARK_ENDPOINT + "/covering-index", ctx -> {
+                try {
+                    CoveringIndexRequest request = ctx.bodyAsClass(CoveringIndexRequest.class);
+                    ctx.json(coveringIndexService.runCoveringIndexBenchmark(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post(BENCHMARK_ENDPOINT + "/matrix", ctx -> {
+                try {
+                    MatrixRequest request = ctx.bodyAsClass(MatrixRequest.class);
+                    MatrixResult result = matrixBenchmarkService.runMatrixBenchmark(request);
+                    if ("csv".equals(ctx.queryParam("format"))) {
+                        ctx.contentType("text/csv").result(matrixBenchmarkService.exportCsv(result));
+                    } else {
+                        ctx.json(result);
+                    }
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post(BENCHMARK_ENDPOINT + "/tuner", ctx -> {
+                try {
+                    TunerRequest request = ctx.bodyAsClass(TunerRequest.class);
+                    ctx.json(configurationTunerService.runTuner(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post(BENCHMARK_ENDPOINT + "/cache-modes", ctx -> {
+                try {
+                    CacheModeRequest request = ctx.bodyAsClass(CacheModeRequest.class);
+                    ctx.json(cacheModeBenchmarkService.runCacheModeBenchmark(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
             app.post("/generate-report", ctx -> {
                         try {
                             String benchmarkData = ctx.body();
@@ -112,6 +317,26 @@ public class WebServer {
                     }
             );
 
+            app.post("/flame-graph", ctx -> {
+                try {
+                    boolean categories = Boolean.parseBoolean(ctx.queryParam("categories"));
+                    ctx.contentType("text/plain")
+                            .result(flameGraphService.exportFlameGraph(ctx.body(), categories));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
+            app.post("/flame-graph/diff", ctx -> {
+                try {
+                    FlameGraphDiffRequest request = ctx.bodyAsClass(FlameGraphDiffRequest.class);
+                    ctx.contentType("text/plain")
+                            .result(flameGraphService.exportDifferentialFlameGraph(request));
+                } catch (Exception e) {
+                    ctx.status(400).result("Invalid request: " + e.getMessage());
+                }
+            });
+
             // Register shutdown hooks
             Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
         } catch (JSchException e) {
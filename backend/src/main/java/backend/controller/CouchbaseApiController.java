@@ -29,6 +29,9 @@ public class CouchbaseApiController {
     private final String password;
     private static final int API_PORT = 9102;
     private static final int MANAGEMENT_PORT = 8091;
+    private static final int QUERY_PORT = 8093;
+    // Memory quota of a query in MB, the query service only reports the memory used by a query that has one
+    private static final int MEMORY_QUOTA_MB = 10240;
 
     /**
      * Constructs a new {@code CouchbaseApiController} instance with the specified host, username, and password.
@@ -84,6 +87,120 @@ public class CouchbaseApiController {
         return parseCacheStatsResponse(response);
     }
 
+    /**
+     * Executes a query through the REST API of the query service with a memory quota, and returns the memory it
+     * used. The SDK does not expose this metric, and the query service only reports it for queries with a quota.
+     *
+     * @param bucketName the name of the Couchbase bucket
+     * @param scopeName  the name of the scope in which the query is executed
+     * @param statement  the N1QL statement to execute
+     * @return the memory used by the query in bytes, or null if the query service did not report it
+     * @throws Exception if an error occurs while executing the query or parsing the response
+     */
+    public Long getUsedMemory(String bucketName, String scopeName, String statement) throws Exception {
+        String url = "http://" + host + ":" + QUERY_PORT + "/query/service";
+
+        Map<String, String> headers = new HashMap<>();
+        String auth = username + ":" + password;
+        String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
+        headers.put("Authorization", "Basic " + encodedAuth);
+        headers.put("Content-Type", "application/json");
+
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("statement", statement);
+        body.put("query_context", "default:`" + bucketName + "`.`" + scopeName + "`");
+        body.put("memory_quota", MEMORY_QUOTA_MB);
+        body.put("metrics", true);
+
+        String response = httpClient.post(url, mapper.writeValueAsString(body), headers);
+
+        JsonNode usedMemory = mapper.readTree(response).path("metrics").path("usedMemory");
+        return usedMemory.isNumber() ? usedMemory.asLong() : null;
+    }
+
+    /**
+     * Retrieves the RAM quota of a specified Couchbase bucket.
+     *
+     * @param bucketName the name of the Couchbase bucket
+     * @return the RAM quota of the bucket in MB
+     * @throws Exception if an error occurs while retrieving or parsing the bucket information
+     */
+    public long getBucketQuotaMB(String bucketName) throws Exception {
+        return getBucketInfo(bucketName).path("quota").path("rawRAM").asLong() / (1024 * 1024);
+    }
+
+    /**
+     * Retrieves the memory used by a specified Couchbase bucket on the data service.
+     *
+     * @param bucketName the name of the Couchbase bucket
+     * @return the memory used by the bucket in bytes
+     * @throws Exception if an error occurs while retrieving or parsing the bucket information
+     */
+    public long getBucketMemoryUsed(String bucketName) throws Exception {
+        return getBucketInfo(bucketName).path("basicStats").path("memUsed").asLong();
+    }
+
+    /**
+     * Retrieves the number of replicas configured for a specified Couchbase bucket.
+     *
+     * @param bucketName the name of the Couchbase bucket
+     * @return the number of replicas of each document
+     * @throws Exception if an error occurs while retrieving or parsing the bucket information
+     */
+    public int getBucketReplicaNumber(String bucketName) throws Exception {
+        return getBucketInfo(bucketName).path("replicaNumber").asInt();
+    }
+
+    /**
+     * Retrieves the number of data nodes holding a specified Couchbase bucket.
+     *
+     * @param bucketName the name of the Couchbase bucket
+     * @return the number of nodes of the bucket
+     * @throws Exception if an error occurs while retrieving or parsing the bucket information
+     */
+    public int getBucketNodeCount(String bucketName) throws Exception {
+        return getBucketInfo(bucketName).path("nodes").size();
+    }
+
+    /**
+     * Changes the RAM quota of a specified Couchbase bucket. The data service ejects the values of the documents
+     * from memory when the memory used by the bucket is above the new quota, without restarting the bucket.
+     *
+     * @param bucketName the name of the Couchbase bucket
+     * @param quotaMB    the new RAM quota of the bucket in MB
+     * @throws Exception if an error occurs while changing the quota
+     */
+    public void setBucketQuota(String bucketName, long quotaMB) throws Exception {
+        String url = "http://" + host + ":" + MANAGEMENT_PORT + "/pools/default/buckets/" + bucketName;
+
+        Map<String, String> headers = new HashMap<>();
+        String auth = username + ":" + password;
+        String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
+        headers.put("Authorization", "Basic " + encodedAuth);
+        headers.put("Content-Type", "application/x-www-form-urlencoded");
+
+        httpClient.post(url, "ramQuotaMB=" + quotaMB, headers);
+    }
+
+    /**
+     * Retrieves the information of a specified Couchbase bucket from the management API.
+     *
+     * @param bucketName the name of the Couchbase bucket
+     * @return the JSON information of the bucket
+     * @throws Exception if an error occurs while retrieving or parsing the bucket information
+     */
+    private JsonNode getBucketInfo(String bucketName) throws Exception {
+        String url = "http://" + host + ":" + MANAGEMENT_PORT + "/pools/default/buckets/" + bucketName;
+
+        Map<String, String> headers = new HashMap<>();
+        String auth = username + ":" + password;
+        String encodedAuth = Base64.getEncoder().encodeToString(auth.getBytes());
+        headers.put("Authorization", "Basic " + encodedAuth);
+
+        return new ObjectMapper().readTree(httpClient.get(url, headers));
+    }
+
     /**
      * Parses the JSON response from the Couchbase API to extract cache statistics. Since it is very minimalistic,
      * it is only a function and not a separate class like the other parsers of the application.
@@ -185,9 +302,13 @@ public class CouchbaseApiController {
 
                 // Get the disk size in bytes, defaulting to 0 if not present
                 long diskSizeBytes = indexStats.has("disk_size") ? indexStats.get("disk_size").asLong() : 0;
+                // Get the memory used in bytes and the resident percentage, defaulting to 0 if not present
+                long memoryUsed = indexStats.path("memory_used").asLong(0);
+                double residentPercent = indexStats.path("resident_percent").asDouble(0);
 
                 // Ceate a CouchbaseIndexStats object
-                CouchbaseIndexStats stats = getCouchbaseIndexStats(fullIndexName, diskSizeBytes);
+                CouchbaseIndexStats stats = getCouchbaseIndexStats(fullIndexName, diskSizeBytes, memoryUsed,
+                        residentPercent);
 
                 statsList.add(stats);
             }
@@ -201,14 +322,17 @@ public class CouchbaseApiController {
     }
 
     /**
-     * Creates a {@link CouchbaseIndexStats} object from the full index name and disk size.
+     * Creates a {@link CouchbaseIndexStats} object from the full index name, disk size and memory statistics.
      * It extracts the bucket, scope, collection, and index names from the full index name.
      *
-     * @param fullIndexName the full index name in the format "bucket:scope:collection:index"
-     * @param diskSizeBytes the disk size in bytes for the index
+     * @param fullIndexName   the full index name in the format "bucket:scope:collection:index"
+     * @param diskSizeBytes   the disk size in bytes for the index
+     * @param memoryUsed      the memory used in bytes by the index
+     * @param residentPercent the percentage of the index resident in memory
      * @return a {@link CouchbaseIndexStats} object containing the parsed information
      */
-    private static CouchbaseIndexStats getCouchbaseIndexStats(String fullIndexName, long diskSizeBytes) {
+    private static CouchbaseIndexStats getCouchbaseIndexStats(String fullIndexName, long diskSizeBytes,
+                                                              long memoryUsed, double residentPercent) {
         CouchbaseIndexStats stats;
 
         // Extraction of parts of the index name (bucket:scope:collection:index)
@@ -216,13 +340,13 @@ public class CouchbaseApiController {
 
         if (parts.length >= 4) {
             // Complete format: bucket:scope:collection:index
-            stats = new CouchbaseIndexStats(parts[1], parts[2], parts[3], diskSizeBytes);
+            stats = new CouchbaseIndexStats(parts[1], parts[2], parts[3], diskSizeBytes, memoryUsed, residentPercent);
         } else if (parts.length == 3) {
             // Format without explicit collection name : bucket:scope:index
-            stats = new CouchbaseIndexStats(parts[1], "_default", parts[2], diskSizeBytes);
+            stats = new CouchbaseIndexStats(parts[1], "_default", parts[2], diskSizeBytes, memoryUsed, residentPercent);
         } else {
             // Fallback if format is unexpected
-            stats = new CouchbaseIndexStats("unknown", "unknown", fullIndexName, diskSizeBytes);
+            stats = new CouchbaseIndexStats("unknown", "unknown", fullIndexName, diskSizeBytes, memoryUsed, residentPercent);
         }
         return stats;
     }
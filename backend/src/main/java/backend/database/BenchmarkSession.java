@@ -0,0 +1,32 @@
+package backend.database;
+
+import backend.model.query.Query;
+
+/**
+ * The {@code BenchmarkSession} interface represents a connection to a database that is owned by a single
+ * benchmark worker. Sessions are used when queries are executed concurrently: each worker thread opens its
+ * own session so that no connection state is shared between threads.
+ *
+ * Latencies are measured by the caller around {@link #execute(Query)}, so they correspond to the latency
+ * observed by the client (network and result transfer included).
+ *
+ * @author Eva Ray
+ */
+public interface BenchmarkSession extends AutoCloseable {
+
+    /**
+     * Executes a query once and consumes its whole result.
+     *
+     * @param query the query to execute
+     * @throws Exception if an error occurs during the execution
+     */
+    void execute(Query query) throws Exception;
+
+    /**
+     * Releases the resources held by the session.
+     *
+     * @throws Exception if an error occurs while closing the session
+     */
+    @Override
+    void close() throws Exception;
+}
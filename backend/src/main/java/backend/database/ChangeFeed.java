@@ -0,0 +1,28 @@
+package backend.database;
+
+import java.util.function.Consumer;
+
+/**
+ * The {@code ChangeFeed} interface represents a consumer of the changes of a collection, used to measure how long
+ * a committed write takes to reach the downstream consumers of a database. The feed only reports the documents
+ * or rows inserted with a given key prefix, and stops consuming when it is closed.
+ *
+ * @author Eva Ray
+ */
+public interface ChangeFeed extends AutoCloseable {
+
+    /**
+     * Starts consuming the changes in a background thread. The listener is called with the key of each inserted
+     * document or row, as soon as the insertion is received.
+     *
+     * @param listener the listener of the inserted keys
+     * @throws Exception if the feed cannot be started
+     */
+    void start(Consumer<String> listener) throws Exception;
+
+    /**
+     * Stops consuming the changes and releases the resources of the feed.
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,91 @@
+package backend.database;
+
+import com.couchbase.client.java.Scope;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.query.QueryOptions;
+import com.couchbase.client.java.query.QueryScanConsistency;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * The {@code CouchbaseChangeFeed} class is the Couchbase implementation of {@link ChangeFeed}.
+ * The SDK has no DCP client, so the feed observes the changes through the primary index, which is itself
+ * maintained by a DCP stream of the bucket: the inserted keys are polled with an unbounded scan consistency,
+ * and a key is reported when it first appears in the index. The measured lag is therefore the DCP lag of the
+ * index service plus, on average, half the polling interval.
+ *
+ * @author Eva Ray
+ */
+public class CouchbaseChangeFeed implements ChangeFeed {
+
+    private final Scope scope;
+    private final String collection;
+    private final String keyPrefix;
+    private final long pollIntervalMs;
+    private volatile boolean running;
+    private Thread poller;
+
+    /**
+     * Constructs a new {@code CouchbaseChangeFeed}.
+     *
+     * @param scope          the scope of the collection
+     * @param collection     the observed collection
+     * @param keyPrefix      the key prefix of the reported documents
+     * @param pollIntervalMs the time between two polls, in milliseconds
+     */
+    public CouchbaseChangeFeed(Scope scope, String collection, String keyPrefix, long pollIntervalMs) {
+        this.scope = scope;
+        this.collection = collection;
+        this.keyPrefix = keyPrefix;
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start(Consumer<String> listener) {
+        // The key range of the prefix can be scanned on the primary index
+        String statement = "SELECT RAW META(c).id FROM `" + collection + "` c WHERE META(c).id >= $from AND META(c).id < $to";
+        QueryOptions options = QueryOptions.queryOptions()
+                .adhoc(false)
+                .scanConsistency(QueryScanConsistency.NOT_BOUNDED)
+                .timeout(Duration.ofSeconds(30))
+                .parameters(JsonObject.create().put("from", keyPrefix).put("to", keyPrefix + Character.MAX_VALUE));
+
+        running = true;
+        poller = new Thread(() -> {
+            Set<String> seen = new HashSet<>();
+            while (running) {
+                try {
+                    for (String key : scope.query(statement, options).rowsAs(String.class)) {
+                        if (seen.add(key)) {
+                            listener.accept(key);
+                        }
+                    }
+                    Thread.sleep(pollIntervalMs);
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    System.err.println("Error while polling the changes of " + collection + ": " + e.getMessage());
+                }
+            }
+        }, "couchbase-change-feed");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        running = false;
+        if (poller != null) {
+            poller.interrupt();
+        }
+    }
+}
@@ -3,25 +3,48 @@ package backend.database;
 import backend.controller.CouchbaseApiController;
 import backend.model.metadata.*;
 import backend.model.query.Query;
+import backend.model.query.RestoreSpec;
 import backend.model.request.Index;
+import backend.model.result.Residency;
 import backend.model.result.Result;
 import backend.parser.CouchbaseTimingsParser;
+import backend.service.plan.PlanStabilityTracker;
 import com.couchbase.client.java.Bucket;
 import com.couchbase.client.java.Cluster;
 import com.couchbase.client.java.ClusterOptions;
 import com.couchbase.client.java.Scope;
+import com.couchbase.client.java.json.JsonArray;
 import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.ScanOptions;
+import com.couchbase.client.java.kv.ScanResult;
+import com.couchbase.client.java.kv.ScanType;
+import com.couchbase.client.java.manager.query.QueryIndex;
+import com.couchbase.client.java.query.QueryMetrics;
 import com.couchbase.client.java.query.QueryOptions;
 import com.couchbase.client.java.query.QueryProfile;
 import com.couchbase.client.java.query.QueryResult;
+import com.couchbase.client.java.query.QueryScanConsistency;
+import com.couchbase.client.java.transactions.Transactions;
 import backend.model.options.DBType;
+import backend.model.options.DurabilityLevel;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import static backend.model.result.Rounding.round;
 import static java.lang.Thread.sleep;
 
 /**
@@ -42,10 +65,30 @@ public class CouchbaseManager extends DatabaseManager {
     private static final String USERNAME = "Administrator";
     private static final String PASSWORD = "password";
     private static final String BUCKET = "yelp_reviews";
+    // Seed of the key samples, so that successive benchmarks access the same keys
+    private static final long KEY_SAMPLE_SEED = 42;
+    // Query options that can be changed for the executions of a run
+    private static final Set<String> QUERY_SETTINGS = Set.of("max_parallelism", "scan_cap", "pipeline_batch",
+            "pipeline_cap");
+    // Temporary quota of the bucket to eject the documents for a cold cache, the minimum quota of a bucket
+    private static final long EJECTION_QUOTA_MB = 100;
+    private static final Duration EJECTION_TIMEOUT = Duration.ofMinutes(5);
+    // Number of successive polls without decrease of the memory used after which the ejection is done
+    private static final int EJECTION_STABLE_POLLS = 3;
+    // Collections read or modified by a statement, unqualified as in the queries of the benchmarks
+    private static final Pattern KEYSPACE_PATTERN = Pattern.compile("(?i)\\b(?:FROM|JOIN|NEST|UPDATE|INTO)\\s+`?(\\w+)`?");
 
     private static long initialConnectionTime = 0;
     double[] executionTimes;
     private String timingsProfile;
+    // Profiles of the sampled executions of the last run
+    private List<SampledProfile> sampledProfiles = new ArrayList<>();
+
+    /**
+     * The profile and the query service metrics of a sampled execution, parsed once the run is done.
+     */
+    private record SampledProfile(int execution, double latency, String profile, QueryMetrics metrics) {
+    }
 
     private static Cluster cluster = null;
     private static Bucket bucket = null;
@@ -98,23 +141,165 @@ public class CouchbaseManager extends DatabaseManager {
     @Override
     public Result run(Query query, int nbExecutions, String scope, List<Index> indexes) throws Exception {
 
-        warmup(query, scope);
+        // Write queries modify the dataset, which is restored when the snapshot is closed
+        try (DatasetSnapshot snapshot = snapshot(scope, List.of(query))) {
 
-        String actualQuery = query.getQuery();
+            // The documents removed by the warmup and the measured executions, removed by the snapshot if left
+            seed(query, scope, WARMUP_EXECUTIONS + nbExecutions);
+            warmup(query, scope);
+
+            if (query.isWrite()) {
+                // Start the measurement with indexes that already processed the writes of the warmup
+                waitForIndexes(scope, query, indexes);
+            }
+
+            String actualQuery = query.getQuery();
 
-        System.out.println("Running Couchbase query " + query.getQueryType().getName() + " " + nbExecutions + " times in scope: " + scope + ": \n" + actualQuery);
+            System.out.println("Running Couchbase query " + query.getQueryType().getName() + " " + nbExecutions + " times in scope: " + scope + ": \n" + actualQuery);
 
-        this.executionTimes = benchmarkQuery(bucket.scope(scope), nbExecutions, actualQuery);
-        DescriptiveStatistics stats = new DescriptiveStatistics(this.executionTimes);
-        double avgLatency = Double.parseDouble(df.format(stats.getMean()).replace(',', '.'));
-        double variance = Double.parseDouble(df.format(stats.getVariance()).replace(',', '.'));
-        double stdDev = Double.parseDouble(df.format(stats.getStandardDeviation()).replace(',', '.'));
-        double p95 = Double.parseDouble(df.format(stats.getPercentile(95)).replace(',', '.'));
+            // Residency of the indexes and documents once the warmup is done, before the measured executions
+            ResidencySnapshot residencyBefore = getResidency(query, scope);
+            this.executionTimes = benchmarkQuery(bucket.scope(scope), nbExecutions, actualQuery);
+            ResidencySnapshot residencyAfter = getResidency(query, scope);
 
-        System.out.println("Query benchmarking completed. Average latency: " + avgLatency + " ms");
+            // GSI indexes are maintained asynchronously, so the time the indexes need to process the writes is
+            // measured after the executions and spread over them, to be part of every write latency, hence of
+            // all the statistics and of the throughput
+            Double indexMaintenanceTime = null;
+            if (query.isWrite()) {
+                double maintenanceTime = waitForIndexes(scope, query, indexes);
+                for (int i = 0; i < executionTimes.length; i++) {
+                    executionTimes[i] += maintenanceTime / executionTimes.length;
+                }
+                indexMaintenanceTime = round(maintenanceTime);
+            }
+            DescriptiveStatistics stats = new DescriptiveStatistics(this.executionTimes);
+
+            double avgLatency = Double.parseDouble(df.format(stats.getMean()).replace(',', '.'));
+            double variance = Double.parseDouble(df.format(stats.getVariance()).replace(',', '.'));
+            double stdDev = Double.parseDouble(df.format(stats.getStandardDeviation()).replace(',', '.'));
+            double p95 = Double.parseDouble(df.format(stats.getPercentile(95)).replace(',', '.'));
+
+            System.out.println("Query benchmarking completed. Average latency: " + avgLatency + " ms");
 
-        return new Result(actualQuery, avgLatency, TPS(avgLatency), parser.parseProfile(timingsProfile).toIndentedString(3), initialConnectionTime,
-                stdDev, variance, p95, getCacheInfo(nbExecutions));
+            CouchbaseTimingsParser.ProfileNode profile = parser.parseProfile(timingsProfile);
+            Result result = new Result(actualQuery, avgLatency, TPS(avgLatency), profile.toIndentedString(3), initialConnectionTime,
+                    stdDev, variance, p95, getCacheInfo(nbExecutions));
+            result.setPlan(profile.toPlanOperator());
+            result.setIndexMaintenanceTime(indexMaintenanceTime);
+            result.setResidency(new Residency(residencyBefore, residencyAfter));
+
+            List<PlanStabilityTracker.Sample> samples = new ArrayList<>();
+            List<CouchbaseTimingsParser.Execution> executions = new ArrayList<>();
+            for (SampledProfile sampled : sampledProfiles) {
+                samples.add(new PlanStabilityTracker.Sample(sampled.execution(), sampled.latency(),
+                        parser.parseProfile(sampled.profile()).toPlanOperator()));
+                QueryMetrics metrics = sampled.metrics();
+                executions.add(new CouchbaseTimingsParser.Execution(parser.parsePhases(sampled.profile()),
+                        metrics.resultCount(), metrics.resultSize(), metrics.sortCount(), metrics.mutationCount()));
+            }
+            result.setPlanStability(analysePlans(query, scope, indexes, samples, planSampleInterval(nbExecutions)));
+            result.setSettings(getSessionSettings().isEmpty() ? null : getSessionSettings());
+            // A write query is not executed once more, it would modify the dataset outside the measured executions
+            result.setQueryServiceMetrics(parser.rollUp(executions, query.isWrite() ? null : usedMemory(scope, actualQuery)));
+            return result;
+        }
+    }
+
+    /**
+     * Waits until the indexes of the collection modified by a write query have processed all the mutations done
+     * so far. A request_plus scan on an index only returns once the index is up to date with the writes that
+     * happened before the scan.
+     *
+     * @param scope   the scope in which the query is executed
+     * @param query   the write query
+     * @param indexes the indexes created for the benchmark
+     * @return the time waited in milliseconds
+     */
+    private double waitForIndexes(String scope, Query query, List<Index> indexes) {
+        if (indexes == null || indexes.isEmpty()) {
+            return 0.0;
+        }
+
+        RestoreSpec spec = query.getRestoreSpec();
+        long start = System.nanoTime();
+        for (Index index : indexes) {
+            // Without restore specification the modified collection is unknown, so all the indexes are waited for
+            if ((spec != null && !spec.collection().equals(index.getTable()))
+                    || index.getFields() == null || index.getFields().isEmpty()) {
+                continue;
+            }
+            String statement = String.format("SELECT RAW META().id FROM `%s` USE INDEX (`%s` USING GSI) WHERE %s IS NOT MISSING LIMIT 1",
+                    index.getTable(), index.getName(), index.getFields().get(0));
+            try {
+                bucket.scope(scope).query(statement, QueryOptions.queryOptions()
+                        .timeout(Duration.ofMinutes(10))
+                        .scanConsistency(QueryScanConsistency.REQUEST_PLUS));
+            } catch (Exception e) {
+                System.err.println("Error while waiting for index " + index.getName() + ": " + e.getMessage());
+            }
+        }
+        return (System.nanoTime() - start) / 1_000_000.0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The query then waits until the primary index of the collection contains the inserted documents, so that
+     * the executions of the write query find them.
+     */
+    @Override
+    protected void insertSeed(RestoreSpec spec, String scope, int count) {
+        Scope benchmarkScope = bucket.scope(scope);
+        benchmarkScope.query(spec.seedQuery(), QueryOptions.queryOptions()
+                .parameters(JsonArray.from(count))
+                .timeout(Duration.ofMinutes(10)));
+        benchmarkScope.query("SELECT RAW COUNT(*) FROM `" + spec.collection() + "` WHERE POSITION(META().id, $prefix) = 0",
+                QueryOptions.queryOptions()
+                        .scanConsistency(QueryScanConsistency.REQUEST_PLUS)
+                        .parameters(JsonObject.create().put("prefix", spec.insertedKeyPrefix()))
+                        .timeout(Duration.ofMinutes(10)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DatasetSnapshot snapshot(String scope, Collection<Query> queries) {
+        if (queries.stream().noneMatch(Query::isWrite)) {
+            return super.snapshot(scope, queries);
+        }
+        return new CouchbaseSnapshot(bucket.scope(scope), queries);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DatasetSnapshot snapshot(String scope, String collection, Collection<String> keys) {
+        return new CouchbaseSnapshot(bucket.scope(scope), collection, keys);
+    }
+
+    /**
+     * Opens a change feed that reports the documents inserted in a collection.
+     *
+     * @param scope          the scope of the collection
+     * @param collection     the observed collection
+     * @param keyPrefix      the key prefix of the reported documents
+     * @param pollIntervalMs the time between two polls of the feed, in milliseconds
+     * @return the change feed, to start and close
+     */
+    public CouchbaseChangeFeed openChangeFeed(String scope, String collection, String keyPrefix, long pollIntervalMs) {
+        return new CouchbaseChangeFeed(bucket.scope(scope), collection, keyPrefix, pollIntervalMs);
+    }
+
+    /**
+     * Returns the entry point of the ACID transactions of the cluster.
+     *
+     * @return the transactions of the cluster
+     */
+    public Transactions transactions() {
+        return cluster.transactions();
     }
 
     /**
@@ -130,6 +315,160 @@ public class CouchbaseManager extends DatabaseManager {
         System.out.println("Warming up completed. Average latency: " + Arrays.stream(result).average().orElse(0.0) + " ms");
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Couchbase cannot evict the documents of a single collection, so the values of the documents of the whole
+     * bucket are ejected by temporarily lowering the quota of the bucket, until the memory used by the bucket is
+     * under the temporary quota or stops decreasing. The metadata of the documents and the indexes stay in memory.
+     * The original quota is restored before the measurement.
+     */
+    @Override
+    protected void evictCache(Query query, String scope) throws Exception {
+        long quota = apiController.getBucketQuotaMB(BUCKET);
+        System.out.println("Ejecting the documents of bucket " + BUCKET + " by lowering its quota from " + quota
+                + " MB to " + EJECTION_QUOTA_MB + " MB");
+        apiController.setBucketQuota(BUCKET, EJECTION_QUOTA_MB);
+        try {
+            long deadline = System.nanoTime() + EJECTION_TIMEOUT.toNanos();
+            long lowest = apiController.getBucketMemoryUsed(BUCKET);
+            int stablePolls = 0;
+            while (lowest > EJECTION_QUOTA_MB * 1024 * 1024 && stablePolls < EJECTION_STABLE_POLLS
+                    && System.nanoTime() < deadline) {
+                sleep(2000);
+                long used = apiController.getBucketMemoryUsed(BUCKET);
+                stablePolls = used < lowest ? 0 : stablePolls + 1;
+                lowest = Math.min(lowest, used);
+            }
+            System.out.println("Ejection completed. Memory used by the bucket: "
+                    + apiController.formatByteSize(lowest));
+        } finally {
+            apiController.setBucketQuota(BUCKET, quota);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The collections read by the query are taken from its profile, and all their documents are fetched with the
+     * primary index. Collections larger than the quota of the bucket are only partially resident. A write query
+     * is not profiled, since it would modify the dataset: the collection it modifies is taken from its restore
+     * specification instead.
+     */
+    @Override
+    protected void prewarmCache(Query query, String scope) throws Exception {
+        Set<String> collections = new LinkedHashSet<>();
+        if (!query.isWrite()) {
+            collectKeyspaces(profile(scope, query), collections);
+        } else if (query.getRestoreSpec() != null) {
+            collections.add(query.getRestoreSpec().collection());
+        } else {
+            System.out.println("The collections modified by a custom write query are unknown, nothing is loaded");
+        }
+        for (String collection : collections) {
+            QueryResult result = bucket.scope(scope).query(
+                    "SELECT RAW COUNT(OBJECT_LENGTH(d)) FROM `" + collection + "` AS d",
+                    QueryOptions.queryOptions().timeout(Duration.ofMinutes(180)));
+            System.out.println("Loaded " + result.rowsAs(Long.class).get(0) + " documents of collection "
+                    + collection + " in scope: " + scope);
+        }
+    }
+
+    /**
+     * Adds the collections of the keyspaces of a profile node and of its children.
+     *
+     * @param node        the profile node, or null
+     * @param collections the collections found so far
+     */
+    private static void collectKeyspaces(CouchbaseTimingsParser.ProfileNode node, Set<String> collections) {
+        if (node == null) {
+            return;
+        }
+        if (node.keyspace() != null) {
+            // The keyspace may be qualified with the namespace, the bucket and the scope, the collection is last
+            String[] keyspace = node.keyspace().strip().split("\\.");
+            collections.add(keyspace[keyspace.length - 1].replace("`", "").replaceAll("^.*:", ""));
+        }
+        node.children().forEach(child -> collectKeyspaces(child, collections));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The supported settings are the query options {@code max_parallelism}, {@code scan_cap},
+     * {@code pipeline_batch} and {@code pipeline_cap}, whose values are integers.
+     */
+    @Override
+    protected void checkSetting(String name, String value) {
+        if (!QUERY_SETTINGS.contains(name)) {
+            throw new IllegalArgumentException("Setting " + name + " is not supported by " + getType().getName());
+        }
+        try {
+            if (Integer.parseInt(value.strip()) < 0) {
+                throw new IllegalArgumentException("Setting " + name + " cannot be negative");
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value " + value + " for setting " + name + ", an integer is expected");
+        }
+    }
+
+    /**
+     * Adds the session-level settings to the options of a query.
+     *
+     * @param options the options of the query
+     * @return the options, with the settings
+     */
+    private QueryOptions withSessionSettings(QueryOptions options) {
+        getSessionSettings().forEach((name, value) -> {
+            int n = Integer.parseInt(value.strip());
+            switch (name) {
+                case "max_parallelism" -> options.maxParallelism(n);
+                case "scan_cap" -> options.scanCap(n);
+                case "pipeline_batch" -> options.pipelineBatch(n);
+                case "pipeline_cap" -> options.pipelineCap(n);
+                default -> throw new IllegalStateException("Unsupported setting " + name);
+            }
+        });
+        return options;
+    }
+
+    /**
+     * Executes a query once with the timings profile and returns its profile. The execution is not measured, so
+     * it should only be used for read queries, after the measured executions.
+     *
+     * @param scope the scope in which the query is executed
+     * @param query the query to profile
+     * @return the root node of the profile, or null if the query service did not return one
+     * @throws Exception if the profile cannot be parsed
+     */
+    public CouchbaseTimingsParser.ProfileNode profile(String scope, Query query) throws Exception {
+        QueryResult result = bucket.scope(scope).query(query.getQuery(),
+                withSessionSettings(QueryOptions.queryOptions()
+                        .timeout(Duration.ofMinutes(180))
+                        .profile(QueryProfile.TIMINGS)));
+        if (result.metaData().profile().isEmpty()) {
+            return null;
+        }
+        return parser.parseProfile(result.metaData().profile().get().toString());
+    }
+
+    /**
+     * Measures the memory used by one execution of a query. The query is executed once more through the query
+     * service with a memory quota, since the memory used is only reported for such queries and not by the SDK.
+     *
+     * @param scope the scope in which the query is executed
+     * @param query the N1QL query string to execute
+     * @return the memory used by the query in bytes, or null if it could not be measured
+     */
+    private Long usedMemory(String scope, String query) {
+        try {
+            return apiController.getUsedMemory(BUCKET, scope, query);
+        } catch (Exception e) {
+            System.err.println("Error while measuring the memory used by the query: " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Executes a query on the specified scope a certain number of times and returns the execution times in an array.
      *
@@ -140,12 +479,14 @@ public class CouchbaseManager extends DatabaseManager {
      */
     private double[] benchmarkQuery(Scope scope, int nbRuns, String query) {
         List<Double> executionTimes = new ArrayList<>();
+        int sampleInterval = planSampleInterval(nbRuns);
+        sampledProfiles = new ArrayList<>();
         for (int i = 0; i < nbRuns; i++) {
             QueryResult result = scope.query(query,
-                    QueryOptions.queryOptions()
+                    withSessionSettings(QueryOptions.queryOptions()
                             .metrics(true) // Enable metrics to get execution time
                             .timeout(Duration.ofMinutes(180)) // Set a long timeout for the query
-                            .profile(QueryProfile.TIMINGS) // Enable profiling to get detailed execution timings
+                            .profile(QueryProfile.TIMINGS)) // Enable profiling to get detailed execution timings
             );
 
             if (result.metaData().profile().isPresent()) {
@@ -158,10 +499,188 @@ public class CouchbaseManager extends DatabaseManager {
                 executionTimes.add((double) metrics.executionTime().toMillis())
             );
 
+            // Keep the profile of sampled executions, to detect plan changes during the run
+            if (i % sampleInterval == 0 && result.metaData().profile().isPresent()
+                    && result.metaData().metrics().isPresent()) {
+                QueryMetrics metrics = result.metaData().metrics().get();
+                sampledProfiles.add(new SampledProfile(i + 1, metrics.executionTime().toMillis(), timingsProfile,
+                        metrics));
+            }
         }
         return executionTimes.stream().mapToDouble(d -> d).toArray();
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> sampleKeys(String scope, String collection, int count) {
+        // A sampling scan returns random documents of the collection, only their keys are needed
+        try (var results = bucket.scope(scope).collection(collection)
+                .scan(ScanType.samplingScan(count, KEY_SAMPLE_SEED), ScanOptions.scanOptions().idsOnly(true))) {
+            return results.map(ScanResult::id).toList();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The recommendations are those of the {@code ADVISE} statement of the query service, which proposes
+     * secondary indexes for the predicates of the query and, when possible, covering indexes.
+     */
+    @Override
+    public List<IndexCandidate> adviseIndexes(String scope, Query query) {
+        List<IndexCandidate> candidates = new ArrayList<>();
+        try {
+            String statement = "ADVISE " + query.getQuery().strip().replaceAll(";$", "");
+            QueryResult result = bucket.scope(scope).query(statement,
+                    QueryOptions.queryOptions().timeout(Duration.ofMinutes(10)));
+            for (JsonObject row : result.rowsAsObject()) {
+                collectAdvisedIndexes(row, null, candidates);
+            }
+        } catch (Exception e) {
+            System.err.println("Error while advising indexes for " + query.getQueryType().getName() + ": " + e.getMessage());
+        }
+        return candidates;
+    }
+
+    /**
+     * Collects the index statements recommended in the output of an {@code ADVISE} statement. The output nests
+     * the recommendations of each query block, so it is walked recursively.
+     *
+     * @param value      the current value of the output
+     * @param kind       the kind of recommendation the value belongs to, {@code indexes} or
+     *                   {@code covering_indexes}, or null outside the recommendations
+     * @param candidates the list to which the candidates are added
+     */
+    private void collectAdvisedIndexes(Object value, String kind, List<IndexCandidate> candidates) {
+        if (value instanceof JsonArray array) {
+            for (Object element : array) {
+                collectAdvisedIndexes(element, kind, candidates);
+            }
+        } else if (value instanceof JsonObject object) {
+            if (kind != null && object.containsKey("index_statement")) {
+                Index index = parseIndexStatement(object.getString("index_statement"));
+                if (index != null) {
+                    candidates.add(new IndexCandidate(index, "ADVISE " + kind.replace('_', ' '), null));
+                }
+                return;
+            }
+            for (String name : object.getNames()) {
+                // Current indexes are also reported, only the recommended ones are candidates
+                if (name.equals("current_indexes")) {
+                    continue;
+                }
+                String childKind = name.equals("indexes") || name.equals("covering_indexes") ? name : kind;
+                collectAdvisedIndexes(object.get(name), childKind, candidates);
+            }
+        }
+    }
+
+    /**
+     * Parses a {@code CREATE INDEX} statement recommended by {@code ADVISE}. The keys of the index are kept as
+     * N1QL expressions, so that array keys can be created as they are.
+     *
+     * @param statement the recommended statement
+     * @return the index, or null if the statement cannot be parsed
+     */
+    private Index parseIndexStatement(String statement) {
+        Matcher matcher = Pattern.compile("(?is)CREATE\\s+INDEX\\s+`?([\\w-]+)`?\\s+ON\\s+([^(]+)\\(").matcher(statement);
+        if (!matcher.find()) {
+            return null;
+        }
+
+        // The keyspace may be qualified with the namespace, the bucket and the scope, the collection is last
+        String[] keyspace = matcher.group(2).strip().split("\\.");
+        String collection = keyspace[keyspace.length - 1].replace("`", "").replaceAll("^.*:", "");
+
+        // Split the keys on the commas that are not nested in parentheses
+        List<String> keys = new ArrayList<>();
+        int depth = 0;
+        int start = matcher.end();
+        int end = start;
+        for (; end < statement.length(); end++) {
+            char c = statement.charAt(end);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && depth-- == 0) {
+                break;
+            } else if (c == ',' && depth == 0) {
+                keys.add(statement.substring(start, end).strip());
+                start = end + 1;
+            }
+        }
+        if (end == statement.length()) {
+            return null;
+        }
+        keys.add(statement.substring(start, end).strip());
+
+        Index index = new Index();
+        index.setName(matcher.group(1));
+        index.setTable(collection);
+        index.setFields(keys);
+        Matcher where = Pattern.compile("(?is)^\\s*WHERE\\s+(.+?)\\s*$").matcher(statement.substring(end + 1));
+        if (where.find()) {
+            index.setWhere(where.group(1));
+        }
+        return index;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public CouchbaseSession openSession(String scope) {
+        return openSession(scope, UnaryOperator.identity());
+    }
+
+    /**
+     * Opens a session whose queries use the session-level settings of the benchmark and additional query
+     * options, for example a durability level.
+     *
+     * @param scope   the scope of the session
+     * @param options adds options to the query options of the session
+     * @return the session
+     */
+    public CouchbaseSession openSession(String scope, UnaryOperator<QueryOptions> options) {
+        return new CouchbaseSession(bucket.scope(scope)) {
+            @Override
+            protected QueryOptions queryOptions() {
+                return options.apply(withSessionSettings(super.queryOptions()));
+            }
+        };
+    }
+
+    /**
+     * Checks that the bucket can acknowledge writes with a durability level. A durable write is acknowledged once a
+     * majority of the copies of its document hold it, so the bucket needs enough data nodes to host a majority of
+     * its copies, the active one and the replicas. Otherwise, every durable write fails as impossible.
+     *
+     * @param level the durability level of the writes
+     * @throws IllegalArgumentException if the bucket cannot satisfy the durability level
+     */
+    public void checkDurability(DurabilityLevel level) {
+        if (level == DurabilityLevel.NONE) {
+            return;
+        }
+        int replicas;
+        int nodes;
+        try {
+            replicas = apiController.getBucketReplicaNumber(BUCKET);
+            nodes = apiController.getBucketNodeCount(BUCKET);
+        } catch (Exception e) {
+            System.err.println("Error while retrieving the replicas of bucket " + BUCKET + ", durability level "
+                    + level.getName() + " is not checked: " + e.getMessage());
+            return;
+        }
+        int majority = (replicas + 1) / 2 + 1;
+        if (nodes < majority) {
+            throw new IllegalArgumentException("Durability level " + level.getName() + " is impossible on bucket "
+                    + BUCKET + ", which has " + replicas + " replica(s) on " + nodes + " data node(s): a majority of "
+                    + majority + " copies needs " + majority + " data nodes");
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -174,18 +693,118 @@ public class CouchbaseManager extends DatabaseManager {
             return;
         }
 
-        try {
-            for (Index index : indexes) {
-                // Using the Couchbase SDK to create indexes
-                bucket.scope(scope).collection(index.getTable()).queryIndexes().createIndex(index.getName(), index.getFields());
+        // The indexes are created deferred, then built together: the indexer scans each collection once for
+        // all its indexes instead of once per index
+        Map<String, List<String>> pending = new LinkedHashMap<>();
+        for (Index index : indexes) {
+            try {
+                bucket.scope(scope).query(getIndexCreationString(index),
+                        QueryOptions.queryOptions().timeout(Duration.ofMinutes(10)));
+                pending.computeIfAbsent(index.getTable(), t -> new ArrayList<>()).add(index.getName());
+            } catch (Exception e) {
+                System.err.println("Error while creating index " + index.getName() + ": " + e.getMessage());
             }
-        } catch (Exception e) {
-            System.err.println("Error while creating indexes: " + e.getMessage());
         }
 
+        long buildStart = System.nanoTime();
+        for (String collection : pending.keySet()) {
+            try {
+                bucket.scope(scope).collection(collection).queryIndexes().buildDeferredIndexes();
+            } catch (Exception e) {
+                System.err.println("Error while building the indexes of " + collection + ": " + e.getMessage());
+            }
+        }
+        waitForIndexesOnline(scope, pending, buildStart);
+
         System.out.println(indexes.size() + " indexes created successfully in scope: " + scope);
     }
 
+    /**
+     * Returns the N1QL statement to create an index deferred, so that it is built by a later {@code BUILD INDEX}.
+     * The array key of an array index is the leading key, followed by the fields, then by the covered fields:
+     * Couchbase has no {@code INCLUDE} clause, a covering index simply has the covered fields as trailing keys.
+     *
+     * @param index the index to create
+     * @return the N1QL statement to create the index
+     * @throws IllegalArgumentException if the index has options that only PostgreSQL supports
+     */
+    public String getIndexCreationString(Index index) {
+        if (index.getOpclass() != null) {
+            throw new IllegalArgumentException("Operator classes are only supported by PostgreSQL, they cannot be "
+                    + "used by index " + index.getName());
+        }
+
+        List<String> keys = new ArrayList<>();
+        if (index.getArrayKey() != null) {
+            keys.add(index.getArrayKey().toString());
+        }
+        if (index.getFields() != null) {
+            keys.addAll(index.getFields());
+        }
+        if (index.getInclude() != null) {
+            keys.addAll(index.getInclude());
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("Index " + index.getName() + " has no key");
+        }
+
+        StringBuilder statement = new StringBuilder(String.format("CREATE INDEX `%s` ON `%s`(%s)",
+                index.getName(), index.getTable(), String.join(", ", keys)));
+        if (index.getPartitionBy() != null && !index.getPartitionBy().isEmpty()) {
+            statement.append(" PARTITION BY HASH(").append(String.join(", ", index.getPartitionBy())).append(")");
+        }
+        if (index.getWhere() != null) {
+            statement.append(" WHERE ").append(index.getWhere());
+        }
+
+        JsonObject with = JsonObject.create().put("defer_build", true);
+        if (index.getNumPartitions() != null) {
+            with.put("num_partition", index.getNumPartitions());
+        }
+        if (index.getNumReplicas() != null) {
+            with.put("num_replica", index.getNumReplicas());
+        }
+        return statement.append(" WITH ").append(with).toString();
+    }
+
+    /**
+     * Waits until the built indexes are online, and records the build time of each of them. The wait is bounded,
+     * the indexes that are still offline after the timeout are reported and the benchmark goes on.
+     *
+     * @param scope      the scope of the indexes
+     * @param pending    the names of the built indexes by collection. The map is emptied as indexes become online
+     * @param buildStart the time at which the build started, from {@link System#nanoTime()}
+     */
+    private void waitForIndexesOnline(String scope, Map<String, List<String>> pending, long buildStart) {
+        long deadline = buildStart + INDEX_BUILD_TIMEOUT.toNanos();
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            for (Iterator<Map.Entry<String, List<String>>> it = pending.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<String, List<String>> entry = it.next();
+                try {
+                    for (QueryIndex index : bucket.scope(scope).collection(entry.getKey()).queryIndexes().getAllIndexes()) {
+                        if ("online".equals(index.state()) && entry.getValue().remove(index.name())) {
+                            recordBuildTime(scope, index.name(), (System.nanoTime() - buildStart) / 1_000_000.0);
+                        }
+                    }
+                } catch (Exception e) {
+                    System.err.println("Error while checking the state of the indexes: " + e.getMessage());
+                }
+                if (entry.getValue().isEmpty()) {
+                    it.remove();
+                }
+            }
+            try {
+                sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (!pending.isEmpty()) {
+            System.err.println("Indexes still offline after " + INDEX_BUILD_TIMEOUT.toMinutes() + " minutes: " + pending);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -203,6 +822,7 @@ public class CouchbaseManager extends DatabaseManager {
             try {
                 // Using the Couchbase SDK to drop indexes
                 bucket.scope(scope).collection(index.getTable()).queryIndexes().dropIndex(index.getName());
+                forgetBuildTime(scope, index.getName());
             } catch (Exception e) {
                 System.err.println("Error while dropping index " + index.getName() + ": " + e.getMessage());
             }
@@ -268,6 +888,8 @@ public class CouchbaseManager extends DatabaseManager {
                                 apiController.formatByteSize(indexSize),
                                 indexSizeRatio
                         );
+                        indexInfo.setIndexBytes(indexSize);
+                        addBuildMetrics(scope, indexInfo, tableSize);
                         indexInfoList.add(indexInfo);
                     }
                 }
@@ -294,6 +916,45 @@ public class CouchbaseManager extends DatabaseManager {
         return Double.parseDouble(df.format((double) indexSize / (double) tableSize * 100).replace(',', '.'));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The residency is the resident percentage of the GSI indexes of the collections read by the query, reported
+     * by the index service, and the resident ratio of the documents of the bucket, reported by the data service.
+     * If the collections cannot be found in the statement, all the indexes of the scope are reported.
+     */
+    @Override
+    public ResidencySnapshot getResidency(Query query, String scope) {
+        try {
+            Set<String> collections = new LinkedHashSet<>();
+            Matcher matcher = KEYSPACE_PATTERN.matcher(query.getQuery());
+            while (matcher.find()) {
+                collections.add(matcher.group(1));
+            }
+
+            List<RelationResidency> relations = new ArrayList<>();
+            for (CouchbaseIndexStats stats : apiController.getIndexStats(BUCKET)) {
+                if (stats.scopeName().equals(scope)
+                        && (collections.isEmpty() || collections.contains(stats.collectionName()))) {
+                    relations.add(new RelationResidency(stats.collectionName() + "." + stats.indexName(),
+                            "GSI index", null, stats.memoryUsed(), stats.residentPercent()));
+                }
+            }
+            relations.sort(Comparator.comparing(RelationResidency::getName));
+
+            // The resident ratio of the bucket is sampled every second, the last sample is the current one
+            CouchbaseCacheStats cacheStats = apiController.getCacheStats(BUCKET);
+            Double bucketResidentRatio = cacheStats != null && cacheStats.residentItemsRate().length > 0
+                    ? cacheStats.residentItemsRate()[cacheStats.residentItemsRate().length - 1]
+                    : null;
+            return new ResidencySnapshot(relations, bucketResidentRatio);
+        } catch (Exception e) {
+            System.err.println("Error while measuring the residency of query " + query.getQueryType().getName()
+                    + ": " + e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
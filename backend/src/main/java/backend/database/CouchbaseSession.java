@@ -0,0 +1,140 @@
+package backend.database;
+
+import backend.model.query.Query;
+import com.couchbase.client.java.Collection;
+import com.couchbase.client.java.Scope;
+import com.couchbase.client.java.json.JsonArray;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.ScanOptions;
+import com.couchbase.client.java.kv.ScanResult;
+import com.couchbase.client.java.kv.ScanType;
+import com.couchbase.client.java.query.QueryOptions;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * The {@code CouchbaseSession} class is the Couchbase implementation of {@link BenchmarkSession}.
+ * The Couchbase SDK is thread-safe and does not hold any connection per caller, so a session only keeps
+ * a reference to the scope in which the queries are executed.
+ *
+ * @author Eva Ray
+ */
+public class CouchbaseSession implements BenchmarkSession {
+
+    private final Scope scope;
+
+    /**
+     * Constructs a new {@code CouchbaseSession} for the specified scope.
+     *
+     * @param scope the Couchbase scope in which the queries are executed
+     */
+    public CouchbaseSession(Scope scope) {
+        this.scope = scope;
+    }
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    /**
+     * Returns the options used for every query executed through this session.
+     *
+     * @return the query options
+     */
+    protected QueryOptions queryOptions() {
+        return QueryOptions.queryOptions().timeout(Duration.ofMinutes(180));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(Query query) {
+        // The blocking API buffers all the rows, so reading them is enough to consume the whole result
+        scope.query(query.getQuery(), queryOptions()).rowsAsObject();
+    }
+
+    /**
+     * Retrieves documents by key with the KV service. When several keys are given, the documents are retrieved
+     * concurrently with the asynchronous API, and the method returns once all of them are received.
+     *
+     * @param collection the collection of the documents
+     * @param keys       the keys of the documents
+     */
+    public void get(String collection, List<String> keys) {
+        Collection kvCollection = scope.collection(collection);
+        if (keys.size() == 1) {
+            kvCollection.get(keys.get(0));
+            return;
+        }
+        CompletableFuture.allOf(keys.stream()
+                .map(key -> kvCollection.async().get(key))
+                .toArray(CompletableFuture[]::new)).join();
+    }
+
+    /**
+     * Retrieves documents by key with a N1QL {@code USE KEYS} query. The query is prepared once by the query
+     * service and reused, as an application would do on its hot path.
+     *
+     * @param collection the collection of the documents
+     * @param keys       the keys of the documents
+     */
+    public void getWithQuery(String collection, List<String> keys) {
+        scope.query("SELECT RAW c FROM `" + collection + "` c USE KEYS $keys",
+                queryOptions()
+                        .adhoc(false)
+                        .parameters(JsonObject.create().put("keys", JsonArray.from(keys)))
+        ).rowsAsObject();
+    }
+
+    /**
+     * Executes a KV range or sampling scan and consumes all the returned documents.
+     *
+     * @param collection     the collection to scan
+     * @param scanType       the range or sampling scan
+     * @param batchItemLimit the maximum number of documents streamed by the server in one batch
+     * @param batchByteLimit the maximum number of bytes streamed by the server in one batch
+     * @return the number and size of the returned documents
+     */
+    public ScanVolume scan(String collection, ScanType scanType, int batchItemLimit, int batchByteLimit) {
+        long documents = 0;
+        long bytes = 0;
+        try (Stream<ScanResult> results = scope.collection(collection).scan(scanType, ScanOptions.scanOptions()
+                .batchItemLimit(batchItemLimit)
+                .batchByteLimit(batchByteLimit))) {
+            for (ScanResult result : (Iterable<ScanResult>) results::iterator) {
+                documents++;
+                bytes += result.contentAsBytes().length;
+            }
+        }
+        return new ScanVolume(documents, bytes);
+    }
+
+    /**
+     * Executes a N1QL query and consumes all the returned rows.
+     *
+     * @param statement  the N1QL statement
+     * @param parameters the named parameters of the statement
+     * @return the number and size of the returned rows
+     */
+    public ScanVolume scanWithQuery(String statement, JsonObject parameters) {
+        long documents = 0;
+        long bytes = 0;
+        for (JsonObject row : scope.query(statement, queryOptions().parameters(parameters)).rowsAsObject()) {
+            documents++;
+            bytes += row.toBytes().length;
+        }
+        return new ScanVolume(documents, bytes);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        // Nothing to release, the cluster connection is shared and closed by CouchbaseManager
+    }
+}
@@ -0,0 +1,132 @@
+package backend.database;
+
+import backend.model.query.Query;
+import backend.model.query.RestoreSpec;
+import com.couchbase.client.core.error.DocumentNotFoundException;
+import com.couchbase.client.java.Scope;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.query.QueryOptions;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * The {@code CouchbaseSnapshot} class is the Couchbase implementation of {@link DatasetSnapshot}.
+ * N1QL write statements cannot be rolled back once committed, so the documents that the write queries modify
+ * are saved before the benchmark. When the snapshot is closed, the saved documents are written back and the
+ * documents inserted by the benchmark are deleted. Documents can also be saved by key, for the benchmarks that
+ * commit modifications of existing documents.
+ *
+ * @author Eva Ray
+ */
+public class CouchbaseSnapshot implements DatasetSnapshot {
+
+    private final Scope scope;
+    // Saved documents by collection and key
+    private final Map<String, Map<String, JsonObject>> documents = new HashMap<>();
+    // Key prefixes of the inserted documents by collection
+    private final Map<String, Set<String>> insertedKeyPrefixes = new HashMap<>();
+
+    /**
+     * Saves the documents modified by the write queries.
+     *
+     * @param scope   the scope in which the queries are executed
+     * @param queries the queries of the benchmark. Read queries and queries without restore specification are ignored
+     */
+    public CouchbaseSnapshot(Scope scope, Collection<Query> queries) {
+        this.scope = scope;
+
+        for (Query query : queries) {
+            RestoreSpec spec = query.getRestoreSpec();
+            if (!query.isWrite()) {
+                continue;
+            }
+            if (spec == null) {
+                System.err.println("Couchbase write query " + query.getQueryType().getName()
+                        + " has no restore specification, its modifications will not be restored");
+                continue;
+            }
+            if (spec.affectedKeysQuery() != null) {
+                saveDocuments(spec);
+            }
+            if (spec.insertedKeyPrefix() != null) {
+                insertedKeyPrefixes.computeIfAbsent(spec.collection(), c -> new HashSet<>()).add(spec.insertedKeyPrefix());
+            }
+        }
+    }
+
+    /**
+     * Saves documents by key.
+     *
+     * @param scope      the scope of the collection
+     * @param collection the collection of the documents
+     * @param keys       the keys of the documents to save
+     */
+    public CouchbaseSnapshot(Scope scope, String collection, Collection<String> keys) {
+        this.scope = scope;
+        saveDocuments(collection, keys);
+    }
+
+    /**
+     * Saves the current content of the documents returned by the affected keys query of a specification.
+     *
+     * @param spec the restore specification
+     */
+    private void saveDocuments(RestoreSpec spec) {
+        saveDocuments(spec.collection(), scope.query(spec.affectedKeysQuery(),
+                QueryOptions.queryOptions().timeout(Duration.ofMinutes(10))).rowsAs(String.class));
+    }
+
+    /**
+     * Saves the current content of documents.
+     *
+     * @param collection the collection of the documents
+     * @param keys       the keys of the documents
+     */
+    private void saveDocuments(String collection, Collection<String> keys) {
+        Map<String, JsonObject> saved = documents.computeIfAbsent(collection, c -> new HashMap<>());
+
+        for (String key : keys) {
+            if (saved.containsKey(key)) {
+                continue;
+            }
+            try {
+                saved.put(key, scope.collection(collection).get(key).contentAsObject());
+            } catch (DocumentNotFoundException e) {
+                // The document was removed between the two calls, nothing to restore
+            }
+        }
+        System.out.println(saved.size() + " documents saved in collection " + collection);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        // Delete the inserted documents first, so that a saved document whose key has the prefix is restored
+        for (Map.Entry<String, Set<String>> entry : insertedKeyPrefixes.entrySet()) {
+            for (String prefix : entry.getValue()) {
+                try {
+                    scope.query("DELETE FROM `" + entry.getKey() + "` WHERE POSITION(META().id, $prefix) = 0",
+                            QueryOptions.queryOptions()
+                                    .timeout(Duration.ofMinutes(10))
+                                    .parameters(JsonObject.create().put("prefix", prefix)));
+                } catch (Exception e) {
+                    System.err.println("Error while deleting inserted documents from " + entry.getKey() + ": " + e.getMessage());
+                }
+            }
+        }
+
+        for (Map.Entry<String, Map<String, JsonObject>> entry : documents.entrySet()) {
+            for (Map.Entry<String, JsonObject> document : entry.getValue().entrySet()) {
+                try {
+                    scope.collection(entry.getKey()).upsert(document.getKey(), document.getValue());
+                } catch (Exception e) {
+                    System.err.println("Error while restoring document " + document.getKey() + ": " + e.getMessage());
+                }
+            }
+            System.out.println(entry.getValue().size() + " documents restored in collection " + entry.getKey());
+        }
+    }
+}
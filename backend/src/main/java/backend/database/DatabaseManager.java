@@ -1,14 +1,28 @@
 package backend.database;
 
 import backend.model.metadata.CacheInfo;
+import backend.model.metadata.IndexCandidate;
 import backend.model.metadata.IndexInfo;
+import backend.model.metadata.ResidencySnapshot;
+import backend.model.result.PlanStability;
 import backend.model.result.Result;
+import backend.model.options.CacheMode;
 import backend.model.options.DBType;
 import backend.model.query.Query;
+import backend.model.query.RestoreSpec;
 import backend.model.request.Index;
+import backend.service.index.IndexStateManager;
+import backend.service.plan.PlanStabilityTracker;
+import backend.ssh.SSHTunnel;
 
 import java.text.DecimalFormat;
+import java.time.Duration;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 /**
  * The {@code DatabaseManager} class is an abstract class that defines the contract for database management operations.
@@ -21,8 +35,20 @@ import java.util.List;
  */
 public abstract class DatabaseManager {
 
-    protected static final int WARMUP_EXECUTIONS = 2;
+    public static final int WARMUP_EXECUTIONS = 2;
+    // Maximum number of executions of a run whose plan is kept to detect plan changes
+    protected static final int MAX_PLAN_SAMPLES = 50;
+    // Maximum time to wait for the indexes of a benchmark to be built
+    protected static final Duration INDEX_BUILD_TIMEOUT = Duration.ofHours(2);
     protected final DecimalFormat df = new DecimalFormat("0.00");
+    // Writes the dirty pages to disk, then drops the page cache, the dentries and the inodes of the host
+    private static final String DROP_OS_CACHE_COMMAND =
+            "sync && echo 3 | sudo -n tee /proc/sys/vm/drop_caches > /dev/null";
+
+    // Build time in milliseconds of the indexes created by the benchmarks, by scope and index name
+    private final Map<String, Double> indexBuildTimes = new ConcurrentHashMap<>();
+    // Session-level settings applied to the executions of the next runs, empty for the server configuration
+    private Map<String, String> sessionSettings = Map.of();
 
     /**
      * Runs a query against the database.
@@ -67,7 +93,18 @@ public abstract class DatabaseManager {
     public abstract CacheInfo getCacheInfo(int nbExecutions);
 
     /**
-     * Creates indexes in the database for a given scope.
+     * Retrieves the residency in cache of the relations and indexes read by a query. It is measured before and
+     * after the measured executions of a run, to know whether the run read its data from the cache or from disk.
+     *
+     * @param query the query
+     * @param scope the scope in which the query is executed
+     * @return the residency of the relations and indexes, or null if it cannot be measured
+     */
+    public abstract ResidencySnapshot getResidency(Query query, String scope);
+
+    /**
+     * Creates indexes in the database for a given scope, and waits until they can be used by queries. The build
+     * time of each index is recorded and reported by {@link #getIndexesInfo(String)}.
      *
      * @param scope the scope in which to create the indexes
      * @param indexes the list of indexes to be created
@@ -90,6 +127,249 @@ public abstract class DatabaseManager {
      */
     public abstract void warmup(Query query, String scope);
 
+    /**
+     * Brings the caches of the database to a given state before a query is measured. A cold cache is obtained by
+     * evicting the data read by the query, and optionally by dropping the page cache of the operating system of
+     * the host of the databases, a warm cache by the usual warmup of the query, and a hot cache by loading the
+     * whole relations or collections read by the query.
+     *
+     * @param query       the query to be measured
+     * @param scope       the scope in which the query is executed
+     * @param mode        the cache state
+     * @param dropOsCache true to also drop the page cache of the operating system for a cold cache
+     * @throws Exception if the cache cannot be brought to the requested state
+     */
+    public void prepareCache(Query query, String scope, CacheMode mode, boolean dropOsCache) throws Exception {
+        switch (mode) {
+            case COLD -> {
+                evictCache(query, scope);
+                if (dropOsCache) {
+                    dropOsPageCache();
+                }
+            }
+            case WARM -> warmup(query, scope);
+            case HOT -> prewarmCache(query, scope);
+        }
+    }
+
+    /**
+     * Evicts the data read by a query from the cache of the database.
+     *
+     * @param query the query
+     * @param scope the scope in which the query is executed
+     * @throws Exception if the data cannot be evicted
+     */
+    protected abstract void evictCache(Query query, String scope) throws Exception;
+
+    /**
+     * Loads the whole relations or collections read by a query into the cache of the database.
+     *
+     * @param query the query
+     * @param scope the scope in which the query is executed
+     * @throws Exception if the data cannot be loaded
+     */
+    protected abstract void prewarmCache(Query query, String scope) throws Exception;
+
+    /**
+     * Drops the page cache of the operating system of the host of the databases, through the SSH tunnel. The
+     * user of the tunnel must be allowed to run {@code sudo} without a password. The page cache is shared by all
+     * the databases of the host.
+     *
+     * @throws Exception if the page cache cannot be dropped
+     */
+    protected void dropOsPageCache() throws Exception {
+        System.out.println("Dropping the page cache of the database host");
+        SSHTunnel.getInstance().exec(DROP_OS_CACHE_COMMAND);
+    }
+
+    /**
+     * Opens a session dedicated to a single benchmark worker. The session must be closed by the caller.
+     *
+     * @param scope the scope in which the queries of the session are executed
+     * @return a new session
+     * @throws Exception if the session cannot be opened
+     */
+    public abstract BenchmarkSession openSession(String scope) throws Exception;
+
+    /**
+     * Samples keys of the documents or rows of a collection. The sample is deterministic, so that successive
+     * benchmarks access the same keys.
+     *
+     * @param scope      the scope of the collection
+     * @param collection the collection or table to sample
+     * @param count      the number of keys to sample
+     * @return the sampled keys
+     */
+    public abstract List<String> sampleKeys(String scope, String collection, int count);
+
+    /**
+     * Returns the indexes that the database recommends for a query. The recommendations are not built, they are
+     * candidates to measure.
+     *
+     * @param scope the scope of the query
+     * @param query the query to advise
+     * @return the recommended index candidates, possibly empty
+     */
+    public abstract List<IndexCandidate> adviseIndexes(String scope, Query query);
+
+    /**
+     * Inserts the documents or rows removed by a write query before it is executed, so that each execution
+     * removes its own document instead of finding nothing left to remove. The inserted documents are keyed with
+     * the inserted key prefix of the query, so that the snapshot of the query removes those that are left.
+     *
+     * @param query the write query
+     * @param scope the scope in which the query is executed
+     * @param count the number of executions of the query
+     * @throws Exception if the documents cannot be inserted
+     */
+    public void seed(Query query, String scope, int count) throws Exception {
+        RestoreSpec spec = query.getRestoreSpec();
+        if (spec == null || spec.seedQuery() == null || count <= 0) {
+            return;
+        }
+        insertSeed(spec, scope, count);
+        System.out.println(count + " documents inserted in " + spec.collection() + " for query "
+                + query.getQueryType().getName() + " in scope: " + scope);
+    }
+
+    /**
+     * Executes the seed query of a write query.
+     *
+     * @param spec  the restore specification of the query, with its seed query
+     * @param scope the scope in which the documents are inserted
+     * @param count the number of documents to insert
+     * @throws Exception if the documents cannot be inserted
+     */
+    protected abstract void insertSeed(RestoreSpec spec, String scope, int count) throws Exception;
+
+    /**
+     * Saves the data modified by the write queries of a benchmark. Closing the returned snapshot restores the
+     * dataset. The default implementation does nothing, which is correct for the databases that execute write
+     * queries in a transaction that is rolled back.
+     *
+     * @param scope   the scope in which the queries are executed
+     * @param queries the queries of the benchmark
+     * @return the snapshot to close once the benchmark is done
+     */
+    public DatasetSnapshot snapshot(String scope, Collection<Query> queries) {
+        return () -> {};
+    }
+
+    /**
+     * Saves documents or rows by key, for the benchmarks that commit modifications of existing data. Closing the
+     * returned snapshot writes the saved content back.
+     *
+     * @param scope      the scope of the collection
+     * @param collection the collection or table of the documents
+     * @param keys       the keys of the documents to save
+     * @return the snapshot to close once the benchmark is done
+     */
+    public abstract DatasetSnapshot snapshot(String scope, String collection, Collection<String> keys);
+
+    /**
+     * Sets the session-level settings applied to the executions of the next runs, such as PostgreSQL planner
+     * settings or Couchbase query options. The settings are not persisted on the server, so an empty map brings
+     * the runs back to the configuration of the server.
+     *
+     * @param settings the settings by name, or null for the configuration of the server
+     * @throws IllegalArgumentException if a setting is not supported by the database or has an invalid value
+     */
+    public void setSessionSettings(Map<String, String> settings) {
+        Map<String, String> checked = settings != null ? new TreeMap<>(settings) : Map.of();
+        checked.forEach(this::checkSetting);
+        this.sessionSettings = checked;
+    }
+
+    /**
+     * Returns the session-level settings applied to the executions of the runs.
+     *
+     * @return the settings by name, empty for the configuration of the server
+     */
+    public Map<String, String> getSessionSettings() {
+        return sessionSettings;
+    }
+
+    /**
+     * Checks that a session-level setting is supported by the database and that its value is valid.
+     *
+     * @param name  the name of the setting
+     * @param value the value of the setting
+     * @throws IllegalArgumentException if the setting is not supported or its value is invalid
+     */
+    protected abstract void checkSetting(String name, String value);
+
+    /**
+     * Records the build time of an index created by a benchmark.
+     *
+     * @param scope     the scope of the index
+     * @param indexName the name of the index
+     * @param buildTime the build time in milliseconds
+     */
+    protected void recordBuildTime(String scope, String indexName, double buildTime) {
+        indexBuildTimes.put(scope + "." + indexName, buildTime);
+        System.out.println("Index " + indexName + " built in " + String.format("%.2f", buildTime) + " ms");
+    }
+
+    /**
+     * Forgets the build time of a dropped index.
+     *
+     * @param scope     the scope of the index
+     * @param indexName the name of the index
+     */
+    protected void forgetBuildTime(String scope, String indexName) {
+        indexBuildTimes.remove(scope + "." + indexName);
+    }
+
+    /**
+     * Adds the build metrics to the information of an index, if the index was created by a benchmark.
+     *
+     * @param scope      the scope of the index
+     * @param indexInfo  the information of the index
+     * @param tableBytes the size of the indexed table in bytes
+     */
+    protected void addBuildMetrics(String scope, IndexInfo indexInfo, long tableBytes) {
+        Double buildTime = indexBuildTimes.get(scope + "." + indexInfo.getIndexName());
+        if (buildTime != null) {
+            indexInfo.setBuildMetrics(buildTime, tableBytes);
+        }
+    }
+
+    /**
+     * Returns the number of executions between two executions whose plan is sampled, so that a run keeps at most
+     * {@link #MAX_PLAN_SAMPLES} plans. The first execution is always sampled.
+     *
+     * @param nbExecutions the number of executions of the run
+     * @return the sample interval
+     */
+    protected int planSampleInterval(int nbExecutions) {
+        return Math.max((nbExecutions + MAX_PLAN_SAMPLES - 1) / MAX_PLAN_SAMPLES, 1);
+    }
+
+    /**
+     * Analyses the plans of the sampled executions of a run and compares them with the previous run of the same
+     * query, on the same scope, with the same indexes and the same session settings.
+     *
+     * @param query          the executed query
+     * @param scope          the scope of the run
+     * @param indexes        the indexes of the run
+     * @param samples        the sampled executions, in execution order
+     * @param sampleInterval the number of executions between two samples
+     * @return the plan stability of the run, or null if no execution was sampled
+     */
+    protected PlanStability analysePlans(Query query, String scope, List<Index> indexes,
+                                         List<PlanStabilityTracker.Sample> samples, int sampleInterval) {
+        String indexSignatures = indexes == null ? "" : indexes.stream()
+                .map(IndexStateManager::signature)
+                .sorted()
+                .collect(Collectors.joining(","));
+        String key = String.join("|", getType().name(), scope, query.getQuery(), indexSignatures);
+        if (!sessionSettings.isEmpty()) {
+            // Settings such as planner toggles change the plans, each combination has its own history
+            key += "|" + sessionSettings;
+        }
+        return PlanStabilityTracker.analyse(key, samples, sampleInterval);
+    }
+
     /**
      * Calculates the Transactions Per Second (TPS) based on the average latency. Here a transaction is defined as a
      * single query execution.
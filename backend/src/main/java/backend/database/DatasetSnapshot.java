@@ -0,0 +1,17 @@
+package backend.database;
+
+/**
+ * The {@code DatasetSnapshot} interface represents the state of the data modified by write queries, saved before
+ * a benchmark. Closing the snapshot restores the dataset, so that write benchmarks can be used with
+ * try-with-resources and never leave the database modified.
+ *
+ * @author Eva Ray
+ */
+public interface DatasetSnapshot extends AutoCloseable {
+
+    /**
+     * Restores the dataset to the state it had when the snapshot was taken.
+     */
+    @Override
+    void close();
+}
@@ -3,8 +3,13 @@ package backend.database;
 import backend.model.options.DBType;
 import backend.model.options.IndexType;
 import backend.model.request.Index;
+import backend.parser.PostgresExplainJsonParser.PlanNode;
 
+import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * The {@code JSONBManager} class is responsible for managing PostgreSQL databases with JSONB support.
@@ -19,6 +24,9 @@ public class JSONBManager extends PGManager{
 
     // Singleton instance
     private static JSONBManager instance;
+    // Paths of the document fields in the conditions of a plan, e.g. (b.data -> 'attributes' ->> 'garage'::text)
+    private static final Pattern FIELD_PATH = Pattern.compile("(?:\\b(\\w+)\\.)?\\bdata((?:\\s*->>?\\s*'[^']*'(?:::text)?)+)");
+    private static final Pattern PATH_LEVEL = Pattern.compile("(->>?)\\s*'([^']*)'");
 
     /**
      * Private constructor to prevent instantiation from outside the class.
@@ -45,13 +53,97 @@ public class JSONBManager extends PGManager{
     public String getIndexCreationString(Index index) {
         List<String> fieldsList = index.getFields();
 
-        String jsonbExpressions = fieldsList.stream()
-                .map(field -> "(data " + (index.getType().equals(IndexType.GIN) ? "->" : "->>") +" '" + field + "')")
-                .collect(java.util.stream.Collectors.joining(", "));
+        // Without fields, the whole document is indexed, e.g. by a GIN index for containment queries
+        List<String> jsonbExpressions = fieldsList == null || fieldsList.isEmpty()
+                ? List.of("data")
+                : fieldsList.stream().map(field -> getFieldExpression(field, index.getType())).toList();
 
-        return String.format(
-                "CREATE INDEX IF NOT EXISTS \"%s\" ON \"%s\" USING %s (%s)",
-                index.getName(), index.getTable(), index.getType(), jsonbExpressions);
+        return getIndexCreationString(index, "\"" + index.getTable() + "\"", "\"" + index.getName() + "\"",
+                jsonbExpressions);
+    }
+
+    /**
+     * Returns the expression of a field of the documents. A field is a path whose levels are separated by dots,
+     * e.g. {@code attributes.BusinessParking.garage}. GIN indexes the field as a JSONB value, the other index
+     * types index its text. A field in parentheses is an expression, used as it is.
+     *
+     * @param field the path of the field, or an expression in parentheses
+     * @param type  the type of the index
+     * @return the indexed expression
+     */
+    private String getFieldExpression(String field, IndexType type) {
+        if (field.startsWith("(")) {
+            return field;
+        }
+        String[] levels = field.split("\\.");
+        StringBuilder expression = new StringBuilder("(data");
+        for (int i = 0; i < levels.length; i++) {
+            boolean last = i == levels.length - 1;
+            expression.append(last && !type.equals(IndexType.GIN) ? " ->> '" : " -> '").append(levels[i]).append("'");
+        }
+        return expression.append(")").toString();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each field of the documents compared as text in the filter of the scan or in a join condition on its table
+     * is the key of a B-tree index, and each field used in a containment test ({@code @>}) is the key of a GIN
+     * index with the {@code jsonb_path_ops} operator class.
+     */
+    @Override
+    protected List<Index> getCandidateIndexes(Connection conn, PlanNode scan, List<String> joinConditions) {
+        List<Index> candidates = new ArrayList<>();
+        if (scan.filter() != null) {
+            // The filter of a scan only involves its table
+            addCandidateIndexes(scan, scan.filter(), false, candidates);
+        }
+        for (String condition : joinConditions) {
+            addCandidateIndexes(scan, condition, true, candidates);
+        }
+        return candidates;
+    }
+
+    /**
+     * Adds the candidate indexes for the document fields of a condition.
+     *
+     * @param scan       the sequential scan of the table
+     * @param condition  the condition
+     * @param qualified  whether the fields must be qualified with the alias of the scan, as in a join condition
+     * @param candidates the list to which the candidates are added
+     */
+    private void addCandidateIndexes(PlanNode scan, String condition, boolean qualified, List<Index> candidates) {
+        Matcher matcher = FIELD_PATH.matcher(condition);
+        while (matcher.find()) {
+            if (qualified && (scan.alias() == null || !scan.alias().equals(matcher.group(1)))) {
+                continue;
+            }
+            List<String> levels = new ArrayList<>();
+            String lastOperator = null;
+            Matcher level = PATH_LEVEL.matcher(matcher.group(2));
+            while (level.find()) {
+                lastOperator = level.group(1);
+                levels.add(level.group(2));
+            }
+            String field = String.join(".", levels);
+            String rest = condition.substring(matcher.end()).replaceFirst("^[\\s)]*", "");
+            if ("->>".equals(lastOperator)) {
+                candidates.add(candidateIndex(scan.relationName(), List.of(field), IndexType.BTREE));
+            } else if (rest.startsWith("@>")) {
+                Index index = candidateIndex(scan.relationName(), List.of(field), IndexType.GIN);
+                index.setOpclass("jsonb_path_ops");
+                candidates.add(index);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getKeyColumn(String table) {
+        // Every JSONB table stores the key of the document in the id column
+        return "id";
     }
 
     /**
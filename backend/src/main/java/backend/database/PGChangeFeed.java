@@ -0,0 +1,247 @@
+package backend.database;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGProperty;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.postgresql.replication.PGReplicationStream;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The {@code PGChangeFeed} class is the PostgreSQL implementation of {@link ChangeFeed}.
+ * It consumes a temporary logical replication slot with the {@code pgoutput} plugin, restricted to a publication
+ * of the observed table. The server decodes a transaction once it is committed, so an insertion is reported when
+ * the decoded transaction is received by the client.
+ * <p>
+ * Logical decoding requires the server to run with {@code wal_level = logical}.
+ *
+ * @author Eva Ray
+ */
+public class PGChangeFeed implements ChangeFeed {
+
+    private static final String PUBLICATION = "benchmark_changes";
+    private static final String SLOT = "benchmark_changes";
+
+    private final PGSimpleDataSource dataSource;
+    private final String scope;
+    private final String table;
+    private final String keyColumn;
+    private final String keyPrefix;
+    private volatile boolean running;
+    private Connection replicationConnection;
+    private Thread consumer;
+
+    /**
+     * Constructs a new {@code PGChangeFeed}.
+     *
+     * @param dataSource the data source of the database
+     * @param scope      the schema of the table
+     * @param table      the observed table
+     * @param keyColumn  the key column of the table
+     * @param keyPrefix  the key prefix of the reported rows
+     */
+    public PGChangeFeed(PGSimpleDataSource dataSource, String scope, String table, String keyColumn, String keyPrefix) {
+        this.dataSource = dataSource;
+        this.scope = scope;
+        this.table = table;
+        this.keyColumn = keyColumn;
+        this.keyPrefix = keyPrefix;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalStateException if the server does not run with {@code wal_level = logical}
+     */
+    @Override
+    public void start(Consumer<String> listener) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SHOW wal_level")) {
+                if (rs.next() && !"logical".equals(rs.getString(1))) {
+                    throw new IllegalStateException("Change feeds need wal_level = logical, the server runs with "
+                            + rs.getString(1));
+                }
+            }
+            stmt.execute("DROP PUBLICATION IF EXISTS " + PUBLICATION);
+            stmt.execute(String.format("CREATE PUBLICATION %s FOR TABLE \"%s\".\"%s\" WITH (publish = 'insert')",
+                    PUBLICATION, scope, table));
+        }
+
+        // Replication connections need their own properties, so they are not taken from the shared data source
+        Properties properties = new Properties();
+        PGProperty.USER.set(properties, dataSource.getUser());
+        PGProperty.PASSWORD.set(properties, dataSource.getPassword());
+        PGProperty.REPLICATION.set(properties, "database");
+        PGProperty.ASSUME_MIN_SERVER_VERSION.set(properties, "10");
+        PGProperty.PREFER_QUERY_MODE.set(properties, "simple");
+        replicationConnection = DriverManager.getConnection(dataSource.getUrl(), properties);
+
+        PGConnection pgConnection = replicationConnection.unwrap(PGConnection.class);
+        // A temporary slot is dropped by the server when the connection is closed, even if the backend fails
+        pgConnection.getReplicationAPI()
+                .createReplicationSlot()
+                .logical()
+                .withSlotName(SLOT)
+                .withOutputPlugin("pgoutput")
+                .withTemporaryOption()
+                .make();
+        PGReplicationStream stream = pgConnection.getReplicationAPI()
+                .replicationStream()
+                .logical()
+                .withSlotName(SLOT)
+                .withSlotOption("proto_version", 1)
+                .withSlotOption("publication_names", PUBLICATION)
+                .withStatusInterval(1, TimeUnit.SECONDS)
+                .start();
+
+        running = true;
+        consumer = new Thread(() -> consume(stream, listener), "postgres-change-feed");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Reads the replication stream until the feed is closed, and reports the inserted keys.
+     *
+     * @param stream   the replication stream
+     * @param listener the listener of the inserted keys
+     */
+    private void consume(PGReplicationStream stream, Consumer<String> listener) {
+        // Position of the key column in the tuples of each relation
+        Map<Integer, Integer> keyPositions = new HashMap<>();
+        try {
+            while (running) {
+                ByteBuffer message = stream.readPending();
+                if (message == null) {
+                    TimeUnit.MICROSECONDS.sleep(100);
+                    continue;
+                }
+                switch ((char) message.get()) {
+                    case 'R' -> readRelation(message, keyPositions);
+                    case 'I' -> {
+                        Integer position = keyPositions.get(message.getInt());
+                        String key = position != null ? readInsertedKey(message, position) : null;
+                        if (key != null && key.startsWith(keyPrefix)) {
+                            listener.accept(key);
+                        }
+                    }
+                    default -> {
+                        // Begin, commit and other messages are not needed
+                    }
+                }
+                stream.setAppliedLSN(stream.getLastReceiveLSN());
+                stream.setFlushedLSN(stream.getLastReceiveLSN());
+            }
+        } catch (InterruptedException e) {
+            // The feed is closed
+        } catch (Exception e) {
+            if (running) {
+                System.err.println("Error while consuming the changes of " + table + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Reads a relation message of the {@code pgoutput} protocol and saves the position of the key column.
+     *
+     * @param message      the message, positioned after its type
+     * @param keyPositions the positions of the key column by relation identifier
+     */
+    private void readRelation(ByteBuffer message, Map<Integer, Integer> keyPositions) {
+        int relationId = message.getInt();
+        readString(message); // namespace
+        readString(message); // relation name
+        message.get(); // replica identity
+        short columns = message.getShort();
+        for (int i = 0; i < columns; i++) {
+            message.get(); // flags
+            String name = readString(message);
+            message.getInt(); // type
+            message.getInt(); // type modifier
+            if (name.equals(keyColumn)) {
+                keyPositions.put(relationId, i);
+            }
+        }
+    }
+
+    /**
+     * Reads the value of the key column in an insert message of the {@code pgoutput} protocol.
+     *
+     * @param message  the message, positioned after the relation identifier
+     * @param position the position of the key column
+     * @return the inserted key, or null if it is not sent as text
+     */
+    private String readInsertedKey(ByteBuffer message, int position) {
+        message.get(); // 'N', new tuple
+        short columns = message.getShort();
+        for (int i = 0; i < columns; i++) {
+            char kind = (char) message.get();
+            if (kind != 't') {
+                // Null or unchanged value, without data
+                if (i == position) {
+                    return null;
+                }
+                continue;
+            }
+            int length = message.getInt();
+            if (i == position) {
+                byte[] value = new byte[length];
+                message.get(value);
+                return new String(value, StandardCharsets.UTF_8);
+            }
+            message.position(message.position() + length);
+        }
+        return null;
+    }
+
+    /**
+     * Reads a null-terminated string of the {@code pgoutput} protocol.
+     */
+    private String readString(ByteBuffer message) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (byte b = message.get(); b != 0; b = message.get()) {
+            bytes.write(b);
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        running = false;
+        if (consumer != null) {
+            consumer.interrupt();
+            try {
+                consumer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            if (replicationConnection != null) {
+                replicationConnection.close();
+            }
+        } catch (SQLException e) {
+            System.err.println("Error while closing the replication connection: " + e.getMessage());
+        }
+        try (Connection conn = dataSource.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP PUBLICATION IF EXISTS " + PUBLICATION);
+        } catch (SQLException e) {
+            System.err.println("Error while dropping the publication: " + e.getMessage());
+        }
+    }
+}
@@ -1,21 +1,43 @@
 package backend.database;
 
 import backend.model.metadata.CacheInfo;
+import backend.model.metadata.IndexCandidate;
 import backend.model.metadata.IndexInfo;
+import backend.model.metadata.RelationResidency;
+import backend.model.metadata.ResidencySnapshot;
+import backend.model.options.IndexType;
+import backend.model.result.Residency;
 import backend.model.result.Result;
 import backend.model.query.Query;
+import backend.model.query.RestoreSpec;
+import backend.model.request.ExtendedStatistics;
 import backend.model.request.Index;
 import backend.parser.PostgresExplainJsonParser;
+import backend.parser.PostgresExplainJsonParser.Explain;
+import backend.parser.PostgresExplainJsonParser.PlanNode;
+import backend.service.plan.CardinalityAnalyzer;
+import backend.service.plan.PlanStabilityTracker;
 import org.postgresql.ds.PGSimpleDataSource;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
 
+import static backend.model.result.Rounding.round;
 
 /**
  * The {@code PGManager} class is an abstract class that extends {@code DatabaseManager} and provides
@@ -42,6 +64,27 @@ public abstract class PGManager extends DatabaseManager {
     private static final Map<Integer, PGSimpleDataSource> dataSources = new HashMap<>();
     // Port for the PostgreSQL server
     private final int port;
+    // Maximum number of indexes built at the same time
+    private static final int MAX_PARALLEL_BUILDS = 4;
+    // Relations named by the text array parameter, with their TOAST tables and the indexes of these TOAST tables
+    private static final String READ_RELATIONS_SQL = """
+            WITH relations AS (
+                SELECT to_regclass(name)::oid AS oid FROM unnest(?::text[]) AS name WHERE to_regclass(name) IS NOT NULL
+            ), toast AS (
+                SELECT c.reltoastrelid AS oid FROM pg_class c JOIN relations r ON c.oid = r.oid WHERE c.reltoastrelid <> 0
+            ), read_relations AS (
+                SELECT oid FROM relations
+                UNION SELECT oid FROM toast
+                UNION SELECT i.indexrelid FROM pg_index i JOIN toast t ON i.indrelid = t.oid
+            )
+            """;
+    // Settings that can be changed for the session of a run, besides the enable_* planner toggles
+    private static final Set<String> SESSION_SETTINGS = Set.of("work_mem", "hash_mem_multiplier",
+            "max_parallel_workers_per_gather", "parallel_setup_cost", "parallel_tuple_cost",
+            "min_parallel_table_scan_size", "min_parallel_index_scan_size", "jit", "jit_above_cost",
+            "jit_inline_above_cost", "jit_optimize_above_cost", "random_page_cost", "seq_page_cost",
+            "cpu_tuple_cost", "cpu_index_tuple_cost", "cpu_operator_cost", "effective_cache_size",
+            "effective_io_concurrency");
 
     /**
      * Constructs a new {@code PGManager} instance with the specified port.
@@ -127,45 +170,154 @@ public abstract class PGManager extends DatabaseManager {
 
         // Call to the benchmark query function that executes the query a certain number of times
         // and returns the average execution time, standard deviation, variance, 95th percentile, cache info, and explain plan.
-        String benchmarkSQL = "SELECT * FROM benchmark_query3(?, ?);";
+        // The writes of each execution of a write query are rolled back before the next one.
+        String benchmarkSQL = "SELECT * FROM benchmark_query3(?, ?, ?);";
+
+        // Residency of the relations read by the query once the warmup is done, before the measured executions
+        ResidencySnapshot residencyBefore = getResidency(query, scope);
 
         // Get the data source for the specified port. Use try with resources to ensure the connection is closed properly.
         try (Connection conn = getDataSource().getConnection()) {
 
             // Set the schema to the specified scope
             conn.setSchema(scope);
+            applySessionSettings(conn);
+            beginWrite(conn, query, nbExecutions);
+
+            try {
+                // Use a prepared statement to execute the benchmark query
+                PreparedStatement pstmt = conn.prepareStatement(benchmarkSQL);
+                pstmt.setInt(1, nbExecutions);
+                pstmt.setString(2, query.getQuery());
+                pstmt.setBoolean(3, query.isWrite());
+
+                ResultSet rs = pstmt.executeQuery();
+                double avgTimeMs = 0.0;
+                double stddev = 0.0;
+                double variance = 0.0;
+                double percentile95 = 0.0;
+                String explainPlan = "";
+                List<SampledExplain> sampled = new ArrayList<>();
+
+                while (rs.next()) {
+                    avgTimeMs = Double.parseDouble(df.format(Double.parseDouble(rs.getString("avg_time_ms"))).replace(',', '.'));
+                    stddev = Double.parseDouble(df.format(Double.parseDouble(rs.getString("stddev_time_ms"))).replace(',', '.'));
+                    variance = Double.parseDouble(df.format(Double.parseDouble(rs.getString("variance_time_ms"))).replace(',', '.'));
+                    percentile95 = Double.parseDouble(df.format(Double.parseDouble(rs.getString("percentile_95_ms"))).replace(',', '.'));
+                    explainPlan = rs.getString("explain_json");
+                    blocks = new Block(rs.getInt("total_shared_hit_blocks"), rs.getInt("total_shared_read_blocks"));
+                    sampled = readSampledExplains(rs);
+                }
+                ResidencySnapshot residencyAfter = getResidency(query, scope);
+
+                System.out.println("Query benchmarking completed. Average latency: " + avgTimeMs + " ms");
+
+                PlanNode plan = explainJsonParser.parsePlan(explainPlan);
+                Result result = new Result(query.getQuery(), avgTimeMs, TPS(avgTimeMs), plan.toIndentedString(3), initialConnectionTime,
+                        stddev, variance, percentile95, getCacheInfo(nbExecutions));
+                result.setPlan(plan.toPlanOperator());
+                result.setCardinality(CardinalityAnalyzer.analyse(result.getPlan()));
+
+                List<PlanStabilityTracker.Sample> samples = sampled.stream()
+                        .map(s -> new PlanStabilityTracker.Sample(s.execution(), s.latency(), s.explain().plan().toPlanOperator()))
+                        .toList();
+                result.setPlanStability(analysePlans(query, scope, indexes, samples, planSampleInterval(nbExecutions)));
+
+                // The execution metrics are averaged over the sampled executions, or taken from the first one
+                List<Explain> analysed = sampled.isEmpty()
+                        ? List.of(explainJsonParser.parseExplain(explainPlan))
+                        : sampled.stream().map(SampledExplain::explain).toList();
+                result.setExecutionMetrics(explainJsonParser.rollUp(analysed));
+                result.setSettings(getSessionSettings().isEmpty() ? null : getSessionSettings());
+                result.setResidency(new Residency(residencyBefore, residencyAfter));
+                return result;
+            } finally {
+                endWrite(conn, query);
+            }
 
-            // Use a prepared statement to execute the benchmark query
-            PreparedStatement pstmt = conn.prepareStatement(benchmarkSQL);
-            pstmt.setInt(1, nbExecutions);
-            pstmt.setString(2, query.getQuery());
+        } catch (Exception e) {
+            System.err.println("Error while running query " + e.getClass() + e.getMessage());
+        }
 
-            ResultSet rs = pstmt.executeQuery();
-            double avgTimeMs = 0.0;
-            double stddev = 0.0;
-            double variance = 0.0;
-            double percentile95 = 0.0;
-            String explainPlan = "";
+        return null;
+    }
 
-            while (rs.next()) {
-                avgTimeMs = Double.parseDouble(df.format(Double.parseDouble(rs.getString("avg_time_ms"))).replace(',', '.'));
-                stddev = Double.parseDouble(df.format(Double.parseDouble(rs.getString("stddev_time_ms"))).replace(',', '.'));
-                variance = Double.parseDouble(df.format(Double.parseDouble(rs.getString("variance_time_ms"))).replace(',', '.'));
-                percentile95 = Double.parseDouble(df.format(Double.parseDouble(rs.getString("percentile_95_ms"))).replace(',', '.'));
-                explainPlan = rs.getString("explain_json");
-                blocks = new Block(rs.getInt("total_shared_hit_blocks"), rs.getInt("total_shared_read_blocks"));
-            }
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The supported settings are the planner toggles ({@code enable_*}), the memory settings such as
+     * {@code work_mem}, the parallel query and JIT settings, and the planner cost constants. The value is checked
+     * by the server on a separate connection.
+     */
+    @Override
+    protected void checkSetting(String name, String value) {
+        if (!SESSION_SETTINGS.contains(name) && !name.startsWith("enable_")) {
+            throw new IllegalArgumentException("Setting " + name + " is not supported by " + getType().getName());
+        }
+        try (Connection conn = getDataSource().getConnection()) {
+            setConfig(conn, name, value);
+        } catch (SQLException e) {
+            throw new IllegalArgumentException("Invalid value " + value + " for setting " + name + ": " + e.getMessage());
+        }
+    }
 
-            System.out.println("Query benchmarking completed. Average latency: " + avgTimeMs + " ms");
+    /**
+     * Applies the session-level settings to a connection, for the executions done on it.
+     *
+     * @param conn the connection
+     * @throws SQLException if a setting cannot be applied
+     */
+    private void applySessionSettings(Connection conn) throws SQLException {
+        for (Map.Entry<String, String> setting : getSessionSettings().entrySet()) {
+            setConfig(conn, setting.getKey(), setting.getValue());
+        }
+    }
+
+    /**
+     * Changes a setting for the session of a connection, like {@code SET}, with the name and the value passed
+     * as parameters.
+     */
+    private static void setConfig(Connection conn, String name, String value) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT set_config(?, ?, false)")) {
+            pstmt.setString(1, name);
+            pstmt.setString(2, value);
+            pstmt.executeQuery();
+        }
+    }
 
-            return new Result(query.getQuery(), avgTimeMs, TPS(avgTimeMs), explainJsonParser.parsePlan(explainPlan).toIndentedString(3), initialConnectionTime,
-                    stddev, variance, percentile95, getCacheInfo(nbExecutions));
+    /**
+     * The explain output of a sampled execution of a benchmark run.
+     */
+    private record SampledExplain(int execution, double latency, Explain explain) {
+    }
 
-        } catch (Exception e) {
-            System.err.println("Error while running query " + e.getClass() + e.getMessage());
+    /**
+     * Reads the explain outputs of the sampled executions returned by the benchmark function. The function of a
+     * database deployed before plan sampling was added does not return them, in which case no sample is read.
+     *
+     * @param rs the result of the benchmark function, on its row
+     * @return the sampled executions, in execution order
+     * @throws Exception if a sampled explain output cannot be parsed
+     */
+    private List<SampledExplain> readSampledExplains(ResultSet rs) throws Exception {
+        List<SampledExplain> samples = new ArrayList<>();
+        ResultSetMetaData metaData = rs.getMetaData();
+        boolean sampled = false;
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            sampled |= metaData.getColumnName(i).equals("sampled_explains");
+        }
+        if (!sampled || rs.getArray("sampled_explains") == null) {
+            return samples;
         }
 
-        return null;
+        Object[] runs = (Object[]) rs.getArray("sampled_runs").getArray();
+        Object[] times = (Object[]) rs.getArray("sampled_times_ms").getArray();
+        Object[] explains = (Object[]) rs.getArray("sampled_explains").getArray();
+        for (int i = 0; i < explains.length; i++) {
+            samples.add(new SampledExplain(((Number) runs[i]).intValue(), ((Number) times[i]).doubleValue(),
+                    explainJsonParser.parseExplain(String.valueOf(explains[i]))));
+        }
+        return samples;
     }
 
     /**
@@ -175,28 +327,562 @@ public abstract class PGManager extends DatabaseManager {
     public void warmup(Query query, String scope) {
         System.out.println("Warming up " + getType().getName() + " query in scope: " + scope);
 
-        String warmupSQL = "SELECT * FROM benchmark_query3(?, ?);";
+        String warmupSQL = "SELECT * FROM benchmark_query3(?, ?, ?);";
+
+        try (Connection conn = getDataSource().getConnection()) {
+            conn.setSchema(scope);
+            applySessionSettings(conn);
+            beginWrite(conn, query, WARMUP_EXECUTIONS);
+
+            try {
+                PreparedStatement pstmt = conn.prepareStatement(warmupSQL);
+                pstmt.setInt(1, WARMUP_EXECUTIONS);
+                pstmt.setString(2, query.getQuery());
+                pstmt.setBoolean(3, query.isWrite());
+
+                ResultSet rs = pstmt.executeQuery();
+                double avgTimeMs = 0;
+                while (rs.next()) {
+                    // Just consume the result to warm up the cache
+                    avgTimeMs = Double.parseDouble(df.format(Double.parseDouble(rs.getString("avg_time_ms"))).replace(',', '.'));
+                }
+
+                System.out.println("Warming up completed. Average latency: " + avgTimeMs + " ms");
+            } finally {
+                endWrite(conn, query);
+            }
+
+        } catch (Exception e) {
+            System.err.println("Error during warmup: " + e.getMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The buffers of the relations read by the query are evicted from the shared buffers with the
+     * {@code pg_buffercache} extension. Pinned buffers cannot be evicted and are left in the cache.
+     */
+    @Override
+    protected void evictCache(Query query, String scope) throws Exception {
+        try (Connection conn = getDataSource().getConnection()) {
+            conn.setSchema(scope);
+            createExtension(conn, "pg_buffercache");
+            try (PreparedStatement pstmt = conn.prepareStatement(READ_RELATIONS_SQL
+                    + "SELECT count(*) FILTER (WHERE public.pg_buffercache_evict(b.bufferid)), count(*) "
+                    + "FROM public.pg_buffercache b JOIN read_relations r ON b.relfilenode = pg_relation_filenode(r.oid) "
+                    + "WHERE b.reldatabase = (SELECT oid FROM pg_database WHERE datname = current_database())")) {
+                pstmt.setArray(1, conn.createArrayOf("text", readRelations(conn, query).toArray()));
+                ResultSet rs = pstmt.executeQuery();
+                rs.next();
+                System.out.println("Evicted " + rs.getLong(1) + " of " + rs.getLong(2) + " buffers of the relations of "
+                        + query.getQueryType().getName() + " in scope: " + scope);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The relations read by the query, their indexes read by the query and their TOAST tables are loaded into the
+     * shared buffers with the {@code pg_prewarm} extension. Relations larger than the shared buffers only keep
+     * their last blocks.
+     */
+    @Override
+    protected void prewarmCache(Query query, String scope) throws Exception {
+        try (Connection conn = getDataSource().getConnection()) {
+            conn.setSchema(scope);
+            createExtension(conn, "pg_prewarm");
+            try (PreparedStatement pstmt = conn.prepareStatement(READ_RELATIONS_SQL
+                    + "SELECT coalesce(sum(public.pg_prewarm(r.oid::regclass)), 0) FROM read_relations r")) {
+                pstmt.setArray(1, conn.createArrayOf("text", readRelations(conn, query).toArray()));
+                ResultSet rs = pstmt.executeQuery();
+                rs.next();
+                System.out.println("Loaded " + rs.getLong(1) + " blocks of the relations of "
+                        + query.getQueryType().getName() + " in scope: " + scope);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The residency is the share of the main fork of the relations read by the plan of the query, of their TOAST
+     * tables and of the indexes of these TOAST tables that is in the shared buffers, read with the
+     * {@code pg_buffercache} extension. The page cache of the operating system is not visible to PostgreSQL, so a
+     * relation that is not resident may still be read from memory.
+     */
+    @Override
+    public ResidencySnapshot getResidency(Query query, String scope) {
+        try (Connection conn = getDataSource().getConnection()) {
+            conn.setSchema(scope);
+            createExtension(conn, "pg_buffercache");
+            try (PreparedStatement pstmt = conn.prepareStatement(READ_RELATIONS_SQL + """
+                    SELECT c.relname,
+                           CASE WHEN c.relkind = 't' THEN 'TOAST table'
+                                WHEN c.relkind = 'i' AND c.relnamespace = 'pg_toast'::regnamespace THEN 'TOAST index'
+                                WHEN c.relkind = 'i' THEN 'index'
+                                ELSE 'table' END AS kind,
+                           pg_relation_size(r.oid) AS size,
+                           count(b.bufferid) * current_setting('block_size')::bigint AS resident_size
+                    FROM read_relations r
+                    JOIN pg_class c ON c.oid = r.oid
+                    LEFT JOIN public.pg_buffercache b ON b.relfilenode = pg_relation_filenode(r.oid)
+                        AND b.relforknumber = 0
+                        AND b.reldatabase = (SELECT oid FROM pg_database WHERE datname = current_database())
+                    GROUP BY r.oid, c.relname, c.relkind, c.relnamespace
+                    ORDER BY c.relname
+                    """)) {
+                pstmt.setArray(1, conn.createArrayOf("text", readRelations(conn, query).toArray()));
+                ResultSet rs = pstmt.executeQuery();
+                List<RelationResidency> relations = new ArrayList<>();
+                while (rs.next()) {
+                    long size = rs.getLong("size");
+                    long residentSize = Math.min(rs.getLong("resident_size"), size);
+                    // An empty relation has nothing to read from disk
+                    double residentPercent = size > 0 ? residentSize * 100.0 / size : 100;
+                    relations.add(new RelationResidency(rs.getString("relname"), rs.getString("kind"), size,
+                            residentSize, residentPercent));
+                }
+                return new ResidencySnapshot(relations, null);
+            }
+        } catch (Exception e) {
+            System.err.println("Error while measuring the residency of query " + query.getQueryType().getName()
+                    + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the names of the tables and indexes that the plan of a query reads.
+     *
+     * @param conn  the connection, with the schema of the query
+     * @param query the query
+     * @return the names of the relations
+     * @throws Exception if the query cannot be explained
+     */
+    private Set<String> readRelations(Connection conn, Query query) throws Exception {
+        Set<String> relations = new HashSet<>();
+        for (PlanNode node : explain(conn, query.getQuery().strip().replaceAll(";$", "")).flatten()) {
+            if (node.relationName() != null) {
+                relations.add(node.relationName());
+            }
+            if (node.indexName() != null) {
+                relations.add(node.indexName());
+            }
+        }
+        return relations;
+    }
+
+    /**
+     * Creates an extension in the public schema if it does not exist, so that its functions do not depend on the
+     * schema of the benchmark.
+     *
+     * @param conn the connection
+     * @param name the name of the extension
+     * @throws SQLException if the extension is not available
+     */
+    private static void createExtension(Connection conn, String name) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE EXTENSION IF NOT EXISTS " + name + " SCHEMA public");
+        }
+    }
+
+    /**
+     * Starts a transaction if the query is a write. Write queries are executed in a transaction that is rolled back
+     * by {@link #endWrite(Connection, Query)}, so that the dataset is left unchanged. PostgreSQL maintains its indexes
+     * synchronously, so the index maintenance overhead is part of the measured execution time. When the executions
+     * are run by {@code benchmark_query3}, the writes of each execution are also rolled back before the next one, so
+     * that the executions do not accumulate row versions in the transaction.
+     *
+     * @param conn  the connection used to execute the query
+     * @param query the query to execute
+     * @throws SQLException if the transaction cannot be started
+     */
+    static void beginWrite(Connection conn, Query query) throws SQLException {
+        beginWrite(conn, query, 0);
+    }
+
+    /**
+     * Starts a transaction if the query is a write, and inserts in this transaction the rows removed by the
+     * executions of the query, so that they are rolled back with the writes and never committed.
+     *
+     * @param conn       the connection used to execute the query
+     * @param query      the query to execute
+     * @param executions the number of executions of the query in the transaction
+     * @throws SQLException if the transaction cannot be started or the rows cannot be inserted
+     */
+    static void beginWrite(Connection conn, Query query, int executions) throws SQLException {
+        if (query.isWrite()) {
+            conn.setAutoCommit(false);
+            RestoreSpec spec = query.getRestoreSpec();
+            if (spec != null && spec.seedQuery() != null && executions > 0) {
+                insertSeed(conn, spec.seedQuery(), executions);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The rows are committed, for the sessions that execute the query in their own transactions.
+     */
+    @Override
+    protected void insertSeed(RestoreSpec spec, String scope, int count) throws SQLException {
+        try (Connection conn = getDataSource().getConnection()) {
+            conn.setSchema(scope);
+            insertSeed(conn, spec.seedQuery(), count);
+        }
+    }
+
+    /**
+     * Executes the seed query of a write query on a connection.
+     *
+     * @param conn      the connection, with the schema of the query
+     * @param seedQuery the query inserting the rows, whose only parameter is their number
+     * @param count     the number of rows to insert
+     * @throws SQLException if the rows cannot be inserted
+     */
+    private static void insertSeed(Connection conn, String seedQuery, int count) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(seedQuery)) {
+            pstmt.setInt(1, count);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Rolls back the transaction started by {@link #beginWrite(Connection, Query)}.
+     *
+     * @param conn  the connection used to execute the query
+     * @param query the executed query
+     * @throws SQLException if the transaction cannot be rolled back
+     */
+    static void endWrite(Connection conn, Query query) throws SQLException {
+        if (query.isWrite()) {
+            conn.rollback();
+            conn.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PGSession openSession(String scope) throws SQLException {
+        Connection conn = getDataSource().getConnection();
+        try {
+            applySessionSettings(conn);
+            return new PGSession(conn, scope);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the name of the primary key column of a table.
+     *
+     * @param table the name of the table
+     * @return the name of the key column
+     */
+    public abstract String getKeyColumn(String table);
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<String> sampleKeys(String scope, String collection, int count) {
+        // Ordering by a hash of the key gives a pseudo-random sample that is the same for every benchmark
+        String sampleSQL = String.format("SELECT %1$s FROM \"%2$s\" ORDER BY md5(%1$s) LIMIT ?",
+                getKeyColumn(collection), collection);
+        List<String> keys = new ArrayList<>();
 
         try (Connection conn = getDataSource().getConnection()) {
             conn.setSchema(scope);
-            PreparedStatement pstmt = conn.prepareStatement(warmupSQL);
-            pstmt.setInt(1, WARMUP_EXECUTIONS);
-            pstmt.setString(2, query.getQuery());
+            PreparedStatement pstmt = conn.prepareStatement(sampleSQL);
+            pstmt.setInt(1, count);
 
             ResultSet rs = pstmt.executeQuery();
-            double avgTimeMs = 0;
             while (rs.next()) {
-                // Just consume the result to warm up the cache
-                avgTimeMs = Double.parseDouble(df.format(Double.parseDouble(rs.getString("avg_time_ms"))).replace(',', '.'));
+                keys.add(rs.getString(1));
+            }
+        } catch (Exception e) {
+            System.err.println("Error while sampling keys: " + e.getMessage());
+        }
+        return keys;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * PostgreSQL has no index advisor, so the candidates are derived from the plan of the query: each sequential
+     * scan is a table read without an index, and the columns of its filter and of the join conditions on its table
+     * are candidate keys. If the {@code hypopg} extension is available, each candidate is then created as a
+     * hypothetical index, and only the candidates that the planner uses are kept, with their estimated cost ratio.
+     */
+    @Override
+    public List<IndexCandidate> adviseIndexes(String scope, Query query) {
+        String sql = query.getQuery().strip().replaceAll(";$", "");
+        List<IndexCandidate> candidates = new ArrayList<>();
+
+        try (Connection conn = getDataSource().getConnection()) {
+            conn.setSchema(scope);
+            PlanNode plan = explain(conn, sql);
+
+            List<String> joinConditions = new ArrayList<>();
+            List<PlanNode> scans = new ArrayList<>();
+            collectScans(plan, scans, joinConditions);
+
+            Set<String> signatures = new HashSet<>();
+            List<Index> indexes = new ArrayList<>();
+            for (PlanNode scan : scans) {
+                for (Index index : getCandidateIndexes(conn, scan, joinConditions)) {
+                    if (signatures.add(index.getTable() + index.getFields() + index.getType() + index.getOpclass())) {
+                        indexes.add(index);
+                    }
+                }
             }
 
-            System.out.println("Warming up completed. Average latency: " + avgTimeMs + " ms");
+            if (!hypotheticalIndexesAvailable(conn)) {
+                indexes.forEach(index -> candidates.add(new IndexCandidate(index, "plan heuristic", null)));
+                return candidates;
+            }
 
+            double baseCost = plan.totalCost();
+            for (Index index : indexes) {
+                try (PreparedStatement pstmt = conn.prepareStatement("SELECT indexname FROM hypopg_create_index(?)")) {
+                    pstmt.setString(1, getIndexCreationString(index).replaceFirst("IF NOT EXISTS ", ""));
+                    String hypotheticalName;
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        hypotheticalName = rs.next() ? rs.getString(1) : null;
+                    }
+
+                    PlanNode hypotheticalPlan = explain(conn, sql);
+                    if (hypotheticalName != null && usesIndex(hypotheticalPlan, hypotheticalName)) {
+                        double ratio = baseCost > 0 ? hypotheticalPlan.totalCost() / baseCost : 1;
+                        candidates.add(new IndexCandidate(index, "hypopg", round(ratio, 3)));
+                    }
+                } catch (SQLException e) {
+                    System.err.println("Error while evaluating hypothetical index " + index.getName() + ": " + e.getMessage());
+                } finally {
+                    try (Statement stmt = conn.createStatement()) {
+                        stmt.execute("SELECT hypopg_reset()");
+                    } catch (SQLException e) {
+                        System.err.println("Error while removing the hypothetical indexes: " + e.getMessage());
+                    }
+                }
+            }
         } catch (Exception e) {
-            System.err.println("Error during warmup: " + e.getMessage());
+            System.err.println("Error while advising indexes for " + query.getQueryType().getName() + ": " + e.getMessage());
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the estimated plan of a query, without executing it.
+     *
+     * @param conn the connection, with the schema of the query
+     * @param sql  the query
+     * @return the root node of the plan
+     * @throws Exception if the query cannot be explained
+     */
+    private PlanNode explain(Connection conn, String sql) throws Exception {
+        try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("EXPLAIN (FORMAT JSON) " + sql)) {
+            rs.next();
+            return explainJsonParser.parsePlan(rs.getString(1));
+        }
+    }
+
+    /**
+     * Collects the sequential scans and the join conditions of a plan.
+     *
+     * @param node           the current node of the plan
+     * @param scans          the list to which the sequential scans are added
+     * @param joinConditions the list to which the join conditions are added
+     */
+    private void collectScans(PlanNode node, List<PlanNode> scans, List<String> joinConditions) {
+        if ("Seq Scan".equals(node.nodeType()) && node.relationName() != null) {
+            scans.add(node);
+        }
+        if (node.joinCondition() != null) {
+            joinConditions.add(node.joinCondition());
+        }
+        for (PlanNode child : node.children()) {
+            collectScans(child, scans, joinConditions);
+        }
+    }
+
+    /**
+     * Returns whether a plan reads an index.
+     */
+    private boolean usesIndex(PlanNode node, String indexName) {
+        if (indexName.equals(node.indexName())) {
+            return true;
+        }
+        return node.children().stream().anyMatch(child -> usesIndex(child, indexName));
+    }
+
+    /**
+     * Returns whether the {@code hypopg} extension is available, and creates it if needed.
+     */
+    private boolean hypotheticalIndexesAvailable(Connection conn) {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE EXTENSION IF NOT EXISTS hypopg");
+            return true;
+        } catch (SQLException e) {
+            System.out.println("The hypopg extension is not available, the index candidates are not evaluated: "
+                    + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Returns a candidate index, named after its table and fields.
+     *
+     * @param table  the table of the index
+     * @param fields the fields of the index
+     * @param type   the type of the index
+     * @return the candidate index
+     */
+    protected Index candidateIndex(String table, List<String> fields, IndexType type) {
+        String name = ("adv_" + table + "_" + String.join("_", fields)).toLowerCase().replaceAll("[^a-z0-9_]+", "_");
+        Index index = new Index();
+        // PostgreSQL truncates the identifiers to 63 bytes
+        index.setName(name.length() > 63 ? name.substring(0, 63) : name);
+        index.setTable(table);
+        index.setFields(fields);
+        index.setType(type);
+        return index;
+    }
+
+    /**
+     * Returns the candidate indexes for a sequential scan of a plan, from its filter and from the join
+     * conditions that involve its table.
+     *
+     * @param conn           the connection, with the schema of the query
+     * @param scan           the sequential scan
+     * @param joinConditions the join conditions of the plan
+     * @return the candidate indexes of the table
+     * @throws SQLException if the columns of the table cannot be read
+     */
+    protected abstract List<Index> getCandidateIndexes(Connection conn, PlanNode scan, List<String> joinConditions)
+            throws SQLException;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DatasetSnapshot snapshot(String scope, Collection<Query> queries) {
+        if (queries.stream().noneMatch(Query::isWrite)) {
+            return super.snapshot(scope, queries);
+        }
+        return new PGSnapshot(getDataSource(), scope, this::getKeyColumn, queries);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public DatasetSnapshot snapshot(String scope, String collection, Collection<String> keys) {
+        return new PGSnapshot(getDataSource(), scope, this::getKeyColumn, collection, keys);
+    }
+
+    /**
+     * Opens a change feed that reports the rows inserted in a table through logical replication.
+     *
+     * @param scope     the schema of the table
+     * @param table     the observed table
+     * @param keyPrefix the key prefix of the reported rows
+     * @return the change feed, to start and close
+     */
+    public PGChangeFeed openChangeFeed(String scope, String table, String keyPrefix) {
+        return new PGChangeFeed(getDataSource(), scope, table, getKeyColumn(table), keyPrefix);
+    }
+
+    /**
+     * Refreshes the planner statistics of tables with {@code ANALYZE}, optionally with a statistics target other
+     * than the default one. The target applies to the columns and the expression statistics that have no target of
+     * their own.
+     *
+     * @param scope            the schema of the tables
+     * @param tables           the tables to analyse
+     * @param statisticsTarget the statistics target, or null for the default target of the server
+     * @throws SQLException if a table cannot be analysed
+     */
+    public void analyzeTables(String scope, Collection<String> tables, Integer statisticsTarget) throws SQLException {
+        try (Connection conn = getDataSource().getConnection(); Statement stmt = conn.createStatement()) {
+            conn.setSchema(scope);
+            if (statisticsTarget != null) {
+                stmt.execute("SET default_statistics_target = " + statisticsTarget);
+            }
+            for (String table : tables) {
+                long start = System.nanoTime();
+                stmt.execute("ANALYZE " + quoteIdentifier(table));
+                System.out.println("Table " + table + " analysed in " + df.format((System.nanoTime() - start) / 1_000_000.0)
+                        + " ms" + (statisticsTarget != null ? " with statistics target " + statisticsTarget : ""));
+            }
+        }
+    }
+
+    /**
+     * Creates extended statistics, unless statistics with the same name already exist in the schema. The
+     * statistics are only computed by the next {@code ANALYZE} of their table.
+     *
+     * @param scope      the schema of the statistics
+     * @param statistics the statistics to create
+     * @return true if the statistics were created, false if they already existed
+     * @throws SQLException if the statistics cannot be created
+     */
+    public boolean createStatistics(String scope, ExtendedStatistics statistics) throws SQLException {
+        try (Connection conn = getDataSource().getConnection()) {
+            conn.setSchema(scope);
+            try (PreparedStatement pstmt = conn.prepareStatement("""
+                    SELECT 1 FROM pg_statistic_ext s JOIN pg_namespace n ON n.oid = s.stxnamespace
+                    WHERE n.nspname = ? AND s.stxname = ?""")) {
+                pstmt.setString(1, scope);
+                pstmt.setString(2, statistics.getName());
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) {
+                        System.out.println("Statistics " + statistics.getName() + " already exist in " + scope + ", they are reused");
+                        return false;
+                    }
+                }
+            }
+
+            String kinds = statistics.getKinds() == null || statistics.getKinds().isEmpty()
+                    ? "" : " (" + String.join(", ", statistics.getKinds()) + ")";
+            String createSQL = "CREATE STATISTICS " + quoteIdentifier(statistics.getName()) + kinds + " ON "
+                    + String.join(", ", statistics.getExpressions()) + " FROM " + quoteIdentifier(statistics.getTable());
+            System.out.println("Creating statistics: " + createSQL);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute(createSQL);
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Drops extended statistics.
+     *
+     * @param scope the schema of the statistics
+     * @param name  the name of the statistics
+     * @throws SQLException if the statistics cannot be dropped
+     */
+    public void dropStatistics(String scope, String name) throws SQLException {
+        try (Connection conn = getDataSource().getConnection(); Statement stmt = conn.createStatement()) {
+            conn.setSchema(scope);
+            stmt.execute("DROP STATISTICS IF EXISTS " + quoteIdentifier(name));
+            System.out.println("Statistics " + name + " dropped in scope: " + scope);
         }
     }
 
+    /**
+     * Quotes an identifier, so that reserved words such as {@code user} can be used as table names.
+     */
+    private static String quoteIdentifier(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
     /**
      * Returns the SQL string to create an index for the specified index object.
      * This method must be implemented by subclasses to provide the specific SQL syntax
@@ -207,6 +893,37 @@ public abstract class PGManager extends DatabaseManager {
      */
     public abstract String getIndexCreationString(Index index);
 
+    /**
+     * Returns the SQL string to create an index on a list of keys, with the operator class, the covered columns
+     * and the partial index predicate of the index.
+     *
+     * @param index     the index to create
+     * @param tableName the table of the index, quoted if needed
+     * @param indexName the name of the index, quoted if needed
+     * @param keys      the key columns or expressions of the index
+     * @return the SQL string to create the index
+     * @throws IllegalArgumentException if the index has options that only Couchbase supports
+     */
+    protected String getIndexCreationString(Index index, String tableName, String indexName, List<String> keys) {
+        if (index.getArrayKey() != null || index.getPartitionBy() != null || index.getNumPartitions() != null
+                || index.getNumReplicas() != null) {
+            throw new IllegalArgumentException("Array keys, partitions and replicas are only supported by Couchbase, "
+                    + "they cannot be used by index " + index.getName());
+        }
+
+        String opclass = index.getOpclass() != null ? " " + index.getOpclass() : "";
+        StringBuilder sql = new StringBuilder(String.format("CREATE INDEX IF NOT EXISTS %s ON %s USING %s (%s)",
+                indexName, tableName, index.getType(),
+                keys.stream().map(key -> key + opclass).collect(Collectors.joining(", "))));
+        if (index.getInclude() != null && !index.getInclude().isEmpty()) {
+            sql.append(" INCLUDE (").append(String.join(", ", index.getInclude())).append(")");
+        }
+        if (index.getWhere() != null) {
+            sql.append(" WHERE ").append(index.getWhere());
+        }
+        return sql.toString();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -220,26 +937,83 @@ public abstract class PGManager extends DatabaseManager {
 
         System.out.println("Creating indexes in scope: " + scope);
 
-        // Get the data source for the specified port. Use try with resources to ensure the connection is closed properly.
-        try (Connection conn = getDataSource().getConnection()) {
-            conn.setSchema(scope);
+        // Each index is built on its own connection, so that the indexes are built in parallel
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(indexes.size(), MAX_PARALLEL_BUILDS));
+        try {
+            List<Future<?>> builds = new ArrayList<>();
             for (Index index : indexes) {
-
-                try (PreparedStatement pstmt = conn.prepareStatement(getIndexCreationString(index))) {
-                    // An enhancement would be to make sure no SQL injection is possible here
-                    System.out.println("Creating index: " + pstmt.toString());
-                    // Use executeUpdate to create the index because it modifies the database
-                    pstmt.executeUpdate();
-                } catch (Exception e) {
-                    System.err.println("Error creating index: " + e.getMessage());
-                }
+                builds.add(executor.submit(() -> buildIndex(scope, index)));
+            }
+            for (Future<?> build : builds) {
+                build.get();
             }
             System.out.println(indexes.size() + " indexes created in scope: " + scope);
-
         } catch (Exception e) {
             System.err.println("Error creating indexes: " + e.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Builds an index and records its build time. The build is bounded by a statement timeout, and an index
+     * that cannot be built is reported without stopping the benchmark. An index that already exists is not built
+     * again and has no build time, because {@code CREATE INDEX IF NOT EXISTS} returns immediately.
+     *
+     * @param scope the schema of the index
+     * @param index the index to build
+     */
+    private void buildIndex(String scope, Index index) {
+        String creationSQL = getIndexCreationString(index);
+        if (index.isConcurrently()) {
+            // A concurrent build does not block the writes of the table, and cannot run in a transaction
+            creationSQL = creationSQL.replaceFirst("(?i)^CREATE INDEX", "CREATE INDEX CONCURRENTLY");
+        }
+
+        try (Connection conn = getDataSource().getConnection()) {
+            conn.setSchema(scope);
+            if (indexExists(conn, scope, index.getName())) {
+                System.out.println("Index " + index.getName() + " already exists, its build time is not recorded");
+                forgetBuildTime(scope, index.getName());
+                return;
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT set_config('statement_timeout', ?, false)")) {
+                pstmt.setString(1, String.valueOf(INDEX_BUILD_TIMEOUT.toMillis()));
+                pstmt.execute();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(creationSQL)) {
+                // An enhancement would be to make sure no SQL injection is possible here
+                System.out.println("Creating index: " + pstmt.toString());
+                long start = System.nanoTime();
+                // Use executeUpdate to create the index because it modifies the database
+                pstmt.executeUpdate();
+                recordBuildTime(scope, index.getName(), (System.nanoTime() - start) / 1_000_000.0);
+            }
+        } catch (Exception e) {
+            System.err.println("Error creating index " + index.getName() + ": " + e.getMessage());
         }
+    }
 
+    /**
+     * Returns whether an index exists in a schema. Unquoted index names are folded to lower case by PostgreSQL,
+     * so both spellings are looked up.
+     *
+     * @param conn      the connection
+     * @param scope     the schema of the index
+     * @param indexName the name of the index
+     * @return {@code true} if the index exists
+     * @throws SQLException if the catalog cannot be read
+     */
+    private static boolean indexExists(Connection conn, String scope, String indexName) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT 1 FROM pg_indexes WHERE schemaname = ? AND indexname IN (?, lower(?))")) {
+            pstmt.setString(1, scope);
+            pstmt.setString(2, indexName);
+            pstmt.setString(3, indexName);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
     }
 
     /**
@@ -266,6 +1040,7 @@ public abstract class PGManager extends DatabaseManager {
                     // An enhancement would be to make sure no SQL injection is possible here
                     // Use executeUpdate to drop the index because it modifies the database
                     pstmt.executeUpdate();
+                    forgetBuildTime(scope, index.getName());
                 } catch (Exception e) {
                     System.err.println("Error dropping index: " + e.getMessage());
                 }
@@ -295,7 +1070,9 @@ public abstract class PGManager extends DatabaseManager {
                     i.indexrelname AS index_name,
                     t.relname AS table_name,
                     pg_size_pretty(pg_relation_size(i.indexrelid)) AS index_size,
+                    pg_relation_size(i.indexrelid) AS index_bytes,
                     pg_size_pretty(pg_table_size(quote_ident(t.schemaname) || '.' || quote_ident(t.relname))) AS table_size,
+                    pg_table_size(quote_ident(t.schemaname) || '.' || quote_ident(t.relname)) AS table_bytes,
                     ROUND((pg_relation_size(i.indexrelid)::numeric /
                            NULLIF(pg_table_size(quote_ident(t.schemaname) || '.' || quote_ident(t.relname)), 0)::numeric) * 100, 2)
                         AS index_ratio_percent
@@ -332,7 +1109,10 @@ public abstract class PGManager extends DatabaseManager {
                 tableSize = rs.getString("table_size");
                 indexRatioPercent = rs.getDouble("index_ratio_percent");
 
-                indexes.add(new IndexInfo(indexName, tableName, tableSize, indexSize, indexRatioPercent));
+                IndexInfo indexInfo = new IndexInfo(indexName, tableName, tableSize, indexSize, indexRatioPercent);
+                indexInfo.setIndexBytes(rs.getLong("index_bytes"));
+                addBuildMetrics(scope, indexInfo, rs.getLong("table_bytes"));
+                indexes.add(indexInfo);
             }
 
             return indexes;
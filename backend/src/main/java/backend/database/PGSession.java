@@ -0,0 +1,134 @@
+package backend.database;
+
+import backend.model.query.Query;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * The {@code PGSession} class is the PostgreSQL implementation of {@link BenchmarkSession}.
+ * It holds a dedicated JDBC connection whose schema is set to the benchmarked scope.
+ * Write queries are executed in a transaction that is rolled back, so that the dataset is left unchanged.
+ *
+ * @author Eva Ray
+ */
+public class PGSession implements BenchmarkSession {
+
+    private final Connection connection;
+
+    /**
+     * Constructs a new {@code PGSession} using the specified connection.
+     *
+     * @param connection the dedicated connection of the session
+     * @param scope      the schema in which the queries are executed
+     * @throws SQLException if the schema cannot be set
+     */
+    public PGSession(Connection connection, String scope) throws SQLException {
+        this.connection = connection;
+        this.connection.setSchema(scope);
+    }
+
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(Query query) throws SQLException {
+        PGManager.beginWrite(connection, query);
+        try (Statement stmt = connection.createStatement()) {
+            boolean hasResultSet = stmt.execute(query.getQuery());
+            if (hasResultSet) {
+                try (ResultSet rs = stmt.getResultSet()) {
+                    consume(rs);
+                }
+            }
+        } finally {
+            PGManager.endWrite(connection, query);
+        }
+    }
+
+    /**
+     * Retrieves rows by primary key with a prepared statement. Several keys are retrieved with a single
+     * {@code = ANY(?)} query.
+     *
+     * @param table     the table of the rows
+     * @param keyColumn the primary key column of the table
+     * @param keys      the keys of the rows
+     * @throws SQLException if the rows cannot be retrieved
+     */
+    public void getByKeys(String table, String keyColumn, List<String> keys) throws SQLException {
+        String sql = keys.size() == 1
+                ? String.format("SELECT * FROM \"%s\" WHERE %s = ?", table, keyColumn)
+                : String.format("SELECT * FROM \"%s\" WHERE %s = ANY(?)", table, keyColumn);
+
+        // The driver caches the statement per connection, so it is prepared on the server after a few executions
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            if (keys.size() == 1) {
+                pstmt.setString(1, keys.get(0));
+            } else {
+                pstmt.setArray(1, connection.createArrayOf("varchar", keys.toArray()));
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                consume(rs);
+            }
+        }
+    }
+
+    /**
+     * Executes a prepared query and consumes all the returned rows. The size of a row is the size of the text
+     * representation of its columns, which is what the driver receives.
+     *
+     * @param sql        the SQL query
+     * @param parameters the parameters of the query
+     * @return the number and size of the returned rows
+     * @throws SQLException if the query cannot be executed
+     */
+    public ScanVolume scan(String sql, Object... parameters) throws SQLException {
+        long rows = 0;
+        long bytes = 0;
+        try (PreparedStatement pstmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+                pstmt.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int columns = rs.getMetaData().getColumnCount();
+                while (rs.next()) {
+                    rows++;
+                    for (int i = 1; i <= columns; i++) {
+                        String value = rs.getString(i);
+                        bytes += value != null ? value.getBytes(StandardCharsets.UTF_8).length : 0;
+                    }
+                }
+            }
+        }
+        return new ScanVolume(rows, bytes);
+    }
+
+    /**
+     * Consumes the whole result so that the transfer time is part of the latency.
+     *
+     * @param rs the result to consume
+     * @throws SQLException if the result cannot be read
+     */
+    private void consume(ResultSet rs) throws SQLException {
+        while (rs.next()) {
+            rs.getObject(1);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
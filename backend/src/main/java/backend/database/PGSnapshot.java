@@ -0,0 +1,169 @@
+package backend.database;
+
+import backend.model.query.Query;
+import backend.model.query.RestoreSpec;
+import org.postgresql.ds.PGSimpleDataSource;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * The {@code PGSnapshot} class is the PostgreSQL implementation of {@link DatasetSnapshot}.
+ * Write queries are normally rolled back, so there is nothing to save. This snapshot covers the benchmarks that
+ * have to commit their writes: when it is closed, the rows inserted by the write queries are deleted, and the
+ * rows saved by key are written back.
+ *
+ * @author Eva Ray
+ */
+public class PGSnapshot implements DatasetSnapshot {
+
+    private final PGSimpleDataSource dataSource;
+    private final String scope;
+    private final UnaryOperator<String> keyColumns;
+    // Key prefixes of the inserted rows by table
+    private final Map<String, Set<String>> insertedKeyPrefixes = new HashMap<>();
+    // Column names and saved rows by table, the key being the last value of each row
+    private final Map<String, List<String>> savedColumns = new HashMap<>();
+    private final Map<String, List<Object[]>> savedRows = new HashMap<>();
+
+    /**
+     * Constructs a new {@code PGSnapshot} for the write queries of a benchmark.
+     *
+     * @param dataSource the data source of the database
+     * @param scope      the schema in which the queries are executed
+     * @param keyColumns returns the name of the key column of a table
+     * @param queries    the queries of the benchmark. Read queries and queries without restore specification are ignored
+     */
+    public PGSnapshot(PGSimpleDataSource dataSource, String scope, UnaryOperator<String> keyColumns,
+                      Collection<Query> queries) {
+        this.dataSource = dataSource;
+        this.scope = scope;
+        this.keyColumns = keyColumns;
+
+        for (Query query : queries) {
+            RestoreSpec spec = query.getRestoreSpec();
+            if (query.isWrite() && spec != null && spec.insertedKeyPrefix() != null) {
+                insertedKeyPrefixes.computeIfAbsent(spec.collection(), t -> new HashSet<>()).add(spec.insertedKeyPrefix());
+            }
+        }
+    }
+
+    /**
+     * Constructs a new {@code PGSnapshot} that saves rows by key.
+     *
+     * @param dataSource the data source of the database
+     * @param scope      the schema of the table
+     * @param keyColumns returns the name of the key column of a table
+     * @param table      the table of the rows
+     * @param keys       the keys of the rows to save
+     */
+    public PGSnapshot(PGSimpleDataSource dataSource, String scope, UnaryOperator<String> keyColumns,
+                      String table, Collection<String> keys) {
+        this.dataSource = dataSource;
+        this.scope = scope;
+        this.keyColumns = keyColumns;
+
+        String keyColumn = keyColumns.apply(table);
+        String selectSQL = String.format("SELECT * FROM \"%s\" WHERE %s = ANY(?)", table, keyColumn);
+
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setSchema(scope);
+            try (PreparedStatement pstmt = conn.prepareStatement(selectSQL)) {
+                pstmt.setArray(1, conn.createArrayOf("varchar", keys.toArray()));
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    // The key column is moved to the end of the row, where the UPDATE statement expects it
+                    ResultSetMetaData metaData = rs.getMetaData();
+                    List<String> columns = new ArrayList<>();
+                    int keyIndex = 0;
+                    for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                        if (metaData.getColumnName(i).equals(keyColumn)) {
+                            keyIndex = i;
+                        } else {
+                            columns.add(metaData.getColumnName(i));
+                        }
+                    }
+
+                    List<Object[]> rows = new ArrayList<>();
+                    while (rs.next()) {
+                        Object[] row = new Object[columns.size() + 1];
+                        int position = 0;
+                        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                            if (i != keyIndex) {
+                                row[position++] = rs.getObject(i);
+                            }
+                        }
+                        row[columns.size()] = rs.getObject(keyIndex);
+                        rows.add(row);
+                    }
+                    savedColumns.put(table, columns);
+                    savedRows.put(table, rows);
+                    System.out.println(rows.size() + " rows saved in table " + table);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Error while saving rows of table " + table + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        if (insertedKeyPrefixes.isEmpty() && savedRows.isEmpty()) {
+            return;
+        }
+
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setSchema(scope);
+            for (Map.Entry<String, Set<String>> entry : insertedKeyPrefixes.entrySet()) {
+                String deleteSQL = String.format("DELETE FROM %s WHERE starts_with(%s, ?)",
+                        entry.getKey(), keyColumns.apply(entry.getKey()));
+                for (String prefix : entry.getValue()) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(deleteSQL)) {
+                        pstmt.setString(1, prefix);
+                        int deleted = pstmt.executeUpdate();
+                        System.out.println(deleted + " inserted rows deleted from table " + entry.getKey());
+                    }
+                }
+            }
+
+            for (Map.Entry<String, List<Object[]>> entry : savedRows.entrySet()) {
+                restoreRows(conn, entry.getKey(), entry.getValue());
+            }
+        } catch (Exception e) {
+            System.err.println("Error while restoring the dataset: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes saved rows back to their table.
+     *
+     * @param conn  the connection to use
+     * @param table the table of the rows
+     * @param rows  the saved rows
+     * @throws Exception if the rows cannot be written
+     */
+    private void restoreRows(Connection conn, String table, List<Object[]> rows) throws Exception {
+        List<String> columns = savedColumns.get(table);
+        StringJoiner assignments = new StringJoiner(", ");
+        columns.forEach(column -> assignments.add("\"" + column + "\" = ?"));
+        String updateSQL = String.format("UPDATE \"%s\" SET %s WHERE %s = ?",
+                table, assignments, keyColumns.apply(table));
+
+        try (PreparedStatement pstmt = conn.prepareStatement(updateSQL)) {
+            for (Object[] row : rows) {
+                for (int i = 0; i < row.length; i++) {
+                    pstmt.setObject(i + 1, row[i]);
+                }
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        System.out.println(rows.size() + " rows restored in table " + table);
+    }
+}
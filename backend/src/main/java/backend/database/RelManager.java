@@ -1,7 +1,21 @@
 package backend.database;
 
 import backend.model.options.DBType;
+import backend.model.options.IndexType;
 import backend.model.request.Index;
+import backend.parser.PostgresExplainJsonParser.PlanNode;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * The {@code RelManager} class is a singleton that manages the connection to a PostgreSQL relational database.
@@ -16,6 +30,9 @@ public class RelManager extends PGManager{
 
     // Singleton instance
     private static RelManager instance;
+    // Identifiers and alias-qualified columns of the conditions of a plan
+    private static final Pattern IDENTIFIER = Pattern.compile("\\b[a-z_][a-z0-9_]*\\b");
+    private static final Pattern QUALIFIED_COLUMN = Pattern.compile("\\b(\\w+)\\.(\\w+)\\b");
 
     /**
      * Private constructor to prevent instantiation from outside the class.
@@ -40,10 +57,64 @@ public class RelManager extends PGManager{
      */
     @Override
     public String getIndexCreationString(Index index) {
-        String fields = String.join(", ", index.getFields());
-        return String.format(
-                "CREATE INDEX IF NOT EXISTS %s ON %s USING %s (%s)",
-                index.getName(), index.getTable(), index.getType(), fields);
+        return getIndexCreationString(index, index.getTable(), index.getName(), index.getFields());
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The columns of the filter of the scan are the keys of a B-tree index, and each column of the table that is
+     * used in a join condition is the key of its own B-tree index.
+     */
+    @Override
+    protected List<Index> getCandidateIndexes(Connection conn, PlanNode scan, List<String> joinConditions)
+            throws SQLException {
+        Set<String> columns = new HashSet<>();
+        try (PreparedStatement pstmt = conn.prepareStatement("""
+                SELECT column_name
+                FROM information_schema.columns
+                WHERE table_schema = current_schema() AND table_name = ?
+                """)) {
+            pstmt.setString(1, scan.relationName());
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                columns.add(rs.getString(1));
+            }
+        }
+
+        List<Index> candidates = new ArrayList<>();
+        if (scan.filter() != null) {
+            // The literals are removed, so that a string value is not taken for a column
+            Set<String> filterColumns = new LinkedHashSet<>();
+            Matcher matcher = IDENTIFIER.matcher(scan.filter().replaceAll("'(?:[^']|'')*'", ""));
+            while (matcher.find()) {
+                if (columns.contains(matcher.group())) {
+                    filterColumns.add(matcher.group());
+                }
+            }
+            if (!filterColumns.isEmpty()) {
+                candidates.add(candidateIndex(scan.relationName(), new ArrayList<>(filterColumns), IndexType.BTREE));
+            }
+        }
+
+        for (String condition : joinConditions) {
+            Matcher matcher = QUALIFIED_COLUMN.matcher(condition);
+            while (matcher.find()) {
+                if (matcher.group(1).equals(scan.alias()) && columns.contains(matcher.group(2))) {
+                    candidates.add(candidateIndex(scan.relationName(), List.of(matcher.group(2)), IndexType.BTREE));
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getKeyColumn(String table) {
+        // The primary key of each main table is named after the table, e.g. business_id for business
+        return table.replace("\"", "") + "_id";
     }
 
     /**
@@ -0,0 +1,12 @@
+package backend.database;
+
+/**
+ * The {@code ScanVolume} record holds the amount of data returned by a scan, used to compute the streaming
+ * throughput of the scan.
+ *
+ * @param documents the number of documents or rows returned
+ * @param bytes     the size of the returned documents or rows in bytes
+ *
+ * @author Eva Ray
+ */
+public record ScanVolume(long documents, long bytes) {}
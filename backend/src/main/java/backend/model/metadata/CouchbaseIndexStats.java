@@ -2,15 +2,19 @@ package backend.model.metadata;
 
 /**
  * The {@code CouchbaseIndexStats} record holds statistics related to Couchbase indexes.
- * It includes the scope name, collection name, index name, and the size of the index.
+ * It includes the scope name, collection name, index name, the size of the index, the memory it uses in the
+ * index service and the percentage of the index that is resident in memory.
  *
  * @param scopeName       the name of the scope containing the index
  * @param collectionName  the name of the collection containing the index
  * @param indexName       the name of the index
  * @param indexSize       the size of the index in bytes
+ * @param memoryUsed      the memory used by the index in bytes
+ * @param residentPercent the percentage of the index that is resident in memory
  *
  * @author Eva Ray
  */
-public record CouchbaseIndexStats(String scopeName, String collectionName, String indexName, long indexSize) {
+public record CouchbaseIndexStats(String scopeName, String collectionName, String indexName, long indexSize,
+                                  long memoryUsed, double residentPercent) {
 
 }
@@ -0,0 +1,43 @@
+package backend.model.metadata;
+
+import backend.model.request.Index;
+
+/**
+ * The {@code IndexCandidate} class represents an index recommended for a query by a database, before it is built
+ * and measured. It contains the recommended index, the source of the recommendation, and, for the candidates
+ * evaluated as hypothetical indexes, the ratio of the estimated cost of the query with the index to its estimated
+ * cost without it.
+ *
+ * @author Eva Ray
+ */
+public class IndexCandidate {
+
+    private final Index index;
+    private final String source;
+    private final Double estimatedCostRatio;
+
+    /**
+     * Constructs a new {@code IndexCandidate} instance.
+     *
+     * @param index              the recommended index
+     * @param source             the source of the recommendation
+     * @param estimatedCostRatio the estimated cost ratio of the query with the index, or null if it is unknown
+     */
+    public IndexCandidate(Index index, String source, Double estimatedCostRatio) {
+        this.index = index;
+        this.source = source;
+        this.estimatedCostRatio = estimatedCostRatio;
+    }
+
+    public Index getIndex() {
+        return index;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public Double getEstimatedCostRatio() {
+        return estimatedCostRatio;
+    }
+}
@@ -1,9 +1,13 @@
 package backend.model.metadata;
 
+import static backend.model.result.Rounding.round;
+
 /**
  * The {@code IndexInfo} class encapsulates information about a database index.
  * It includes the index name, the table it belongs to, the size of the index,
  * the size of the table, and the ratio of index size to table size.
+ * For the indexes created by a benchmark, it also includes the build time and the build throughput, which is
+ * the size of the table indexed per second.
  *
  * @author Eva Ray
  */
@@ -14,6 +18,10 @@ public class IndexInfo {
     String indexSize;
     String tableSize;
     double sizeRatio;
+    long indexBytes;
+    // Build metrics, null if the index was not created by the benchmark
+    Double buildTime;
+    Double buildThroughput;
 
     /**
      * Constructs a new {@code IndexInfo} instance with the specified index name,
@@ -52,4 +60,32 @@ public class IndexInfo {
     public double getSizeRatio() {
         return sizeRatio;
     }
+
+    /**
+     * Sets the build metrics of the index.
+     *
+     * @param buildTime  the build time in milliseconds
+     * @param tableBytes the size of the indexed table in bytes
+     */
+    public void setBuildMetrics(double buildTime, long tableBytes) {
+        this.buildTime = round(buildTime);
+        // Throughput in MB of table indexed per second
+        this.buildThroughput = buildTime > 0 ? round(tableBytes / 1_000_000.0 / (buildTime / 1000)) : null;
+    }
+
+    public Double getBuildTime() {
+        return buildTime;
+    }
+
+    public Double getBuildThroughput() {
+        return buildThroughput;
+    }
+
+    public long getIndexBytes() {
+        return indexBytes;
+    }
+
+    public void setIndexBytes(long indexBytes) {
+        this.indexBytes = indexBytes;
+    }
 }
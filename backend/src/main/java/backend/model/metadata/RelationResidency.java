@@ -0,0 +1,57 @@
+package backend.model.metadata;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code RelationResidency} class describes the share of a relation, an index or a collection that is resident
+ * in the cache of a database: the shared buffers for PostgreSQL, and the memory of the index service for the GSI
+ * indexes of Couchbase.
+ *
+ * @author Eva Ray
+ */
+public class RelationResidency {
+
+    private final String name;
+    private final String kind;
+    private final Long size;
+    private final Long residentSize;
+    private final double residentPercent;
+
+    /**
+     * Constructs a new {@code RelationResidency} instance.
+     *
+     * @param name            the name of the relation or index
+     * @param kind            the kind of the relation, such as table, index or TOAST table
+     * @param size            the size of the relation in bytes, or null if the database does not report it
+     * @param residentSize    the size of the relation that is resident in the cache in bytes, or null if the
+     *                        database does not report it
+     * @param residentPercent the percentage of the relation that is resident in the cache
+     */
+    public RelationResidency(String name, String kind, Long size, Long residentSize, double residentPercent) {
+        this.name = name;
+        this.kind = kind;
+        this.size = size;
+        this.residentSize = residentSize;
+        this.residentPercent = round(residentPercent);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public Long getSize() {
+        return size;
+    }
+
+    public Long getResidentSize() {
+        return residentSize;
+    }
+
+    public double getResidentPercent() {
+        return residentPercent;
+    }
+}
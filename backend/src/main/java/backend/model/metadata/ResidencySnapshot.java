@@ -0,0 +1,52 @@
+package backend.model.metadata;
+
+import java.util.List;
+
+/**
+ * The {@code ResidencySnapshot} class describes which relations and indexes were resident in the cache of a
+ * database at a given time. For Couchbase, it also contains the share of the documents of the bucket that were
+ * resident in the memory of the data service, which is not reported per collection.
+ *
+ * @author Eva Ray
+ */
+public class ResidencySnapshot {
+
+    private final List<RelationResidency> relations;
+    private final Double bucketResidentRatio;
+
+    /**
+     * Constructs a new {@code ResidencySnapshot} instance.
+     *
+     * @param relations           the residency of the relations and indexes
+     * @param bucketResidentRatio the percentage of the documents of the bucket resident in memory, or null if the
+     *                            database has no bucket
+     */
+    public ResidencySnapshot(List<RelationResidency> relations, Double bucketResidentRatio) {
+        this.relations = relations;
+        this.bucketResidentRatio = bucketResidentRatio;
+    }
+
+    /**
+     * Returns the lowest residency of the snapshot, that is the residency of the least cached relation or index,
+     * or of the documents of the bucket.
+     *
+     * @return the lowest resident percentage, or null if the snapshot is empty
+     */
+    public Double getLowestResidentPercent() {
+        Double lowest = bucketResidentRatio;
+        for (RelationResidency relation : relations) {
+            if (lowest == null || relation.getResidentPercent() < lowest) {
+                lowest = relation.getResidentPercent();
+            }
+        }
+        return lowest;
+    }
+
+    public List<RelationResidency> getRelations() {
+        return relations;
+    }
+
+    public Double getBucketResidentRatio() {
+        return bucketResidentRatio;
+    }
+}
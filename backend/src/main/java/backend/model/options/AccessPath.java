@@ -0,0 +1,45 @@
+package backend.model.options;
+
+import java.util.Set;
+
+/**
+ * The {@code AccessPath} enum represents the ways to retrieve documents or rows by key. Each access path is only
+ * available on some database types: the KV service and N1QL {@code USE KEYS} on Couchbase, primary key lookups
+ * with a prepared statement on PostgreSQL.
+ * This enum is used in the key-value benchmark configuration files.
+ *
+ * @author Eva Ray
+ */
+public enum AccessPath {
+    KV_GET("KV get", Set.of(DBType.COUCHBASE)),
+    N1QL_USE_KEYS("N1QL USE KEYS", Set.of(DBType.COUCHBASE)),
+    PRIMARY_KEY("Primary key lookup", Set.of(DBType.POSTGRESQL, DBType.POSTGRESQL_JSONB));
+
+    private final String name;
+    private final Set<DBType> dbTypes;
+
+    /**
+     * Constructs a new {@code AccessPath} instance with the specified name.
+     *
+     * @param name    the name of the access path
+     * @param dbTypes the database types on which the access path is available
+     */
+    AccessPath(String name, Set<DBType> dbTypes) {
+        this.name = name;
+        this.dbTypes = dbTypes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns whether the access path is available on a database type.
+     *
+     * @param dbType the database type
+     * @return {@code true} if the access path is available
+     */
+    public boolean supports(DBType dbType) {
+        return dbTypes.contains(dbType);
+    }
+}
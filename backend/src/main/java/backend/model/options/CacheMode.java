@@ -0,0 +1,31 @@
+package backend.model.options;
+
+/**
+ * The {@code CacheMode} enum represents the state of the caches of a database before a query is measured.
+ * A cold cache holds none of the data read by the query, as after a restart or a failover, a warm cache holds
+ * the data read by the previous executions of the query, as after the warmup of the other benchmarks, and a hot
+ * cache holds the whole relations or collections read by the query.
+ * It is used in the benchmark configuration files to specify the cache states of a cache mode benchmark.
+ *
+ * @author Eva Ray
+ */
+public enum CacheMode {
+    COLD("Cold"),
+    WARM("Warm"),
+    HOT("Hot");
+
+    private final String name;
+
+    /**
+     * Constructs a new {@code CacheMode} instance with the specified name.
+     *
+     * @param name the name of the cache mode
+     */
+    CacheMode(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
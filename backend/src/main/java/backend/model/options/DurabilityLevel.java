@@ -0,0 +1,32 @@
+package backend.model.options;
+
+/**
+ * The {@code DurabilityLevel} enum represents the durability levels of Couchbase writes. A write is acknowledged
+ * once it is in memory on the active node (NONE), replicated in memory to a majority of nodes (MAJORITY), also
+ * persisted on the active node (MAJORITY_AND_PERSIST_TO_ACTIVE) or persisted on a majority of nodes
+ * (PERSIST_TO_MAJORITY).
+ * This enum is used in the durability benchmark configuration files.
+ *
+ * @author Eva Ray
+ */
+public enum DurabilityLevel {
+    NONE("none"),
+    MAJORITY("majority"),
+    MAJORITY_AND_PERSIST_TO_ACTIVE("majorityAndPersistActive"),
+    PERSIST_TO_MAJORITY("persistToMajority");
+
+    private final String name;
+
+    /**
+     * Constructs a new {@code DurabilityLevel} instance with the specified name.
+     *
+     * @param name the name of the level, as expected by the query service
+     */
+    DurabilityLevel(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,39 @@
+package backend.model.options;
+
+import java.sql.Connection;
+
+/**
+ * The {@code IsolationLevel} enum represents the PostgreSQL transaction isolation levels. Under READ_COMMITTED,
+ * concurrent read-modify-write transactions silently overwrite each other, while REPEATABLE_READ and SERIALIZABLE
+ * abort one of the conflicting transactions with a serialization failure, which must be retried.
+ * This enum is used in the transaction benchmark configuration files.
+ *
+ * @author Eva Ray
+ */
+public enum IsolationLevel {
+    READ_COMMITTED("read committed", Connection.TRANSACTION_READ_COMMITTED),
+    REPEATABLE_READ("repeatable read", Connection.TRANSACTION_REPEATABLE_READ),
+    SERIALIZABLE("serializable", Connection.TRANSACTION_SERIALIZABLE);
+
+    private final String name;
+    private final int level;
+
+    /**
+     * Constructs a new {@code IsolationLevel} instance with the specified name and JDBC level.
+     *
+     * @param name  the name of the level
+     * @param level the JDBC constant of the level
+     */
+    IsolationLevel(String name, int level) {
+        this.name = name;
+        this.level = level;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+}
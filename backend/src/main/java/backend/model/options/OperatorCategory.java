@@ -0,0 +1,99 @@
+package backend.model.options;
+
+/**
+ * The {@code OperatorCategory} enum groups the operators of PostgreSQL plans and N1QL profiles into engine-neutral
+ * categories, so that the plans of both engines can be compared and the time spent in each kind of operator can
+ * be aggregated over a workload.
+ *
+ * @author Eva Ray
+ */
+public enum OperatorCategory {
+    FULL_SCAN("Full scan"),
+    INDEX_SCAN("Index scan"),
+    FETCH("Fetch"),
+    FILTER("Filter"),
+    HASH_JOIN("Hash join"),
+    NESTED_LOOP_JOIN("Nested loop join"),
+    MERGE_JOIN("Merge join"),
+    UNNEST("Unnest"),
+    SORT("Sort"),
+    AGGREGATE("Aggregate"),
+    PROJECT("Project"),
+    LIMIT("Limit"),
+    MATERIALIZE("Materialize"),
+    EXCHANGE("Exchange"),
+    WRITE("Write"),
+    OTHER("Other");
+
+    private final String name;
+
+    /**
+     * Constructs a new {@code OperatorCategory} instance with the specified name.
+     *
+     * @param name the name of the category
+     */
+    OperatorCategory(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the category of a PostgreSQL plan node.
+     *
+     * @param nodeType the node type of the plan node, e.g. {@code Hash Join}
+     * @return the category of the node
+     */
+    public static OperatorCategory fromPostgres(String nodeType) {
+        return switch (nodeType) {
+            case "Seq Scan", "Sample Scan" -> FULL_SCAN;
+            case "Index Scan", "Index Only Scan", "Bitmap Index Scan", "BitmapAnd", "BitmapOr" -> INDEX_SCAN;
+            case "Bitmap Heap Scan", "Tid Scan", "Tid Range Scan" -> FETCH;
+            // The Hash node builds the hash table of a hash join
+            case "Hash Join", "Hash" -> HASH_JOIN;
+            case "Nested Loop" -> NESTED_LOOP_JOIN;
+            case "Merge Join" -> MERGE_JOIN;
+            case "Function Scan", "ProjectSet" -> UNNEST;
+            case "Sort", "Incremental Sort" -> SORT;
+            case "Aggregate", "Group", "Unique", "WindowAgg", "SetOp" -> AGGREGATE;
+            case "Result", "Subquery Scan", "Append", "Merge Append" -> PROJECT;
+            case "Limit" -> LIMIT;
+            case "Materialize", "Memoize", "CTE Scan" -> MATERIALIZE;
+            case "Gather", "Gather Merge" -> EXCHANGE;
+            case "ModifyTable", "LockRows" -> WRITE;
+            default -> OTHER;
+        };
+    }
+
+    /**
+     * Returns the category of an operator of a N1QL profile.
+     *
+     * @param operator the name of the operator, e.g. {@code HashJoin}
+     * @return the category of the operator
+     */
+    public static OperatorCategory fromCouchbase(String operator) {
+        if (operator.startsWith("PrimaryScan")) {
+            return FULL_SCAN;
+        }
+        if (operator.contains("Scan")) {
+            // IndexScan3, IndexCountScan2, DistinctScan, IntersectScan, UnionScan, ...
+            return INDEX_SCAN;
+        }
+        return switch (operator) {
+            case "Fetch", "DummyFetch" -> FETCH;
+            case "Filter" -> FILTER;
+            case "HashJoin", "HashNest" -> HASH_JOIN;
+            case "Join", "NestedLoopJoin", "Nest", "NestedLoopNest", "IndexJoin", "IndexNest" -> NESTED_LOOP_JOIN;
+            case "Unnest" -> UNNEST;
+            case "Order" -> SORT;
+            case "InitialGroup", "IntermediateGroup", "FinalGroup", "Distinct", "WindowAggregate" -> AGGREGATE;
+            case "InitialProject", "FinalProject", "IndexCountProject" -> PROJECT;
+            case "Limit", "Offset" -> LIMIT;
+            case "Parallel", "Stream" -> EXCHANGE;
+            case "SendInsert", "SendUpdate", "SendUpsert", "SendDelete", "Set", "Unset", "Clone", "Merge" -> WRITE;
+            default -> OTHER;
+        };
+    }
+}
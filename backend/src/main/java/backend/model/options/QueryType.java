@@ -3,6 +3,7 @@ package backend.model.options;
 /**
  * The {@code QueryType} enum represents different types of queries that can be executed in a database.
  * It is used to categorize queries into various types such as FILTER_IS_MISSING, FILTER4, ARRAY, NEST, etc.
+ * Write query types (INSERT, UPDATE, UPSERT, DELETE) modify the dataset, which is restored after their execution.
  * This enum is used in the benchmark configuration files to specify the type of query being executed for testing.
  *
  * @author Eva Ray
@@ -21,21 +22,47 @@ public enum QueryType {
     JOIN1("JOIN"),
     JOIN_FILTER("JOIN with filter"),
     CUSTOM("Custom query"),
-    IMBRICATION_FILTER("WHERE on nested fields (3 layers deep)"),;
+    IMBRICATION_FILTER("WHERE on nested fields (3 layers deep)"),
+    INSERT("INSERT of a review", true),
+    UPDATE("UPDATE of businesses", true),
+    UPSERT("UPSERT of a business", true),
+    DELETE("DELETE of reviews", true);
 
     private final String name;
+    private final boolean write;
 
     /**
-     * Constructs a new {@code QueryType} instance with the specified name.
+     * Constructs a new read-only {@code QueryType} instance with the specified name.
      *
      * @param name the name of the query type
      */
     QueryType(String name) {
+        this(name, false);
+    }
+
+    /**
+     * Constructs a new {@code QueryType} instance with the specified name.
+     *
+     * @param name  the name of the query type
+     * @param write whether the query modifies the dataset
+     */
+    QueryType(String name, boolean write) {
         this.name = name;
+        this.write = write;
     }
 
     public String getName() {
         return name;
     }
 
+    /**
+     * Returns whether the queries of this type modify the dataset. The dataset is restored after the execution
+     * of such queries.
+     *
+     * @return {@code true} if the query type is a write
+     */
+    public boolean isWrite() {
+        return write;
+    }
+
 }
\ No newline at end of file
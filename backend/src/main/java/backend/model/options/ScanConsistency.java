@@ -0,0 +1,30 @@
+package backend.model.options;
+
+/**
+ * The {@code ScanConsistency} enum represents the scan consistencies of Couchbase N1QL queries. A query either
+ * reads the indexes as they are (NOT_BOUNDED), waits until they contain the mutations of its own session
+ * (AT_PLUS), or waits until they contain all the mutations made before the query was received (REQUEST_PLUS).
+ * This enum is used in the consistency benchmark configuration files.
+ *
+ * @author Eva Ray
+ */
+public enum ScanConsistency {
+    NOT_BOUNDED("not_bounded"),
+    AT_PLUS("at_plus"),
+    REQUEST_PLUS("request_plus");
+
+    private final String name;
+
+    /**
+     * Constructs a new {@code ScanConsistency} instance with the specified name.
+     *
+     * @param name the name of the scan consistency, as expected by the query service
+     */
+    ScanConsistency(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,64 @@
+package backend.model.options;
+
+import java.util.Set;
+
+/**
+ * The {@code ScanPath} enum represents the ways to stream many documents or rows from a collection, either over
+ * a range of keys or as a sample of the collection. The KV scans are only available on Couchbase and are
+ * compared with the equivalent N1QL queries and PostgreSQL queries.
+ * This enum is used in the scan benchmark configuration files.
+ *
+ * @author Eva Ray
+ */
+public enum ScanPath {
+    KV_RANGE_SCAN("KV range scan", false, Set.of(DBType.COUCHBASE)),
+    N1QL_RANGE("N1QL key range", false, Set.of(DBType.COUCHBASE)),
+    SQL_RANGE("Ordered primary key range", false, Set.of(DBType.POSTGRESQL, DBType.POSTGRESQL_JSONB)),
+    KV_SAMPLING_SCAN("KV sampling scan", true, Set.of(DBType.COUCHBASE)),
+    N1QL_SAMPLE("N1QL sample", true, Set.of(DBType.COUCHBASE)),
+    SQL_SAMPLE("SQL sample", true, Set.of(DBType.POSTGRESQL, DBType.POSTGRESQL_JSONB));
+
+    private final String name;
+    private final boolean sampling;
+    private final Set<DBType> dbTypes;
+
+    /**
+     * Constructs a new {@code ScanPath} instance with the specified name.
+     *
+     * @param name     the name of the scan path
+     * @param sampling whether the scan returns a sample of the collection instead of a range of keys
+     * @param dbTypes  the database types on which the scan path is available
+     */
+    ScanPath(String name, boolean sampling, Set<DBType> dbTypes) {
+        this.name = name;
+        this.sampling = sampling;
+        this.dbTypes = dbTypes;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isSampling() {
+        return sampling;
+    }
+
+    /**
+     * Returns whether the scan path is available on a database type.
+     *
+     * @param dbType the database type
+     * @return {@code true} if the scan path is available
+     */
+    public boolean supports(DBType dbType) {
+        return dbTypes.contains(dbType);
+    }
+
+    /**
+     * Returns whether the scan path is a Couchbase KV scan, whose batches can be configured.
+     *
+     * @return {@code true} for the KV scans
+     */
+    public boolean isKeyValue() {
+        return this == KV_RANGE_SCAN || this == KV_SAMPLING_SCAN;
+    }
+}
@@ -0,0 +1,33 @@
+package backend.model.options;
+
+/**
+ * The {@code SynchronousCommit} enum represents the values of the PostgreSQL {@code synchronous_commit} setting,
+ * which tells when a commit is acknowledged: after the WAL is flushed locally (LOCAL), also on the synchronous
+ * standbys (ON, REMOTE_WRITE, REMOTE_APPLY) or immediately, before the WAL is flushed (OFF).
+ * Without synchronous standby, ON, REMOTE_WRITE and REMOTE_APPLY behave like LOCAL.
+ * This enum is used in the durability benchmark configuration files.
+ *
+ * @author Eva Ray
+ */
+public enum SynchronousCommit {
+    ON("on"),
+    OFF("off"),
+    LOCAL("local"),
+    REMOTE_WRITE("remote_write"),
+    REMOTE_APPLY("remote_apply");
+
+    private final String name;
+
+    /**
+     * Constructs a new {@code SynchronousCommit} instance with the specified name.
+     *
+     * @param name the value of the setting
+     */
+    SynchronousCommit(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
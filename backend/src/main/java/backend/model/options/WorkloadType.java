@@ -2,7 +2,7 @@ package backend.model.options;
 
 /**
  * The {@code WorkloadType} enum represents different types of workloads that can be executed in a database.
- * It is used to categorize workloads into Complete, Filter, Join, Imbrication Operations, Data Analysis, and Custom.
+ * It is used to categorize workloads into Complete, Filter, Join, Imbrication Operations, Data Analysis, Write, and Custom.
  * This enum is used in the benchmark configuration files to specify the type of workload being executed for testing.
  *
  * @author Eva Ray
@@ -13,6 +13,7 @@ public enum WorkloadType {
     JOIN("Join"),
     IMBRICATION_OPERATIONS("Imbrication Operations"),
     DATA_ANALYSIS("Data Analysis"),
+    WRITE("Write"),
     CUSTOM("Custom");
 
     private final String name;
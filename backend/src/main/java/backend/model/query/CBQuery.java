@@ -23,4 +23,16 @@ public class CBQuery extends Query {
         // Call the superclass constructor and pass directly the Couchbase database type and manager
         super(DBType.COUCHBASE, query, qType, CouchbaseManager.getInstance());
     }
+
+    /**
+     * Constructs a new {@code CBQuery} instance for a write query whose modified documents are restored after
+     * the benchmark.
+     *
+     * @param query       the Couchbase query string to be executed
+     * @param qType       the type of query (e.g., INSERT, UPDATE)
+     * @param restoreSpec the documents modified by the query
+     */
+    public CBQuery(String query, QueryType qType, RestoreSpec restoreSpec) {
+        super(DBType.COUCHBASE, query, qType, CouchbaseManager.getInstance(), restoreSpec);
+    }
 }
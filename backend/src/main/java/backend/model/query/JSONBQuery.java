@@ -23,4 +23,16 @@ public class JSONBQuery extends Query {
         // Call the superclass constructor and pass directly the PostgreSQL JSONB database type and manager
         super(DBType.POSTGRESQL_JSONB, query, qType, JSONBManager.getInstance());
     }
+
+    /**
+     * Constructs a new {@code JSONBQuery} instance for a write query whose inserted rows are removed after
+     * the benchmark.
+     *
+     * @param query       the PostgreSQL JSONB query string to be executed
+     * @param qType       the type of query (e.g., INSERT, UPSERT)
+     * @param restoreSpec the rows inserted by the query, or {@code null} if nothing has to be removed
+     */
+    public JSONBQuery(String query, QueryType qType, RestoreSpec restoreSpec) {
+        super(DBType.POSTGRESQL_JSONB, query, qType, JSONBManager.getInstance(), restoreSpec);
+    }
 }
@@ -4,19 +4,27 @@ import backend.database.DatabaseManager;
 import backend.model.options.DBType;
 import backend.model.options.QueryType;
 
+import java.util.regex.Pattern;
+
 /**
  * The {@code Query} class represents a database query with its associated properties.
  * It encapsulates the database type, the query string, the type of query, and the database manager.
  * This class serves as a base class for specific types of queries, such as Couchbase queries.
+ * A query is a write if its type is a write type or, for custom queries, if it starts with a DML keyword.
  *
  * @author Eva Ray
  */
 public abstract class Query {
 
+    // Leading keywords of the custom queries that modify the dataset
+    private static final Pattern WRITE_PATTERN =
+            Pattern.compile("^\\s*(INSERT|UPDATE|UPSERT|DELETE|MERGE)\\b", Pattern.CASE_INSENSITIVE);
+
     private final DBType dbType;
     private final String query;
     private final QueryType qType;
     private final DatabaseManager manager;
+    private final RestoreSpec restoreSpec;
 
     /**
      * Constructs a new {@code Query} instance with the specified parameters.
@@ -27,10 +35,24 @@ public abstract class Query {
      * @param manager the database manager responsible for executing the query
      */
     public Query(DBType dbType, String query, QueryType qType, DatabaseManager manager) {
+        this(dbType, query, qType, manager, null);
+    }
+
+    /**
+     * Constructs a new {@code Query} instance that describes how to restore the documents it modifies.
+     *
+     * @param dbType the type of database (e.g., Couchbase, PostgreSQL)
+     * @param query the query string to be executed
+     * @param qType the type of query (e.g., SELECT, INSERT, UPDATE)
+     * @param manager the database manager responsible for executing the query
+     * @param restoreSpec the documents modified by the query, or {@code null} if nothing has to be restored
+     */
+    public Query(DBType dbType, String query, QueryType qType, DatabaseManager manager, RestoreSpec restoreSpec) {
         this.dbType = dbType;
         this.query = query;
         this.qType = qType;
         this.manager = manager;
+        this.restoreSpec = restoreSpec;
     }
 
     public DBType getDbType() {
@@ -48,4 +70,17 @@ public abstract class Query {
     public DatabaseManager getManager() {
         return manager;
     }
+
+    public RestoreSpec getRestoreSpec() {
+        return restoreSpec;
+    }
+
+    /**
+     * Returns whether the query modifies the dataset.
+     *
+     * @return {@code true} if the query is a write
+     */
+    public boolean isWrite() {
+        return qType.isWrite() || WRITE_PATTERN.matcher(query).find();
+    }
 }
@@ -24,6 +24,12 @@ public class QueryFactory {
     // Map to hold the query strings (actual query text) for different database types and query types.
     private static final Map<QueryKey, String> queryStrings = new HashMap<>();
 
+    // Map to hold the data modified by the write queries for different database types and query types.
+    private static final Map<QueryKey, RestoreSpec> restoreSpecs = new HashMap<>();
+
+    // Key prefix of the rows and documents inserted by the write queries
+    public static final String WRITE_KEY_PREFIX = "bench_";
+
     /**
      * A private record to represent a unique key for each query based on the database type and query type.
      * This is used to store and retrieve query strings efficiently.
@@ -31,10 +37,12 @@ public class QueryFactory {
     private record QueryKey(DBType dbType, QueryType queryType) {}
 
     /**
-     * Private constructor to enforce singleton pattern. It initializes the query strings
+     * Private constructor to enforce singleton pattern. It initializes the query strings and the restore
+     * specifications of the write queries.
      */
     private QueryFactory() {
         loadQueryStrings();
+        loadRestoreSpecs();
     }
 
     /**
@@ -338,6 +346,149 @@ public class QueryFactory {
                 from business b
                 where  (b.data -> 'attributes' -> 'BusinessParking' ->> 'garage')::boolean
                 """);
+
+        // Write queries. The keys of the inserted rows and documents start with WRITE_KEY_PREFIX so that
+        // they can be identified and removed after the benchmark.
+
+        // INSERT queries
+        queryStrings.put(new QueryKey(DBType.COUCHBASE, QueryType.INSERT), """
+                INSERT INTO review (KEY k, VALUE v)
+                SELECT k,
+                       {"review_id": k, "business_id": b.business_id, "user_id": "bench_user", "stars": 5,
+                        "useful": 0, "funny": 0, "cool": 0, "text": "Benchmark review", "date": NOW_STR()} AS v
+                FROM business b
+                LET k = "bench_" || UUID()
+                WHERE b.city = "Richboro"
+                LIMIT 1
+                """);
+
+        queryStrings.put(new QueryKey(DBType.POSTGRESQL, QueryType.INSERT), """
+                insert into review (review_id, business_id, user_id, stars, useful, funny, cool, date, text)
+                select 'bench_' || gen_random_uuid(), b.business_id, u.user_id, 5, 0, 0, 0, now(), 'Benchmark review'
+                from (select business_id from business where city = 'Richboro' limit 1) b,
+                     (select user_id from "user" limit 1) u;
+                """);
+
+        queryStrings.put(new QueryKey(DBType.POSTGRESQL_JSONB, QueryType.INSERT), """
+                insert into review (id, data)
+                select k.id,
+                       jsonb_build_object('review_id', k.id, 'business_id', b.id, 'user_id', 'bench_user', 'stars', 5,
+                                          'useful', 0, 'funny', 0, 'cool', 0, 'text', 'Benchmark review',
+                                          'date', now()::text)
+                from (select 'bench_' || gen_random_uuid() as id) k,
+                     (select id from business where data->>'city' = 'Richboro' limit 1) b;
+                """);
+
+        // UPDATE queries
+        queryStrings.put(new QueryKey(DBType.COUCHBASE, QueryType.UPDATE), """
+                UPDATE business b
+                SET b.review_count = b.review_count + 1
+                WHERE b.city = "Richboro"
+                """);
+
+        queryStrings.put(new QueryKey(DBType.POSTGRESQL, QueryType.UPDATE), """
+                update business
+                set review_count = review_count + 1
+                where city = 'Richboro';
+                """);
+
+        queryStrings.put(new QueryKey(DBType.POSTGRESQL_JSONB, QueryType.UPDATE), """
+                update business
+                set data = jsonb_set(data, '{review_count}', to_jsonb((data->>'review_count')::int + 1))
+                where data->>'city' = 'Richboro';
+                """);
+
+        // UPSERT queries
+        queryStrings.put(new QueryKey(DBType.COUCHBASE, QueryType.UPSERT), """
+                UPSERT INTO business (KEY, VALUE)
+                VALUES ("bench_business", {"business_id": "bench_business", "name": "Benchmark business",
+                        "city": "Nashville", "state": "TN", "stars": 4.5, "review_count": 0, "is_open": 1})
+                """);
+
+        queryStrings.put(new QueryKey(DBType.POSTGRESQL, QueryType.UPSERT), """
+                insert into business (business_id, name, city, state, stars, review_count, is_open)
+                values ('bench_business', 'Benchmark business', 'Nashville', 'TN', 4.5, 0, 1)
+                on conflict (business_id) do update set review_count = business.review_count + 1;
+                """);
+
+        queryStrings.put(new QueryKey(DBType.POSTGRESQL_JSONB, QueryType.UPSERT), """
+                insert into business (id, data)
+                values ('bench_business', '{"business_id": "bench_business", "name": "Benchmark business",
+                        "city": "Nashville", "state": "TN", "stars": 4.5, "review_count": 0, "is_open": 1}')
+                on conflict (id) do update
+                    set data = jsonb_set(business.data, '{review_count}',
+                                         to_jsonb((business.data->>'review_count')::int + 1));
+                """);
+
+        // DELETE queries. Each execution deletes one of the reviews inserted before the benchmark by the seed
+        // queries below, so that every execution has a review to delete. Concurrent PostgreSQL sessions skip the
+        // reviews locked by the others.
+        queryStrings.put(new QueryKey(DBType.COUCHBASE, QueryType.DELETE), """
+                DELETE FROM review r
+                WHERE META(r).id LIKE "bench_delete_%"
+                LIMIT 1
+                """);
+
+        queryStrings.put(new QueryKey(DBType.POSTGRESQL, QueryType.DELETE), """
+                delete from review
+                where review_id = (select review_id from review
+                                   where user_id = (select min(user_id) from "user")
+                                     and starts_with(review_id, 'bench_delete_')
+                                   limit 1 for update skip locked);
+                """);
+
+        queryStrings.put(new QueryKey(DBType.POSTGRESQL_JSONB, QueryType.DELETE), """
+                delete from review
+                where id = (select id from review where data->>'user_id' = 'bench_delete_user'
+                            limit 1 for update skip locked);
+                """);
+    }
+
+    /**
+     * Loads the description of the data modified by the write queries, so that it can be restored after the
+     * benchmark. PostgreSQL write queries are normally executed in a transaction that is rolled back, so only the
+     * inserted rows are described, for the benchmarks that have to commit their writes, and the rows inserted for
+     * the DELETE queries.
+     */
+    private void loadRestoreSpecs() {
+        restoreSpecs.put(new QueryKey(DBType.COUCHBASE, QueryType.INSERT), new RestoreSpec("review", null, WRITE_KEY_PREFIX));
+        restoreSpecs.put(new QueryKey(DBType.COUCHBASE, QueryType.UPDATE), new RestoreSpec("business", """
+                SELECT RAW META(b).id
+                FROM business b
+                WHERE b.city = "Richboro"
+                """, null));
+        restoreSpecs.put(new QueryKey(DBType.COUCHBASE, QueryType.UPSERT), new RestoreSpec("business", null, WRITE_KEY_PREFIX));
+        restoreSpecs.put(new QueryKey(DBType.COUCHBASE, QueryType.DELETE), new RestoreSpec("review", null, WRITE_KEY_PREFIX, """
+                INSERT INTO review (KEY k, VALUE v)
+                SELECT k,
+                       {"review_id": k, "business_id": "bench_business", "user_id": "bench_delete_user", "stars": 1,
+                        "useful": 0, "funny": 0, "cool": 0, "text": "Benchmark review to delete", "date": NOW_STR()} AS v
+                FROM ARRAY_RANGE(0, $1) AS i
+                LET k = "bench_delete_" || UUID()
+                """));
+
+        for (DBType dbType : new DBType[]{DBType.POSTGRESQL, DBType.POSTGRESQL_JSONB}) {
+            restoreSpecs.put(new QueryKey(dbType, QueryType.INSERT), new RestoreSpec("review", null, WRITE_KEY_PREFIX));
+            restoreSpecs.put(new QueryKey(dbType, QueryType.UPSERT), new RestoreSpec("business", null, WRITE_KEY_PREFIX));
+        }
+        // The reviews deleted by the DELETE queries are found through the index on their user. The relational
+        // reviews reference an existing user, found with the primary key of the user table.
+        restoreSpecs.put(new QueryKey(DBType.POSTGRESQL, QueryType.DELETE), new RestoreSpec("review", null, WRITE_KEY_PREFIX, """
+                insert into review (review_id, business_id, user_id, stars, useful, funny, cool, date, text)
+                select 'bench_delete_' || gen_random_uuid(), b.business_id, (select min(user_id) from "user"),
+                       1, 0, 0, 0, now(), 'Benchmark review to delete'
+                from generate_series(1, ?) g,
+                     (select business_id from business where city = 'Richboro' limit 1) b;
+                """));
+        restoreSpecs.put(new QueryKey(DBType.POSTGRESQL_JSONB, QueryType.DELETE), new RestoreSpec("review", null, WRITE_KEY_PREFIX, """
+                insert into review (id, data)
+                select k.id,
+                       jsonb_build_object('review_id', k.id, 'business_id', b.id, 'user_id', 'bench_delete_user',
+                                          'stars', 1, 'useful', 0, 'funny', 0, 'cool', 0,
+                                          'text', 'Benchmark review to delete', 'date', now()::text)
+                from (select 'bench_delete_' || gen_random_uuid() as id from generate_series(1, ?)) k,
+                     (select id from business where data->>'city' = 'Richboro' limit 1) b;
+                """));
     }
 
     /**
@@ -374,10 +525,11 @@ public class QueryFactory {
             );
         }
 
+        RestoreSpec restoreSpec = restoreSpecs.get(key);
         return switch (dbType) {
-            case COUCHBASE -> new CBQuery(queryString, queryType);
-            case POSTGRESQL -> new RelQuery(queryString, queryType);
-            case POSTGRESQL_JSONB -> new JSONBQuery(queryString, queryType);
+            case COUCHBASE -> new CBQuery(queryString, queryType, restoreSpec);
+            case POSTGRESQL -> new RelQuery(queryString, queryType, restoreSpec);
+            case POSTGRESQL_JSONB -> new JSONBQuery(queryString, queryType, restoreSpec);
         };
     }
 
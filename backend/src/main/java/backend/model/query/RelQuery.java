@@ -23,4 +23,16 @@ public class RelQuery extends Query{
         // Call the superclass constructor and pass directly the PostgreSQL database type and manager
         super(DBType.POSTGRESQL, query, qType, RelManager.getInstance());
     }
+
+    /**
+     * Constructs a new {@code RelQuery} instance for a write query whose inserted rows are removed after
+     * the benchmark.
+     *
+     * @param query       the PostgreSQL relational query string to be executed
+     * @param qType       the type of query (e.g., INSERT, UPSERT)
+     * @param restoreSpec the rows inserted by the query, or {@code null} if nothing has to be removed
+     */
+    public RelQuery(String query, QueryType qType, RestoreSpec restoreSpec) {
+        super(DBType.POSTGRESQL, query, qType, RelManager.getInstance(), restoreSpec);
+    }
 }
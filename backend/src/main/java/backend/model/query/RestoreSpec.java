@@ -0,0 +1,33 @@
+package backend.model.query;
+
+/**
+ * The {@code RestoreSpec} record describes the data modified by a write query, so that it can be restored when
+ * the writes cannot be rolled back. Couchbase has no multi-statement rollback for N1QL DML, so the dataset is
+ * restored by saving the affected documents and deleting the documents inserted by the benchmark. PostgreSQL
+ * normally rolls back its writes, and only removes the inserted rows of the benchmarks that commit them.
+ *
+ * @param collection        the collection or table modified by the query
+ * @param affectedKeysQuery a N1QL query returning the keys of the documents modified by the query (SELECT RAW),
+ *                          or {@code null} if the query does not modify existing documents. Only used by Couchbase
+ * @param insertedKeyPrefix the key prefix of the documents or rows inserted by the query or by its seed query, or
+ *                          {@code null} if the query does not insert documents
+ * @param seedQuery         a query inserting the documents or rows removed by the query, keyed with the inserted key
+ *                          prefix, whose only parameter is the number of documents to insert, or {@code null} if the
+ *                          query does not remove documents. Each execution of the query removes its own document, so
+ *                          that every execution has something to remove
+ *
+ * @author Eva Ray
+ */
+public record RestoreSpec(String collection, String affectedKeysQuery, String insertedKeyPrefix, String seedQuery) {
+
+    /**
+     * Constructs a new {@code RestoreSpec} instance for a query that does not remove documents.
+     *
+     * @param collection        the collection or table modified by the query
+     * @param affectedKeysQuery a N1QL query returning the keys of the documents modified by the query
+     * @param insertedKeyPrefix the key prefix of the documents or rows inserted by the query
+     */
+    public RestoreSpec(String collection, String affectedKeysQuery, String insertedKeyPrefix) {
+        this(collection, affectedKeysQuery, insertedKeyPrefix, null);
+    }
+}
@@ -0,0 +1,51 @@
+package backend.model.request;
+
+import backend.model.options.QueryType;
+
+import java.util.List;
+
+/**
+ * The {@code AdvisorRequest} class represents a request for an index advisor benchmark. For each selected query,
+ * the databases recommend candidate indexes, each candidate is built and measured on its own, and the candidates
+ * are ranked by latency gain per MB of index.
+ *
+ * The number of executions of the request is the number of executions of each query, without index and with
+ * each candidate. The common indexes of the request are not used: the advisor starts from a scope without
+ * benchmark indexes.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class AdvisorRequest extends BenchmarkRequest {
+
+    private List<QueryType> selectedQueries = List.of(QueryType.FILTER);
+    private int maxCandidates = 5;
+    private double minGainPercent = 5;
+
+    public List<QueryType> getSelectedQueries() {
+        return selectedQueries;
+    }
+
+    public void setSelectedQueries(List<QueryType> selectedQueries) {
+        this.selectedQueries = selectedQueries;
+    }
+
+    public int getMaxCandidates() {
+        return maxCandidates;
+    }
+
+    public void setMaxCandidates(int maxCandidates) {
+        this.maxCandidates = maxCandidates;
+    }
+
+    public double getMinGainPercent() {
+        return minGainPercent;
+    }
+
+    public void setMinGainPercent(double minGainPercent) {
+        this.minGainPercent = minGainPercent;
+    }
+}
@@ -0,0 +1,63 @@
+package backend.model.request;
+
+/**
+ * The {@code ArrayIndexKey} class represents the array key of a Couchbase array index, which indexes the elements
+ * of an array field: {@code DISTINCT ARRAY element FOR variable IN path END}. The variable must be the one used by
+ * the {@code ANY ... SATISFIES} predicates of the queries, otherwise the index is not selected.
+ *
+ * The attributes of this class match some attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class ArrayIndexKey {
+
+    private String path;
+    private String variable = "v";
+    private String element;
+    private boolean distinct = true;
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getVariable() {
+        return variable;
+    }
+
+    public void setVariable(String variable) {
+        this.variable = variable;
+    }
+
+    public String getElement() {
+        // The array elements are indexed as they are by default
+        return element != null ? element : variable;
+    }
+
+    public void setElement(String element) {
+        this.element = element;
+    }
+
+    public boolean isDistinct() {
+        return distinct;
+    }
+
+    public void setDistinct(boolean distinct) {
+        this.distinct = distinct;
+    }
+
+    /**
+     * Returns the N1QL expression of the array key.
+     *
+     * @return the array key expression
+     */
+    @Override
+    public String toString() {
+        return (distinct ? "DISTINCT" : "ALL") + " ARRAY " + getElement() + " FOR " + variable + " IN " + path + " END";
+    }
+}
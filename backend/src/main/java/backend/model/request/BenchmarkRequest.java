@@ -8,7 +8,8 @@ import java.util.Map;
 
 /**
  * The {@code BenchmarkRequest} class represents a request for a benchmark test.
- * It contains the number of executions, selected databases, database size, and indexes.
+ * It contains the number of executions, selected databases, database size, indexes, and the session-level
+ * settings of each database, applied to the executions of the queries instead of the configuration of the server.
  * This class is used to configure benchmark tests on different database types.
  * The attributes of this class match the attributes of the benchmark configuration files, so that
  * Javalin can automatically convert the JSON files into instances of this class.
@@ -22,6 +23,7 @@ public abstract class BenchmarkRequest {
     private List<DBType> selectedDatabases;
     private DBSize selectedSize;
     private Map<DBType, List<Index>> indexes = null;
+    private Map<DBType, Map<String, String>> settings = null;
 
     public BenchmarkRequest() {
         // Constructeur par défaut requis par Jackson
@@ -43,6 +45,14 @@ public abstract class BenchmarkRequest {
         this.indexes = indexes;
     }
 
+    public Map<DBType, Map<String, String>> getSettings() {
+        return settings;
+    }
+
+    public void setSettings(Map<DBType, Map<String, String>> settings) {
+        this.settings = settings;
+    }
+
     public List<DBType> getSelectedDatabases() {
         return selectedDatabases;
     }
@@ -0,0 +1,52 @@
+package backend.model.request;
+
+import backend.model.options.CacheMode;
+import backend.model.options.QueryType;
+
+import java.util.List;
+
+/**
+ * The {@code CacheModeRequest} class represents a request for a cache mode benchmark, which measures the latency
+ * of the first execution of read queries with a cold, a warm and a hot cache, so that the latency after a restart
+ * or a failover can be compared with the latency of the usual benchmarks.
+ *
+ * The number of executions of the request is the number of first executions measured for each query and cache
+ * mode. The page cache of the operating system of the host of the databases is only dropped for the cold cache
+ * if requested, since it is shared by all the databases of the host.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class CacheModeRequest extends BenchmarkRequest {
+
+    private List<QueryType> selectedQueries = List.of(QueryType.FILTER);
+    private List<CacheMode> modes = List.of(CacheMode.values());
+    private boolean dropOsCache = false;
+
+    public List<QueryType> getSelectedQueries() {
+        return selectedQueries;
+    }
+
+    public void setSelectedQueries(List<QueryType> selectedQueries) {
+        this.selectedQueries = selectedQueries;
+    }
+
+    public List<CacheMode> getModes() {
+        return modes;
+    }
+
+    public void setModes(List<CacheMode> modes) {
+        this.modes = modes;
+    }
+
+    public boolean isDropOsCache() {
+        return dropOsCache;
+    }
+
+    public void setDropOsCache(boolean dropOsCache) {
+        this.dropOsCache = dropOsCache;
+    }
+}
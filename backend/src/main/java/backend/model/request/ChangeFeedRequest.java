@@ -0,0 +1,56 @@
+package backend.model.request;
+
+import java.util.List;
+
+/**
+ * The {@code ChangeFeedRequest} class represents a request for a change feed benchmark, which measures how long
+ * committed writes take to reach a change feed consumer. A stream of insertions is applied to the business
+ * collection at each target rate, while a consumer observes the changes of the collection.
+ *
+ * The number of executions of the request is the number of insertions applied at each rate.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class ChangeFeedRequest extends BenchmarkRequest {
+
+    private List<Double> writeRates = List.of(100.0, 1000.0);
+    private int concurrency = 4;
+    private int pollIntervalMs = 10;
+    private int drainTimeoutSeconds = 30;
+
+    public List<Double> getWriteRates() {
+        return writeRates;
+    }
+
+    public void setWriteRates(List<Double> writeRates) {
+        this.writeRates = writeRates;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getPollIntervalMs() {
+        return pollIntervalMs;
+    }
+
+    public void setPollIntervalMs(int pollIntervalMs) {
+        this.pollIntervalMs = pollIntervalMs;
+    }
+
+    public int getDrainTimeoutSeconds() {
+        return drainTimeoutSeconds;
+    }
+
+    public void setDrainTimeoutSeconds(int drainTimeoutSeconds) {
+        this.drainTimeoutSeconds = drainTimeoutSeconds;
+    }
+}
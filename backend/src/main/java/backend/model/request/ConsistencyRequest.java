@@ -0,0 +1,80 @@
+package backend.model.request;
+
+import backend.model.options.QueryType;
+import backend.model.options.ScanConsistency;
+
+import java.util.List;
+
+/**
+ * The {@code ConsistencyRequest} class represents a request for a consistency benchmark, which measures how long
+ * Couchbase secondary indexes take to make a write visible, and the latency cost of reading with a stronger scan
+ * consistency. During the whole benchmark, a background stream of writes keeps the indexer busy.
+ *
+ * The number of executions of the request is the number of visibility probes, and the number of reads measured
+ * for each query and scan consistency.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class ConsistencyRequest extends BenchmarkRequest {
+
+    private List<QueryType> selectedQueries = List.of(QueryType.FILTER);
+    private List<ScanConsistency> scanConsistencies =
+            List.of(ScanConsistency.NOT_BOUNDED, ScanConsistency.AT_PLUS, ScanConsistency.REQUEST_PLUS);
+    private String probeField = "city";
+    private double backgroundWriteRate = 500;
+    private int visibilityTimeoutMs = 10000;
+    // Interval between the queries of a visibility probe, which is the resolution of the visibility lag
+    private int pollIntervalMs = 5;
+
+    public List<QueryType> getSelectedQueries() {
+        return selectedQueries;
+    }
+
+    public void setSelectedQueries(List<QueryType> selectedQueries) {
+        this.selectedQueries = selectedQueries;
+    }
+
+    public List<ScanConsistency> getScanConsistencies() {
+        return scanConsistencies;
+    }
+
+    public void setScanConsistencies(List<ScanConsistency> scanConsistencies) {
+        this.scanConsistencies = scanConsistencies;
+    }
+
+    public String getProbeField() {
+        return probeField;
+    }
+
+    public void setProbeField(String probeField) {
+        this.probeField = probeField;
+    }
+
+    public double getBackgroundWriteRate() {
+        return backgroundWriteRate;
+    }
+
+    public void setBackgroundWriteRate(double backgroundWriteRate) {
+        this.backgroundWriteRate = backgroundWriteRate;
+    }
+
+    public int getVisibilityTimeoutMs() {
+        return visibilityTimeoutMs;
+    }
+
+    public void setVisibilityTimeoutMs(int visibilityTimeoutMs) {
+        this.visibilityTimeoutMs = visibilityTimeoutMs;
+    }
+
+    public int getPollIntervalMs() {
+        return pollIntervalMs;
+    }
+
+    public void setPollIntervalMs(int pollIntervalMs) {
+        this.pollIntervalMs = pollIntervalMs;
+    }
+}
@@ -0,0 +1,43 @@
+package backend.model.request;
+
+import backend.model.options.QueryType;
+
+import java.util.List;
+
+/**
+ * The {@code CoveringIndexRequest} class represents a request for a covering index benchmark on Couchbase. Each
+ * selected query is measured with the common indexes of the request, and its profile is searched for documents
+ * fetched after an index scan. When the fetches take at least the minimum share of the time of the query, a
+ * covering index candidate is generated for each of them, and the query is measured again with the candidates
+ * in place of the scanned indexes.
+ *
+ * The number of executions of the request is the number of executions of each query, with the common indexes
+ * and with the covering indexes.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class CoveringIndexRequest extends BenchmarkRequest {
+
+    private List<QueryType> selectedQueries = List.of(QueryType.FILTER);
+    private double minFetchShare = 20;
+
+    public List<QueryType> getSelectedQueries() {
+        return selectedQueries;
+    }
+
+    public void setSelectedQueries(List<QueryType> selectedQueries) {
+        this.selectedQueries = selectedQueries;
+    }
+
+    public double getMinFetchShare() {
+        return minFetchShare;
+    }
+
+    public void setMinFetchShare(double minFetchShare) {
+        this.minFetchShare = minFetchShare;
+    }
+}
@@ -0,0 +1,71 @@
+package backend.model.request;
+
+import backend.model.options.DurabilityLevel;
+import backend.model.options.QueryType;
+import backend.model.options.SynchronousCommit;
+
+import java.util.List;
+
+/**
+ * The {@code DurabilityRequest} class represents a request for a durability benchmark, which measures the cost
+ * of committing writes with different durability settings. The write query is executed with each Couchbase
+ * durability level, and with each combination of PostgreSQL {@code synchronous_commit} value and commit batch size.
+ *
+ * The number of executions of the request is the number of commits measured for each setting.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class DurabilityRequest extends BenchmarkRequest {
+
+    private QueryType selectedQuery = QueryType.INSERT;
+    // The durable levels need more data nodes than the single node deployment has
+    private List<DurabilityLevel> durabilityLevels = List.of(DurabilityLevel.NONE);
+    private List<SynchronousCommit> synchronousCommits =
+            List.of(SynchronousCommit.ON, SynchronousCommit.OFF, SynchronousCommit.LOCAL);
+    private List<Integer> commitBatchSizes = List.of(1);
+    private int concurrency = 1;
+
+    public QueryType getSelectedQuery() {
+        return selectedQuery;
+    }
+
+    public void setSelectedQuery(QueryType selectedQuery) {
+        this.selectedQuery = selectedQuery;
+    }
+
+    public List<DurabilityLevel> getDurabilityLevels() {
+        return durabilityLevels;
+    }
+
+    public void setDurabilityLevels(List<DurabilityLevel> durabilityLevels) {
+        this.durabilityLevels = durabilityLevels;
+    }
+
+    public List<SynchronousCommit> getSynchronousCommits() {
+        return synchronousCommits;
+    }
+
+    public void setSynchronousCommits(List<SynchronousCommit> synchronousCommits) {
+        this.synchronousCommits = synchronousCommits;
+    }
+
+    public List<Integer> getCommitBatchSizes() {
+        return commitBatchSizes;
+    }
+
+    public void setCommitBatchSizes(List<Integer> commitBatchSizes) {
+        this.commitBatchSizes = commitBatchSizes;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+}
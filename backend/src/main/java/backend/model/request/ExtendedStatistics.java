@@ -0,0 +1,55 @@
+package backend.model.request;
+
+import java.util.List;
+
+/**
+ * The {@code ExtendedStatistics} class represents PostgreSQL extended statistics created by a statistics
+ * experiment, with {@code CREATE STATISTICS name (kinds) ON expressions FROM table}. The expressions are columns
+ * or expressions in parentheses, for example {@code (data ->> 'city')} for a JSONB field. Without kinds, all the
+ * kinds supported by the expressions are built.
+ *
+ * The attributes of this class match some attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class ExtendedStatistics {
+
+    private String name;
+    private String table;
+    private List<String> expressions;
+    private List<String> kinds = null;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public List<String> getExpressions() {
+        return expressions;
+    }
+
+    public void setExpressions(List<String> expressions) {
+        this.expressions = expressions;
+    }
+
+    public List<String> getKinds() {
+        return kinds;
+    }
+
+    public void setKinds(List<String> kinds) {
+        this.kinds = kinds;
+    }
+}
@@ -0,0 +1,66 @@
+package backend.model.request;
+
+import backend.model.options.DBType;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * The {@code FlameGraphDiffRequest} class represents a request for a differential flame graph between two
+ * benchmark results. To compare two index configurations, {@code before} and {@code after} are the results of
+ * the same benchmark run with each configuration. To compare two engines, {@code beforeDatabase} and
+ * {@code afterDatabase} select the database of each side, which can come from the same results, and the stacks
+ * start below the database type so that they line up.
+ *
+ * The attributes of this class match some attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class FlameGraphDiffRequest {
+
+    private JsonNode before;
+    private JsonNode after;
+    private DBType beforeDatabase = null;
+    private DBType afterDatabase = null;
+    private boolean categories = false;
+
+    public JsonNode getBefore() {
+        return before;
+    }
+
+    public void setBefore(JsonNode before) {
+        this.before = before;
+    }
+
+    public JsonNode getAfter() {
+        return after;
+    }
+
+    public void setAfter(JsonNode after) {
+        this.after = after;
+    }
+
+    public DBType getBeforeDatabase() {
+        return beforeDatabase;
+    }
+
+    public void setBeforeDatabase(DBType beforeDatabase) {
+        this.beforeDatabase = beforeDatabase;
+    }
+
+    public DBType getAfterDatabase() {
+        return afterDatabase;
+    }
+
+    public void setAfterDatabase(DBType afterDatabase) {
+        this.afterDatabase = afterDatabase;
+    }
+
+    public boolean isCategories() {
+        return categories;
+    }
+
+    public void setCategories(boolean categories) {
+        this.categories = categories;
+    }
+}
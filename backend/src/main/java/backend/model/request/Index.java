@@ -7,6 +7,11 @@ import java.util.List;
 /**
  * The {@code Index} class represents an index in a database.
  * It encapsulates the table name, fields, index name, and index type.
+ * PostgreSQL indexes can be built with {@code CREATE INDEX CONCURRENTLY}, which does not block the writes
+ * of the table but takes longer.
+ * The optional attributes describe the indexes used in production: a partial index predicate, covered columns,
+ * a GIN operator class on PostgreSQL, and array keys, hash partitioning and replicas on Couchbase. An option that
+ * the target database does not support makes the creation of the index fail.
  * This class is used to define and manage indexes in the database.
  *
  * The attributes of this class match some attributes of the benchmark configuration files, so that
@@ -20,6 +25,18 @@ public class Index {
     private List<String> fields;
     private String name;
     private IndexType type;
+    private boolean concurrently = false;
+    // Predicate of a partial index
+    private String where;
+    // Columns stored in the index to cover queries without being keys
+    private List<String> include;
+    // Operator class of the keys, e.g. jsonb_path_ops
+    private String opclass;
+    // Couchbase only
+    private ArrayIndexKey arrayKey;
+    private List<String> partitionBy;
+    private Integer numPartitions;
+    private Integer numReplicas;
 
     public String getTable() {
         return table;
@@ -63,4 +80,68 @@ public class Index {
 
         return type;
     }
+
+    public boolean isConcurrently() {
+        return concurrently;
+    }
+
+    public void setConcurrently(boolean concurrently) {
+        this.concurrently = concurrently;
+    }
+
+    public String getWhere() {
+        return where;
+    }
+
+    public void setWhere(String where) {
+        this.where = where;
+    }
+
+    public List<String> getInclude() {
+        return include;
+    }
+
+    public void setInclude(List<String> include) {
+        this.include = include;
+    }
+
+    public String getOpclass() {
+        return opclass;
+    }
+
+    public void setOpclass(String opclass) {
+        this.opclass = opclass;
+    }
+
+    public ArrayIndexKey getArrayKey() {
+        return arrayKey;
+    }
+
+    public void setArrayKey(ArrayIndexKey arrayKey) {
+        this.arrayKey = arrayKey;
+    }
+
+    public List<String> getPartitionBy() {
+        return partitionBy;
+    }
+
+    public void setPartitionBy(List<String> partitionBy) {
+        this.partitionBy = partitionBy;
+    }
+
+    public Integer getNumPartitions() {
+        return numPartitions;
+    }
+
+    public void setNumPartitions(Integer numPartitions) {
+        this.numPartitions = numPartitions;
+    }
+
+    public Integer getNumReplicas() {
+        return numReplicas;
+    }
+
+    public void setNumReplicas(Integer numReplicas) {
+        this.numReplicas = numReplicas;
+    }
 }
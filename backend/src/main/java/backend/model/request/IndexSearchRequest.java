@@ -0,0 +1,61 @@
+package backend.model.request;
+
+import backend.model.options.DBType;
+import backend.model.options.WorkloadType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code IndexSearchRequest} class represents a request for an index search, which looks for the combination
+ * of candidate indexes that minimises the latency of a workload under a storage budget.
+ *
+ * The number of executions of the request is distributed among the queries of the workload according to their
+ * ratio, as in a workload benchmark. The common indexes of the request are not used, the candidates are given per
+ * database type in the {@code candidates} attribute.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class IndexSearchRequest extends BenchmarkRequest {
+
+    private WorkloadType selectedWorkload;
+    private Map<DBType, List<Index>> candidates = null;
+    private double storageBudgetMB = 1024;
+    private int maxEvaluations = 50;
+
+    public WorkloadType getSelectedWorkload() {
+        return selectedWorkload;
+    }
+
+    public void setSelectedWorkload(WorkloadType selectedWorkload) {
+        this.selectedWorkload = selectedWorkload;
+    }
+
+    public Map<DBType, List<Index>> getCandidates() {
+        return candidates;
+    }
+
+    public void setCandidates(Map<DBType, List<Index>> candidates) {
+        this.candidates = candidates;
+    }
+
+    public double getStorageBudgetMB() {
+        return storageBudgetMB;
+    }
+
+    public void setStorageBudgetMB(double storageBudgetMB) {
+        this.storageBudgetMB = storageBudgetMB;
+    }
+
+    public int getMaxEvaluations() {
+        return maxEvaluations;
+    }
+
+    public void setMaxEvaluations(int maxEvaluations) {
+        this.maxEvaluations = maxEvaluations;
+    }
+}
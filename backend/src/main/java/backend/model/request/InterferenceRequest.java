@@ -0,0 +1,30 @@
+package backend.model.request;
+
+import java.util.List;
+
+/**
+ * The {@code InterferenceRequest} class represents a request for an interference benchmark, in which several
+ * classes of queries are executed concurrently on the same database. Each class is first measured alone, then
+ * together with the other classes, which quantifies the impact that the classes have on each other.
+ *
+ * The number of executions of the request is the number of recorded executions for each class, unless a class
+ * defines its own number of executions.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class InterferenceRequest extends BenchmarkRequest {
+
+    private List<QueryClass> queryClasses;
+
+    public List<QueryClass> getQueryClasses() {
+        return queryClasses;
+    }
+
+    public void setQueryClasses(List<QueryClass> queryClasses) {
+        this.queryClasses = queryClasses;
+    }
+}
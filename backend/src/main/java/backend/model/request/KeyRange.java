@@ -0,0 +1,53 @@
+package backend.model.request;
+
+/**
+ * The {@code KeyRange} class represents a range of document keys, from an inclusive lower bound to an exclusive
+ * upper bound.
+ *
+ * The attributes of this class match some attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class KeyRange {
+
+    private String from;
+    private String to;
+
+    public KeyRange() {
+        // Default constructor required by Jackson
+    }
+
+    /**
+     * Constructs a new {@code KeyRange} instance.
+     *
+     * @param from the inclusive lower bound
+     * @param to   the exclusive upper bound
+     */
+    public KeyRange(String from, String to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public void setFrom(String from) {
+        this.from = from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public void setTo(String to) {
+        this.to = to;
+    }
+
+    @Override
+    public String toString() {
+        return "[" + from + ", " + to + ")";
+    }
+}
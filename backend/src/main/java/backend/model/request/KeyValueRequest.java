@@ -0,0 +1,68 @@
+package backend.model.request;
+
+import backend.model.options.AccessPath;
+
+import java.util.List;
+
+/**
+ * The {@code KeyValueRequest} class represents a request for a key-value benchmark, which compares the access
+ * paths that retrieve documents or rows by key. The keys are sampled once from the dataset and the same keys
+ * are used for every database and access path.
+ *
+ * The number of executions of the request is the number of lookups measured for each access path and batch
+ * size. A lookup retrieves one batch of keys.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class KeyValueRequest extends BenchmarkRequest {
+
+    private String collection = "business";
+    private int keyCount = 1000;
+    private List<Integer> batchSizes = List.of(1, 10, 100);
+    private List<AccessPath> accessPaths = List.of(AccessPath.values());
+    private int concurrency = 1;
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    public void setKeyCount(int keyCount) {
+        this.keyCount = keyCount;
+    }
+
+    public List<Integer> getBatchSizes() {
+        return batchSizes;
+    }
+
+    public void setBatchSizes(List<Integer> batchSizes) {
+        this.batchSizes = batchSizes;
+    }
+
+    public List<AccessPath> getAccessPaths() {
+        return accessPaths;
+    }
+
+    public void setAccessPaths(List<AccessPath> accessPaths) {
+        this.accessPaths = accessPaths;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+}
@@ -0,0 +1,93 @@
+package backend.model.request;
+
+import backend.model.options.DBSize;
+import backend.model.options.DBType;
+import backend.model.options.QueryType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code MatrixRequest} class represents a request for a benchmark matrix, which measures every combination
+ * of the selected databases, dataset sizes, index sets, settings, queries and concurrency levels. Each combination
+ * is a cell of the matrix, measured with the number of executions of the request.
+ *
+ * The index sets and the settings are named, so that the rows of the results refer to them by name. When the
+ * request has no index set or no settings, the indexes or the settings of the request form a single set named
+ * {@code default}, and when it has no size, the selected size of the request is used.
+ *
+ * Each measured cell is appended to the checkpoint file. When {@code resume} is enabled, the cells already
+ * present in the checkpoint file are not measured again, so that an interrupted matrix can be resumed.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class MatrixRequest extends BenchmarkRequest {
+
+    private List<DBSize> selectedSizes = null;
+    private List<QueryType> selectedQueries = List.of();
+    private Map<String, Map<DBType, List<Index>>> indexSets = null;
+    private Map<String, Map<DBType, Map<String, String>>> settingsSets = null;
+    private List<Integer> concurrencies = List.of(1);
+    private String checkpointFile = "matrix_checkpoint.jsonl";
+    private boolean resume = true;
+
+    public List<DBSize> getSelectedSizes() {
+        return selectedSizes;
+    }
+
+    public void setSelectedSizes(List<DBSize> selectedSizes) {
+        this.selectedSizes = selectedSizes;
+    }
+
+    public List<QueryType> getSelectedQueries() {
+        return selectedQueries;
+    }
+
+    public void setSelectedQueries(List<QueryType> selectedQueries) {
+        this.selectedQueries = selectedQueries;
+    }
+
+    public Map<String, Map<DBType, List<Index>>> getIndexSets() {
+        return indexSets;
+    }
+
+    public void setIndexSets(Map<String, Map<DBType, List<Index>>> indexSets) {
+        this.indexSets = indexSets;
+    }
+
+    public Map<String, Map<DBType, Map<String, String>>> getSettingsSets() {
+        return settingsSets;
+    }
+
+    public void setSettingsSets(Map<String, Map<DBType, Map<String, String>>> settingsSets) {
+        this.settingsSets = settingsSets;
+    }
+
+    public List<Integer> getConcurrencies() {
+        return concurrencies;
+    }
+
+    public void setConcurrencies(List<Integer> concurrencies) {
+        this.concurrencies = concurrencies;
+    }
+
+    public String getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    public void setCheckpointFile(String checkpointFile) {
+        this.checkpointFile = checkpointFile;
+    }
+
+    public boolean isResume() {
+        return resume;
+    }
+
+    public void setResume(boolean resume) {
+        this.resume = resume;
+    }
+}
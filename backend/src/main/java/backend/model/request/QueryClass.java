@@ -0,0 +1,128 @@
+package backend.model.request;
+
+import backend.model.options.QueryType;
+import backend.model.options.WorkloadType;
+import backend.model.workload.Workload;
+import backend.model.workload.WorkloadFactory;
+import backend.model.workload.WorkloadQuery;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The {@code QueryClass} class represents a class of queries executed by dedicated workers during an interference
+ * benchmark. A class is either a predefined workload or a custom list of queries with their ratios, and it has its
+ * own concurrency and target rate.
+ *
+ * The attributes of this class match some attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class QueryClass {
+
+    // Seed used to interleave the queries of a class, so that two runs execute the same sequence
+    private static final long SEQUENCE_SEED = 42;
+
+    private String name;
+    private WorkloadType selectedWorkload;
+    private List<WorkloadQuery> queries;
+    private int concurrency = 1;
+    private double rate = 0;
+    private int numberOfExecutions = 0;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public WorkloadType getSelectedWorkload() {
+        return selectedWorkload;
+    }
+
+    public void setSelectedWorkload(WorkloadType selectedWorkload) {
+        this.selectedWorkload = selectedWorkload;
+    }
+
+    public List<WorkloadQuery> getQueries() {
+        return queries;
+    }
+
+    public void setQueries(List<WorkloadQuery> queries) {
+        this.queries = queries;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public void setRate(double rate) {
+        this.rate = rate;
+    }
+
+    public int getNumberOfExecutions() {
+        return numberOfExecutions;
+    }
+
+    public void setNumberOfExecutions(int numberOfExecutions) {
+        this.numberOfExecutions = numberOfExecutions;
+    }
+
+    /**
+     * Returns the queries of the class, either from the predefined workload or from the custom queries.
+     *
+     * @param workloadFactory the factory used to retrieve predefined workloads
+     * @return the queries of the class with their ratios
+     * @throws IllegalArgumentException if the class defines neither a workload nor queries
+     */
+    public List<WorkloadQuery> resolveQueries(WorkloadFactory workloadFactory) {
+        if (queries != null && !queries.isEmpty()) {
+            return queries;
+        }
+        if (selectedWorkload != null) {
+            Workload workload = workloadFactory.getWorkload(selectedWorkload);
+            if (workload != null) {
+                return workload.getQueries();
+            }
+        }
+        throw new IllegalArgumentException("Query class " + name + " must define a selectedWorkload or queries");
+    }
+
+    /**
+     * Builds the sequence of query types executed by the class. Each query type appears proportionally to its
+     * ratio, and the sequence is shuffled with a fixed seed so that the query types are interleaved.
+     *
+     * @param workloadFactory the factory used to retrieve predefined workloads
+     * @param length          the length of the sequence
+     * @return the sequence of query types
+     */
+    public List<QueryType> buildSequence(WorkloadFactory workloadFactory, int length) {
+        List<WorkloadQuery> resolved = resolveQueries(workloadFactory);
+        double totalRatio = resolved.stream().mapToDouble(WorkloadQuery::getRatio).sum();
+
+        List<QueryType> sequence = new ArrayList<>();
+        for (WorkloadQuery query : resolved) {
+            double share = totalRatio > 0 ? query.getRatio() / totalRatio : 1.0 / resolved.size();
+            int count = (int) Math.ceil(length * share);
+            for (int i = 0; i < count; i++) {
+                sequence.add(query.getType());
+            }
+        }
+        Collections.shuffle(sequence, new Random(SEQUENCE_SEED));
+        return sequence.subList(0, Math.min(length, sequence.size()));
+    }
+}
@@ -0,0 +1,76 @@
+package backend.model.request;
+
+import backend.model.options.ScanPath;
+
+import java.util.List;
+
+/**
+ * The {@code ScanRequest} class represents a request for a scan benchmark, which compares the ways to stream
+ * many documents or rows from a collection: Couchbase KV range and sampling scans, the equivalent N1QL queries,
+ * and PostgreSQL queries over a range of primary keys or a sample of the table.
+ *
+ * The number of executions of the request is the number of scans measured for each configuration.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class ScanRequest extends BenchmarkRequest {
+
+    private String collection = "business";
+    private List<KeyRange> ranges = List.of(new KeyRange("A", "B"));
+    private List<Integer> sampleSizes = List.of(1000);
+    private List<ScanPath> scanPaths = List.of(ScanPath.values());
+    private List<Integer> batchItemLimits = List.of(50);
+    private List<Integer> batchByteLimits = List.of(15000);
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public List<KeyRange> getRanges() {
+        return ranges;
+    }
+
+    public void setRanges(List<KeyRange> ranges) {
+        this.ranges = ranges;
+    }
+
+    public List<Integer> getSampleSizes() {
+        return sampleSizes;
+    }
+
+    public void setSampleSizes(List<Integer> sampleSizes) {
+        this.sampleSizes = sampleSizes;
+    }
+
+    public List<ScanPath> getScanPaths() {
+        return scanPaths;
+    }
+
+    public void setScanPaths(List<ScanPath> scanPaths) {
+        this.scanPaths = scanPaths;
+    }
+
+    public List<Integer> getBatchItemLimits() {
+        return batchItemLimits;
+    }
+
+    public void setBatchItemLimits(List<Integer> batchItemLimits) {
+        this.batchItemLimits = batchItemLimits;
+    }
+
+    public List<Integer> getBatchByteLimits() {
+        return batchByteLimits;
+    }
+
+    public void setBatchByteLimits(List<Integer> batchByteLimits) {
+        this.batchByteLimits = batchByteLimits;
+    }
+}
@@ -0,0 +1,69 @@
+package backend.model.request;
+
+import backend.model.options.DBType;
+import backend.model.options.QueryType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code StatisticsRequest} class represents a request for a statistics experiment on PostgreSQL. The selected
+ * queries are measured, the planner statistics are improved, then the queries are measured again, to compare the
+ * accuracy of the row estimates, the plans and the latencies before and after. The statistics can be improved by
+ * refreshing them with {@code ANALYZE}, by raising the statistics target, and by creating extended statistics,
+ * for example on JSONB expressions.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class StatisticsRequest extends BenchmarkRequest {
+
+    private List<QueryType> selectedQueries = List.of(QueryType.JOIN_FILTER);
+    private boolean analyze = true;
+    private Integer statisticsTarget = null;
+    private Map<DBType, List<ExtendedStatistics>> extendedStatistics = null;
+    private boolean restoreStatistics = true;
+
+    public List<QueryType> getSelectedQueries() {
+        return selectedQueries;
+    }
+
+    public void setSelectedQueries(List<QueryType> selectedQueries) {
+        this.selectedQueries = selectedQueries;
+    }
+
+    public boolean isAnalyze() {
+        return analyze;
+    }
+
+    public void setAnalyze(boolean analyze) {
+        this.analyze = analyze;
+    }
+
+    public Integer getStatisticsTarget() {
+        return statisticsTarget;
+    }
+
+    public void setStatisticsTarget(Integer statisticsTarget) {
+        this.statisticsTarget = statisticsTarget;
+    }
+
+    public Map<DBType, List<ExtendedStatistics>> getExtendedStatistics() {
+        return extendedStatistics;
+    }
+
+    public void setExtendedStatistics(Map<DBType, List<ExtendedStatistics>> extendedStatistics) {
+        this.extendedStatistics = extendedStatistics;
+    }
+
+    public boolean isRestoreStatistics() {
+        return restoreStatistics;
+    }
+
+    public void setRestoreStatistics(boolean restoreStatistics) {
+        this.restoreStatistics = restoreStatistics;
+    }
+}
@@ -0,0 +1,39 @@
+package backend.model.request;
+
+import java.util.List;
+
+/**
+ * The {@code SweepRequest} class represents a request for a sweep, which measures a series of predefined queries,
+ * each with its own set of indexes, on the same databases and dataset size.
+ *
+ * The indexes are kept between the runs: only the indexes that differ from the previous run are created or
+ * dropped. When {@code reorderRuns} is enabled, the runs are executed in the order that minimises the index
+ * churn, and the results are still returned in the order of the request.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class SweepRequest extends BenchmarkRequest {
+
+    private List<SweepRun> runs = List.of();
+    private boolean reorderRuns = true;
+
+    public List<SweepRun> getRuns() {
+        return runs;
+    }
+
+    public void setRuns(List<SweepRun> runs) {
+        this.runs = runs;
+    }
+
+    public boolean isReorderRuns() {
+        return reorderRuns;
+    }
+
+    public void setReorderRuns(boolean reorderRuns) {
+        this.reorderRuns = reorderRuns;
+    }
+}
@@ -0,0 +1,58 @@
+package backend.model.request;
+
+import backend.model.options.DBType;
+import backend.model.options.QueryType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code SweepRun} class represents one run of a sweep: a predefined query measured with a set of indexes
+ * and session-level settings. A run without indexes uses the indexes of the sweep request, and its settings
+ * override those of the request, so that runs that only differ by their settings measure each combination.
+ *
+ * The attributes of this class match some attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class SweepRun {
+
+    private String name;
+    private QueryType selectedQuery;
+    private Map<DBType, List<Index>> indexes = null;
+    private Map<DBType, Map<String, String>> settings = null;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public QueryType getSelectedQuery() {
+        return selectedQuery;
+    }
+
+    public void setSelectedQuery(QueryType selectedQuery) {
+        this.selectedQuery = selectedQuery;
+    }
+
+    public Map<DBType, List<Index>> getIndexes() {
+        return indexes;
+    }
+
+    public void setIndexes(Map<DBType, List<Index>> indexes) {
+        this.indexes = indexes;
+    }
+
+    public Map<DBType, Map<String, String>> getSettings() {
+        return settings;
+    }
+
+    public void setSettings(Map<DBType, Map<String, String>> settings) {
+        this.settings = settings;
+    }
+}
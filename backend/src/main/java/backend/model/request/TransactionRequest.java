@@ -0,0 +1,100 @@
+package backend.model.request;
+
+import backend.model.options.DurabilityLevel;
+import backend.model.options.IsolationLevel;
+
+import java.util.List;
+
+/**
+ * The {@code TransactionRequest} class represents a request for a transaction benchmark, which measures
+ * multi-document read-modify-write transactions under contention. Each transaction reads several documents or
+ * rows of the collection, increments one of their counters and commits. The accessed keys are drawn from a set
+ * of hot keys with a Zipf distribution, whose exponent controls the contention between transactions.
+ *
+ * Couchbase executes the transactions with ACID transactions and the selected durability level, PostgreSQL
+ * executes them with each isolation level. Every combination of skew and concurrency is measured, and the
+ * number of executions of the request is the number of transactions measured for each of them.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class TransactionRequest extends BenchmarkRequest {
+
+    private String collection = "business";
+    private int documentsPerTransaction = 4;
+    private int hotKeyCount = 100;
+    private List<Double> skews = List.of(0.0, 1.0);
+    private List<Integer> concurrencies = List.of(1, 8);
+    private List<IsolationLevel> isolationLevels =
+            List.of(IsolationLevel.READ_COMMITTED, IsolationLevel.REPEATABLE_READ, IsolationLevel.SERIALIZABLE);
+    // The durable levels need more data nodes than the single node deployment has
+    private DurabilityLevel durabilityLevel = DurabilityLevel.NONE;
+    private int maxRetries = 10;
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public void setCollection(String collection) {
+        this.collection = collection;
+    }
+
+    public int getDocumentsPerTransaction() {
+        return documentsPerTransaction;
+    }
+
+    public void setDocumentsPerTransaction(int documentsPerTransaction) {
+        this.documentsPerTransaction = documentsPerTransaction;
+    }
+
+    public int getHotKeyCount() {
+        return hotKeyCount;
+    }
+
+    public void setHotKeyCount(int hotKeyCount) {
+        this.hotKeyCount = hotKeyCount;
+    }
+
+    public List<Double> getSkews() {
+        return skews;
+    }
+
+    public void setSkews(List<Double> skews) {
+        this.skews = skews;
+    }
+
+    public List<Integer> getConcurrencies() {
+        return concurrencies;
+    }
+
+    public void setConcurrencies(List<Integer> concurrencies) {
+        this.concurrencies = concurrencies;
+    }
+
+    public List<IsolationLevel> getIsolationLevels() {
+        return isolationLevels;
+    }
+
+    public void setIsolationLevels(List<IsolationLevel> isolationLevels) {
+        this.isolationLevels = isolationLevels;
+    }
+
+    public DurabilityLevel getDurabilityLevel() {
+        return durabilityLevel;
+    }
+
+    public void setDurabilityLevel(DurabilityLevel durabilityLevel) {
+        this.durabilityLevel = durabilityLevel;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+}
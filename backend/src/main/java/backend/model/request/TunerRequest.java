@@ -0,0 +1,71 @@
+package backend.model.request;
+
+import backend.model.options.WorkloadType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code TunerRequest} class represents a request for a configuration tuner, which searches the session-level
+ * settings of PostgreSQL that minimise the weighted 95th percentile latency of a workload.
+ *
+ * The search space maps each tuned setting to its candidate values. The tuner samples the initial configurations
+ * from the combinations of these values and eliminates them by successive halving: after each round, only the
+ * best configurations are kept, and the halving factor is both the share of the configurations eliminated and
+ * the factor by which the number of executions grows. The number of executions of the request is the number of
+ * executions of the workload in the first round, distributed among its queries according to their ratio.
+ *
+ * The attributes of this class match the attributes of the benchmark configuration files, so that
+ * Javalin can automatically convert the JSON files into instances of this class.
+ * Getters and setters are mandatory for this conversion to work correctly.
+ *
+ * @author Eva Ray
+ */
+public class TunerRequest extends BenchmarkRequest {
+
+    private WorkloadType selectedWorkload;
+    private Map<String, List<String>> searchSpace = null;
+    private int initialConfigurations = 27;
+    private int halvingFactor = 3;
+    private long seed = 42;
+
+    public WorkloadType getSelectedWorkload() {
+        return selectedWorkload;
+    }
+
+    public void setSelectedWorkload(WorkloadType selectedWorkload) {
+        this.selectedWorkload = selectedWorkload;
+    }
+
+    public Map<String, List<String>> getSearchSpace() {
+        return searchSpace;
+    }
+
+    public void setSearchSpace(Map<String, List<String>> searchSpace) {
+        this.searchSpace = searchSpace;
+    }
+
+    public int getInitialConfigurations() {
+        return initialConfigurations;
+    }
+
+    public void setInitialConfigurations(int initialConfigurations) {
+        this.initialConfigurations = initialConfigurations;
+    }
+
+    public int getHalvingFactor() {
+        return halvingFactor;
+    }
+
+    public void setHalvingFactor(int halvingFactor) {
+        this.halvingFactor = halvingFactor;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
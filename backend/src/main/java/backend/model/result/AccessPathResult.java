@@ -0,0 +1,50 @@
+package backend.model.result;
+
+import backend.model.options.AccessPath;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code AccessPathResult} class contains the measurements of an access path used with one batch size.
+ * The latency is the latency of a whole batch, and the number of keys per second is the throughput of the
+ * batches multiplied by the batch size.
+ *
+ * @author Eva Ray
+ */
+public class AccessPathResult {
+
+    private final AccessPath accessPath;
+    private final int batchSize;
+    private final LatencyStats latency;
+    private final double keysPerSecond;
+
+    /**
+     * Constructs a new {@code AccessPathResult} instance.
+     *
+     * @param accessPath the access path
+     * @param batchSize  the number of keys retrieved by each lookup
+     * @param latency    the latencies of the lookups
+     */
+    public AccessPathResult(AccessPath accessPath, int batchSize, LatencyStats latency) {
+        this.accessPath = accessPath;
+        this.batchSize = batchSize;
+        this.latency = latency;
+        this.keysPerSecond = round(latency.getThroughput() * batchSize);
+    }
+
+    public AccessPath getAccessPath() {
+        return accessPath;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public LatencyStats getLatency() {
+        return latency;
+    }
+
+    public double getKeysPerSecond() {
+        return keysPerSecond;
+    }
+}
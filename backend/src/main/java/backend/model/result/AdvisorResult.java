@@ -0,0 +1,37 @@
+package backend.model.result;
+
+import backend.model.options.DBSize;
+import backend.model.options.QueryType;
+
+import java.util.Map;
+
+/**
+ * The {@code AdvisorResult} class encapsulates the results of an index advisor benchmark for one database. It
+ * contains the dataset size the advice applies to and the index advice for each query.
+ *
+ * @author Eva Ray
+ */
+public class AdvisorResult {
+
+    private final DBSize size;
+    private final Map<QueryType, IndexAdvice> advice;
+
+    /**
+     * Constructs a new {@code AdvisorResult} instance.
+     *
+     * @param size   the dataset size
+     * @param advice the index advice for each query
+     */
+    public AdvisorResult(DBSize size, Map<QueryType, IndexAdvice> advice) {
+        this.size = size;
+        this.advice = advice;
+    }
+
+    public DBSize getSize() {
+        return size;
+    }
+
+    public Map<QueryType, IndexAdvice> getAdvice() {
+        return advice;
+    }
+}
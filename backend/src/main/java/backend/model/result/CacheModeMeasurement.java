@@ -0,0 +1,59 @@
+package backend.model.result;
+
+import backend.model.options.CacheMode;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code CacheModeMeasurement} class contains the latencies of the first execution of a query with one cache
+ * mode, the time needed to bring the cache to this mode, and the slowdown of the average latency compared to the
+ * hot cache.
+ *
+ * @author Eva Ray
+ */
+public class CacheModeMeasurement {
+
+    private final CacheMode mode;
+    private final LatencyStats latency;
+    private final double avgPreparationTime;
+    private Double slowdown;
+
+    /**
+     * Constructs a new {@code CacheModeMeasurement} instance.
+     *
+     * @param mode               the cache mode
+     * @param latency            the latencies of the first executions of the query
+     * @param avgPreparationTime the average time needed to bring the cache to the mode in milliseconds
+     */
+    public CacheModeMeasurement(CacheMode mode, LatencyStats latency, double avgPreparationTime) {
+        this.mode = mode;
+        this.latency = latency;
+        this.avgPreparationTime = round(avgPreparationTime);
+    }
+
+    /**
+     * Computes the slowdown of the average latency compared to the hot cache.
+     *
+     * @param hot the measurement with the hot cache
+     */
+    public void compareWith(CacheModeMeasurement hot) {
+        double hotLatency = hot.getLatency().getAvgLatency();
+        this.slowdown = hotLatency > 0 ? round(latency.getAvgLatency() / hotLatency) : null;
+    }
+
+    public CacheMode getMode() {
+        return mode;
+    }
+
+    public LatencyStats getLatency() {
+        return latency;
+    }
+
+    public double getAvgPreparationTime() {
+        return avgPreparationTime;
+    }
+
+    public Double getSlowdown() {
+        return slowdown;
+    }
+}
@@ -0,0 +1,46 @@
+package backend.model.result;
+
+import backend.model.metadata.IndexInfo;
+import backend.model.options.DBSize;
+import backend.model.options.QueryType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code CacheModeResult} class encapsulates the results of a cache mode benchmark for one database. It
+ * contains the dataset size, the indexes of the benchmark and the measurements of each query, one per cache mode.
+ *
+ * @author Eva Ray
+ */
+public class CacheModeResult {
+
+    private final DBSize size;
+    private final List<IndexInfo> indexInfo;
+    private final Map<QueryType, List<CacheModeMeasurement>> queries;
+
+    /**
+     * Constructs a new {@code CacheModeResult} instance.
+     *
+     * @param size      the dataset size of the benchmark
+     * @param indexInfo the information about the indexes of the benchmark
+     * @param queries   the measurements of each query, one per cache mode
+     */
+    public CacheModeResult(DBSize size, List<IndexInfo> indexInfo, Map<QueryType, List<CacheModeMeasurement>> queries) {
+        this.size = size;
+        this.indexInfo = indexInfo;
+        this.queries = queries;
+    }
+
+    public DBSize getSize() {
+        return size;
+    }
+
+    public List<IndexInfo> getIndexInfo() {
+        return indexInfo;
+    }
+
+    public Map<QueryType, List<CacheModeMeasurement>> getQueries() {
+        return queries;
+    }
+}
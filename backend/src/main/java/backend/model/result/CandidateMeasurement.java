@@ -0,0 +1,93 @@
+package backend.model.result;
+
+import backend.model.metadata.IndexCandidate;
+import backend.model.request.Index;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code CandidateMeasurement} class encapsulates the measurement of a candidate index recommended for a
+ * query. It contains the candidate, the average latency of the query with the candidate, the latency gain over
+ * the query without benchmark index, the size and build time of the candidate, and the gain per MB of index.
+ * The gain per MB of a candidate whose size is unknown is null, and the candidate is not ranked.
+ *
+ * @author Eva Ray
+ */
+public class CandidateMeasurement {
+
+    private final Index index;
+    private final String source;
+    private final Double estimatedCostRatio;
+    private final double avgLatency;
+    private final double gain;
+    private final double gainPercent;
+    private final String indexSize;
+    private final long indexBytes;
+    private final Double buildTime;
+    private final Double gainPerMB;
+
+    /**
+     * Constructs a new {@code CandidateMeasurement} instance.
+     *
+     * @param candidate       the measured candidate
+     * @param avgLatency      the average latency of the query with the candidate, in ms
+     * @param baselineLatency the average latency of the query without benchmark index, in ms
+     * @param indexSize       the formatted size of the candidate
+     * @param indexBytes      the size of the candidate in bytes
+     * @param buildTime       the build time of the candidate in ms, or null if it is unknown
+     */
+    public CandidateMeasurement(IndexCandidate candidate, double avgLatency, double baselineLatency, String indexSize,
+                                long indexBytes, Double buildTime) {
+        this.index = candidate.getIndex();
+        this.source = candidate.getSource();
+        this.estimatedCostRatio = candidate.getEstimatedCostRatio();
+        this.avgLatency = avgLatency;
+        this.gain = round(baselineLatency - avgLatency);
+        this.gainPercent = baselineLatency > 0 ? round(gain / baselineLatency * 100) : 0;
+        this.indexSize = indexSize;
+        this.indexBytes = indexBytes;
+        this.buildTime = buildTime;
+        // An index smaller than a kilobyte is counted as a kilobyte, so that empty indexes do not rank first
+        this.gainPerMB = indexBytes > 0 ? round(gain / (Math.max(indexBytes, 1000) / 1_000_000.0)) : null;
+    }
+
+    public Index getIndex() {
+        return index;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public Double getEstimatedCostRatio() {
+        return estimatedCostRatio;
+    }
+
+    public double getAvgLatency() {
+        return avgLatency;
+    }
+
+    public double getGain() {
+        return gain;
+    }
+
+    public double getGainPercent() {
+        return gainPercent;
+    }
+
+    public String getIndexSize() {
+        return indexSize;
+    }
+
+    public long getIndexBytes() {
+        return indexBytes;
+    }
+
+    public Double getBuildTime() {
+        return buildTime;
+    }
+
+    public Double getGainPerMB() {
+        return gainPerMB;
+    }
+}
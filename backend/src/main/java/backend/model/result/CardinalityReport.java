@@ -0,0 +1,53 @@
+package backend.model.result;
+
+import java.util.List;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code CardinalityReport} class summarises the accuracy of the row estimates of a PostgreSQL plan. The
+ * accuracy of each operator is its q-error, the ratio between the estimated and the actual rows, the largest
+ * divided by the smallest. The report gives the largest and the geometric mean q-error over the operators of the
+ * plan, and the worst misestimates.
+ *
+ * @author Eva Ray
+ */
+public class CardinalityReport {
+
+    private final int estimatedOperators;
+    private final double maxQError;
+    private final double meanQError;
+    private final List<Misestimate> misestimates;
+
+    /**
+     * Constructs a new {@code CardinalityReport} instance.
+     *
+     * @param estimatedOperators the number of operators with a q-error
+     * @param maxQError          the largest q-error of the plan
+     * @param meanQError         the geometric mean of the q-errors of the plan
+     * @param misestimates       the worst misestimates, from the largest q-error
+     */
+    public CardinalityReport(int estimatedOperators, double maxQError, double meanQError,
+                             List<Misestimate> misestimates) {
+        this.estimatedOperators = estimatedOperators;
+        this.maxQError = round(maxQError);
+        this.meanQError = round(meanQError);
+        this.misestimates = misestimates;
+    }
+
+    public int getEstimatedOperators() {
+        return estimatedOperators;
+    }
+
+    public double getMaxQError() {
+        return maxQError;
+    }
+
+    public double getMeanQError() {
+        return meanQError;
+    }
+
+    public List<Misestimate> getMisestimates() {
+        return misestimates;
+    }
+}
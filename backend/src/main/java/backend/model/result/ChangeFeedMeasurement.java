@@ -0,0 +1,60 @@
+package backend.model.result;
+
+/**
+ * The {@code ChangeFeedMeasurement} class contains the measurements of a stream of insertions applied at one
+ * target rate. The lag of an insertion is the time between the moment it is sent by the writer and the moment
+ * it is received by the change feed consumer. The throughput of the lag statistics is the number of changes
+ * received per second.
+ *
+ * @author Eva Ray
+ */
+public class ChangeFeedMeasurement {
+
+    private final String feed;
+    private final double writeRate;
+    private final LatencyStats writeLatency;
+    private final LatencyStats lag;
+    private final long missedEvents;
+
+    /**
+     * Constructs a new {@code ChangeFeedMeasurement} instance.
+     *
+     * @param feed         the description of the change feed
+     * @param writeRate    the target number of insertions per second
+     * @param writeLatency the latencies of the insertions
+     * @param lag          the lags of the received changes
+     * @param missedEvents the number of successful insertions that were not received before the timeout
+     */
+    public ChangeFeedMeasurement(String feed, double writeRate, LatencyStats writeLatency, LatencyStats lag,
+                                 long missedEvents) {
+        this.feed = feed;
+        this.writeRate = writeRate;
+        this.writeLatency = writeLatency;
+        this.lag = lag;
+        this.missedEvents = missedEvents;
+    }
+
+    public String getFeed() {
+        return feed;
+    }
+
+    public double getWriteRate() {
+        return writeRate;
+    }
+
+    public LatencyStats getWriteLatency() {
+        return writeLatency;
+    }
+
+    public LatencyStats getLag() {
+        return lag;
+    }
+
+    public double getEventsPerSecond() {
+        return lag.getThroughput();
+    }
+
+    public long getMissedEvents() {
+        return missedEvents;
+    }
+}
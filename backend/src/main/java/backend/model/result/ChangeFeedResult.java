@@ -0,0 +1,36 @@
+package backend.model.result;
+
+import backend.model.metadata.IndexInfo;
+
+import java.util.List;
+
+/**
+ * The {@code ChangeFeedResult} class encapsulates the results of a change feed benchmark for one database.
+ * It contains a list of index information and the measurements of each write rate.
+ *
+ * @author Eva Ray
+ */
+public class ChangeFeedResult {
+
+    private final List<IndexInfo> indexInfo;
+    private final List<ChangeFeedMeasurement> measurements;
+
+    /**
+     * Constructs a new {@code ChangeFeedResult} instance.
+     *
+     * @param indexInfo    the list of index information
+     * @param measurements the measurements of each write rate
+     */
+    public ChangeFeedResult(List<IndexInfo> indexInfo, List<ChangeFeedMeasurement> measurements) {
+        this.indexInfo = indexInfo;
+        this.measurements = measurements;
+    }
+
+    public List<IndexInfo> getIndexInfo() {
+        return indexInfo;
+    }
+
+    public List<ChangeFeedMeasurement> getMeasurements() {
+        return measurements;
+    }
+}
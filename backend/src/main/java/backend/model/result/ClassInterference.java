@@ -0,0 +1,86 @@
+package backend.model.result;
+
+import backend.model.options.QueryType;
+
+import java.util.List;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code ClassInterference} class compares the latency distribution of a class of queries executed alone
+ * with the latency distribution of the same class executed concurrently with the other classes.
+ * The slowdowns are the ratios between the concurrent and the isolated latencies.
+ *
+ * @author Eva Ray
+ */
+public class ClassInterference {
+
+    private final List<QueryType> queryTypes;
+    private final int concurrency;
+    private final double rate;
+    private final LatencyStats isolated;
+    private final LatencyStats mixed;
+    private final double avgSlowdown;
+    private final double p95Slowdown;
+    private final double p99Slowdown;
+
+    /**
+     * Constructs a new {@code ClassInterference} instance and computes the slowdowns.
+     *
+     * @param queryTypes  the query types executed by the class
+     * @param concurrency the number of concurrent workers of the class
+     * @param rate        the target rate of the class, or 0 for a closed load
+     * @param isolated    the latencies of the class executed alone
+     * @param mixed       the latencies of the class executed with the other classes
+     */
+    public ClassInterference(List<QueryType> queryTypes, int concurrency, double rate,
+                             LatencyStats isolated, LatencyStats mixed) {
+        this.queryTypes = queryTypes;
+        this.concurrency = concurrency;
+        this.rate = rate;
+        this.isolated = isolated;
+        this.mixed = mixed;
+        this.avgSlowdown = ratio(mixed.getAvgLatency(), isolated.getAvgLatency());
+        this.p95Slowdown = ratio(mixed.getPercentile95(), isolated.getPercentile95());
+        this.p99Slowdown = ratio(mixed.getPercentile99(), isolated.getPercentile99());
+    }
+
+    /**
+     * Returns the ratio between two latencies rounded to two decimal places, or 0 if it is undefined.
+     */
+    private static double ratio(double mixed, double isolated) {
+        return isolated > 0 ? round(mixed / isolated) : 0.0;
+    }
+
+    public List<QueryType> getQueryTypes() {
+        return queryTypes;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public double getRate() {
+        return rate;
+    }
+
+    public LatencyStats getIsolated() {
+        return isolated;
+    }
+
+    public LatencyStats getMixed() {
+        return mixed;
+    }
+
+    public double getAvgSlowdown() {
+        return avgSlowdown;
+    }
+
+    public double getP95Slowdown() {
+        return p95Slowdown;
+    }
+
+    public double getP99Slowdown() {
+        return p99Slowdown;
+    }
+}
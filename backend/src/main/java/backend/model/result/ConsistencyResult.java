@@ -0,0 +1,57 @@
+package backend.model.result;
+
+import backend.model.metadata.IndexInfo;
+import backend.model.options.QueryType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code ConsistencyResult} class encapsulates the results of a consistency benchmark. It contains a list of
+ * index information, the visibility lag of the writes, and the read latencies of each query with each scan
+ * consistency. The visibility lag is the time between the acknowledgement of a write and the first
+ * {@code not_bounded} query that returns it, measured with the resolution of the poll interval of the probes.
+ *
+ * @author Eva Ray
+ */
+public class ConsistencyResult {
+
+    private final List<IndexInfo> indexInfo;
+    private final LatencyStats visibilityLag;
+    // Interval between the queries of a probe, so the visibility lags are accurate to this interval
+    private final int visibilityResolutionMs;
+    // Map of queries to the read latencies of each scan consistency
+    private final Map<QueryType, Map<String, LatencyStats>> readLatencies;
+
+    /**
+     * Constructs a new {@code ConsistencyResult} instance.
+     *
+     * @param indexInfo              the list of index information
+     * @param visibilityLag          the visibility lags of the writes
+     * @param visibilityResolutionMs the poll interval of the probes, in milliseconds
+     * @param readLatencies          the read latencies of each query and scan consistency
+     */
+    public ConsistencyResult(List<IndexInfo> indexInfo, LatencyStats visibilityLag, int visibilityResolutionMs,
+                             Map<QueryType, Map<String, LatencyStats>> readLatencies) {
+        this.indexInfo = indexInfo;
+        this.visibilityLag = visibilityLag;
+        this.visibilityResolutionMs = visibilityResolutionMs;
+        this.readLatencies = readLatencies;
+    }
+
+    public List<IndexInfo> getIndexInfo() {
+        return indexInfo;
+    }
+
+    public LatencyStats getVisibilityLag() {
+        return visibilityLag;
+    }
+
+    public int getVisibilityResolutionMs() {
+        return visibilityResolutionMs;
+    }
+
+    public Map<QueryType, Map<String, LatencyStats>> getReadLatencies() {
+        return readLatencies;
+    }
+}
@@ -0,0 +1,63 @@
+package backend.model.result;
+
+import java.util.List;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code CoveringIndexAdvice} class encapsulates the covering index advice for one Couchbase query. It contains
+ * the average latency of the query with the indexes of the request, the fetches detected in its profile, and, if
+ * candidates were benchmarked, the latency of the query with the covering indexes, the speedup, and the share of
+ * the time of the query still spent fetching documents, which is 0 when the candidates cover the query.
+ *
+ * @author Eva Ray
+ */
+public class CoveringIndexAdvice {
+
+    private final double baselineLatency;
+    private final List<CoveringOpportunity> opportunities;
+    private final Double coveringLatency;
+    private final Double speedup;
+    private final Double remainingFetchShare;
+
+    /**
+     * Constructs a new {@code CoveringIndexAdvice} instance.
+     *
+     * @param baselineLatency     the average latency of the query with the indexes of the request, in ms
+     * @param opportunities       the fetches detected in the profile of the query
+     * @param coveringLatency     the average latency of the query with the covering indexes, in ms, null if no
+     *                            candidate was benchmarked
+     * @param remainingFetchShare the share of the time of the query spent fetching with the covering indexes, in
+     *                            percent, null if no candidate was benchmarked
+     */
+    public CoveringIndexAdvice(double baselineLatency, List<CoveringOpportunity> opportunities, Double coveringLatency,
+                               Double remainingFetchShare) {
+        this.baselineLatency = baselineLatency;
+        this.opportunities = opportunities;
+        this.coveringLatency = coveringLatency;
+        this.speedup = coveringLatency != null && coveringLatency > 0
+                ? round(baselineLatency / coveringLatency)
+                : null;
+        this.remainingFetchShare = remainingFetchShare != null ? round(remainingFetchShare, 1) : null;
+    }
+
+    public double getBaselineLatency() {
+        return baselineLatency;
+    }
+
+    public List<CoveringOpportunity> getOpportunities() {
+        return opportunities;
+    }
+
+    public Double getCoveringLatency() {
+        return coveringLatency;
+    }
+
+    public Double getSpeedup() {
+        return speedup;
+    }
+
+    public Double getRemainingFetchShare() {
+        return remainingFetchShare;
+    }
+}
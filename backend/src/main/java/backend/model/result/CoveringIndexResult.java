@@ -0,0 +1,37 @@
+package backend.model.result;
+
+import backend.model.options.DBSize;
+import backend.model.options.QueryType;
+
+import java.util.Map;
+
+/**
+ * The {@code CoveringIndexResult} class encapsulates the results of a covering index benchmark for one database.
+ * It contains the dataset size the advice applies to and the covering index advice for each query.
+ *
+ * @author Eva Ray
+ */
+public class CoveringIndexResult {
+
+    private final DBSize size;
+    private final Map<QueryType, CoveringIndexAdvice> advice;
+
+    /**
+     * Constructs a new {@code CoveringIndexResult} instance.
+     *
+     * @param size   the dataset size
+     * @param advice the covering index advice for each query
+     */
+    public CoveringIndexResult(DBSize size, Map<QueryType, CoveringIndexAdvice> advice) {
+        this.size = size;
+        this.advice = advice;
+    }
+
+    public DBSize getSize() {
+        return size;
+    }
+
+    public Map<QueryType, CoveringIndexAdvice> getAdvice() {
+        return advice;
+    }
+}
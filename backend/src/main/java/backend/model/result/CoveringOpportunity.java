@@ -0,0 +1,94 @@
+package backend.model.result;
+
+import backend.model.request.Index;
+
+import java.util.List;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code CoveringOpportunity} class represents a {@code Fetch} operator of a Couchbase profile that follows an
+ * index scan: the index returns the keys of the documents, and the documents are then fetched from the data
+ * service to evaluate the rest of the query. It contains the keyspace and the alias of the fetched documents, the
+ * scanned index, the time spent fetching and its share of the time of the query, and the covering index candidate
+ * that would make the fetch unnecessary, with the fields of the documents the query reads.
+ * <p>
+ * When the query reads whole documents, no index can cover it: the candidate is null and the reason explains why.
+ *
+ * @author Eva Ray
+ */
+public class CoveringOpportunity {
+
+    private final String keyspace;
+    private final String alias;
+    private final String scannedIndex;
+    private final Long fetchedDocuments;
+    private final double fetchTime;
+    private final double fetchShare;
+    private final List<String> referencedFields;
+    private final Index candidate;
+    private final String reason;
+
+    /**
+     * Constructs a new {@code CoveringOpportunity} instance.
+     *
+     * @param keyspace         the keyspace of the fetched documents
+     * @param alias            the alias of the fetched documents in the query
+     * @param scannedIndex     the name of the index scanned before the fetch
+     * @param fetchedDocuments the number of documents fetched, null if it is unknown
+     * @param fetchTime        the time spent fetching, in ms
+     * @param fetchShare       the share of the time of the query spent fetching, in percent
+     * @param referencedFields the fields of the fetched documents read by the query
+     * @param candidate        the covering index candidate, null if the query cannot be covered
+     * @param reason           the reason why the query cannot be covered, null if there is a candidate
+     */
+    public CoveringOpportunity(String keyspace, String alias, String scannedIndex, Long fetchedDocuments,
+                               double fetchTime, double fetchShare, List<String> referencedFields, Index candidate,
+                               String reason) {
+        this.keyspace = keyspace;
+        this.alias = alias;
+        this.scannedIndex = scannedIndex;
+        this.fetchedDocuments = fetchedDocuments;
+        this.fetchTime = round(fetchTime, 3);
+        this.fetchShare = round(fetchShare, 1);
+        this.referencedFields = referencedFields;
+        this.candidate = candidate;
+        this.reason = reason;
+    }
+
+    public String getKeyspace() {
+        return keyspace;
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public String getScannedIndex() {
+        return scannedIndex;
+    }
+
+    public Long getFetchedDocuments() {
+        return fetchedDocuments;
+    }
+
+    public double getFetchTime() {
+        return fetchTime;
+    }
+
+    public double getFetchShare() {
+        return fetchShare;
+    }
+
+    public List<String> getReferencedFields() {
+        return referencedFields;
+    }
+
+    public Index getCandidate() {
+        return candidate;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,36 @@
+package backend.model.result;
+
+import backend.model.metadata.IndexInfo;
+
+import java.util.List;
+
+/**
+ * The {@code DurabilityResult} class encapsulates the results of a durability benchmark for one database.
+ * It contains a list of index information and the measurements of each durability setting.
+ *
+ * @author Eva Ray
+ */
+public class DurabilityResult {
+
+    private final List<IndexInfo> indexInfo;
+    private final List<DurabilitySetting> settings;
+
+    /**
+     * Constructs a new {@code DurabilityResult} instance.
+     *
+     * @param indexInfo the list of index information
+     * @param settings  the measurements of each durability setting
+     */
+    public DurabilityResult(List<IndexInfo> indexInfo, List<DurabilitySetting> settings) {
+        this.indexInfo = indexInfo;
+        this.settings = settings;
+    }
+
+    public List<IndexInfo> getIndexInfo() {
+        return indexInfo;
+    }
+
+    public List<DurabilitySetting> getSettings() {
+        return settings;
+    }
+}
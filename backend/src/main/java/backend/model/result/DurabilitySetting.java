@@ -0,0 +1,48 @@
+package backend.model.result;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code DurabilitySetting} class contains the measurements of a write query committed with one durability
+ * setting. The commit latency is the latency of a whole transaction, from its first write to the acknowledgement
+ * of its commit, so a transaction contains {@code commitBatchSize} writes.
+ *
+ * @author Eva Ray
+ */
+public class DurabilitySetting {
+
+    private final String setting;
+    private final int commitBatchSize;
+    private final LatencyStats commitLatency;
+    private final double writesPerSecond;
+
+    /**
+     * Constructs a new {@code DurabilitySetting} instance.
+     *
+     * @param setting         the description of the durability setting
+     * @param commitBatchSize the number of writes committed together
+     * @param commitLatency   the latencies of the transactions
+     */
+    public DurabilitySetting(String setting, int commitBatchSize, LatencyStats commitLatency) {
+        this.setting = setting;
+        this.commitBatchSize = commitBatchSize;
+        this.commitLatency = commitLatency;
+        this.writesPerSecond = round(commitLatency.getThroughput() * commitBatchSize);
+    }
+
+    public String getSetting() {
+        return setting;
+    }
+
+    public int getCommitBatchSize() {
+        return commitBatchSize;
+    }
+
+    public LatencyStats getCommitLatency() {
+        return commitLatency;
+    }
+
+    public double getWritesPerSecond() {
+        return writesPerSecond;
+    }
+}
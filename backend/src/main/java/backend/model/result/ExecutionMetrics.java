@@ -0,0 +1,186 @@
+package backend.model.result;
+
+import java.util.List;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code ExecutionMetrics} class rolls up the execution metrics of a PostgreSQL query that are not part of
+ * its latency statistics: the planning time, the JIT compilation timings, the blocks dirtied and written, the local
+ * and temporary blocks, the I/O timings, the WAL generated and the parallel workers. The values are averages per
+ * execution over the executions analysed with {@code EXPLAIN ANALYZE}, the sampled executions of the run.
+ * <p>
+ * Temporary blocks are written when a hash join or a sort does not fit in {@code work_mem}, and the operators
+ * that spilled to disk are listed. The I/O timings are only measured when {@code track_io_timing} is enabled.
+ *
+ * @author Eva Ray
+ */
+public class ExecutionMetrics {
+
+    private final int analysedExecutions;
+    private final double planningTime;
+    private final double jitFunctions;
+    private final double jitGenerationTime;
+    private final double jitInliningTime;
+    private final double jitOptimizationTime;
+    private final double jitEmissionTime;
+    private final double jitTime;
+    private final double sharedDirtiedBlocks;
+    private final double sharedWrittenBlocks;
+    private final double localHitBlocks;
+    private final double localReadBlocks;
+    private final double tempReadBlocks;
+    private final double tempWrittenBlocks;
+    private final double ioReadTime;
+    private final double ioWriteTime;
+    private final double walRecords;
+    private final double walFpi;
+    private final double walBytes;
+    private final double workersPlanned;
+    private final double workersLaunched;
+    private final List<String> spilledOperators;
+
+    /**
+     * Constructs a new {@code ExecutionMetrics} instance.
+     *
+     * @param analysedExecutions  the number of analysed executions the averages are computed on
+     * @param planningTime        the planning time, in ms
+     * @param jitFunctions        the number of functions compiled by JIT
+     * @param jitGenerationTime   the JIT code generation time, in ms
+     * @param jitInliningTime     the JIT inlining time, in ms
+     * @param jitOptimizationTime the JIT optimization time, in ms
+     * @param jitEmissionTime     the JIT emission time, in ms
+     * @param jitTime             the total JIT compilation time, in ms
+     * @param sharedDirtiedBlocks the number of shared blocks dirtied
+     * @param sharedWrittenBlocks the number of shared blocks written
+     * @param localHitBlocks      the number of local blocks hit
+     * @param localReadBlocks     the number of local blocks read
+     * @param tempReadBlocks      the number of temporary blocks read
+     * @param tempWrittenBlocks   the number of temporary blocks written
+     * @param ioReadTime          the time spent reading blocks, in ms
+     * @param ioWriteTime         the time spent writing blocks, in ms
+     * @param walRecords          the number of WAL records generated
+     * @param walFpi              the number of WAL full page images generated
+     * @param walBytes            the number of WAL bytes generated
+     * @param workersPlanned      the number of parallel workers planned
+     * @param workersLaunched     the number of parallel workers launched
+     * @param spilledOperators    the operators that spilled to disk in at least one analysed execution
+     */
+    public ExecutionMetrics(int analysedExecutions, double planningTime, double jitFunctions, double jitGenerationTime,
+                            double jitInliningTime, double jitOptimizationTime, double jitEmissionTime, double jitTime,
+                            double sharedDirtiedBlocks, double sharedWrittenBlocks, double localHitBlocks,
+                            double localReadBlocks, double tempReadBlocks, double tempWrittenBlocks, double ioReadTime,
+                            double ioWriteTime, double walRecords, double walFpi, double walBytes,
+                            double workersPlanned, double workersLaunched, List<String> spilledOperators) {
+        this.analysedExecutions = analysedExecutions;
+        this.planningTime = round(planningTime, 3);
+        this.jitFunctions = round(jitFunctions, 1);
+        this.jitGenerationTime = round(jitGenerationTime, 3);
+        this.jitInliningTime = round(jitInliningTime, 3);
+        this.jitOptimizationTime = round(jitOptimizationTime, 3);
+        this.jitEmissionTime = round(jitEmissionTime, 3);
+        this.jitTime = round(jitTime, 3);
+        this.sharedDirtiedBlocks = round(sharedDirtiedBlocks, 1);
+        this.sharedWrittenBlocks = round(sharedWrittenBlocks, 1);
+        this.localHitBlocks = round(localHitBlocks, 1);
+        this.localReadBlocks = round(localReadBlocks, 1);
+        this.tempReadBlocks = round(tempReadBlocks, 1);
+        this.tempWrittenBlocks = round(tempWrittenBlocks, 1);
+        this.ioReadTime = round(ioReadTime, 3);
+        this.ioWriteTime = round(ioWriteTime, 3);
+        this.walRecords = round(walRecords, 1);
+        this.walFpi = round(walFpi, 1);
+        this.walBytes = round(walBytes, 1);
+        this.workersPlanned = round(workersPlanned, 1);
+        this.workersLaunched = round(workersLaunched, 1);
+        this.spilledOperators = spilledOperators;
+    }
+
+    public int getAnalysedExecutions() {
+        return analysedExecutions;
+    }
+
+    public double getPlanningTime() {
+        return planningTime;
+    }
+
+    public double getJitFunctions() {
+        return jitFunctions;
+    }
+
+    public double getJitGenerationTime() {
+        return jitGenerationTime;
+    }
+
+    public double getJitInliningTime() {
+        return jitInliningTime;
+    }
+
+    public double getJitOptimizationTime() {
+        return jitOptimizationTime;
+    }
+
+    public double getJitEmissionTime() {
+        return jitEmissionTime;
+    }
+
+    public double getJitTime() {
+        return jitTime;
+    }
+
+    public double getSharedDirtiedBlocks() {
+        return sharedDirtiedBlocks;
+    }
+
+    public double getSharedWrittenBlocks() {
+        return sharedWrittenBlocks;
+    }
+
+    public double getLocalHitBlocks() {
+        return localHitBlocks;
+    }
+
+    public double getLocalReadBlocks() {
+        return localReadBlocks;
+    }
+
+    public double getTempReadBlocks() {
+        return tempReadBlocks;
+    }
+
+    public double getTempWrittenBlocks() {
+        return tempWrittenBlocks;
+    }
+
+    public double getIoReadTime() {
+        return ioReadTime;
+    }
+
+    public double getIoWriteTime() {
+        return ioWriteTime;
+    }
+
+    public double getWalRecords() {
+        return walRecords;
+    }
+
+    public double getWalFpi() {
+        return walFpi;
+    }
+
+    public double getWalBytes() {
+        return walBytes;
+    }
+
+    public double getWorkersPlanned() {
+        return workersPlanned;
+    }
+
+    public double getWorkersLaunched() {
+        return workersLaunched;
+    }
+
+    public List<String> getSpilledOperators() {
+        return spilledOperators;
+    }
+}
@@ -0,0 +1,84 @@
+package backend.model.result;
+
+import backend.model.options.OperatorCategory;
+import backend.model.options.QueryType;
+
+import java.util.List;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code HotOperator} class encapsulates the time spent by a workload in one kind of operator. Operators are
+ * grouped by category, native name, table, index and condition, and their exclusive times are added over the
+ * plans of the queries of the workload, weighted by the ratio of each query. It also gives the share of the
+ * workload time spent in the operator and the queries whose plans contain it.
+ *
+ * @author Eva Ray
+ */
+public class HotOperator {
+
+    private final OperatorCategory category;
+    private final String operator;
+    private final String relation;
+    private final String index;
+    private final String condition;
+    private final double time;
+    private final double share;
+    private final List<QueryType> queries;
+
+    /**
+     * Constructs a new {@code HotOperator} instance.
+     *
+     * @param category  the category of the operator
+     * @param operator  the native name of the operator
+     * @param relation  the table or collection read, or null
+     * @param index     the index read, or null
+     * @param condition the filter or join condition of the operator, or null
+     * @param time      the weighted exclusive time of the operator, in ms
+     * @param share     the share of the weighted workload time spent in the operator, in percent
+     * @param queries   the queries whose plans contain the operator
+     */
+    public HotOperator(OperatorCategory category, String operator, String relation, String index, String condition,
+                       double time, double share, List<QueryType> queries) {
+        this.category = category;
+        this.operator = operator;
+        this.relation = relation;
+        this.index = index;
+        this.condition = condition;
+        this.time = round(time, 3);
+        this.share = round(share);
+        this.queries = queries;
+    }
+
+    public OperatorCategory getCategory() {
+        return category;
+    }
+
+    public String getOperator() {
+        return operator;
+    }
+
+    public String getRelation() {
+        return relation;
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public double getTime() {
+        return time;
+    }
+
+    public double getShare() {
+        return share;
+    }
+
+    public List<QueryType> getQueries() {
+        return queries;
+    }
+}
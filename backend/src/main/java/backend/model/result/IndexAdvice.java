@@ -0,0 +1,44 @@
+package backend.model.result;
+
+import backend.model.request.Index;
+
+import java.util.List;
+
+/**
+ * The {@code IndexAdvice} class encapsulates the index advice for one query. It contains the average latency of
+ * the query without benchmark index, the measured candidates ranked by gain per MB of index, and the recommended
+ * indexes: the best candidate of each table among those that reach the minimum gain.
+ *
+ * @author Eva Ray
+ */
+public class IndexAdvice {
+
+    private final double baselineLatency;
+    private final List<CandidateMeasurement> candidates;
+    private final List<Index> recommendedIndexes;
+
+    /**
+     * Constructs a new {@code IndexAdvice} instance.
+     *
+     * @param baselineLatency    the average latency of the query without benchmark index, in ms
+     * @param candidates         the measured candidates, ranked by gain per MB
+     * @param recommendedIndexes the recommended indexes
+     */
+    public IndexAdvice(double baselineLatency, List<CandidateMeasurement> candidates, List<Index> recommendedIndexes) {
+        this.baselineLatency = baselineLatency;
+        this.candidates = candidates;
+        this.recommendedIndexes = recommendedIndexes;
+    }
+
+    public double getBaselineLatency() {
+        return baselineLatency;
+    }
+
+    public List<CandidateMeasurement> getCandidates() {
+        return candidates;
+    }
+
+    public List<Index> getRecommendedIndexes() {
+        return recommendedIndexes;
+    }
+}
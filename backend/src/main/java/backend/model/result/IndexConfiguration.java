@@ -0,0 +1,81 @@
+package backend.model.result;
+
+import backend.model.options.QueryType;
+
+import java.util.List;
+import java.util.Map;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code IndexConfiguration} class encapsulates the measurement of a combination of indexes against a
+ * workload. It contains the names of the indexes, their total size, the average latency of each query of the
+ * workload, and the latency of the workload, which is the average of the query latencies weighted by the ratio of
+ * each query in the workload.
+ *
+ * @author Eva Ray
+ */
+public class IndexConfiguration {
+
+    private final List<String> indexes;
+    private final long indexBytes;
+    private final double indexMB;
+    private final boolean withinBudget;
+    private final double workloadLatency;
+    private final Map<QueryType, Double> queryLatencies;
+
+    /**
+     * Constructs a new {@code IndexConfiguration} instance.
+     *
+     * @param indexes         the names of the indexes
+     * @param indexBytes      the total size of the indexes in bytes
+     * @param withinBudget    whether the indexes fit in the storage budget
+     * @param workloadLatency the weighted average latency of the workload, in ms
+     * @param queryLatencies  the average latency of each query of the workload, in ms
+     */
+    public IndexConfiguration(List<String> indexes, long indexBytes, boolean withinBudget, double workloadLatency,
+                              Map<QueryType, Double> queryLatencies) {
+        this.indexes = indexes;
+        this.indexBytes = indexBytes;
+        this.indexMB = round(indexBytes / 1_000_000.0);
+        this.withinBudget = withinBudget;
+        this.workloadLatency = round(workloadLatency);
+        this.queryLatencies = queryLatencies;
+    }
+
+    /**
+     * Returns whether this configuration dominates another one: it is not larger nor slower, and it is smaller
+     * or faster.
+     *
+     * @param other the other configuration
+     * @return true if this configuration dominates the other one
+     */
+    public boolean dominates(IndexConfiguration other) {
+        return indexBytes <= other.indexBytes && workloadLatency <= other.workloadLatency
+                && (indexBytes < other.indexBytes || workloadLatency < other.workloadLatency);
+    }
+
+    public List<String> getIndexes() {
+        return indexes;
+    }
+
+    public long getIndexBytes() {
+        return indexBytes;
+    }
+
+    public double getIndexMB() {
+        return indexMB;
+    }
+
+    public boolean isWithinBudget() {
+        return withinBudget;
+    }
+
+    public double getWorkloadLatency() {
+        return workloadLatency;
+    }
+
+    public Map<QueryType, Double> getQueryLatencies() {
+        return queryLatencies;
+    }
+}
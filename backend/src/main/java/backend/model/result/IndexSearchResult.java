@@ -0,0 +1,51 @@
+package backend.model.result;
+
+import java.util.List;
+
+/**
+ * The {@code IndexSearchResult} class encapsulates the results of an index search for one database. It contains
+ * the configuration without benchmark index, the best configuration found within the storage budget, the
+ * latency-versus-size Pareto frontier of the evaluated configurations, ordered by size, and all the evaluated
+ * configurations, in evaluation order.
+ *
+ * @author Eva Ray
+ */
+public class IndexSearchResult {
+
+    private final IndexConfiguration baseline;
+    private final IndexConfiguration best;
+    private final List<IndexConfiguration> paretoFrontier;
+    private final List<IndexConfiguration> evaluations;
+
+    /**
+     * Constructs a new {@code IndexSearchResult} instance.
+     *
+     * @param baseline       the configuration without benchmark index
+     * @param best           the best configuration within the storage budget
+     * @param paretoFrontier the configurations that no other configuration dominates, ordered by size
+     * @param evaluations    all the evaluated configurations
+     */
+    public IndexSearchResult(IndexConfiguration baseline, IndexConfiguration best,
+                             List<IndexConfiguration> paretoFrontier, List<IndexConfiguration> evaluations) {
+        this.baseline = baseline;
+        this.best = best;
+        this.paretoFrontier = paretoFrontier;
+        this.evaluations = evaluations;
+    }
+
+    public IndexConfiguration getBaseline() {
+        return baseline;
+    }
+
+    public IndexConfiguration getBest() {
+        return best;
+    }
+
+    public List<IndexConfiguration> getParetoFrontier() {
+        return paretoFrontier;
+    }
+
+    public List<IndexConfiguration> getEvaluations() {
+        return evaluations;
+    }
+}
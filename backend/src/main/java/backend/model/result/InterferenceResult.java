@@ -0,0 +1,38 @@
+package backend.model.result;
+
+import backend.model.metadata.IndexInfo;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code InterferenceResult} class encapsulates the results of an interference benchmark for one database.
+ * It contains a list of index information and a map of class names to their interference measurements.
+ *
+ * @author Eva Ray
+ */
+public class InterferenceResult {
+
+    private final List<IndexInfo> indexInfo;
+    // Map of class names to their isolated and concurrent measurements
+    private final Map<String, ClassInterference> classes;
+
+    /**
+     * Constructs a new {@code InterferenceResult} instance.
+     *
+     * @param indexInfo the list of index information
+     * @param classes   the map of class names to their measurements
+     */
+    public InterferenceResult(List<IndexInfo> indexInfo, Map<String, ClassInterference> classes) {
+        this.indexInfo = indexInfo;
+        this.classes = classes;
+    }
+
+    public List<IndexInfo> getIndexInfo() {
+        return indexInfo;
+    }
+
+    public Map<String, ClassInterference> getClasses() {
+        return classes;
+    }
+}
@@ -0,0 +1,36 @@
+package backend.model.result;
+
+import backend.model.metadata.IndexInfo;
+
+import java.util.List;
+
+/**
+ * The {@code KeyValueResult} class encapsulates the results of a key-value benchmark for one database.
+ * It contains a list of index information and the measurements of each access path and batch size.
+ *
+ * @author Eva Ray
+ */
+public class KeyValueResult {
+
+    private final List<IndexInfo> indexInfo;
+    private final List<AccessPathResult> accessPaths;
+
+    /**
+     * Constructs a new {@code KeyValueResult} instance.
+     *
+     * @param indexInfo   the list of index information
+     * @param accessPaths the measurements of each access path and batch size
+     */
+    public KeyValueResult(List<IndexInfo> indexInfo, List<AccessPathResult> accessPaths) {
+        this.indexInfo = indexInfo;
+        this.accessPaths = accessPaths;
+    }
+
+    public List<IndexInfo> getIndexInfo() {
+        return indexInfo;
+    }
+
+    public List<AccessPathResult> getAccessPaths() {
+        return accessPaths;
+    }
+}
@@ -0,0 +1,112 @@
+package backend.model.result;
+
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code LatencyStats} class summarizes a latency distribution measured on the client side, typically
+ * by concurrent workers. It contains the usual percentiles as well as the throughput reached during the
+ * measurement.
+ *
+ * @author Eva Ray
+ */
+public class LatencyStats {
+
+    private final int count;
+    private final long errors;
+    private final double avgLatency;
+    private final double standardDeviation;
+    private final double percentile50;
+    private final double percentile95;
+    private final double percentile99;
+    private final double maxLatency;
+    private final double throughput;
+
+    /**
+     * Constructs a new {@code LatencyStats} instance with the specified parameters.
+     *
+     * @param count             the number of successful operations
+     * @param errors            the number of failed operations
+     * @param avgLatency        the average latency in milliseconds
+     * @param standardDeviation the standard deviation of the latencies
+     * @param percentile50      the median latency in milliseconds
+     * @param percentile95      the 95th percentile of the latencies in milliseconds
+     * @param percentile99      the 99th percentile of the latencies in milliseconds
+     * @param maxLatency        the maximum latency in milliseconds
+     * @param throughput        the number of successful operations per second
+     */
+    public LatencyStats(int count, long errors, double avgLatency, double standardDeviation, double percentile50,
+                        double percentile95, double percentile99, double maxLatency, double throughput) {
+        this.count = count;
+        this.errors = errors;
+        this.avgLatency = avgLatency;
+        this.standardDeviation = standardDeviation;
+        this.percentile50 = percentile50;
+        this.percentile95 = percentile95;
+        this.percentile99 = percentile99;
+        this.maxLatency = maxLatency;
+        this.throughput = throughput;
+    }
+
+    /**
+     * Computes the statistics of a set of latencies.
+     *
+     * @param latencies  the measured latencies in milliseconds
+     * @param errors     the number of operations that failed
+     * @param wallTimeMs the elapsed time of the measurement in milliseconds, used for the throughput
+     * @return the statistics of the latencies
+     */
+    public static LatencyStats of(double[] latencies, long errors, double wallTimeMs) {
+        if (latencies.length == 0) {
+            return new LatencyStats(0, errors, 0, 0, 0, 0, 0, 0, 0);
+        }
+        DescriptiveStatistics stats = new DescriptiveStatistics(latencies);
+        double throughput = wallTimeMs > 0 ? latencies.length / (wallTimeMs / 1000) : 0;
+
+        return new LatencyStats(latencies.length, errors,
+                round(stats.getMean()),
+                round(stats.getStandardDeviation()),
+                round(stats.getPercentile(50)),
+                round(stats.getPercentile(95)),
+                round(stats.getPercentile(99)),
+                round(stats.getMax()),
+                round(throughput));
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public double getAvgLatency() {
+        return avgLatency;
+    }
+
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    public double getPercentile50() {
+        return percentile50;
+    }
+
+    public double getPercentile95() {
+        return percentile95;
+    }
+
+    public double getPercentile99() {
+        return percentile99;
+    }
+
+    public double getMaxLatency() {
+        return maxLatency;
+    }
+
+    public double getThroughput() {
+        return throughput;
+    }
+}
@@ -0,0 +1,64 @@
+package backend.model.result;
+
+import java.util.List;
+
+/**
+ * The {@code MatrixResult} class encapsulates the results of a benchmark matrix. It contains one row per cell, in
+ * the order in which the cells were expanded from the request, the number of cells measured by this request and
+ * resumed from the checkpoint file, and the number of indexes created and dropped to measure the cells.
+ *
+ * @author Eva Ray
+ */
+public class MatrixResult {
+
+    private final List<MatrixRow> rows;
+    private final int measuredCells;
+    private final int resumedCells;
+    private final int indexesCreated;
+    private final int indexesDropped;
+    private final String checkpointFile;
+
+    /**
+     * Constructs a new {@code MatrixResult} instance.
+     *
+     * @param rows           the rows of the matrix, one per cell
+     * @param measuredCells  the number of cells measured by this request
+     * @param resumedCells   the number of cells read from the checkpoint file
+     * @param indexesCreated the number of indexes created during the matrix
+     * @param indexesDropped the number of indexes dropped during the matrix
+     * @param checkpointFile the name of the checkpoint file, or null if the matrix has no checkpoint
+     */
+    public MatrixResult(List<MatrixRow> rows, int measuredCells, int resumedCells, int indexesCreated,
+                        int indexesDropped, String checkpointFile) {
+        this.rows = rows;
+        this.measuredCells = measuredCells;
+        this.resumedCells = resumedCells;
+        this.indexesCreated = indexesCreated;
+        this.indexesDropped = indexesDropped;
+        this.checkpointFile = checkpointFile;
+    }
+
+    public List<MatrixRow> getRows() {
+        return rows;
+    }
+
+    public int getMeasuredCells() {
+        return measuredCells;
+    }
+
+    public int getResumedCells() {
+        return resumedCells;
+    }
+
+    public int getIndexesCreated() {
+        return indexesCreated;
+    }
+
+    public int getIndexesDropped() {
+        return indexesDropped;
+    }
+
+    public String getCheckpointFile() {
+        return checkpointFile;
+    }
+}
@@ -0,0 +1,204 @@
+package backend.model.result;
+
+import backend.model.options.DBSize;
+import backend.model.options.DBType;
+import backend.model.options.QueryType;
+
+/**
+ * The {@code MatrixRow} class is one row of the results of a benchmark matrix, that is the measurement of one
+ * cell. The cell is identified by its database, dataset size, index set, settings, query and concurrency, and the
+ * measurement is flattened into columns, so that the rows form a tidy table.
+ * <p>
+ * The measurement comes from the {@link LatencyStats} of the workers that executed the query, measured on the
+ * client side whatever the concurrency. A failed cell only contains its identification.
+ * <p>
+ * The rows are also stored in the checkpoint file of the matrix, so getters and setters are mandatory for the
+ * conversion from and to JSON.
+ *
+ * @author Eva Ray
+ */
+public class MatrixRow {
+
+    private DBType database;
+    private DBSize size;
+    private String indexSet;
+    private String settings;
+    private QueryType query;
+    private int concurrency;
+    private int executionOrder;
+    private boolean failed;
+    private boolean resumed;
+    private Double avgLatency;
+    private Double standardDeviation;
+    private Double percentile50;
+    private Double percentile95;
+    private Double percentile99;
+    private Double throughput;
+    private Long errors;
+
+    public MatrixRow() {
+    }
+
+    /**
+     * Constructs a new {@code MatrixRow} instance without measurement.
+     *
+     * @param database    the database of the cell
+     * @param size        the dataset size of the cell
+     * @param indexSet    the name of the index set of the cell
+     * @param settings    the name of the settings of the cell
+     * @param query       the query of the cell
+     * @param concurrency the number of concurrent sessions of the cell
+     */
+    public MatrixRow(DBType database, DBSize size, String indexSet, String settings, QueryType query,
+                     int concurrency) {
+        this.database = database;
+        this.size = size;
+        this.indexSet = indexSet;
+        this.settings = settings;
+        this.query = query;
+        this.concurrency = concurrency;
+    }
+
+    /**
+     * Fills the measurement of the row with the latencies of a query measured by its workers.
+     *
+     * @param stats the latency statistics of the workers
+     */
+    public void measured(LatencyStats stats) {
+        this.avgLatency = stats.getAvgLatency();
+        this.standardDeviation = stats.getStandardDeviation();
+        this.percentile50 = stats.getPercentile50();
+        this.percentile95 = stats.getPercentile95();
+        this.percentile99 = stats.getPercentile99();
+        this.throughput = stats.getThroughput();
+        this.errors = stats.getErrors();
+    }
+
+    public DBType getDatabase() {
+        return database;
+    }
+
+    public void setDatabase(DBType database) {
+        this.database = database;
+    }
+
+    public DBSize getSize() {
+        return size;
+    }
+
+    public void setSize(DBSize size) {
+        this.size = size;
+    }
+
+    public String getIndexSet() {
+        return indexSet;
+    }
+
+    public void setIndexSet(String indexSet) {
+        this.indexSet = indexSet;
+    }
+
+    public String getSettings() {
+        return settings;
+    }
+
+    public void setSettings(String settings) {
+        this.settings = settings;
+    }
+
+    public QueryType getQuery() {
+        return query;
+    }
+
+    public void setQuery(QueryType query) {
+        this.query = query;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getExecutionOrder() {
+        return executionOrder;
+    }
+
+    public void setExecutionOrder(int executionOrder) {
+        this.executionOrder = executionOrder;
+    }
+
+    public boolean isFailed() {
+        return failed;
+    }
+
+    public void setFailed(boolean failed) {
+        this.failed = failed;
+    }
+
+    public boolean isResumed() {
+        return resumed;
+    }
+
+    public void setResumed(boolean resumed) {
+        this.resumed = resumed;
+    }
+
+    public Double getAvgLatency() {
+        return avgLatency;
+    }
+
+    public void setAvgLatency(Double avgLatency) {
+        this.avgLatency = avgLatency;
+    }
+
+    public Double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    public void setStandardDeviation(Double standardDeviation) {
+        this.standardDeviation = standardDeviation;
+    }
+
+    public Double getPercentile50() {
+        return percentile50;
+    }
+
+    public void setPercentile50(Double percentile50) {
+        this.percentile50 = percentile50;
+    }
+
+    public Double getPercentile95() {
+        return percentile95;
+    }
+
+    public void setPercentile95(Double percentile95) {
+        this.percentile95 = percentile95;
+    }
+
+    public Double getPercentile99() {
+        return percentile99;
+    }
+
+    public void setPercentile99(Double percentile99) {
+        this.percentile99 = percentile99;
+    }
+
+    public Double getThroughput() {
+        return throughput;
+    }
+
+    public void setThroughput(Double throughput) {
+        this.throughput = throughput;
+    }
+
+    public Long getErrors() {
+        return errors;
+    }
+
+    public void setErrors(Long errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,117 @@
+package backend.model.result;
+
+import backend.model.options.OperatorCategory;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * The {@code Misestimate} class represents an operator of a PostgreSQL plan whose number of rows was badly
+ * estimated by the planner, with the operator whose choice depends on the estimate: the join that consumes the
+ * rows, or the scan itself. The diagnosis explains how the estimate may have led to a slow plan.
+ *
+ * @author Eva Ray
+ */
+public class Misestimate {
+
+    private final String operator;
+    private final OperatorCategory category;
+    private final String relation;
+    private final String condition;
+    private final long estimatedRows;
+    private final long actualRows;
+    private final long loops;
+    private final double qError;
+    private final boolean underestimated;
+    private final double inclusiveTime;
+    private final String affectedOperator;
+    private final double affectedTime;
+    private final String diagnosis;
+
+    /**
+     * Constructs a new {@code Misestimate} instance.
+     *
+     * @param operator         the native name of the misestimated operator
+     * @param category         the category of the misestimated operator
+     * @param relation         the table read by the operator, or null
+     * @param condition        the filter or join condition of the operator, or null
+     * @param estimatedRows    the number of rows per loop estimated by the planner
+     * @param actualRows       the actual number of rows per loop
+     * @param loops            the number of times the operator was executed
+     * @param qError           the q-error of the estimate
+     * @param underestimated   whether the planner expected fewer rows than the actual ones
+     * @param inclusiveTime    the time of the operator and its children, in ms
+     * @param affectedOperator the native name of the operator whose choice depends on the estimate
+     * @param affectedTime     the time of the affected operator and its children, in ms
+     * @param diagnosis        how the estimate may have slowed the plan down
+     */
+    public Misestimate(String operator, OperatorCategory category, String relation, String condition,
+                       long estimatedRows, long actualRows, long loops, double qError, boolean underestimated,
+                       double inclusiveTime, String affectedOperator, double affectedTime, String diagnosis) {
+        this.operator = operator;
+        this.category = category;
+        this.relation = relation;
+        this.condition = condition;
+        this.estimatedRows = estimatedRows;
+        this.actualRows = actualRows;
+        this.loops = loops;
+        this.qError = qError;
+        this.underestimated = underestimated;
+        this.inclusiveTime = inclusiveTime;
+        this.affectedOperator = affectedOperator;
+        this.affectedTime = affectedTime;
+        this.diagnosis = diagnosis;
+    }
+
+    public String getOperator() {
+        return operator;
+    }
+
+    public OperatorCategory getCategory() {
+        return category;
+    }
+
+    public String getRelation() {
+        return relation;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    public long getActualRows() {
+        return actualRows;
+    }
+
+    public long getLoops() {
+        return loops;
+    }
+
+    // Without the annotation, Jackson would name the property qerror
+    @JsonProperty("qError")
+    public double getQError() {
+        return qError;
+    }
+
+    public boolean isUnderestimated() {
+        return underestimated;
+    }
+
+    public double getInclusiveTime() {
+        return inclusiveTime;
+    }
+
+    public String getAffectedOperator() {
+        return affectedOperator;
+    }
+
+    public double getAffectedTime() {
+        return affectedTime;
+    }
+
+    public String getDiagnosis() {
+        return diagnosis;
+    }
+}
@@ -0,0 +1,169 @@
+package backend.model.result;
+
+/**
+ * The {@code OperatorMetrics} class contains the execution metrics that PostgreSQL reports for an operator of a
+ * plan besides its time and rows: the buffer blocks it dirtied and wrote, its local and temporary blocks, its I/O
+ * timings (with {@code track_io_timing}), the WAL it generated, its parallel workers, and the memory and disk used
+ * by its hash table or sort.
+ * <p>
+ * Like the shared blocks, the block counts, I/O timings and WAL include those of the children of the operator.
+ * An operator spilled to disk if its hash table needed more than one batch, if it sorted on disk, or if it wrote
+ * temporary blocks of its own.
+ *
+ * @author Eva Ray
+ */
+public class OperatorMetrics {
+
+    private final long sharedDirtiedBlocks;
+    private final long sharedWrittenBlocks;
+    private final long localHitBlocks;
+    private final long localReadBlocks;
+    private final long tempReadBlocks;
+    private final long tempWrittenBlocks;
+    private final double ioReadTime;
+    private final double ioWriteTime;
+    private final long walRecords;
+    private final long walFpi;
+    private final long walBytes;
+    private final Integer workersPlanned;
+    private final Integer workersLaunched;
+    private final Integer hashBatches;
+    private final Integer originalHashBatches;
+    private final Long peakMemoryKb;
+    private final String sortMethod;
+    private final String sortSpaceType;
+    private final Long sortSpaceUsedKb;
+    private final boolean spilled;
+
+    /**
+     * Constructs a new {@code OperatorMetrics} instance.
+     *
+     * @param sharedDirtiedBlocks the number of shared blocks dirtied
+     * @param sharedWrittenBlocks the number of shared blocks written
+     * @param localHitBlocks      the number of local blocks hit
+     * @param localReadBlocks     the number of local blocks read
+     * @param tempReadBlocks      the number of temporary blocks read
+     * @param tempWrittenBlocks   the number of temporary blocks written
+     * @param ioReadTime          the time spent reading blocks, in ms, 0 without {@code track_io_timing}
+     * @param ioWriteTime         the time spent writing blocks, in ms, 0 without {@code track_io_timing}
+     * @param walRecords          the number of WAL records generated
+     * @param walFpi              the number of WAL full page images generated
+     * @param walBytes            the number of WAL bytes generated
+     * @param workersPlanned      the number of parallel workers planned, or null if not a gather operator
+     * @param workersLaunched     the number of parallel workers launched, or null if not a gather operator
+     * @param hashBatches         the number of batches of the hash table, or null if not a hash operator
+     * @param originalHashBatches the number of batches planned for the hash table, or null if not a hash operator
+     * @param peakMemoryKb        the peak memory of the hash table in kB, or null if not a hash operator
+     * @param sortMethod          the sort method, or null if not a sort operator
+     * @param sortSpaceType       where the sort was done, {@code Memory} or {@code Disk}, or null if not a sort
+     * @param sortSpaceUsedKb     the space used by the sort in kB, or null if not a sort operator
+     * @param spilled             whether the operator spilled to disk
+     */
+    public OperatorMetrics(long sharedDirtiedBlocks, long sharedWrittenBlocks, long localHitBlocks,
+                           long localReadBlocks, long tempReadBlocks, long tempWrittenBlocks, double ioReadTime,
+                           double ioWriteTime, long walRecords, long walFpi, long walBytes, Integer workersPlanned,
+                           Integer workersLaunched, Integer hashBatches, Integer originalHashBatches,
+                           Long peakMemoryKb, String sortMethod, String sortSpaceType, Long sortSpaceUsedKb,
+                           boolean spilled) {
+        this.sharedDirtiedBlocks = sharedDirtiedBlocks;
+        this.sharedWrittenBlocks = sharedWrittenBlocks;
+        this.localHitBlocks = localHitBlocks;
+        this.localReadBlocks = localReadBlocks;
+        this.tempReadBlocks = tempReadBlocks;
+        this.tempWrittenBlocks = tempWrittenBlocks;
+        this.ioReadTime = ioReadTime;
+        this.ioWriteTime = ioWriteTime;
+        this.walRecords = walRecords;
+        this.walFpi = walFpi;
+        this.walBytes = walBytes;
+        this.workersPlanned = workersPlanned;
+        this.workersLaunched = workersLaunched;
+        this.hashBatches = hashBatches;
+        this.originalHashBatches = originalHashBatches;
+        this.peakMemoryKb = peakMemoryKb;
+        this.sortMethod = sortMethod;
+        this.sortSpaceType = sortSpaceType;
+        this.sortSpaceUsedKb = sortSpaceUsedKb;
+        this.spilled = spilled;
+    }
+
+    public long getSharedDirtiedBlocks() {
+        return sharedDirtiedBlocks;
+    }
+
+    public long getSharedWrittenBlocks() {
+        return sharedWrittenBlocks;
+    }
+
+    public long getLocalHitBlocks() {
+        return localHitBlocks;
+    }
+
+    public long getLocalReadBlocks() {
+        return localReadBlocks;
+    }
+
+    public long getTempReadBlocks() {
+        return tempReadBlocks;
+    }
+
+    public long getTempWrittenBlocks() {
+        return tempWrittenBlocks;
+    }
+
+    public double getIoReadTime() {
+        return ioReadTime;
+    }
+
+    public double getIoWriteTime() {
+        return ioWriteTime;
+    }
+
+    public long getWalRecords() {
+        return walRecords;
+    }
+
+    public long getWalFpi() {
+        return walFpi;
+    }
+
+    public long getWalBytes() {
+        return walBytes;
+    }
+
+    public Integer getWorkersPlanned() {
+        return workersPlanned;
+    }
+
+    public Integer getWorkersLaunched() {
+        return workersLaunched;
+    }
+
+    public Integer getHashBatches() {
+        return hashBatches;
+    }
+
+    public Integer getOriginalHashBatches() {
+        return originalHashBatches;
+    }
+
+    public Long getPeakMemoryKb() {
+        return peakMemoryKb;
+    }
+
+    public String getSortMethod() {
+        return sortMethod;
+    }
+
+    public String getSortSpaceType() {
+        return sortSpaceType;
+    }
+
+    public Long getSortSpaceUsedKb() {
+        return sortSpaceUsedKb;
+    }
+
+    public boolean isSpilled() {
+        return spilled;
+    }
+}
@@ -0,0 +1,149 @@
+package backend.model.result;
+
+import backend.model.options.OperatorCategory;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code PlanOperator} class represents an operator of an execution plan, in a form shared by PostgreSQL and
+ * Couchbase. It contains the native name and the category of the operator, its inclusive time (with its
+ * children) and exclusive time (without them), the rows it received and produced, the table and index it read,
+ * and, for PostgreSQL, the shared buffer blocks it hit and read, its filter or join condition, the number of times
+ * it was executed, the q-error of the estimate of its rows and its other {@link OperatorMetrics}.
+ * <p>
+ * Times are totals over all the loops of the operator for one execution of the query, in milliseconds. A value
+ * that the engine does not report is null.
+ *
+ * @author Eva Ray
+ */
+public class PlanOperator {
+
+    private final String operator;
+    private final OperatorCategory category;
+    private final double inclusiveTime;
+    private final double exclusiveTime;
+    private final Long rowsIn;
+    private final Long rowsOut;
+    private final Long estimatedRows;
+    private final Long loops;
+    private final Double qError;
+    private final String relation;
+    private final String index;
+    private final String condition;
+    private final Long sharedHitBlocks;
+    private final Long sharedReadBlocks;
+    private final OperatorMetrics metrics;
+    private final List<PlanOperator> children;
+
+    /**
+     * Constructs a new {@code PlanOperator} instance.
+     *
+     * @param operator         the native name of the operator
+     * @param category         the category of the operator
+     * @param inclusiveTime    the time of the operator and its children, in ms
+     * @param exclusiveTime    the time of the operator alone, in ms
+     * @param rowsIn           the number of rows received, or null if unknown
+     * @param rowsOut          the number of rows produced, or null if unknown
+     * @param estimatedRows    the number of rows per loop estimated by the planner, or null if unknown
+     * @param loops            the number of times the operator was executed, or null if unknown
+     * @param qError           the ratio between the estimated and the actual rows per loop, the largest divided by
+     *                         the smallest, or null if unknown
+     * @param relation         the table or collection read, or null
+     * @param index            the index read, or null
+     * @param condition        the filter or join condition, or null
+     * @param sharedHitBlocks  the number of shared buffer hits, or null if unknown
+     * @param sharedReadBlocks the number of shared buffer reads, or null if unknown
+     * @param metrics          the other execution metrics reported by PostgreSQL, or null if unknown
+     * @param children         the child operators
+     */
+    public PlanOperator(String operator, OperatorCategory category, double inclusiveTime, double exclusiveTime,
+                        Long rowsIn, Long rowsOut, Long estimatedRows, Long loops, Double qError, String relation,
+                        String index, String condition, Long sharedHitBlocks, Long sharedReadBlocks,
+                        OperatorMetrics metrics, List<PlanOperator> children) {
+        this.operator = operator;
+        this.category = category;
+        this.inclusiveTime = round(inclusiveTime, 3);
+        this.exclusiveTime = round(exclusiveTime, 3);
+        this.rowsIn = rowsIn;
+        this.rowsOut = rowsOut;
+        this.estimatedRows = estimatedRows;
+        this.loops = loops;
+        this.qError = qError != null ? round(qError) : null;
+        this.relation = relation;
+        this.index = index;
+        this.condition = condition;
+        this.sharedHitBlocks = sharedHitBlocks;
+        this.sharedReadBlocks = sharedReadBlocks;
+        this.metrics = metrics;
+        this.children = children;
+    }
+
+    public String getOperator() {
+        return operator;
+    }
+
+    public OperatorCategory getCategory() {
+        return category;
+    }
+
+    public double getInclusiveTime() {
+        return inclusiveTime;
+    }
+
+    public double getExclusiveTime() {
+        return exclusiveTime;
+    }
+
+    public Long getRowsIn() {
+        return rowsIn;
+    }
+
+    public Long getRowsOut() {
+        return rowsOut;
+    }
+
+    public Long getEstimatedRows() {
+        return estimatedRows;
+    }
+
+    public Long getLoops() {
+        return loops;
+    }
+
+    // Without the annotation, Jackson would name the property qerror
+    @JsonProperty("qError")
+    public Double getQError() {
+        return qError;
+    }
+
+    public String getRelation() {
+        return relation;
+    }
+
+    public String getIndex() {
+        return index;
+    }
+
+    public String getCondition() {
+        return condition;
+    }
+
+    public Long getSharedHitBlocks() {
+        return sharedHitBlocks;
+    }
+
+    public Long getSharedReadBlocks() {
+        return sharedReadBlocks;
+    }
+
+    public OperatorMetrics getMetrics() {
+        return metrics;
+    }
+
+    public List<PlanOperator> getChildren() {
+        return children;
+    }
+}
@@ -0,0 +1,91 @@
+package backend.model.result;
+
+import java.util.List;
+
+/**
+ * The {@code PlanStability} class reports whether the plan of a query stayed the same during a benchmark run and
+ * since the previous run of the same query, on the same scope and with the same indexes. The plans of sampled
+ * executions are fingerprinted: a plan change within the run is a sampled execution whose fingerprint differs
+ * from the previous sampled execution, and the plan of the run is compared with the most frequent plan of the
+ * previous run.
+ *
+ * @author Eva Ray
+ */
+public class PlanStability {
+
+    private final int sampleInterval;
+    private final int sampledExecutions;
+    private final int planChanges;
+    private final String fingerprint;
+    private final List<PlanVariant> variants;
+    private final String previousFingerprint;
+    private final String previousRunAt;
+
+    /**
+     * Constructs a new {@code PlanStability} instance.
+     *
+     * @param sampleInterval      the number of executions between two sampled executions
+     * @param sampledExecutions   the number of sampled executions
+     * @param planChanges         the number of plan changes between successive sampled executions
+     * @param fingerprint         the fingerprint of the most frequent plan of the run
+     * @param variants            the plans of the sampled executions, from the most to the least frequent
+     * @param previousFingerprint the fingerprint of the most frequent plan of the previous run, or null if none
+     * @param previousRunAt       the date of the previous run, or null if none
+     */
+    public PlanStability(int sampleInterval, int sampledExecutions, int planChanges, String fingerprint,
+                         List<PlanVariant> variants, String previousFingerprint, String previousRunAt) {
+        this.sampleInterval = sampleInterval;
+        this.sampledExecutions = sampledExecutions;
+        this.planChanges = planChanges;
+        this.fingerprint = fingerprint;
+        this.variants = variants;
+        this.previousFingerprint = previousFingerprint;
+        this.previousRunAt = previousRunAt;
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    public int getSampledExecutions() {
+        return sampledExecutions;
+    }
+
+    public int getPlanChanges() {
+        return planChanges;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public List<PlanVariant> getVariants() {
+        return variants;
+    }
+
+    public String getPreviousFingerprint() {
+        return previousFingerprint;
+    }
+
+    public String getPreviousRunAt() {
+        return previousRunAt;
+    }
+
+    /**
+     * Returns whether all the sampled executions used the same plan.
+     *
+     * @return true if the plan did not change during the run
+     */
+    public boolean isStableWithinRun() {
+        return variants.size() <= 1;
+    }
+
+    /**
+     * Returns whether the plan of the run differs from the plan of the previous run.
+     *
+     * @return true if the plan changed since the previous run, false if it did not or if there is no previous run
+     */
+    public boolean isChangedSincePreviousRun() {
+        return previousFingerprint != null && !previousFingerprint.equals(fingerprint);
+    }
+}
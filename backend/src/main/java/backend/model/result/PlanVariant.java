@@ -0,0 +1,78 @@
+package backend.model.result;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code PlanVariant} class represents one of the plans used by the sampled executions of a benchmark run,
+ * identified by its fingerprint, with the latency statistics of the sampled executions that used it. When the
+ * latency distribution of a run is bimodal, the variants show whether each mode corresponds to a different plan.
+ *
+ * @author Eva Ray
+ */
+public class PlanVariant {
+
+    private final String fingerprint;
+    private final String shape;
+    private final int sampledExecutions;
+    private final int firstExecution;
+    private final int lastExecution;
+    private final double avgLatency;
+    private final double standardDeviation;
+    private final double percentile95;
+
+    /**
+     * Constructs a new {@code PlanVariant} instance.
+     *
+     * @param fingerprint       the fingerprint of the plan
+     * @param shape             the operators of the plan, with their tables and indexes
+     * @param sampledExecutions the number of sampled executions that used the plan
+     * @param firstExecution    the number of the first sampled execution that used the plan, starting at 1
+     * @param lastExecution     the number of the last sampled execution that used the plan, starting at 1
+     * @param avgLatency        the average latency of the sampled executions, in ms
+     * @param standardDeviation the standard deviation of the latency of the sampled executions, in ms
+     * @param percentile95      the 95th percentile of the latency of the sampled executions, in ms
+     */
+    public PlanVariant(String fingerprint, String shape, int sampledExecutions, int firstExecution, int lastExecution,
+                       double avgLatency, double standardDeviation, double percentile95) {
+        this.fingerprint = fingerprint;
+        this.shape = shape;
+        this.sampledExecutions = sampledExecutions;
+        this.firstExecution = firstExecution;
+        this.lastExecution = lastExecution;
+        this.avgLatency = round(avgLatency);
+        this.standardDeviation = round(standardDeviation);
+        this.percentile95 = round(percentile95);
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public String getShape() {
+        return shape;
+    }
+
+    public int getSampledExecutions() {
+        return sampledExecutions;
+    }
+
+    public int getFirstExecution() {
+        return firstExecution;
+    }
+
+    public int getLastExecution() {
+        return lastExecution;
+    }
+
+    public double getAvgLatency() {
+        return avgLatency;
+    }
+
+    public double getStandardDeviation() {
+        return standardDeviation;
+    }
+
+    public double getPercentile95() {
+        return percentile95;
+    }
+}
@@ -0,0 +1,124 @@
+package backend.model.result;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code QueryServiceMetrics} class rolls up the execution metrics of a Couchbase query that are not part of
+ * its latency statistics: the phases of its profile (time spent, documents processed and number of operators per
+ * phase, such as {@code indexScan}, {@code fetch} or {@code filter}) and the metrics reported by the query service
+ * (documents returned, sorted and modified, size of the results). The values are averages per execution over the
+ * sampled executions of the run.
+ * <p>
+ * The fetch share is the part of the access time, the time spent in the scan and fetch phases, that is spent
+ * fetching documents from the data service. A high fetch share means that a covering index would avoid most of
+ * the access time. The memory used by the query is measured on one extra execution, since it is only reported
+ * when the query runs with a memory quota, and is null for write queries.
+ *
+ * @author Eva Ray
+ */
+public class QueryServiceMetrics {
+
+    private static final String FETCH_PHASE = "fetch";
+
+    private final int analysedExecutions;
+    private final Map<String, Double> phaseTimes;
+    private final Map<String, Double> phaseCounts;
+    private final Map<String, Double> phaseOperators;
+    private final double resultCount;
+    private final double resultSize;
+    private final double sortCount;
+    private final double mutationCount;
+    private final Long usedMemory;
+    private final Double fetchShare;
+
+    /**
+     * Constructs a new {@code QueryServiceMetrics} instance.
+     *
+     * @param analysedExecutions the number of analysed executions the averages are computed on
+     * @param phaseTimes         the time spent in each phase, in ms
+     * @param phaseCounts        the number of documents that went through each phase
+     * @param phaseOperators     the number of operators of each phase
+     * @param resultCount        the number of documents returned
+     * @param resultSize         the size of the documents returned, in bytes
+     * @param sortCount          the number of documents sorted
+     * @param mutationCount      the number of documents modified
+     * @param usedMemory         the memory used by one execution, in bytes, null if unknown
+     */
+    public QueryServiceMetrics(int analysedExecutions, Map<String, Double> phaseTimes, Map<String, Double> phaseCounts,
+                               Map<String, Double> phaseOperators, double resultCount, double resultSize,
+                               double sortCount, double mutationCount, Long usedMemory) {
+        this.analysedExecutions = analysedExecutions;
+        this.phaseTimes = roundAll(phaseTimes, 3);
+        this.phaseCounts = roundAll(phaseCounts, 1);
+        this.phaseOperators = roundAll(phaseOperators, 1);
+        this.resultCount = round(resultCount, 1);
+        this.resultSize = round(resultSize, 1);
+        this.sortCount = round(sortCount, 1);
+        this.mutationCount = round(mutationCount, 1);
+        this.usedMemory = usedMemory;
+
+        double fetchTime = phaseTimes.getOrDefault(FETCH_PHASE, 0.0);
+        double accessTime = fetchTime + phaseTimes.entrySet().stream()
+                .filter(phase -> phase.getKey().endsWith("Scan"))
+                .mapToDouble(Map.Entry::getValue)
+                .sum();
+        this.fetchShare = accessTime > 0 ? round(fetchTime / accessTime * 100, 1) : null;
+    }
+
+    /**
+     * Returns a copy of a map of averages rounded to the given number of decimals.
+     */
+    private static Map<String, Double> roundAll(Map<String, Double> values, int decimals) {
+        Map<String, Double> rounded = new TreeMap<>();
+        values.forEach((key, value) -> rounded.put(key, round(value, decimals)));
+        return rounded;
+    }
+
+    public int getAnalysedExecutions() {
+        return analysedExecutions;
+    }
+
+    public Map<String, Double> getPhaseTimes() {
+        return phaseTimes;
+    }
+
+    public Map<String, Double> getPhaseCounts() {
+        return phaseCounts;
+    }
+
+    public Map<String, Double> getPhaseOperators() {
+        return phaseOperators;
+    }
+
+    public double getResultCount() {
+        return resultCount;
+    }
+
+    public double getResultSize() {
+        return resultSize;
+    }
+
+    public double getSortCount() {
+        return sortCount;
+    }
+
+    public double getMutationCount() {
+        return mutationCount;
+    }
+
+    public Long getUsedMemory() {
+        return usedMemory;
+    }
+
+    /**
+     * Returns the percentage of the access time spent fetching documents.
+     *
+     * @return the fetch share in percent, or null if the profile has no scan or fetch phase
+     */
+    public Double getFetchShare() {
+        return fetchShare;
+    }
+}
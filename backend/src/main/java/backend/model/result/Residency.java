@@ -0,0 +1,35 @@
+package backend.model.result;
+
+import backend.model.metadata.ResidencySnapshot;
+
+/**
+ * The {@code Residency} class contains the residency of the relations and indexes read by a query right before
+ * and right after its measured executions. A relation that is not fully resident before the executions was at
+ * least partially read from disk, or from the page cache of the operating system, during the measurement.
+ *
+ * @author Eva Ray
+ */
+public class Residency {
+
+    private final ResidencySnapshot before;
+    private final ResidencySnapshot after;
+
+    /**
+     * Constructs a new {@code Residency} instance.
+     *
+     * @param before the residency before the measured executions, or null if it could not be measured
+     * @param after  the residency after the measured executions, or null if it could not be measured
+     */
+    public Residency(ResidencySnapshot before, ResidencySnapshot after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public ResidencySnapshot getBefore() {
+        return before;
+    }
+
+    public ResidencySnapshot getAfter() {
+        return after;
+    }
+}
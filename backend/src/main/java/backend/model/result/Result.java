@@ -2,10 +2,19 @@ package backend.model.result;
 
 import backend.model.metadata.CacheInfo;
 
+import java.util.Map;
+
 /**
  * The {@code Result} class encapsulates the results of a database query performance analysis.
  * It includes metrics such as average execution time, queries per second, explain plan,
  * initial connection time, standard deviation, variance, 95th percentile, and cache information.
+ * For write queries, it also includes the time spent waiting for asynchronous indexes to process the writes.
+ * Besides the rendered explain plan, the plan is available as a tree of engine-neutral {@link PlanOperator}s,
+ * the plans of sampled executions are summarised in a {@link PlanStability}, and the accuracy of the row estimates
+ * of the plan in a {@link CardinalityReport}. For PostgreSQL, the other {@link ExecutionMetrics} of the query are
+ * rolled up from its plans, and for Couchbase, the {@link QueryServiceMetrics} from its profiles. A run with
+ * session-level settings, such as PostgreSQL planner settings or Couchbase query options, reports them. The
+ * {@link Residency} of the relations and indexes read by the query shows whether they were cached during the run.
  *
  * @author Eva Ray
  */
@@ -20,6 +29,22 @@ public class Result {
     private final double variance;
     private final double percentile95;
     private final CacheInfo cacheInfo;
+    // Time waited for asynchronous indexes to catch up with the writes, null for read queries
+    private Double indexMaintenanceTime;
+    // Structured plan of the query, null if the plan could not be parsed
+    private PlanOperator plan;
+    // Plans of the sampled executions, null if the database did not report them
+    private PlanStability planStability;
+    // Accuracy of the row estimates of the plan, null if the database does not report estimates
+    private CardinalityReport cardinality;
+    // Planning, JIT, temporary blocks, I/O timing and WAL of the query, null if the database does not report them
+    private ExecutionMetrics executionMetrics;
+    // Phases, result and mutation counts and memory of the query, null if the database does not report them
+    private QueryServiceMetrics queryServiceMetrics;
+    // Session-level settings of the run, null if the run used the configuration of the server
+    private Map<String, String> settings;
+    // Residency in cache of the relations and indexes read by the query, null if it could not be measured
+    private Residency residency;
 
     /**
      * Constructs a new {@code Result} instance with the specified parameters.
@@ -47,6 +72,24 @@ public class Result {
         this.cacheInfo = cacheInfo;
     }
 
+    /**
+     * Constructs a new {@code Result} instance that copies an existing result.
+     *
+     * @param other the result to copy
+     */
+    protected Result(Result other) {
+        this(other.query, other.avgExecutionTime, other.queryPerSecond, other.explainPlan, other.initialConnectionTime,
+                other.standardDeviation, other.variance, other.percentile95, other.cacheInfo);
+        this.indexMaintenanceTime = other.indexMaintenanceTime;
+        this.plan = other.plan;
+        this.planStability = other.planStability;
+        this.cardinality = other.cardinality;
+        this.executionMetrics = other.executionMetrics;
+        this.queryServiceMetrics = other.queryServiceMetrics;
+        this.settings = other.settings;
+        this.residency = other.residency;
+    }
+
     public String getQuery() {
         return query;
     }
@@ -82,4 +125,68 @@ public class Result {
     public CacheInfo getCacheInfo() {
         return cacheInfo;
     }
+
+    public Double getIndexMaintenanceTime() {
+        return indexMaintenanceTime;
+    }
+
+    public void setIndexMaintenanceTime(Double indexMaintenanceTime) {
+        this.indexMaintenanceTime = indexMaintenanceTime;
+    }
+
+    public PlanOperator getPlan() {
+        return plan;
+    }
+
+    public void setPlan(PlanOperator plan) {
+        this.plan = plan;
+    }
+
+    public PlanStability getPlanStability() {
+        return planStability;
+    }
+
+    public void setPlanStability(PlanStability planStability) {
+        this.planStability = planStability;
+    }
+
+    public CardinalityReport getCardinality() {
+        return cardinality;
+    }
+
+    public void setCardinality(CardinalityReport cardinality) {
+        this.cardinality = cardinality;
+    }
+
+    public ExecutionMetrics getExecutionMetrics() {
+        return executionMetrics;
+    }
+
+    public void setExecutionMetrics(ExecutionMetrics executionMetrics) {
+        this.executionMetrics = executionMetrics;
+    }
+
+    public QueryServiceMetrics getQueryServiceMetrics() {
+        return queryServiceMetrics;
+    }
+
+    public void setQueryServiceMetrics(QueryServiceMetrics queryServiceMetrics) {
+        this.queryServiceMetrics = queryServiceMetrics;
+    }
+
+    public Map<String, String> getSettings() {
+        return settings;
+    }
+
+    public void setSettings(Map<String, String> settings) {
+        this.settings = settings;
+    }
+
+    public Residency getResidency() {
+        return residency;
+    }
+
+    public void setResidency(Residency residency) {
+        this.residency = residency;
+    }
 }
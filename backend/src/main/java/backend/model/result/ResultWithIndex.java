@@ -45,9 +45,7 @@ public class ResultWithIndex extends Result{
      * @param indexInfo a list of index information related to the query
      */
     public ResultWithIndex(Result result, List<IndexInfo> indexInfo) {
-        super(result.getQuery(), result.getAvgExecutionTime(), result.getQueryPerSecond(), result.getExplainPlan(),
-              result.getInitialConnectionTime(), result.getStandardDeviation(), result.getVariance(), result.getPercentile95(),
-              result.getCacheInfo());
+        super(result);
         this.indexInfo = indexInfo;
     }
 
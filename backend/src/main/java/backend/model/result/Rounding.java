@@ -0,0 +1,40 @@
+package backend.model.result;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The {@code Rounding} class rounds the values reported in the results of the benchmarks. It keeps no state, so
+ * that it can be used by benchmarks running concurrently, which a shared {@code DecimalFormat} does not allow.
+ *
+ * @author Eva Ray
+ */
+public final class Rounding {
+
+    private Rounding() {
+    }
+
+    /**
+     * Rounds a value to two decimals, half up.
+     *
+     * @param value the value to round
+     * @return the rounded value
+     */
+    public static double round(double value) {
+        return round(value, 2);
+    }
+
+    /**
+     * Rounds a value to a number of decimals, half up. A value that is not finite is returned as is.
+     *
+     * @param value    the value to round
+     * @param decimals the number of decimals
+     * @return the rounded value
+     */
+    public static double round(double value, int decimals) {
+        if (!Double.isFinite(value)) {
+            return value;
+        }
+        return BigDecimal.valueOf(value).setScale(decimals, RoundingMode.HALF_UP).doubleValue();
+    }
+}
@@ -0,0 +1,80 @@
+package backend.model.result;
+
+import backend.model.options.ScanPath;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code ScanMeasurement} class contains the measurements of a scan path for one range or sample size and,
+ * for the KV scans, one batch configuration. The latency is the time needed to stream the whole result of a scan,
+ * and the throughputs are computed over all the measured scans.
+ *
+ * @author Eva Ray
+ */
+public class ScanMeasurement {
+
+    private final ScanPath scanPath;
+    private final String target;
+    private final Integer batchItemLimit;
+    private final Integer batchByteLimit;
+    private final LatencyStats latency;
+    private final double avgDocuments;
+    private final double documentsPerSecond;
+    private final double megabytesPerSecond;
+
+    /**
+     * Constructs a new {@code ScanMeasurement} instance.
+     *
+     * @param scanPath       the scan path
+     * @param target         the scanned range or the sample size
+     * @param batchItemLimit the maximum number of documents per batch, or null if the scan is not a KV scan
+     * @param batchByteLimit the maximum number of bytes per batch, or null if the scan is not a KV scan
+     * @param latency        the latencies of the scans
+     * @param totalDocuments the number of documents returned by all the scans
+     * @param totalBytes     the size of the documents returned by all the scans in bytes
+     * @param totalTimeMs    the time spent in all the scans in milliseconds
+     */
+    public ScanMeasurement(ScanPath scanPath, String target, Integer batchItemLimit, Integer batchByteLimit,
+                           LatencyStats latency, long totalDocuments, long totalBytes, double totalTimeMs) {
+        this.scanPath = scanPath;
+        this.target = target;
+        this.batchItemLimit = batchItemLimit;
+        this.batchByteLimit = batchByteLimit;
+        this.latency = latency;
+        this.avgDocuments = latency.getCount() > 0 ? round((double) totalDocuments / latency.getCount()) : 0;
+        this.documentsPerSecond = totalTimeMs > 0 ? round(totalDocuments / (totalTimeMs / 1000)) : 0;
+        this.megabytesPerSecond = totalTimeMs > 0 ? round(totalBytes / (1024.0 * 1024.0) / (totalTimeMs / 1000)) : 0;
+    }
+
+    public ScanPath getScanPath() {
+        return scanPath;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public Integer getBatchItemLimit() {
+        return batchItemLimit;
+    }
+
+    public Integer getBatchByteLimit() {
+        return batchByteLimit;
+    }
+
+    public LatencyStats getLatency() {
+        return latency;
+    }
+
+    public double getAvgDocuments() {
+        return avgDocuments;
+    }
+
+    public double getDocumentsPerSecond() {
+        return documentsPerSecond;
+    }
+
+    public double getMegabytesPerSecond() {
+        return megabytesPerSecond;
+    }
+}
@@ -0,0 +1,36 @@
+package backend.model.result;
+
+import backend.model.metadata.IndexInfo;
+
+import java.util.List;
+
+/**
+ * The {@code ScanResult} class encapsulates the results of a scan benchmark for one database.
+ * It contains a list of index information and the measurements of each scan configuration.
+ *
+ * @author Eva Ray
+ */
+public class ScanResult {
+
+    private final List<IndexInfo> indexInfo;
+    private final List<ScanMeasurement> scans;
+
+    /**
+     * Constructs a new {@code ScanResult} instance.
+     *
+     * @param indexInfo the list of index information
+     * @param scans     the measurements of each scan configuration
+     */
+    public ScanResult(List<IndexInfo> indexInfo, List<ScanMeasurement> scans) {
+        this.indexInfo = indexInfo;
+        this.scans = scans;
+    }
+
+    public List<IndexInfo> getIndexInfo() {
+        return indexInfo;
+    }
+
+    public List<ScanMeasurement> getScans() {
+        return scans;
+    }
+}
@@ -0,0 +1,81 @@
+package backend.model.result;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code StatisticsComparison} class compares a query before and after the planner statistics were improved:
+ * the accuracy of the row estimates, the plan and the latency.
+ *
+ * @author Eva Ray
+ */
+public class StatisticsComparison {
+
+    private final double latencyBefore;
+    private final double latencyAfter;
+    private final CardinalityReport cardinalityBefore;
+    private final CardinalityReport cardinalityAfter;
+    private final String planBefore;
+    private final String planAfter;
+
+    /**
+     * Constructs a new {@code StatisticsComparison} instance.
+     *
+     * @param latencyBefore     the average latency before, in ms
+     * @param latencyAfter      the average latency after, in ms
+     * @param cardinalityBefore the accuracy of the row estimates before
+     * @param cardinalityAfter  the accuracy of the row estimates after
+     * @param planBefore        the shape of the plan before
+     * @param planAfter         the shape of the plan after
+     */
+    public StatisticsComparison(double latencyBefore, double latencyAfter, CardinalityReport cardinalityBefore,
+                                CardinalityReport cardinalityAfter, String planBefore, String planAfter) {
+        this.latencyBefore = latencyBefore;
+        this.latencyAfter = latencyAfter;
+        this.cardinalityBefore = cardinalityBefore;
+        this.cardinalityAfter = cardinalityAfter;
+        this.planBefore = planBefore;
+        this.planAfter = planAfter;
+    }
+
+    public double getLatencyBefore() {
+        return latencyBefore;
+    }
+
+    public double getLatencyAfter() {
+        return latencyAfter;
+    }
+
+    public CardinalityReport getCardinalityBefore() {
+        return cardinalityBefore;
+    }
+
+    public CardinalityReport getCardinalityAfter() {
+        return cardinalityAfter;
+    }
+
+    public String getPlanBefore() {
+        return planBefore;
+    }
+
+    public String getPlanAfter() {
+        return planAfter;
+    }
+
+    /**
+     * Returns whether the improved statistics changed the plan of the query.
+     *
+     * @return true if the plan changed
+     */
+    public boolean isPlanChanged() {
+        return planBefore != null && !planBefore.equals(planAfter);
+    }
+
+    /**
+     * Returns the latency before divided by the latency after.
+     *
+     * @return the speedup, greater than 1 if the query became faster
+     */
+    public double getSpeedup() {
+        return latencyAfter > 0 ? round(latencyBefore / latencyAfter) : 0;
+    }
+}
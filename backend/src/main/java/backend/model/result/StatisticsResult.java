@@ -0,0 +1,46 @@
+package backend.model.result;
+
+import backend.model.options.QueryType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code StatisticsResult} class contains the results of a statistics experiment on one database: the tables
+ * that were analysed, the extended statistics that were created, and the comparison of each query before and
+ * after.
+ *
+ * @author Eva Ray
+ */
+public class StatisticsResult {
+
+    private final List<String> analyzedTables;
+    private final List<String> createdStatistics;
+    private final Map<QueryType, StatisticsComparison> queries;
+
+    /**
+     * Constructs a new {@code StatisticsResult} instance.
+     *
+     * @param analyzedTables    the tables analysed by the experiment
+     * @param createdStatistics the names of the extended statistics created by the experiment
+     * @param queries           the comparison of each query
+     */
+    public StatisticsResult(List<String> analyzedTables, List<String> createdStatistics,
+                            Map<QueryType, StatisticsComparison> queries) {
+        this.analyzedTables = analyzedTables;
+        this.createdStatistics = createdStatistics;
+        this.queries = queries;
+    }
+
+    public List<String> getAnalyzedTables() {
+        return analyzedTables;
+    }
+
+    public List<String> getCreatedStatistics() {
+        return createdStatistics;
+    }
+
+    public Map<QueryType, StatisticsComparison> getQueries() {
+        return queries;
+    }
+}
@@ -0,0 +1,50 @@
+package backend.model.result;
+
+import java.util.List;
+
+/**
+ * The {@code SweepResult} class encapsulates the results of a sweep for one database. It contains the result of
+ * each run, in the order of the request, and the index churn of the sweep: the number of indexes created and
+ * dropped, compared with the number of indexes that creating and dropping the indexes of every run would build.
+ *
+ * @author Eva Ray
+ */
+public class SweepResult {
+
+    private final List<SweepRunResult> runs;
+    private final int indexesCreated;
+    private final int indexesDropped;
+    private final int indexBuildsWithoutReuse;
+
+    /**
+     * Constructs a new {@code SweepResult} instance.
+     *
+     * @param runs                    the results of the runs, in the order of the request
+     * @param indexesCreated          the number of indexes created during the sweep
+     * @param indexesDropped          the number of indexes dropped during the sweep
+     * @param indexBuildsWithoutReuse the number of indexes built if every run created its own indexes
+     */
+    public SweepResult(List<SweepRunResult> runs, int indexesCreated, int indexesDropped,
+                       int indexBuildsWithoutReuse) {
+        this.runs = runs;
+        this.indexesCreated = indexesCreated;
+        this.indexesDropped = indexesDropped;
+        this.indexBuildsWithoutReuse = indexBuildsWithoutReuse;
+    }
+
+    public List<SweepRunResult> getRuns() {
+        return runs;
+    }
+
+    public int getIndexesCreated() {
+        return indexesCreated;
+    }
+
+    public int getIndexesDropped() {
+        return indexesDropped;
+    }
+
+    public int getIndexBuildsWithoutReuse() {
+        return indexBuildsWithoutReuse;
+    }
+}
@@ -0,0 +1,49 @@
+package backend.model.result;
+
+import backend.model.options.QueryType;
+
+/**
+ * The {@code SweepRunResult} class encapsulates the result of one run of a sweep. It contains the name and the
+ * query of the run, its position in the execution order, and the measurements of the query with the index
+ * information of the scope during the run.
+ *
+ * @author Eva Ray
+ */
+public class SweepRunResult {
+
+    private final String name;
+    private final QueryType query;
+    private final int executionOrder;
+    private final ResultWithIndex result;
+
+    /**
+     * Constructs a new {@code SweepRunResult} instance.
+     *
+     * @param name           the name of the run
+     * @param query          the measured query
+     * @param executionOrder the position of the run in the execution order, starting at 0
+     * @param result         the measurements of the query, or null if the run failed
+     */
+    public SweepRunResult(String name, QueryType query, int executionOrder, ResultWithIndex result) {
+        this.name = name;
+        this.query = query;
+        this.executionOrder = executionOrder;
+        this.result = result;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public QueryType getQuery() {
+        return query;
+    }
+
+    public int getExecutionOrder() {
+        return executionOrder;
+    }
+
+    public ResultWithIndex getResult() {
+        return result;
+    }
+}
@@ -0,0 +1,36 @@
+package backend.model.result;
+
+import backend.model.metadata.IndexInfo;
+
+import java.util.List;
+
+/**
+ * The {@code TransactionResult} class encapsulates the results of a transaction benchmark for one database.
+ * It contains a list of index information and the measurements of each transaction setting.
+ *
+ * @author Eva Ray
+ */
+public class TransactionResult {
+
+    private final List<IndexInfo> indexInfo;
+    private final List<TransactionSetting> settings;
+
+    /**
+     * Constructs a new {@code TransactionResult} instance.
+     *
+     * @param indexInfo the list of index information
+     * @param settings  the measurements of each transaction setting
+     */
+    public TransactionResult(List<IndexInfo> indexInfo, List<TransactionSetting> settings) {
+        this.indexInfo = indexInfo;
+        this.settings = settings;
+    }
+
+    public List<IndexInfo> getIndexInfo() {
+        return indexInfo;
+    }
+
+    public List<TransactionSetting> getSettings() {
+        return settings;
+    }
+}
@@ -0,0 +1,79 @@
+package backend.model.result;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code TransactionSetting} class contains the measurements of the transactions executed with one setting,
+ * skew and concurrency. The latency of a transaction includes its retries, and the commit latency is the time
+ * spent committing its last attempt. The abort rate is the proportion of transactions that failed, after their
+ * retries if any.
+ *
+ * @author Eva Ray
+ */
+public class TransactionSetting {
+
+    private final String setting;
+    private final double skew;
+    private final int concurrency;
+    private final LatencyStats latency;
+    private final double avgCommitLatency;
+    private final long retries;
+    private final double retriesPerTransaction;
+    private final double abortRate;
+
+    /**
+     * Constructs a new {@code TransactionSetting} instance.
+     *
+     * @param setting          the description of the transaction setting
+     * @param skew             the exponent of the Zipf distribution of the keys
+     * @param concurrency      the number of concurrent transactions
+     * @param latency          the latencies of the transactions
+     * @param avgCommitLatency the average commit latency in milliseconds
+     * @param retries          the number of retried attempts
+     */
+    public TransactionSetting(String setting, double skew, int concurrency, LatencyStats latency,
+                              double avgCommitLatency, long retries) {
+        this.setting = setting;
+        this.skew = skew;
+        this.concurrency = concurrency;
+        this.latency = latency;
+        this.avgCommitLatency = round(avgCommitLatency);
+        this.retries = retries;
+
+        long transactions = latency.getCount() + latency.getErrors();
+        this.retriesPerTransaction = transactions > 0 ? round((double) retries / transactions, 4) : 0;
+        this.abortRate = transactions > 0 ? round((double) latency.getErrors() / transactions, 4) : 0;
+    }
+
+    public String getSetting() {
+        return setting;
+    }
+
+    public double getSkew() {
+        return skew;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public LatencyStats getLatency() {
+        return latency;
+    }
+
+    public double getAvgCommitLatency() {
+        return avgCommitLatency;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    public double getRetriesPerTransaction() {
+        return retriesPerTransaction;
+    }
+
+    public double getAbortRate() {
+        return abortRate;
+    }
+}
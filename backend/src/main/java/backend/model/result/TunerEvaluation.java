@@ -0,0 +1,63 @@
+package backend.model.result;
+
+import backend.model.options.QueryType;
+
+import java.util.Map;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code TunerEvaluation} class encapsulates the measurement of a configuration of session-level settings
+ * against a workload during a round of the configuration tuner. It contains the round, the number of executions
+ * of the workload, the settings, the 95th percentile latency of each query of the workload, and the weighted
+ * 95th percentile latency of the workload, which is the average of the query percentiles weighted by the ratio of
+ * each query in the workload.
+ *
+ * @author Eva Ray
+ */
+public class TunerEvaluation {
+
+    private final int round;
+    private final int executions;
+    private final Map<String, String> settings;
+    private final double weightedPercentile95;
+    private final Map<QueryType, Double> queryPercentiles95;
+
+    /**
+     * Constructs a new {@code TunerEvaluation} instance.
+     *
+     * @param round                the round of the evaluation, starting at 1
+     * @param executions           the number of executions of the workload
+     * @param settings             the settings of the configuration, empty for the configuration of the server
+     * @param weightedPercentile95 the weighted 95th percentile latency of the workload, in ms
+     * @param queryPercentiles95   the 95th percentile latency of each query of the workload, in ms
+     */
+    public TunerEvaluation(int round, int executions, Map<String, String> settings, double weightedPercentile95,
+                           Map<QueryType, Double> queryPercentiles95) {
+        this.round = round;
+        this.executions = executions;
+        this.settings = settings;
+        this.weightedPercentile95 = round(weightedPercentile95);
+        this.queryPercentiles95 = queryPercentiles95;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public int getExecutions() {
+        return executions;
+    }
+
+    public Map<String, String> getSettings() {
+        return settings;
+    }
+
+    public double getWeightedPercentile95() {
+        return weightedPercentile95;
+    }
+
+    public Map<QueryType, Double> getQueryPercentiles95() {
+        return queryPercentiles95;
+    }
+}
@@ -0,0 +1,69 @@
+package backend.model.result;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The {@code TunerResult} class encapsulates the results of the configuration tuner for one database. It contains
+ * the number of configurations of the search space, the best settings found, their weighted 95th percentile
+ * latency and that of the configuration of the server in the last round, the improvement in percent, the
+ * improvement curve, with one point per round, and all the evaluations, in evaluation order.
+ *
+ * @author Eva Ray
+ */
+public class TunerResult {
+
+    private final long searchSpaceSize;
+    private final Map<String, String> bestSettings;
+    private final double bestWeightedPercentile95;
+    private final double baselineWeightedPercentile95;
+    private final double improvement;
+    private final List<TunerRound> rounds;
+    private final List<TunerEvaluation> evaluations;
+
+    /**
+     * Constructs a new {@code TunerResult} instance. The best settings are those of the last round.
+     *
+     * @param searchSpaceSize the number of configurations of the search space
+     * @param rounds          the rounds of the successive halving
+     * @param evaluations     all the evaluations
+     */
+    public TunerResult(long searchSpaceSize, List<TunerRound> rounds, List<TunerEvaluation> evaluations) {
+        TunerRound last = rounds.get(rounds.size() - 1);
+        this.searchSpaceSize = searchSpaceSize;
+        this.bestSettings = last.getBest().getSettings();
+        this.bestWeightedPercentile95 = last.getBest().getWeightedPercentile95();
+        this.baselineWeightedPercentile95 = last.getBaselineWeightedPercentile95();
+        this.improvement = last.getImprovement();
+        this.rounds = rounds;
+        this.evaluations = evaluations;
+    }
+
+    public long getSearchSpaceSize() {
+        return searchSpaceSize;
+    }
+
+    public Map<String, String> getBestSettings() {
+        return bestSettings;
+    }
+
+    public double getBestWeightedPercentile95() {
+        return bestWeightedPercentile95;
+    }
+
+    public double getBaselineWeightedPercentile95() {
+        return baselineWeightedPercentile95;
+    }
+
+    public double getImprovement() {
+        return improvement;
+    }
+
+    public List<TunerRound> getRounds() {
+        return rounds;
+    }
+
+    public List<TunerEvaluation> getEvaluations() {
+        return evaluations;
+    }
+}
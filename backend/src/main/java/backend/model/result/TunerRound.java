@@ -0,0 +1,69 @@
+package backend.model.result;
+
+import static backend.model.result.Rounding.round;
+
+/**
+ * The {@code TunerRound} class encapsulates one round of the successive halving of the configuration tuner, that
+ * is one point of its improvement curve. It contains the number of configurations measured in the round, the
+ * number of executions of the workload, the best configuration of the round, the weighted 95th percentile latency
+ * of the configuration of the server measured with the same number of executions, and the improvement of the best
+ * configuration over the configuration of the server.
+ *
+ * @author Eva Ray
+ */
+public class TunerRound {
+
+    private final int round;
+    private final int configurations;
+    private final int executions;
+    private final TunerEvaluation best;
+    private final double baselineWeightedPercentile95;
+    private final double improvement;
+
+    /**
+     * Constructs a new {@code TunerRound} instance.
+     *
+     * @param round                        the round, starting at 1
+     * @param configurations               the number of configurations measured in the round
+     * @param executions                   the number of executions of the workload
+     * @param best                         the best configuration of the round
+     * @param baselineWeightedPercentile95 the weighted 95th percentile latency of the configuration of the server,
+     *                                     in ms
+     */
+    public TunerRound(int round, int configurations, int executions, TunerEvaluation best,
+                      double baselineWeightedPercentile95) {
+        this.round = round;
+        this.configurations = configurations;
+        this.executions = executions;
+        this.best = best;
+        this.baselineWeightedPercentile95 = round(baselineWeightedPercentile95);
+        this.improvement = baselineWeightedPercentile95 > 0
+                ? round((baselineWeightedPercentile95 - best.getWeightedPercentile95())
+                / baselineWeightedPercentile95 * 100)
+                : 0;
+    }
+
+    public int getRound() {
+        return round;
+    }
+
+    public int getConfigurations() {
+        return configurations;
+    }
+
+    public int getExecutions() {
+        return executions;
+    }
+
+    public TunerEvaluation getBest() {
+        return best;
+    }
+
+    public double getBaselineWeightedPercentile95() {
+        return baselineWeightedPercentile95;
+    }
+
+    public double getImprovement() {
+        return improvement;
+    }
+}
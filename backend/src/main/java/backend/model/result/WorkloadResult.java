@@ -9,6 +9,7 @@ import java.util.Map;
 /**
  * The {@code WorkloadResult} class encapsulates the results of a workload analysis.
  * It contains a list of index information and a map of query types to their respective results.
+ * It also ranks the operators of the plans of the queries by the time the workload spends in them.
  *
  * @author Eva Ray
  */
@@ -17,6 +18,8 @@ public class WorkloadResult {
     List<IndexInfo> indexInfo;
     // Map of query types to their results
     Map<QueryType, Result> results;
+    // Operators in which the workload spends its time, from the most to the least expensive
+    List<HotOperator> hotOperators;
 
     /**
      * Constructs a new {@code WorkloadResult} instance with the specified index information
@@ -45,4 +48,12 @@ public class WorkloadResult {
     public void setResults(Map<QueryType, Result> results) {
         this.results = results;
     }
+
+    public List<HotOperator> getHotOperators() {
+        return hotOperators;
+    }
+
+    public void setHotOperators(List<HotOperator> hotOperators) {
+        this.hotOperators = hotOperators;
+    }
 }
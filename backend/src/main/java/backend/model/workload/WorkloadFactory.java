@@ -76,6 +76,14 @@ public class WorkloadFactory {
                         add(new WorkloadQuery(QueryType.JOIN_FILTER, 0.35));
                         add(new WorkloadQuery(QueryType.AGG, 0.25));
                     }});
+            case WRITE -> new Workload(
+                    WorkloadType.WRITE,
+                    new ArrayList<WorkloadQuery>() {{
+                        add(new WorkloadQuery(QueryType.INSERT, 0.4));
+                        add(new WorkloadQuery(QueryType.UPDATE, 0.3));
+                        add(new WorkloadQuery(QueryType.UPSERT, 0.2));
+                        add(new WorkloadQuery(QueryType.DELETE, 0.1));
+                    }});
             case COMPLETE -> new Workload(
                     WorkloadType.COMPLETE,
                     new ArrayList<WorkloadQuery>() {{
@@ -1,11 +1,16 @@
 package backend.parser;
 
+import backend.model.options.OperatorCategory;
+import backend.model.result.PlanOperator;
+import backend.model.result.QueryServiceMetrics;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Parser for Couchbase profile timings (N1QL).
@@ -69,6 +74,17 @@ public class CouchbaseTimingsParser {
         // Index used
         String index = node.has("index") ? node.get("index").asText() : null;
         String using = node.has("using") ? node.get("using").asText() : null;
+        String keyspace = node.has("keyspace") ? node.get("keyspace").asText() : null;
+        String alias = node.has("as") ? node.get("as").asText() : null;
+
+        // Expressions of the operator, such as a filter condition or projected terms
+        List<String> expressions = new ArrayList<>();
+        for (Iterator<String> it = node.fieldNames(); it.hasNext(); ) {
+            String field = it.next();
+            if (!field.startsWith("#") && !field.startsWith("~")) {
+                collectExpressions(node.get(field), expressions);
+            }
+        }
 
         List<ProfileNode> children = new ArrayList<>();
 
@@ -113,7 +129,95 @@ public class CouchbaseTimingsParser {
                 }
             }
         }
-        return new ProfileNode(operator, execTime, servTime, itemsIn, itemsOut, index, using, children);
+        return new ProfileNode(operator, execTime, servTime, itemsIn, itemsOut, index, using, keyspace, alias,
+                expressions, children);
+    }
+
+    /**
+     * Collect the N1QL expressions of an operator, the text values that contain a backquoted identifier.
+     * The values of nested operators are not collected, they are the expressions of those operators.
+     */
+    private void collectExpressions(JsonNode value, List<String> expressions) {
+        if (value.isTextual() && value.asText().contains("`")) {
+            expressions.add(value.asText());
+        } else if (value.isArray()) {
+            value.forEach(element -> collectExpressions(element, expressions));
+        } else if (value.isObject() && !value.has("#operator")) {
+            value.forEach(element -> collectExpressions(element, expressions));
+        }
+    }
+
+    /**
+     * Parse the phases of a Couchbase profile, which sum up the execution per kind of operator: the time spent in
+     * each phase, the number of documents that went through it and the number of operators of the phase.
+     *
+     * @param json the JSON string containing the Couchbase profile
+     * @return the phases of the profile
+     * @throws Exception if there is an error parsing the JSON
+     */
+    public Phases parsePhases(String json) throws Exception {
+        JsonNode root = mapper.readTree(json);
+        Map<String, Double> times = new TreeMap<>();
+        root.path("phaseTimes").fields().forEachRemaining(
+                field -> times.put(field.getKey(), ProfileNode.parseDurationToMs(field.getValue().asText())));
+        Map<String, Long> counts = new TreeMap<>();
+        root.path("phaseCounts").fields().forEachRemaining(
+                field -> counts.put(field.getKey(), field.getValue().asLong()));
+        Map<String, Long> operators = new TreeMap<>();
+        root.path("phaseOperators").fields().forEachRemaining(
+                field -> operators.put(field.getKey(), field.getValue().asLong()));
+        return new Phases(times, counts, operators);
+    }
+
+    /**
+     * Rolls up the measured executions of a query into averages per execution.
+     *
+     * @param executions the executions to roll up
+     * @param usedMemory the memory used by one execution of the query in bytes, null if unknown
+     * @return the rolled up metrics, or null if there is no execution
+     */
+    public QueryServiceMetrics rollUp(List<Execution> executions, Long usedMemory) {
+        if (executions.isEmpty()) {
+            return null;
+        }
+        int n = executions.size();
+        Map<String, Double> phaseTimes = new TreeMap<>();
+        Map<String, Double> phaseCounts = new TreeMap<>();
+        Map<String, Double> phaseOperators = new TreeMap<>();
+        for (Execution execution : executions) {
+            execution.phases().times().forEach((phase, time) -> phaseTimes.merge(phase, time / n, Double::sum));
+            execution.phases().counts().forEach((phase, count) -> phaseCounts.merge(phase, (double) count / n, Double::sum));
+            execution.phases().operators().forEach((phase, count) -> phaseOperators.merge(phase, (double) count / n, Double::sum));
+        }
+        return new QueryServiceMetrics(n, phaseTimes, phaseCounts, phaseOperators,
+                executions.stream().mapToLong(Execution::resultCount).average().orElse(0),
+                executions.stream().mapToLong(Execution::resultSize).average().orElse(0),
+                executions.stream().mapToLong(Execution::sortCount).average().orElse(0),
+                executions.stream().mapToLong(Execution::mutationCount).average().orElse(0),
+                usedMemory);
+    }
+
+    /**
+     * Record representing the phases of a Couchbase profile.
+     *
+     * @param times     the time spent in each phase, in ms
+     * @param counts    the number of documents that went through each phase
+     * @param operators the number of operators of each phase
+     */
+    public record Phases(Map<String, Double> times, Map<String, Long> counts, Map<String, Long> operators) {
+    }
+
+    /**
+     * Record representing a measured execution of a query: the phases of its profile and the metrics reported
+     * by the query service.
+     *
+     * @param phases        the phases of the profile of the execution
+     * @param resultCount   the number of documents returned
+     * @param resultSize    the size of the documents returned, in bytes
+     * @param sortCount     the number of documents sorted
+     * @param mutationCount the number of documents modified
+     */
+    public record Execution(Phases phases, long resultCount, long resultSize, long sortCount, long mutationCount) {
     }
 
     /**
@@ -127,6 +231,9 @@ public class CouchbaseTimingsParser {
             Long itemsOut,
             String index,
             String using,
+            String keyspace,
+            String alias,
+            List<String> expressions,
             List<ProfileNode> children
     ) {
         /**
@@ -140,15 +247,15 @@ public class CouchbaseTimingsParser {
             try {
                 if (duration.endsWith("ms")) {
                     return Double.parseDouble(duration.replace("ms", ""));
-                } else if (duration.endsWith("s")) {
-                    // caution: test "ms" before "s"!
-                    return Double.parseDouble(duration.replace("s", "")) * 1000.0;
                 } else if (duration.endsWith("µs") || duration.endsWith("us")) {
                     return Double.parseDouble(duration.replace("µs", "").replace("us", "")) / 1000.0;
-                } else if (duration.endsWith("µ") || duration.endsWith("u")) {
-                    return Double.parseDouble(duration.replace("µ", "").replace("u", "")) / 1000.0;
                 } else if (duration.endsWith("ns")) {
                     return Double.parseDouble(duration.replace("ns", "")) / 1_000_000.0;
+                } else if (duration.endsWith("s")) {
+                    // caution: test "ms", "µs" and "ns" before "s"!
+                    return Double.parseDouble(duration.replace("s", "")) * 1000.0;
+                } else if (duration.endsWith("µ") || duration.endsWith("u")) {
+                    return Double.parseDouble(duration.replace("µ", "").replace("u", "")) / 1000.0;
                 }
             } catch (NumberFormatException e) {
                 return 0.0;
@@ -156,6 +263,30 @@ public class CouchbaseTimingsParser {
             return 0.0;
         }
 
+        /**
+         * Returns the execution and service time of this operator alone, without its children.
+         *
+         * @return the time of the operator, in ms
+         */
+        public double time() {
+            return parseDurationToMs(execTime) + parseDurationToMs(servTime);
+        }
+
+        /**
+         * Converts this node and its children into engine-neutral plan operators. The execution and service times
+         * reported by Couchbase are those of the operator alone, so the inclusive time of an operator adds the
+         * inclusive times of its children.
+         *
+         * @return the plan operator of this node
+         */
+        public PlanOperator toPlanOperator() {
+            List<PlanOperator> operators = children.stream().map(ProfileNode::toPlanOperator).toList();
+            double exclusive = time();
+            double inclusive = exclusive + operators.stream().mapToDouble(PlanOperator::getInclusiveTime).sum();
+            return new PlanOperator(operator, OperatorCategory.fromCouchbase(operator), inclusive, exclusive,
+                    itemsIn, itemsOut, null, null, null, keyspace, index, null, null, null, null, operators);
+        }
+
         /**
          * Create a string representation of the node with indentation. It containes the operator name,
          * total execution time, number of items in and out, and index if available.
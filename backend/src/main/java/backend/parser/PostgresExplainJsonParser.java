@@ -1,10 +1,19 @@
 package backend.parser;
 
+import backend.model.options.OperatorCategory;
+import backend.model.result.ExecutionMetrics;
+import backend.model.result.OperatorMetrics;
+import backend.model.result.PlanOperator;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Implementation of JsonParser for PostgreSQL's EXPLAIN (ANALYZE, FORMAT JSON).
@@ -31,6 +40,91 @@ public class PostgresExplainJsonParser {
         return parsePlanNode(planRoot);
     }
 
+    /**
+     * Parses a JSON string representing a PostgreSQL EXPLAIN (ANALYZE, FORMAT JSON) output, with the planning
+     * time and the JIT compilation timings of the query besides its plan.
+     *
+     * @param json the JSON string to parse
+     * @return the parsed explain output
+     * @throws Exception if parsing fails
+     */
+    public Explain parseExplain(String json) throws Exception {
+        JsonNode root = mapper.readTree(json).get(0);
+        JsonNode jit = root.path("JIT");
+        JsonNode timing = jit.path("Timing");
+        return new Explain(root.path("Planning Time").asDouble(), root.path("Execution Time").asDouble(),
+                jit.path("Functions").asInt(), jitTime(timing.path("Generation")), jitTime(timing.path("Inlining")),
+                jitTime(timing.path("Optimization")), jitTime(timing.path("Emission")), jitTime(timing.path("Total")),
+                parsePlanNode(root.get("Plan")));
+    }
+
+    /**
+     * Returns a JIT timing, which is a number, or since PostgreSQL 17 an object with a total for the generation.
+     */
+    private static double jitTime(JsonNode node) {
+        return node.isObject() ? node.path("Total").asDouble() : node.asDouble();
+    }
+
+    /**
+     * Rolls up the metrics of analysed executions of a query into averages per execution. The totals of the
+     * query are those of the root of its plan, since PostgreSQL includes the blocks, I/O timings and WAL of the
+     * children of an operator in its own.
+     *
+     * @param explains the explain outputs of the analysed executions
+     * @return the average metrics per execution, or null if there is no explain output
+     */
+    public ExecutionMetrics rollUp(List<Explain> explains) {
+        if (explains.isEmpty()) {
+            return null;
+        }
+        Set<String> spilledOperators = new LinkedHashSet<>();
+        for (Explain explain : explains) {
+            explain.plan().flatten().stream()
+                    .filter(node -> node.metrics().isSpilled())
+                    .forEach(node -> spilledOperators.add(node.describeSpill()));
+        }
+        return new ExecutionMetrics(explains.size(),
+                average(explains, Explain::planningTime),
+                average(explains, Explain::jitFunctions),
+                average(explains, Explain::jitGenerationTime),
+                average(explains, Explain::jitInliningTime),
+                average(explains, Explain::jitOptimizationTime),
+                average(explains, Explain::jitEmissionTime),
+                average(explains, Explain::jitTotalTime),
+                average(explains, e -> e.plan().metrics().getSharedDirtiedBlocks()),
+                average(explains, e -> e.plan().metrics().getSharedWrittenBlocks()),
+                average(explains, e -> e.plan().metrics().getLocalHitBlocks()),
+                average(explains, e -> e.plan().metrics().getLocalReadBlocks()),
+                average(explains, e -> e.plan().metrics().getTempReadBlocks()),
+                average(explains, e -> e.plan().metrics().getTempWrittenBlocks()),
+                average(explains, e -> e.plan().metrics().getIoReadTime()),
+                average(explains, e -> e.plan().metrics().getIoWriteTime()),
+                average(explains, e -> e.plan().metrics().getWalRecords()),
+                average(explains, e -> e.plan().metrics().getWalFpi()),
+                average(explains, e -> e.plan().metrics().getWalBytes()),
+                average(explains, e -> sumWorkers(e.plan(), OperatorMetrics::getWorkersPlanned)),
+                average(explains, e -> sumWorkers(e.plan(), OperatorMetrics::getWorkersLaunched)),
+                new ArrayList<>(spilledOperators));
+    }
+
+    /**
+     * Returns the average of a value over explain outputs.
+     */
+    private static double average(List<Explain> explains, ToDoubleFunction<Explain> value) {
+        return explains.stream().mapToDouble(value).average().orElse(0);
+    }
+
+    /**
+     * Returns the number of parallel workers of the gather operators of a plan.
+     */
+    private static int sumWorkers(PlanNode plan, Function<OperatorMetrics, Integer> workers) {
+        return plan.flatten().stream()
+                .map(node -> workers.apply(node.metrics()))
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .sum();
+    }
+
     /**
      * Parses a JsonNode representing a PostgreSQL execution plan node.
      *
@@ -47,6 +141,16 @@ public class PostgresExplainJsonParser {
         long actualRows = node.has("Actual Rows") ? node.get("Actual Rows").asLong() : 0;
         double totalCost = node.has("Total Cost") ? node.get("Total Cost").asDouble() : 0;
         String indexName = node.has("Index Name") ? node.get("Index Name").asText() : null;
+        String relationName = node.has("Relation Name") ? node.get("Relation Name").asText() : null;
+        String alias = node.has("Alias") ? node.get("Alias").asText() : null;
+        String filter = node.has("Filter") ? node.get("Filter").asText() : null;
+        // Join condition of the node, whichever the join method
+        String joinCondition = null;
+        for (String field : List.of("Hash Cond", "Merge Cond", "Join Filter")) {
+            if (node.has(field)) {
+                joinCondition = node.get(field).asText();
+            }
+        }
 
         List<PlanNode> children = new ArrayList<>();
         if (node.has("Plans")) {
@@ -57,13 +161,74 @@ public class PostgresExplainJsonParser {
         return new PlanNode(
                 nodeType, actualTotalTime, actualLoops,
                 sharedHitBlocks, sharedReadBlocks, planRows, actualRows,
-                totalCost, indexName, children);
+                totalCost, indexName, relationName, alias, filter, joinCondition, parseMetrics(node, children),
+                children);
+    }
+
+    /**
+     * Parses the execution metrics of a plan node other than its time, rows and shared hits and reads.
+     *
+     * @param node     the JsonNode of the plan node
+     * @param children the parsed children of the node
+     * @return the metrics of the node
+     */
+    private OperatorMetrics parseMetrics(JsonNode node, List<PlanNode> children) {
+        long tempWrittenBlocks = node.path("Temp Written Blocks").asLong();
+        // Until PostgreSQL 16 the I/O timings are global, since PostgreSQL 17 they are split by kind of block
+        double ioReadTime = 0;
+        double ioWriteTime = 0;
+        for (String prefix : List.of("", "Shared ", "Local ", "Temp ")) {
+            ioReadTime += node.path(prefix + "I/O Read Time").asDouble();
+            ioWriteTime += node.path(prefix + "I/O Write Time").asDouble();
+        }
+        Integer hashBatches = node.has("Hash Batches") ? node.get("Hash Batches").asInt() : null;
+        String sortSpaceType = node.has("Sort Space Type") ? node.get("Sort Space Type").asText() : null;
+
+        // Temporary blocks written by the node itself, and not by its children
+        long ownTempWrittenBlocks = tempWrittenBlocks;
+        for (PlanNode child : children) {
+            ownTempWrittenBlocks -= child.metrics().getTempWrittenBlocks();
+        }
+        boolean spilled = (hashBatches != null && hashBatches > 1) || "Disk".equals(sortSpaceType)
+                || ownTempWrittenBlocks > 0;
+
+        return new OperatorMetrics(node.path("Shared Dirtied Blocks").asLong(),
+                node.path("Shared Written Blocks").asLong(), node.path("Local Hit Blocks").asLong(),
+                node.path("Local Read Blocks").asLong(), node.path("Temp Read Blocks").asLong(), tempWrittenBlocks,
+                ioReadTime, ioWriteTime, node.path("WAL Records").asLong(), node.path("WAL FPI").asLong(),
+                node.path("WAL Bytes").asLong(),
+                node.has("Workers Planned") ? node.get("Workers Planned").asInt() : null,
+                node.has("Workers Launched") ? node.get("Workers Launched").asInt() : null,
+                hashBatches,
+                node.has("Original Hash Batches") ? node.get("Original Hash Batches").asInt() : null,
+                node.has("Peak Memory Usage") ? node.get("Peak Memory Usage").asLong() : null,
+                node.has("Sort Method") ? node.get("Sort Method").asText() : null,
+                sortSpaceType,
+                node.has("Sort Space Used") ? node.get("Sort Space Used").asLong() : null,
+                spilled);
+    }
+
+    /**
+     * Represents the output of EXPLAIN (ANALYZE, FORMAT JSON) for one execution of a query: its planning time,
+     * its execution time, its JIT compilation timings and its plan. The JIT values are 0 if the query was not
+     * compiled.
+     */
+    public record Explain(
+            double planningTime,
+            double executionTime,
+            int jitFunctions,
+            double jitGenerationTime,
+            double jitInliningTime,
+            double jitOptimizationTime,
+            double jitEmissionTime,
+            double jitTotalTime,
+            PlanNode plan) {
     }
 
     /**
      * Represents a node in the execution plan of a PostgreSQL query.
      * Contains information about the node type, execution time, rows processed,
-     * and child nodes.
+     * the scanned relation and the conditions of the node, and child nodes.
      */
     public record PlanNode(
             String nodeType,
@@ -75,8 +240,49 @@ public class PostgresExplainJsonParser {
             long actualRows,
             double totalCost,
             String indexName,
+            String relationName,
+            String alias,
+            String filter,
+            String joinCondition,
+            OperatorMetrics metrics,
             List<PlanNode> children) {
 
+        /**
+         * Returns this node and all its descendants, in depth-first order.
+         *
+         * @return the nodes of the subtree of this node
+         */
+        public List<PlanNode> flatten() {
+            List<PlanNode> nodes = new ArrayList<>();
+            nodes.add(this);
+            for (PlanNode child : children) {
+                nodes.addAll(child.flatten());
+            }
+            return nodes;
+        }
+
+        /**
+         * Describes how this node spilled to disk, for example {@code Hash [review]: 16 batches (1 planned)}.
+         *
+         * @return the description of the spill
+         */
+        public String describeSpill() {
+            StringBuilder sb = new StringBuilder(nodeType);
+            if (relationName != null) {
+                sb.append(" [").append(relationName).append(']');
+            }
+            if (metrics.getHashBatches() != null && metrics.getHashBatches() > 1) {
+                sb.append(": ").append(metrics.getHashBatches()).append(" batches (")
+                        .append(metrics.getOriginalHashBatches()).append(" planned)");
+            } else if ("Disk".equals(metrics.getSortSpaceType())) {
+                sb.append(": ").append(metrics.getSortMethod()).append(", ").append(metrics.getSortSpaceUsedKb())
+                        .append(" kB on disk");
+            } else {
+                sb.append(": ").append(metrics.getTempWrittenBlocks()).append(" temporary blocks written");
+            }
+            return sb.toString();
+        }
+
         /**
          * Compute the exclusive time for this node. The exclusive time is the time that this node
          * spent executing, minus the time spent in its children. By default, PostgreSQL counts the children's time.
@@ -89,6 +295,58 @@ public class PostgresExplainJsonParser {
             return exclusive;
         }
 
+        /**
+         * Returns the q-error of the row estimate of this node: the largest of the estimated and actual rows per
+         * loop divided by the smallest, both counted as at least one row. A q-error of 1 is a perfect estimate.
+         * It is only meaningful for a plan obtained with {@code EXPLAIN ANALYZE}.
+         *
+         * @return the q-error, or null if the node was never executed
+         */
+        public Double getQError() {
+            if (actualLoops <= 0) {
+                return null;
+            }
+            double estimated = Math.max(planRows, 1);
+            double actual = Math.max(actualRows, 1);
+            return Math.max(estimated, actual) / Math.min(estimated, actual);
+        }
+
+        /**
+         * Converts this node and its children into engine-neutral plan operators. The times and rows reported by
+         * PostgreSQL are averages per loop, they are multiplied by the number of loops to obtain totals.
+         *
+         * @return the plan operator of this node
+         */
+        public PlanOperator toPlanOperator() {
+            return toPlanOperator(1);
+        }
+
+        /**
+         * Converts this node and its children into plan operators, for a node executed by several parallel
+         * processes. Each process of a parallel plan counts its own loops, so the total time of the loops is the
+         * sum of the times of the processes, which run at the same time. It is divided by the number of processes
+         * so that the time of the node is not counted once per process. The processes are the workers and the
+         * leader below a {@code Gather}, and their number is the number of loops of the child of the
+         * {@code Gather}.
+         *
+         * @param processes the number of processes that execute this node
+         * @return the plan operator of this node
+         */
+        private PlanOperator toPlanOperator(double processes) {
+            boolean gather = "Gather".equals(nodeType) || "Gather Merge".equals(nodeType);
+            List<PlanOperator> operators = children.stream()
+                    .map(child -> child.toPlanOperator(gather ? Math.max(child.actualLoops, 1) : processes))
+                    .toList();
+            double inclusive = actualTotalTime * actualLoops / processes;
+            double childrenTime = operators.stream().mapToDouble(PlanOperator::getInclusiveTime).sum();
+            Long rowsIn = operators.isEmpty() ? null : operators.stream().mapToLong(PlanOperator::getRowsOut).sum();
+            return new PlanOperator(nodeType, OperatorCategory.fromPostgres(nodeType), inclusive,
+                    Math.max(0, inclusive - childrenTime), rowsIn, Math.round(actualRows * actualLoops), planRows,
+                    Math.round(actualLoops), getQError(),
+                    relationName, indexName, joinCondition != null ? joinCondition : filter,
+                    (long) sharedHitBlocks, (long) sharedReadBlocks, metrics, operators);
+        }
+
         /**
          * Return a string representation of this PlanNode with indentation.
          *
@@ -107,6 +365,15 @@ public class PostgresExplainJsonParser {
                 sb.append(String.format(" [blocks: hit=%d, read=%d]", sharedHitBlocks, sharedReadBlocks));
             }
 
+            if (metrics.getTempReadBlocks() > 0 || metrics.getTempWrittenBlocks() > 0) {
+                sb.append(String.format(" [temp: read=%d, written=%d]", metrics.getTempReadBlocks(),
+                        metrics.getTempWrittenBlocks()));
+            }
+
+            if (metrics.isSpilled()) {
+                sb.append(" [spilled]");
+            }
+
             sb.append(String.format(" [cost: %.2f]", totalCost));
 
             if (indexName != null && !indexName.isEmpty()) {
@@ -0,0 +1,261 @@
+package backend.service;
+
+import backend.database.CouchbaseManager;
+import backend.database.DatabaseManager;
+import backend.database.JSONBManager;
+import backend.database.RelManager;
+import backend.model.metadata.IndexInfo;
+import backend.model.options.DBSize;
+import backend.model.options.DBType;
+import backend.model.query.QueryFactory;
+import backend.model.request.BenchmarkRequest;
+import backend.model.request.Index;
+import backend.model.workload.WorkloadFactory;
+import backend.service.index.IndexStateManager;
+import backend.service.logging.BenchmarkLogger;
+
+import java.util.*;
+
+/**
+ * {@code AbstractBenchmarkService} groups the logic shared by all the benchmark services: resolution of the
+ * database managers and scopes from the request options, and execution of a benchmark task surrounded by the
+ * creation and cleanup of the requested indexes.
+ * <p>
+ * Each concrete service implements one family of benchmarks (single queries and workloads, concurrent
+ * workloads, ...) on top of these helpers.
+ *
+ * @author Eva Ray
+ */
+public abstract class AbstractBenchmarkService {
+
+    // Collections whose keys are the same in every database
+    protected static final Set<String> KEYED_COLLECTIONS = Set.of("business", "user", "review");
+
+    // Factories for creating queries and workloads. They are attributes to avoid calling static methods repeatedly.
+    protected final QueryFactory queryFactory;
+    protected final WorkloadFactory workloadFactory;
+    // Logger for outputting benchmark results and errors.
+    protected final BenchmarkLogger logger;
+
+    /**
+     * Constructs a {@code AbstractBenchmarkService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    protected AbstractBenchmarkService(QueryFactory queryFactory, WorkloadFactory workloadFactory,
+                                       BenchmarkLogger logger) {
+        this.queryFactory = queryFactory;
+        this.workloadFactory = workloadFactory;
+        this.logger = logger;
+    }
+
+    /**
+     * Returns the list of database managers corresponding to the selected database types.
+     *
+     * @param dbTypes the list of selected database types
+     * @return a list of corresponding database managers
+     */
+    protected List<DatabaseManager> getManagers(List<DBType> dbTypes) {
+        List<DatabaseManager> managers = new ArrayList<>();
+        for (DBType dbType : dbTypes) {
+            managers.add(getManager(dbType));
+        }
+        return managers;
+    }
+
+    /**
+     * Returns the database manager corresponding to a database type.
+     *
+     * @param dbType the database type
+     * @return the corresponding database manager
+     */
+    protected DatabaseManager getManager(DBType dbType) {
+        return switch (dbType) {
+            case COUCHBASE -> CouchbaseManager.getInstance();
+            case POSTGRESQL -> RelManager.getInstance();
+            case POSTGRESQL_JSONB -> JSONBManager.getInstance();
+        };
+    }
+
+    /**
+     * Returns the scope for a given database type and size. Scope is the terminology used in Couchbase, schema is
+     * the terminology used in PostgreSQL.
+     *
+     * @param dbType the database type
+     * @param dbSize the selected size
+     * @return the scope name
+     */
+    protected String getScope(DBType dbType, DBSize dbSize) {
+        return switch (dbType) {
+            case COUCHBASE -> switch (dbSize) {
+                case SMALL -> "yelp_small";
+                case MEDIUM -> "yelp_medium";
+                case LARGE -> "yelp";
+            };
+            case POSTGRESQL, POSTGRESQL_JSONB -> switch (dbSize) {
+                case SMALL -> "yelp_small";
+                case MEDIUM -> "yelp_medium";
+                case LARGE -> "public";
+            };
+            default -> throw new IllegalArgumentException("Unsupported database type: " + dbType);
+        };
+    }
+
+    /**
+     * Samples keys from the first selected database, so that every database of the benchmark accesses the same
+     * documents or rows.
+     *
+     * @param request    the benchmark request
+     * @param collection the collection to sample
+     * @param count      the number of keys to sample
+     * @return the sampled keys
+     * @throws IllegalArgumentException if no key can be sampled
+     */
+    protected List<String> sampleKeys(BenchmarkRequest request, String collection, int count) {
+        DBType dbType = request.getSelectedDatabases().get(0);
+        List<String> keys = getManager(dbType).sampleKeys(getScope(dbType, request.getSelectedSize()), collection, count);
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("No key could be sampled from " + collection);
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the list of indexes for a given database type.
+     *
+     * @param indexes the map of indexes
+     * @param dbType  the target database type
+     * @return the list of indexes for that type
+     */
+    protected List<Index> getIndexes(Map<DBType, List<Index>> indexes, DBType dbType) {
+        return indexes != null ? indexes.getOrDefault(dbType, Collections.emptyList()) : Collections.emptyList();
+    }
+
+    /**
+     * Returns the session-level settings for a given database type.
+     *
+     * @param settings the map of settings
+     * @param dbType   the target database type
+     * @return the settings for that type, empty for the configuration of the server
+     */
+    protected Map<String, String> getSettings(Map<DBType, Map<String, String>> settings, DBType dbType) {
+        return settings != null ? settings.getOrDefault(dbType, Collections.emptyMap()) : Collections.emptyMap();
+    }
+
+    /**
+     * A functional interface for running a benchmark task.
+     * It takes a scope as input and returns a result of type T.
+     *
+     * @param <T> the type of the result
+     */
+    @FunctionalInterface
+    protected interface BenchmarkTask<T> {
+
+        /**
+         * Runs the benchmark task within the specified scope.
+         *
+         * @param scope the scope in which to run the task
+         * @return the result of the task
+         * @throws Exception if an error occurs during execution
+         */
+        T run(String scope) throws Exception;
+    }
+
+    /**
+     * A record to hold the result of a benchmark task along with index information.
+     *
+     * @param <T> the type of the task result
+     */
+    protected record BenchmarkResult<T>(T taskResult, List<IndexInfo> indexInfo) {
+    }
+
+    /**
+     * Executes a benchmark task for a given database manager, including index creation
+     * and cleanup.
+     *
+     * @param manager   the database manager
+     * @param dbSize    the selected database size
+     * @param indexList the list of indexes to apply
+     * @param task      the task to execute
+     * @param <T>       the type of result produced
+     * @return an optional result containing the task output and index metadata
+     */
+    protected <T> Optional<BenchmarkResult<T>> executeBenchmarkForManager(DatabaseManager manager, DBSize dbSize,
+                                                                          List<Index> indexList, BenchmarkTask<T> task) {
+        return executeBenchmarkForManager(manager, dbSize, indexList, task, null);
+    }
+
+    /**
+     * Executes a benchmark task for a given database manager. If an index state manager is given, it brings the
+     * scope to the requested indexes and keeps them after the task, so that the next task needing the same
+     * indexes does not build them again. Otherwise, the indexes are created before the task and dropped after it.
+     *
+     * @param manager    the database manager
+     * @param dbSize     the selected database size
+     * @param indexList  the list of indexes to apply
+     * @param task       the task to execute
+     * @param indexState the index state manager of the scope, or null to create and drop the indexes
+     * @param <T>        the type of result produced
+     * @return an optional result containing the task output and index metadata
+     */
+    protected <T> Optional<BenchmarkResult<T>> executeBenchmarkForManager(DatabaseManager manager, DBSize dbSize,
+                                                                          List<Index> indexList, BenchmarkTask<T> task,
+                                                                          IndexStateManager indexState) {
+        return executeBenchmarkForManager(manager, dbSize, indexList, task, indexState, Map.of());
+    }
+
+    /**
+     * Executes a benchmark task for a given database manager with session-level settings. The settings apply to
+     * the queries run by the task, and the manager is brought back to the configuration of the server after it.
+     *
+     * @param manager    the database manager
+     * @param dbSize     the selected database size
+     * @param indexList  the list of indexes to apply
+     * @param task       the task to execute
+     * @param indexState the index state manager of the scope, or null to create and drop the indexes
+     * @param settings   the session-level settings of the task, empty for the configuration of the server
+     * @param <T>        the type of result produced
+     * @return an optional result containing the task output and index metadata
+     * @throws IllegalArgumentException if a setting is not supported by the database or has an invalid value
+     */
+    protected <T> Optional<BenchmarkResult<T>> executeBenchmarkForManager(DatabaseManager manager, DBSize dbSize,
+                                                                          List<Index> indexList, BenchmarkTask<T> task,
+                                                                          IndexStateManager indexState,
+                                                                          Map<String, String> settings) {
+
+        logger.logSubHeader("Running benchmark for " + manager.getType().getName());
+        String scope = getScope(manager.getType(), dbSize);
+        // Invalid settings are reported before any index is built
+        manager.setSessionSettings(settings);
+        if (!settings.isEmpty()) {
+            logger.log("Session settings of " + manager.getType().getName() + ": " + settings);
+        }
+
+        try {
+            if (indexState != null) {
+                // Create or drop only the indexes that differ from the previous task
+                indexState.apply(indexList);
+            } else {
+                // Create indexes if provided
+                manager.createIndexes(scope, indexList);
+            }
+            // Run the benchmark task
+            T taskResult = task.run(scope);
+            // Retrieve index information after the task execution
+            List<IndexInfo> indexInfo = manager.getIndexesInfo(scope);
+            return Optional.of(new BenchmarkResult<>(taskResult, indexInfo));
+        } catch (Exception e) {
+            logger.logError("Benchmark failed for " + manager.getType(), e);
+            return Optional.empty();
+        } finally {
+            manager.setSessionSettings(Map.of());
+            if (indexState == null && indexList != null && !indexList.isEmpty()) {
+                logger.log("Dropping indexes for " + manager.getType());
+                // Clean up indexes after the task execution if they were created
+                manager.dropIndexes(scope, indexList);
+            }
+        }
+    }
+}
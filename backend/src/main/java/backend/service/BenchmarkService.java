@@ -2,9 +2,6 @@ package backend.service;
 
 import backend.database.CouchbaseManager;
 import backend.database.DatabaseManager;
-import backend.database.JSONBManager;
-import backend.database.RelManager;
-import backend.model.metadata.IndexInfo;
 import backend.model.options.DBSize;
 import backend.model.options.DBType;
 import backend.model.options.QueryType;
@@ -19,6 +16,7 @@ import backend.model.workload.WorkloadFactory;
 import backend.model.workload.WorkloadQuery;
 import backend.service.logging.BenchmarkLogger;
 import backend.service.logging.ConsoleLogger;
+import backend.service.plan.HotOperatorRanking;
 
 import java.util.*;
 
@@ -34,13 +32,7 @@ import java.util.*;
  *
  * @author Eva Ray
  */
-public class BenchmarkService {
-
-    // Factories for creating queries and workloads. They are attributes to avoid calling static methods repeatedly.
-    private final QueryFactory queryFactory;
-    private final WorkloadFactory workloadFactory;
-    // Logger for outputting benchmark results and errors.
-    private final BenchmarkLogger logger;
+public class BenchmarkService extends AbstractBenchmarkService {
 
     /**
      * Constructs a {@code BenchmarkService} with a default console logger.
@@ -57,9 +49,7 @@ public class BenchmarkService {
      * @param logger          the benchmark logger
      */
     public BenchmarkService(QueryFactory queryFactory, WorkloadFactory workloadFactory, BenchmarkLogger logger) {
-        this.queryFactory = queryFactory;
-        this.workloadFactory = workloadFactory;
-        this.logger = logger;
+        super(queryFactory, workloadFactory, logger);
     }
 
     /**
@@ -72,123 +62,6 @@ public class BenchmarkService {
         this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), logger);
     }
 
-    /**
-     * Returns the list of database managers corresponding to the selected database types.
-     *
-     * @param dbTypes the list of selected database types
-     * @return a list of corresponding database managers
-     */
-    private List<DatabaseManager> getManagers(List<DBType> dbTypes) {
-        List<DatabaseManager> managers = new ArrayList<>();
-        for (DBType dbType : dbTypes) {
-            switch (dbType) {
-                case COUCHBASE -> managers.add(CouchbaseManager.getInstance());
-                case POSTGRESQL -> managers.add(RelManager.getInstance());
-                case POSTGRESQL_JSONB -> managers.add(JSONBManager.getInstance());
-            }
-        }
-        return managers;
-    }
-
-    /**
-     * Returns the scope for a given database type and size. Scope is the terminology used in Couchbase, schema is
-     * the terminology used in PostgreSQL.
-     *
-     * @param dbType the database type
-     * @param dbSize the selected size
-     * @return the scope name
-     */
-    private String getScope(DBType dbType, DBSize dbSize) {
-        return switch (dbType) {
-            case COUCHBASE -> switch (dbSize) {
-                case SMALL -> "yelp_small";
-                case MEDIUM -> "yelp_medium";
-                case LARGE -> "yelp";
-            };
-            case POSTGRESQL, POSTGRESQL_JSONB -> switch (dbSize) {
-                case SMALL -> "yelp_small";
-                case MEDIUM -> "yelp_medium";
-                case LARGE -> "public";
-            };
-            default -> throw new IllegalArgumentException("Unsupported database type: " + dbType);
-        };
-    }
-
-    /**
-     * Returns the list of indexes for a given database type.
-     *
-     * @param indexes the map of indexes
-     * @param dbType  the target database type
-     * @return the list of indexes for that type
-     */
-    private List<Index> getIndexes(Map<DBType, List<Index>> indexes, DBType dbType) {
-        return indexes != null ? indexes.getOrDefault(dbType, Collections.emptyList()) : Collections.emptyList();
-    }
-
-    /**
-     * A functional interface for running a benchmark task.
-     * It takes a scope as input and returns a result of type T.
-     *
-     * @param <T> the type of the result
-     */
-    @FunctionalInterface
-    private interface BenchmarkTask<T> {
-
-        /**
-         * Runs the benchmark task within the specified scope.
-         *
-         * @param scope the scope in which to run the task
-         * @return the result of the task
-         * @throws Exception if an error occurs during execution
-         */
-        T run(String scope) throws Exception;
-    }
-
-    /**
-     * A record to hold the result of a benchmark task along with index information.
-     *
-     * @param <T> the type of the task result
-     */
-    private record BenchmarkResult<T>(T taskResult, List<IndexInfo> indexInfo) {
-    }
-
-    /**
-     * Executes a benchmark task for a given database manager, including index creation
-     * and cleanup.
-     *
-     * @param manager   the database manager
-     * @param dbSize    the selected database size
-     * @param indexList the list of indexes to apply
-     * @param task      the task to execute
-     * @param <T>       the type of result produced
-     * @return an optional result containing the task output and index metadata
-     */
-    private <T> Optional<BenchmarkResult<T>> executeBenchmarkForManager(DatabaseManager manager, DBSize dbSize,
-                                                                        List<Index> indexList, BenchmarkTask<T> task) {
-
-        logger.logSubHeader("Running benchmark for " + manager.getType().getName());
-        String scope = getScope(manager.getType(), dbSize);
-
-        try {
-            // Create indexes if provided
-            manager.createIndexes(scope, indexList);
-            // Run the benchmark task
-            T taskResult = task.run(scope);
-            // Retrieve index information after the task execution
-            List<IndexInfo> indexInfo = manager.getIndexesInfo(scope);
-            return Optional.of(new BenchmarkResult<>(taskResult, indexInfo));
-        } catch (Exception e) {
-            logger.logError("Benchmark failed for " + manager.getType(), e);
-            return Optional.empty();
-        } finally {
-            if (indexList != null && !indexList.isEmpty()) {
-                logger.log("Dropping indexes for " + manager.getType());
-                // Clean up indexes after the task execution if they were created
-                manager.dropIndexes(scope, indexList);
-            }
-        }
-    }
-
     /**
      * Executes a generic single query benchmark for a specific database manager.
      *
@@ -210,7 +83,8 @@ public class BenchmarkService {
         List<Index> indexList = getIndexes(indexes, manager.getType());
         BenchmarkTask<Result> task = (scope) -> manager.run(query, numberOfExecutions, scope, indexList);
 
-        return executeBenchmarkForManager(manager, selectedSize, indexList, task);
+        return executeBenchmarkForManager(manager, selectedSize, indexList, task, null,
+                getSettings(request.getSettings(), manager.getType()));
     }
 
     /**
@@ -285,17 +159,23 @@ public class BenchmarkService {
      * @param dbSize       the size of the dataset
      * @param nbExecutions the number of executions per query type
      * @param indexes      the indexes to create per database type
+     * @param settings     the session-level settings per database type
      * @return a map of workload results per database type
      */
     public Map<DBType, WorkloadResult> runGenericWorkloadBenchmark(
             String header, Workload workload, List<DBType> dbTypes, DBSize dbSize,
-            int nbExecutions, Map<DBType, List<Index>> indexes
+            int nbExecutions, Map<DBType, List<Index>> indexes, Map<DBType, Map<String, String>> settings
     ) {
         logger.logHeader(header);
 
 
         List<DatabaseManager> managers = getManagers(dbTypes);
         Map<DBType, WorkloadResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+        // The operators of each query are weighted by the ratio of the query in the workload
+        Map<QueryType, Double> weights = new HashMap<>();
+        for (QueryType queryType : workload.getQueryTypes()) {
+            weights.put(queryType, workload.getRatioForType(queryType));
+        }
 
         // Iterate over each database manager and execute the workload
         for (DatabaseManager manager : managers) {
@@ -313,11 +193,12 @@ public class BenchmarkService {
                 return queryResults;
             };
 
-            executeBenchmarkForManager(manager, dbSize, indexList, task)
-                    .ifPresent(res -> results.put(
-                            manager.getType(),
-                            new WorkloadResult(res.indexInfo(), res.taskResult())
-                    ));
+            executeBenchmarkForManager(manager, dbSize, indexList, task, null, getSettings(settings, manager.getType()))
+                    .ifPresent(res -> {
+                        WorkloadResult workloadResult = new WorkloadResult(res.indexInfo(), res.taskResult());
+                        workloadResult.setHotOperators(HotOperatorRanking.rank(res.taskResult(), weights));
+                        results.put(manager.getType(), workloadResult);
+                    });
         }
         logger.logEnd();
         return results;
@@ -341,7 +222,8 @@ public class BenchmarkService {
                 request.getSelectedDatabases(),
                 request.getSelectedSize(),
                 request.getNumberOfExecutions(),
-                request.getIndexes()
+                request.getIndexes(),
+                request.getSettings()
         );
     }
 
@@ -360,7 +242,8 @@ public class BenchmarkService {
                 request.getSelectedDatabases(),
                 request.getSelectedSize(),
                 request.getNumberOfExecutions(),
-                request.getIndexes()
+                request.getIndexes(),
+                request.getSettings()
         );
     }
 
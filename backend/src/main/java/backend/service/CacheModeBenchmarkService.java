@@ -0,0 +1,157 @@
+package backend.service;
+
+import backend.database.BenchmarkSession;
+import backend.database.DatabaseManager;
+import backend.model.options.CacheMode;
+import backend.model.options.DBType;
+import backend.model.options.QueryType;
+import backend.model.query.Query;
+import backend.model.query.QueryFactory;
+import backend.model.request.CacheModeRequest;
+import backend.model.request.Index;
+import backend.model.result.CacheModeMeasurement;
+import backend.model.result.CacheModeResult;
+import backend.model.result.LatencyStats;
+import backend.model.workload.WorkloadFactory;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+
+import java.util.*;
+
+/**
+ * {@code CacheModeBenchmarkService} measures the latency of the first execution of read queries with a controlled
+ * cache state, so that the latency after a restart or a failover can be compared with the latency of the usual
+ * benchmarks, which is measured after a warmup.
+ * <p>
+ * Before a cold execution, the data read by the query is evicted from the cache of the database, and optionally
+ * from the page cache of the operating system. Before the warm executions, the query is warmed up as in the other
+ * benchmarks, and before the hot executions, the whole relations or collections read by the query are loaded into
+ * the cache. Every execution is the first one of a new session, and only the execution itself is measured.
+ *
+ * @author Eva Ray
+ */
+public class CacheModeBenchmarkService extends AbstractBenchmarkService {
+
+    /**
+     * Constructs a {@code CacheModeBenchmarkService} with a default console logger.
+     */
+    public CacheModeBenchmarkService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs a {@code CacheModeBenchmarkService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public CacheModeBenchmarkService(QueryFactory queryFactory, WorkloadFactory workloadFactory,
+                                     BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Runs a cache mode benchmark on the selected databases.
+     *
+     * @param request the cache mode request
+     * @return a map of cache mode results per database type
+     * @throws IllegalArgumentException if a selected query is a write query, if no cache mode is selected, or if
+     *                                  the number of executions is not positive
+     */
+    public Map<DBType, CacheModeResult> runCacheModeBenchmark(CacheModeRequest request) {
+        if (request.getSelectedQueries() == null || request.getSelectedQueries().isEmpty()
+                || request.getSelectedQueries().stream().anyMatch(QueryType::isWrite)) {
+            throw new IllegalArgumentException("The cache mode benchmark needs at least one read query");
+        }
+        if (request.getModes() == null || request.getModes().isEmpty()) {
+            throw new IllegalArgumentException("The cache mode benchmark needs at least one cache mode");
+        }
+        if (request.getNumberOfExecutions() <= 0) {
+            throw new IllegalArgumentException("The number of executions must be positive");
+        }
+
+        logger.logHeader("CACHE MODES");
+
+        Map<DBType, CacheModeResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+
+        for (DatabaseManager manager : getManagers(request.getSelectedDatabases())) {
+            List<Index> indexList = getIndexes(request.getIndexes(), manager.getType());
+
+            BenchmarkTask<Map<QueryType, List<CacheModeMeasurement>>> task = (scope) -> {
+                Map<QueryType, List<CacheModeMeasurement>> queries = new LinkedHashMap<>();
+                for (QueryType queryType : request.getSelectedQueries()) {
+                    queries.put(queryType, measureQuery(manager, scope, queryType, request));
+                }
+                return queries;
+            };
+
+            executeBenchmarkForManager(manager, request.getSelectedSize(), indexList, task, null,
+                    getSettings(request.getSettings(), manager.getType()))
+                    .ifPresent(res -> results.put(
+                            manager.getType(),
+                            new CacheModeResult(request.getSelectedSize(), res.indexInfo(), res.taskResult())
+                    ));
+        }
+        logger.logEnd();
+        return results;
+    }
+
+    /**
+     * Measures the first executions of a query with each cache mode of the request.
+     *
+     * @param manager   the database manager
+     * @param scope     the scope of the benchmark
+     * @param queryType the measured query
+     * @param request   the cache mode request
+     * @return the measurements of the query, one per cache mode
+     * @throws Exception if the cache cannot be prepared
+     */
+    private List<CacheModeMeasurement> measureQuery(DatabaseManager manager, String scope, QueryType queryType,
+                                                    CacheModeRequest request) throws Exception {
+        Query query = queryFactory.getQuery(manager.getType(), queryType);
+        List<CacheModeMeasurement> measurements = new ArrayList<>();
+
+        for (CacheMode mode : request.getModes().stream().distinct().toList()) {
+            logger.log("Measuring " + queryType.getName() + " with a " + mode.getName().toLowerCase() + " cache");
+            int executions = request.getNumberOfExecutions();
+            double[] latencies = new double[executions];
+            int count = 0;
+            long errors = 0;
+            double preparationTime = 0;
+            double wallTime = 0;
+
+            for (int i = 0; i < executions; i++) {
+                // The cold cache is prepared before every execution, the warm and hot caches are kept
+                if (mode == CacheMode.COLD || i == 0) {
+                    long start = System.nanoTime();
+                    manager.prepareCache(query, scope, mode, request.isDropOsCache());
+                    preparationTime += (System.nanoTime() - start) / 1_000_000.0;
+                }
+                try (BenchmarkSession session = manager.openSession(scope)) {
+                    long start = System.nanoTime();
+                    session.execute(query);
+                    double latency = (System.nanoTime() - start) / 1_000_000.0;
+                    latencies[count++] = latency;
+                    wallTime += latency;
+                } catch (Exception e) {
+                    errors++;
+                    logger.logError("Execution of " + queryType.getName() + " failed", e);
+                }
+            }
+
+            int preparations = mode == CacheMode.COLD ? executions : 1;
+            CacheModeMeasurement measurement = new CacheModeMeasurement(mode,
+                    LatencyStats.of(Arrays.copyOf(latencies, count), errors, wallTime), preparationTime / preparations);
+            logger.log(mode.getName() + " cache: " + measurement.getLatency().getAvgLatency() + " ms on average, "
+                    + measurement.getLatency().getPercentile95() + " ms at the 95th percentile");
+            measurements.add(measurement);
+        }
+
+        measurements.stream()
+                .filter(measurement -> measurement.getMode() == CacheMode.HOT)
+                .findFirst()
+                .ifPresent(hot -> measurements.forEach(measurement -> measurement.compareWith(hot)));
+        return measurements;
+    }
+}
@@ -0,0 +1,231 @@
+package backend.service;
+
+import backend.database.*;
+import backend.model.options.DBType;
+import backend.model.options.QueryType;
+import backend.model.query.QueryFactory;
+import backend.model.request.ChangeFeedRequest;
+import backend.model.request.Index;
+import backend.model.result.ChangeFeedMeasurement;
+import backend.model.result.ChangeFeedResult;
+import backend.model.result.LatencyStats;
+import backend.model.workload.WorkloadFactory;
+import backend.service.load.LoadGenerator;
+import backend.service.load.LoadResult;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+import com.couchbase.client.java.json.JsonObject;
+
+import java.sql.PreparedStatement;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * {@code ChangeFeedBenchmarkService} measures the end-to-end lag and the throughput of change data capture.
+ * A stream of insertions is applied to the business collection at a target rate, while a change feed consumes
+ * the changes of the collection:
+ * <ul>
+ *     <li>Couchbase inserts the documents with the KV service, and the changes are observed through the primary
+ *     index, which is maintained by a DCP stream of the bucket.</li>
+ *     <li>PostgreSQL inserts the rows in autocommit mode, and the changes are consumed from a logical replication
+ *     slot with the {@code pgoutput} plugin.</li>
+ * </ul>
+ * The inserted documents are deleted once the benchmark is done.
+ *
+ * @author Eva Ray
+ */
+public class ChangeFeedBenchmarkService extends AbstractBenchmarkService {
+
+    private static final String COLLECTION = "business";
+
+    /**
+     * Constructs a {@code ChangeFeedBenchmarkService} with a default console logger.
+     */
+    public ChangeFeedBenchmarkService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs a {@code ChangeFeedBenchmarkService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public ChangeFeedBenchmarkService(QueryFactory queryFactory, WorkloadFactory workloadFactory,
+                                      BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Runs a change feed benchmark on the selected databases.
+     *
+     * @param request the change feed request
+     * @return a map of change feed results per database type
+     * @throws IllegalArgumentException if a number or a write rate is not positive
+     */
+    public Map<DBType, ChangeFeedResult> runChangeFeedBenchmark(ChangeFeedRequest request) {
+        if (request.getNumberOfExecutions() <= 0 || request.getConcurrency() <= 0
+                || request.getPollIntervalMs() <= 0 || request.getDrainTimeoutSeconds() <= 0
+                || request.getWriteRates().stream().anyMatch(rate -> rate <= 0)) {
+            throw new IllegalArgumentException("The number of executions, the concurrency, the poll interval, "
+                    + "the drain timeout and the write rates must be positive");
+        }
+
+        logger.logHeader("CHANGE FEED BENCHMARK");
+
+        Map<DBType, ChangeFeedResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+
+        for (DatabaseManager manager : getManagers(request.getSelectedDatabases())) {
+            List<Index> indexList = getIndexes(request.getIndexes(), manager.getType());
+
+            BenchmarkTask<List<ChangeFeedMeasurement>> task = (scope) -> {
+                List<ChangeFeedMeasurement> measurements = new ArrayList<>();
+                // The UPSERT query inserts into the business collection with the write key prefix, so its
+                // snapshot deletes the inserted documents
+                try (DatasetSnapshot snapshot = manager.snapshot(scope,
+                        List.of(queryFactory.getQuery(manager.getType(), QueryType.UPSERT)))) {
+                    for (int i = 0; i < request.getWriteRates().size(); i++) {
+                        String keyPrefix = QueryFactory.WRITE_KEY_PREFIX + "cdc_" + i + "_";
+                        measurements.add(runStream(manager, scope, keyPrefix, request.getWriteRates().get(i), request));
+                    }
+                }
+                return measurements;
+            };
+
+            executeBenchmarkForManager(manager, request.getSelectedSize(), indexList, task)
+                    .ifPresent(res -> results.put(
+                            manager.getType(),
+                            new ChangeFeedResult(res.indexInfo(), res.taskResult())
+                    ));
+        }
+        logger.logEnd();
+        return results;
+    }
+
+    /**
+     * Applies a stream of insertions at a target rate while the change feed consumes them, and waits until all
+     * the successful insertions are received or the drain timeout expires.
+     *
+     * @param manager   the database manager
+     * @param scope     the scope of the benchmark
+     * @param keyPrefix the key prefix of the inserted documents, followed by the index of the insertion
+     * @param writeRate the target number of insertions per second
+     * @param request   the change feed request
+     * @return the measurements of the stream
+     * @throws Exception if the feed cannot be started or the load cannot be generated
+     */
+    private ChangeFeedMeasurement runStream(DatabaseManager manager, String scope, String keyPrefix, double writeRate,
+                                            ChangeFeedRequest request) throws Exception {
+        int events = request.getNumberOfExecutions();
+        AtomicLongArray sent = new AtomicLongArray(events);
+        AtomicLongArray written = new AtomicLongArray(events);
+        AtomicLongArray received = new AtomicLongArray(events);
+        AtomicInteger receivedCount = new AtomicInteger();
+
+        String feedName;
+        ChangeFeed feed;
+        if (manager instanceof CouchbaseManager couchbaseManager) {
+            feedName = "Primary index (DCP), polled every " + request.getPollIntervalMs() + " ms";
+            feed = couchbaseManager.openChangeFeed(scope, COLLECTION, keyPrefix, request.getPollIntervalMs());
+        } else if (manager instanceof PGManager pgManager) {
+            feedName = "Logical replication (pgoutput)";
+            feed = pgManager.openChangeFeed(scope, COLLECTION, keyPrefix);
+        } else {
+            throw new IllegalArgumentException("Unsupported database type: " + manager.getType());
+        }
+
+        logger.log("Running " + events + " insertions at " + writeRate + " per second, observed by " + feedName);
+
+        LoadResult writes;
+        try (feed) {
+            feed.start(key -> {
+                int index = Integer.parseInt(key.substring(keyPrefix.length()));
+                if (index < events && received.compareAndSet(index, 0, System.nanoTime())) {
+                    receivedCount.incrementAndGet();
+                }
+            });
+
+            writes = new LoadGenerator(request.getConcurrency(), writeRate).run(
+                    () -> manager.openSession(scope),
+                    (session, index) -> {
+                        sent.set(index, System.nanoTime());
+                        insert(manager.getType(), session, keyPrefix + index);
+                        written.set(index, 1);
+                    },
+                    events);
+
+            // Wait for the changes that are still on their way
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(request.getDrainTimeoutSeconds());
+            while (receivedCount.get() < writes.latencies().length && System.nanoTime() < deadline) {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+        }
+
+        double[] lags = new double[events];
+        int count = 0;
+        long missed = 0;
+        long firstSent = Long.MAX_VALUE;
+        long lastReceived = Long.MIN_VALUE;
+        for (int i = 0; i < events; i++) {
+            if (written.get(i) == 0) {
+                continue;
+            }
+            if (received.get(i) == 0) {
+                missed++;
+                continue;
+            }
+            lags[count++] = (received.get(i) - sent.get(i)) / 1_000_000.0;
+            firstSent = Math.min(firstSent, sent.get(i));
+            lastReceived = Math.max(lastReceived, received.get(i));
+        }
+        double wallTimeMs = count > 0 ? (lastReceived - firstSent) / 1_000_000.0 : 0;
+        LatencyStats lag = LatencyStats.of(Arrays.copyOf(lags, count), missed, wallTimeMs);
+
+        return new ChangeFeedMeasurement(feedName, writeRate, writes.toStats(), lag, missed);
+    }
+
+    /**
+     * Inserts a document or row in the business collection.
+     *
+     * @param dbType  the database type
+     * @param session the session of the worker
+     * @param key     the key of the inserted document
+     * @throws Exception if the insertion fails
+     */
+    private void insert(DBType dbType, BenchmarkSession session, String key) throws Exception {
+        switch (dbType) {
+            case COUCHBASE -> ((CouchbaseSession) session).getScope().collection(COLLECTION).insert(key,
+                    JsonObject.create()
+                            .put("business_id", key)
+                            .put("name", "Benchmark business")
+                            .put("city", "Nashville")
+                            .put("state", "TN")
+                            .put("stars", 4.5)
+                            .put("review_count", 0)
+                            .put("is_open", 1));
+            case POSTGRESQL -> {
+                try (PreparedStatement pstmt = ((PGSession) session).getConnection().prepareStatement("""
+                        insert into business (business_id, name, city, state, stars, review_count, is_open)
+                        values (?, 'Benchmark business', 'Nashville', 'TN', 4.5, 0, 1)
+                        """)) {
+                    pstmt.setString(1, key);
+                    pstmt.executeUpdate();
+                }
+            }
+            case POSTGRESQL_JSONB -> {
+                try (PreparedStatement pstmt = ((PGSession) session).getConnection().prepareStatement("""
+                        insert into business (id, data)
+                        values (?, jsonb_build_object('business_id', ?::text, 'name', 'Benchmark business',
+                                'city', 'Nashville', 'state', 'TN', 'stars', 4.5, 'review_count', 0, 'is_open', 1))
+                        """)) {
+                    pstmt.setString(1, key);
+                    pstmt.setString(2, key);
+                    pstmt.executeUpdate();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package backend.service;
+
+import backend.database.DatabaseManager;
+import backend.model.options.DBType;
+import backend.model.options.QueryType;
+import backend.model.query.QueryFactory;
+import backend.model.request.Index;
+import backend.model.request.TunerRequest;
+import backend.model.result.TunerEvaluation;
+import backend.model.result.TunerResult;
+import backend.model.result.TunerRound;
+import backend.model.workload.Workload;
+import backend.model.workload.WorkloadFactory;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+
+import java.util.*;
+
+/**
+ * {@code ConfigurationTunerService} searches the session-level settings of PostgreSQL that minimise the weighted
+ * 95th percentile latency of a workload. The settings to tune and their candidate values form a search space, and
+ * each configuration of this space is a combination of one value per setting.
+ * <p>
+ * The tuner uses successive halving: the initial configurations are sampled from the search space, each of them
+ * is measured with a small number of executions of the workload, and only the best ones are kept for the next
+ * round, in which they are measured with more executions. The configurations that are clearly slower are thus
+ * eliminated cheaply, and the remaining budget is spent on telling the good ones apart. The configuration of the
+ * server is always one of the initial configurations, and it is measured in every round as a reference, so that
+ * the improvement of each round is computed with the same number of executions.
+ * <p>
+ * The databases are tuned separately, so that the relational and the JSONB instances get their own configuration.
+ *
+ * @author Eva Ray
+ */
+public class ConfigurationTunerService extends AbstractBenchmarkService {
+
+    // Search space around the configuration of the servers, see the config.sql scripts
+    private static final Map<String, List<String>> DEFAULT_SEARCH_SPACE = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_SEARCH_SPACE.put("work_mem", List.of("16MB", "64MB", "256MB"));
+        DEFAULT_SEARCH_SPACE.put("effective_cache_size", List.of("4GB", "18GB"));
+        DEFAULT_SEARCH_SPACE.put("random_page_cost", List.of("1.1", "4"));
+        DEFAULT_SEARCH_SPACE.put("max_parallel_workers_per_gather", List.of("0", "2", "4"));
+        DEFAULT_SEARCH_SPACE.put("jit_above_cost", List.of("100000", "1000000", "-1"));
+    }
+
+    /**
+     * Constructs a {@code ConfigurationTunerService} with a default console logger.
+     */
+    public ConfigurationTunerService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs a {@code ConfigurationTunerService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public ConfigurationTunerService(QueryFactory queryFactory, WorkloadFactory workloadFactory,
+                                     BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Runs the configuration tuner on the selected databases.
+     *
+     * @param request the tuner request
+     * @return a map of tuner results per database type
+     * @throws IllegalArgumentException if no workload is selected, if a selected database is not PostgreSQL, if a
+     *                                  number is out of range, or if a value of the search space is invalid
+     */
+    public Map<DBType, TunerResult> runTuner(TunerRequest request) {
+        if (request.getSelectedWorkload() == null) {
+            throw new IllegalArgumentException("The tuner needs a selected workload");
+        }
+        if (request.getSelectedDatabases().contains(DBType.COUCHBASE)) {
+            throw new IllegalArgumentException("The tuner only supports PostgreSQL and PostgreSQL JSONB");
+        }
+        if (request.getNumberOfExecutions() <= 0 || request.getInitialConfigurations() <= 0
+                || request.getHalvingFactor() < 2) {
+            throw new IllegalArgumentException("The number of executions and the number of initial configurations "
+                    + "must be positive, and the halving factor must be at least 2");
+        }
+        Map<String, List<String>> space = request.getSearchSpace() != null && !request.getSearchSpace().isEmpty()
+                ? request.getSearchSpace()
+                : DEFAULT_SEARCH_SPACE;
+        if (space.values().stream().anyMatch(values -> values == null || values.isEmpty())) {
+            throw new IllegalArgumentException("Every setting of the search space needs at least one value");
+        }
+
+        Workload workload = workloadFactory.getWorkload(request.getSelectedWorkload());
+        logger.logHeader("CONFIGURATION TUNER (" + request.getSelectedWorkload().getName().toUpperCase() + ")");
+
+        Map<DBType, TunerResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+
+        for (DatabaseManager manager : getManagers(request.getSelectedDatabases())) {
+            // Every value of the search space is checked before the first evaluation
+            try {
+                space.forEach((name, values) -> values.forEach(value ->
+                        manager.setSessionSettings(Map.of(name, value))));
+            } finally {
+                manager.setSessionSettings(Map.of());
+            }
+
+            List<Index> indexList = getIndexes(request.getIndexes(), manager.getType());
+            Map<String, String> common = getSettings(request.getSettings(), manager.getType());
+            List<Map<String, String>> initial = sample(space, request.getInitialConfigurations(),
+                    new Random(request.getSeed()));
+            logger.log(initial.size() + " initial configurations sampled from a search space of "
+                    + searchSpaceSize(space) + " configurations");
+
+            BenchmarkTask<TunerResult> task = (scope) -> halve(manager, scope, workload, indexList, common, initial,
+                    searchSpaceSize(space), request);
+
+            executeBenchmarkForManager(manager, request.getSelectedSize(), indexList, task, null, common)
+                    .ifPresent(res -> results.put(manager.getType(), res.taskResult()));
+        }
+        logger.logEnd();
+        return results;
+    }
+
+    /**
+     * Eliminates configurations by successive halving until a single configuration remains.
+     *
+     * @param manager         the database manager
+     * @param scope           the scope of the benchmark
+     * @param workload        the tuned workload
+     * @param indexList       the indexes of the benchmark
+     * @param common          the common settings of the request, which the tuned settings override
+     * @param initial         the initial configurations
+     * @param searchSpaceSize the number of configurations of the search space
+     * @param request         the tuner request
+     * @return the result of the tuner
+     * @throws Exception if a query of the workload cannot be measured
+     */
+    private TunerResult halve(DatabaseManager manager, String scope, Workload workload, List<Index> indexList,
+                              Map<String, String> common, List<Map<String, String>> initial, long searchSpaceSize,
+                              TunerRequest request) throws Exception {
+        List<TunerRound> rounds = new ArrayList<>();
+        List<TunerEvaluation> evaluations = new ArrayList<>();
+        List<Map<String, String>> remaining = initial;
+        int executions = request.getNumberOfExecutions();
+
+        for (int round = 1; ; round++) {
+            logger.log("Round " + round + ": " + remaining.size() + " configurations, " + executions
+                    + " executions of the workload");
+            List<TunerEvaluation> measured = new ArrayList<>();
+            for (Map<String, String> configuration : remaining) {
+                measured.add(evaluate(manager, scope, workload, indexList, common, configuration, round, executions));
+            }
+            evaluations.addAll(measured);
+            // The configuration of the server is measured as a reference once it has been eliminated
+            TunerEvaluation baseline = measured.stream()
+                    .filter(evaluation -> evaluation.getSettings().isEmpty())
+                    .findFirst()
+                    .orElse(null);
+            if (baseline == null) {
+                baseline = evaluate(manager, scope, workload, indexList, common, Map.of(), round, executions);
+                evaluations.add(baseline);
+            }
+
+            measured.sort(Comparator.comparingDouble(TunerEvaluation::getWeightedPercentile95));
+            TunerRound result = new TunerRound(round, remaining.size(), executions, measured.get(0),
+                    baseline.getWeightedPercentile95());
+            rounds.add(result);
+            logger.log("Best configuration of round " + round + ": " + result.getBest().getSettings() + ", "
+                    + result.getBest().getWeightedPercentile95() + " ms, " + result.getImprovement()
+                    + "% faster than the configuration of the server");
+
+            if (remaining.size() == 1) {
+                break;
+            }
+            int kept = Math.max(1, remaining.size() / request.getHalvingFactor());
+            remaining = measured.subList(0, kept).stream().map(TunerEvaluation::getSettings).toList();
+            executions *= request.getHalvingFactor();
+        }
+        return new TunerResult(searchSpaceSize, rounds, evaluations);
+    }
+
+    /**
+     * Measures the workload with a configuration.
+     *
+     * @param manager       the database manager
+     * @param scope         the scope of the benchmark
+     * @param workload      the tuned workload
+     * @param indexList     the indexes of the benchmark
+     * @param common        the common settings of the request
+     * @param configuration the tuned settings, empty for the configuration of the server
+     * @param round         the round of the evaluation
+     * @param executions    the number of executions of the workload
+     * @return the evaluation of the configuration
+     * @throws Exception if a query of the workload cannot be measured
+     */
+    private TunerEvaluation evaluate(DatabaseManager manager, String scope, Workload workload, List<Index> indexList,
+                                     Map<String, String> common, Map<String, String> configuration, int round,
+                                     int executions) throws Exception {
+        Map<String, String> settings = new TreeMap<>(common);
+        settings.putAll(configuration);
+        manager.setSessionSettings(settings);
+        try {
+            Map<QueryType, Double> percentiles = new TreeMap<>(Comparator.comparing(QueryType::getName));
+            double weightedPercentile = 0;
+            double totalRatio = 0;
+            for (QueryType queryType : workload.getQueryTypes()) {
+                double ratio = workload.getRatioForType(queryType);
+                int queryExecutions = (int) Math.ceil(executions * ratio);
+                double percentile = manager.run(queryFactory.getQuery(manager.getType(), queryType), queryExecutions,
+                        scope, indexList).getPercentile95();
+                percentiles.put(queryType, percentile);
+                weightedPercentile += ratio * percentile;
+                totalRatio += ratio;
+            }
+            TunerEvaluation evaluation = new TunerEvaluation(round, executions, configuration,
+                    totalRatio > 0 ? weightedPercentile / totalRatio : 0, percentiles);
+            logger.log((configuration.isEmpty() ? "Configuration of the server" : configuration.toString()) + ": "
+                    + evaluation.getWeightedPercentile95() + " ms");
+            return evaluation;
+        } finally {
+            manager.setSessionSettings(common);
+        }
+    }
+
+    /**
+     * Samples the initial configurations from the search space. The configuration of the server is always the
+     * first one, and the whole search space is used if it has fewer configurations than requested.
+     *
+     * @param space  the candidate values of each setting
+     * @param count  the number of configurations to sample
+     * @param random the random generator, seeded for reproducible samples
+     * @return the distinct configurations
+     */
+    private List<Map<String, String>> sample(Map<String, List<String>> space, int count, Random random) {
+        Set<Map<String, String>> configurations = new LinkedHashSet<>();
+        configurations.add(Map.of());
+        if (searchSpaceSize(space) < count) {
+            List<Map<String, String>> all = new ArrayList<>();
+            all.add(new TreeMap<>());
+            for (Map.Entry<String, List<String>> setting : space.entrySet()) {
+                List<Map<String, String>> extended = new ArrayList<>();
+                for (Map<String, String> partial : all) {
+                    for (String value : setting.getValue()) {
+                        Map<String, String> configuration = new TreeMap<>(partial);
+                        configuration.put(setting.getKey(), value);
+                        extended.add(configuration);
+                    }
+                }
+                all = extended;
+            }
+            configurations.addAll(all);
+        } else {
+            while (configurations.size() < count) {
+                Map<String, String> configuration = new TreeMap<>();
+                space.forEach((name, values) -> configuration.put(name, values.get(random.nextInt(values.size()))));
+                configurations.add(configuration);
+            }
+        }
+        return new ArrayList<>(configurations);
+    }
+
+    /**
+     * Returns the number of configurations of a search space.
+     */
+    private long searchSpaceSize(Map<String, List<String>> space) {
+        return space.values().stream().mapToLong(List::size).reduce(1, (a, b) -> a * b);
+    }
+}
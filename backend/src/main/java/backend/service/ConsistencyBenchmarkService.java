@@ -0,0 +1,327 @@
+package backend.service;
+
+import backend.database.CouchbaseManager;
+import backend.database.CouchbaseSession;
+import backend.database.DatasetSnapshot;
+import backend.model.options.DBType;
+import backend.model.options.QueryType;
+import backend.model.options.ScanConsistency;
+import backend.model.query.QueryFactory;
+import backend.model.request.ConsistencyRequest;
+import backend.model.request.Index;
+import backend.model.result.ConsistencyResult;
+import backend.model.result.LatencyStats;
+import backend.model.workload.WorkloadFactory;
+import backend.service.load.LoadGenerator;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+import com.couchbase.client.core.msg.kv.MutationToken;
+import com.couchbase.client.java.Collection;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.MutationState;
+import com.couchbase.client.java.query.QueryOptions;
+import com.couchbase.client.java.query.QueryScanConsistency;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * {@code ConsistencyBenchmarkService} measures the eventual consistency of the Couchbase secondary indexes, which
+ * are updated asynchronously from the mutations of the bucket:
+ * <ul>
+ *     <li>The visibility lag is the time between the acknowledgement of a write and the first {@code not_bounded}
+ *     query that returns it through the indexes.</li>
+ *     <li>The read cost of each scan consistency is the latency of the selected queries executed right after a
+ *     write of the session, as a read-your-writes application would do.</li>
+ * </ul>
+ * During the whole benchmark, a background stream of writes keeps the indexer busy. PostgreSQL indexes are
+ * updated synchronously by the writes, so the benchmark only runs on Couchbase. The written documents are
+ * deleted once the benchmark is done.
+ *
+ * @author Eva Ray
+ */
+public class ConsistencyBenchmarkService extends AbstractBenchmarkService {
+
+    private static final String COLLECTION = "business";
+    // Number of distinct documents updated by the background writes and the reads of the benchmark
+    private static final int ROTATING_KEYS = 1000;
+
+    /**
+     * The measurements of the benchmark, before the index information is added.
+     *
+     * @param visibilityLag the visibility lags of the writes
+     * @param readLatencies the read latencies of each query and scan consistency
+     */
+    private record Measurements(LatencyStats visibilityLag, Map<QueryType, Map<String, LatencyStats>> readLatencies) {
+    }
+
+    /**
+     * Constructs a {@code ConsistencyBenchmarkService} with a default console logger.
+     */
+    public ConsistencyBenchmarkService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs a {@code ConsistencyBenchmarkService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public ConsistencyBenchmarkService(QueryFactory queryFactory, WorkloadFactory workloadFactory,
+                                       BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Runs a consistency benchmark on Couchbase.
+     *
+     * @param request the consistency request
+     * @return a map containing the consistency result of Couchbase
+     * @throws IllegalArgumentException if Couchbase is not selected, if a selected query is a write query, if a
+     *                                  number is not positive or if no index of the request leads with the probe
+     *                                  field
+     */
+    public Map<DBType, ConsistencyResult> runConsistencyBenchmark(ConsistencyRequest request) {
+        if (!request.getSelectedDatabases().contains(DBType.COUCHBASE)) {
+            throw new IllegalArgumentException("Consistency benchmarks measure the Couchbase secondary indexes, "
+                    + "Couchbase must be selected");
+        }
+        if (request.getSelectedQueries().stream().anyMatch(QueryType::isWrite)) {
+            throw new IllegalArgumentException("The selected queries of a consistency benchmark must be read queries");
+        }
+        if (request.getNumberOfExecutions() <= 0 || request.getBackgroundWriteRate() <= 0
+                || request.getVisibilityTimeoutMs() <= 0 || request.getPollIntervalMs() <= 0) {
+            throw new IllegalArgumentException("The number of executions, the background write rate, the "
+                    + "visibility timeout and the poll interval must be positive");
+        }
+        List<Index> indexList = getIndexes(request.getIndexes(), DBType.COUCHBASE);
+        Index probeIndex = findProbeIndex(indexList, request.getProbeField());
+
+        logger.logHeader("CONSISTENCY BENCHMARK");
+        if (request.getSelectedDatabases().size() > 1) {
+            logger.log("PostgreSQL indexes are updated synchronously, only Couchbase is measured");
+        }
+
+        CouchbaseManager manager = (CouchbaseManager) getManager(DBType.COUCHBASE);
+        Map<DBType, ConsistencyResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+
+        BenchmarkTask<Measurements> task = (scope) -> {
+            AtomicBoolean done = new AtomicBoolean(false);
+            // The UPSERT query writes into the business collection with the write key prefix, so its snapshot
+            // deletes the written documents
+            try (DatasetSnapshot snapshot = manager.snapshot(scope,
+                    List.of(queryFactory.getQuery(DBType.COUCHBASE, QueryType.UPSERT)));
+                 CouchbaseSession session = manager.openSession(scope)) {
+                CompletableFuture<Void> background = startBackgroundWrites(manager, scope, request, done);
+                try {
+                    LatencyStats visibilityLag = measureVisibility(session, request, probeIndex);
+
+                    Map<QueryType, Map<String, LatencyStats>> readLatencies = new LinkedHashMap<>();
+                    for (QueryType queryType : request.getSelectedQueries()) {
+                        String statement = queryFactory.getQuery(DBType.COUCHBASE, queryType).getQuery();
+                        Map<String, LatencyStats> latencies = new LinkedHashMap<>();
+                        for (ScanConsistency consistency : request.getScanConsistencies()) {
+                            logger.log("Running " + queryType.getName() + " with scan consistency " + consistency.getName());
+                            latencies.put(consistency.getName(), measureReads(session, statement, consistency, request));
+                        }
+                        readLatencies.put(queryType, latencies);
+                    }
+                    return new Measurements(visibilityLag, readLatencies);
+                } finally {
+                    done.set(true);
+                    background.join();
+                }
+            }
+        };
+
+        executeBenchmarkForManager(manager, request.getSelectedSize(), indexList, task)
+                .ifPresent(res -> results.put(DBType.COUCHBASE, new ConsistencyResult(res.indexInfo(),
+                        res.taskResult().visibilityLag(), request.getPollIntervalMs(),
+                        res.taskResult().readLatencies())));
+        logger.logEnd();
+        return results;
+    }
+
+    /**
+     * Returns the index of the request whose first key is the probe field, so that the probes measure the lag of
+     * a secondary index rather than of the primary index.
+     *
+     * @param indexList  the Couchbase indexes of the request
+     * @param probeField the probe field
+     * @return the index of the probe field
+     * @throws IllegalArgumentException if no index of the business collection leads with the probe field
+     */
+    private Index findProbeIndex(List<Index> indexList, String probeField) {
+        return indexList.stream()
+                .filter(index -> COLLECTION.equals(index.getTable()))
+                .filter(index -> index.getFields() != null && !index.getFields().isEmpty()
+                        && index.getFields().getFirst().replace("`", "").equals(probeField))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("The Couchbase indexes of a consistency benchmark "
+                        + "must contain an index on " + COLLECTION + " whose first field is the probe field "
+                        + probeField));
+    }
+
+    /**
+     * Starts the background writes, which update a rotating set of documents at the requested rate until the
+     * benchmark is done.
+     *
+     * @param manager the Couchbase manager
+     * @param scope   the scope of the benchmark
+     * @param request the consistency request
+     * @param done    tells the writes to stop
+     * @return the future completed when the writes are stopped
+     */
+    private CompletableFuture<Void> startBackgroundWrites(CouchbaseManager manager, String scope,
+                                                          ConsistencyRequest request, AtomicBoolean done) {
+        logger.log("Starting background writes at " + request.getBackgroundWriteRate() + " per second");
+        return CompletableFuture.runAsync(() -> {
+            try {
+                new LoadGenerator(1, request.getBackgroundWriteRate()).run(
+                        () -> manager.openSession(scope),
+                        (session, index) -> write(session, "background_" + index % ROTATING_KEYS,
+                                request.getProbeField(), QueryFactory.WRITE_KEY_PREFIX + "background"),
+                        0,
+                        () -> !done.get(),
+                        () -> {
+                        });
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    /**
+     * Measures the visibility lag of writes. Each probe writes a document with a unique value of the probe field,
+     * and polls the index of the probe field with {@code not_bounded} queries until the document is returned,
+     * waiting for the poll interval between two queries.
+     *
+     * @param session    the Couchbase session
+     * @param request    the consistency request
+     * @param probeIndex the index of the probe field
+     * @return the visibility lags, the probes that are not visible before the timeout being errors
+     */
+    private LatencyStats measureVisibility(CouchbaseSession session, ConsistencyRequest request, Index probeIndex) {
+        logger.log("Measuring the visibility lag of " + request.getNumberOfExecutions() + " writes, polling every "
+                + request.getPollIntervalMs() + " ms");
+        String statement = "SELECT RAW META(c).id FROM `" + COLLECTION + "` c USE INDEX (`" + probeIndex.getName()
+                + "`) WHERE c.`" + request.getProbeField() + "` = $value";
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(request.getVisibilityTimeoutMs());
+
+        double[] lags = new double[request.getNumberOfExecutions()];
+        int visible = 0;
+        long errors = 0;
+        double totalTimeMs = 0;
+
+        for (int i = 0; i < request.getNumberOfExecutions(); i++) {
+            String value = QueryFactory.WRITE_KEY_PREFIX + "probe_" + i;
+            QueryOptions options = QueryOptions.queryOptions()
+                    .adhoc(false)
+                    .scanConsistency(QueryScanConsistency.NOT_BOUNDED)
+                    .timeout(Duration.ofSeconds(30))
+                    .parameters(JsonObject.create().put("value", value));
+            try {
+                write(session, "probe_" + i, request.getProbeField(), value);
+                long written = System.nanoTime();
+                boolean found = false;
+                while (System.nanoTime() - written < timeoutNanos) {
+                    found = !session.getScope().query(statement, options).rowsAs(String.class).isEmpty();
+                    if (found) {
+                        break;
+                    }
+                    Thread.sleep(request.getPollIntervalMs());
+                }
+                double elapsedMs = (System.nanoTime() - written) / 1_000_000.0;
+                if (found) {
+                    lags[visible++] = elapsedMs;
+                    totalTimeMs += elapsedMs;
+                } else {
+                    errors++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                if (errors++ == 0) {
+                    System.err.println("Error during visibility probe: " + e.getMessage());
+                }
+            }
+        }
+        return LatencyStats.of(Arrays.copyOf(lags, visible), errors, totalTimeMs);
+    }
+
+    /**
+     * Measures the latency of a query executed with a scan consistency. Each read follows a write of the session,
+     * whose mutation token is used by the {@code at_plus} consistency. The first read only warms up the query.
+     *
+     * @param session     the Couchbase session
+     * @param statement   the N1QL statement of the query
+     * @param consistency the scan consistency
+     * @param request     the consistency request
+     * @return the latencies of the reads
+     */
+    private LatencyStats measureReads(CouchbaseSession session, String statement, ScanConsistency consistency,
+                                      ConsistencyRequest request) {
+        double[] latencies = new double[request.getNumberOfExecutions()];
+        int succeeded = 0;
+        long errors = 0;
+        double totalTimeMs = 0;
+
+        for (int i = -1; i < request.getNumberOfExecutions(); i++) {
+            try {
+                MutationToken token = write(session, "session_" + Math.floorMod(i, ROTATING_KEYS),
+                        request.getProbeField(), QueryFactory.WRITE_KEY_PREFIX + "session");
+                QueryOptions options = QueryOptions.queryOptions().timeout(Duration.ofMinutes(10));
+                switch (consistency) {
+                    case NOT_BOUNDED -> options.scanConsistency(QueryScanConsistency.NOT_BOUNDED);
+                    case REQUEST_PLUS -> options.scanConsistency(QueryScanConsistency.REQUEST_PLUS);
+                    case AT_PLUS -> options.consistentWith(MutationState.from(token));
+                }
+
+                long start = System.nanoTime();
+                session.getScope().query(statement, options).rowsAsObject();
+                double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+                if (i >= 0) {
+                    latencies[succeeded++] = elapsedMs;
+                    totalTimeMs += elapsedMs;
+                }
+            } catch (Exception e) {
+                if (i >= 0 && errors++ == 0) {
+                    System.err.println("Error during read: " + e.getMessage());
+                }
+            }
+        }
+        return LatencyStats.of(Arrays.copyOf(latencies, succeeded), errors, totalTimeMs);
+    }
+
+    /**
+     * Writes a benchmark business document.
+     *
+     * @param session    the Couchbase session
+     * @param keySuffix  the suffix of the key, after the write key prefix
+     * @param probeField the field holding the value
+     * @param value      the value of the probe field
+     * @return the mutation token of the write
+     * @throws IllegalStateException if the bucket does not return mutation tokens
+     */
+    private MutationToken write(CouchbaseSession session, String keySuffix, String probeField, String value) {
+        Collection collection = session.getScope().collection(COLLECTION);
+        String key = QueryFactory.WRITE_KEY_PREFIX + "consistency_" + keySuffix;
+        JsonObject content = JsonObject.create()
+                .put("business_id", key)
+                .put("name", "Benchmark business")
+                .put("stars", 4.5)
+                .put("review_count", 0)
+                .put("is_open", 1)
+                .put(probeField, value);
+        return collection.upsert(key, content).mutationToken()
+                .orElseThrow(() -> new IllegalStateException("The bucket does not return mutation tokens"));
+    }
+}
@@ -0,0 +1,167 @@
+package backend.service;
+
+import backend.database.CouchbaseManager;
+import backend.database.DatabaseManager;
+import backend.model.options.DBType;
+import backend.model.options.QueryType;
+import backend.model.query.Query;
+import backend.model.query.QueryFactory;
+import backend.model.request.CoveringIndexRequest;
+import backend.model.request.Index;
+import backend.model.result.CoveringIndexAdvice;
+import backend.model.result.CoveringIndexResult;
+import backend.model.result.CoveringOpportunity;
+import backend.model.workload.WorkloadFactory;
+import backend.service.index.IndexStateManager;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+import backend.service.plan.CoveringIndexDetector;
+
+import java.util.*;
+
+/**
+ * {@code CoveringIndexService} looks for the Couchbase queries that spend their time fetching documents after an
+ * index scan, and measures the speedup of a covering index. Each query is measured with the common indexes of
+ * the request, then the {@link CoveringIndexDetector} finds the fetches in its profile and generates a covering
+ * index candidate for each of them. When the fetches take at least the minimum share of the time of the query,
+ * the candidates replace the indexes they extend and the query is measured again.
+ * <p>
+ * The indexes are created and dropped through an {@link IndexStateManager}, so that the common indexes are only
+ * built once for all the queries.
+ *
+ * @author Eva Ray
+ */
+public class CoveringIndexService extends AbstractBenchmarkService {
+
+    /**
+     * Constructs a {@code CoveringIndexService} with a default console logger.
+     */
+    public CoveringIndexService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs a {@code CoveringIndexService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public CoveringIndexService(QueryFactory queryFactory, WorkloadFactory workloadFactory, BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Runs a covering index benchmark on the selected databases.
+     *
+     * @param request the covering index request
+     * @return a map of covering index results per database type
+     * @throws IllegalArgumentException if a selected database is not Couchbase, if a selected query is a write
+     *                                  query, or if a number is out of range
+     */
+    public Map<DBType, CoveringIndexResult> runCoveringIndexBenchmark(CoveringIndexRequest request) {
+        if (request.getSelectedDatabases().stream().anyMatch(type -> type != DBType.COUCHBASE)) {
+            throw new IllegalArgumentException("The covering index benchmark only supports Couchbase");
+        }
+        if (request.getSelectedQueries() == null || request.getSelectedQueries().isEmpty()
+                || request.getSelectedQueries().stream().anyMatch(QueryType::isWrite)) {
+            throw new IllegalArgumentException("The covering index benchmark needs at least one read query");
+        }
+        if (request.getNumberOfExecutions() <= 0 || request.getMinFetchShare() < 0 || request.getMinFetchShare() > 100) {
+            throw new IllegalArgumentException("The number of executions must be positive and the minimum fetch "
+                    + "share must be between 0 and 100");
+        }
+
+        logger.logHeader("COVERING INDEXES");
+
+        Map<DBType, CoveringIndexResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+
+        for (DatabaseManager manager : getManagers(request.getSelectedDatabases())) {
+            CouchbaseManager couchbaseManager = (CouchbaseManager) manager;
+            List<Index> indexList = getIndexes(request.getIndexes(), manager.getType());
+
+            BenchmarkTask<Map<QueryType, CoveringIndexAdvice>> task = (scope) -> {
+                Map<QueryType, CoveringIndexAdvice> advice = new LinkedHashMap<>();
+                IndexStateManager indexState = new IndexStateManager(manager, scope);
+                try {
+                    for (QueryType queryType : request.getSelectedQueries()) {
+                        advice.put(queryType, adviseQuery(couchbaseManager, scope, queryType, indexList, indexState,
+                                request));
+                    }
+                } finally {
+                    indexState.release();
+                }
+                return advice;
+            };
+
+            // The indexes of the request are built by the index state manager
+            executeBenchmarkForManager(manager, request.getSelectedSize(), List.of(), task, null,
+                    getSettings(request.getSettings(), manager.getType()))
+                    .ifPresent(res -> results.put(
+                            manager.getType(),
+                            new CoveringIndexResult(request.getSelectedSize(), res.taskResult())
+                    ));
+        }
+        logger.logEnd();
+        return results;
+    }
+
+    /**
+     * Measures a query with the common indexes, detects its fetches, and measures it again with covering indexes
+     * if the fetches take enough of its time.
+     *
+     * @param manager    the Couchbase manager
+     * @param scope      the scope of the benchmark
+     * @param queryType  the query to advise
+     * @param indexList  the common indexes of the request
+     * @param indexState the index state manager of the scope
+     * @param request    the covering index request
+     * @return the covering index advice of the query
+     * @throws Exception if the query cannot be measured with the common indexes
+     */
+    private CoveringIndexAdvice adviseQuery(CouchbaseManager manager, String scope, QueryType queryType,
+                                            List<Index> indexList, IndexStateManager indexState,
+                                            CoveringIndexRequest request) throws Exception {
+        Query query = queryFactory.getQuery(manager.getType(), queryType);
+        int executions = request.getNumberOfExecutions();
+
+        logger.log("Measuring " + queryType.getName() + " with the indexes of the request");
+        indexState.apply(indexList);
+        double baselineLatency = manager.run(query, executions, scope, indexList).getAvgExecutionTime();
+
+        List<CoveringOpportunity> opportunities = CoveringIndexDetector.detect(manager.profile(scope, query), indexList);
+        List<CoveringOpportunity> selected = opportunities.stream()
+                .filter(o -> o.getCandidate() != null && o.getFetchShare() >= request.getMinFetchShare())
+                .toList();
+        logger.log(opportunities.size() + " fetches after an index scan found in " + queryType.getName() + ", "
+                + selected.size() + " with a covering candidate and a fetch share of at least "
+                + request.getMinFetchShare() + "%");
+        if (selected.isEmpty()) {
+            return new CoveringIndexAdvice(baselineLatency, opportunities, null, null);
+        }
+
+        // The covering indexes replace the indexes they extend, so that the query cannot use the latter
+        Set<String> replaced = new HashSet<>();
+        selected.forEach(o -> replaced.add(o.getScannedIndex()));
+        List<Index> covering = new ArrayList<>(indexList.stream()
+                .filter(index -> !replaced.contains(index.getName()))
+                .toList());
+        selected.forEach(o -> covering.add(o.getCandidate()));
+
+        try {
+            logger.log("Measuring " + queryType.getName() + " with the covering indexes "
+                    + selected.stream().map(o -> o.getCandidate().getName()).toList());
+            indexState.apply(covering);
+            double coveringLatency = manager.run(query, executions, scope, covering).getAvgExecutionTime();
+            double remainingFetchShare = CoveringIndexDetector.fetchShare(manager.profile(scope, query));
+            CoveringIndexAdvice advice = new CoveringIndexAdvice(baselineLatency, opportunities, coveringLatency,
+                    remainingFetchShare);
+            logger.log("Speedup of the covering indexes for " + queryType.getName() + ": " + advice.getSpeedup()
+                    + "x, " + advice.getRemainingFetchShare() + "% of the time still spent fetching");
+            return advice;
+        } catch (Exception e) {
+            logger.logError("The covering indexes of " + queryType.getName() + " could not be measured", e);
+            return new CoveringIndexAdvice(baselineLatency, opportunities, null, null);
+        }
+    }
+}
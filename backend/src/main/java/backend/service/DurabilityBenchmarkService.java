@@ -0,0 +1,198 @@
+package backend.service;
+
+import backend.database.*;
+import backend.model.options.DBType;
+import backend.model.options.DurabilityLevel;
+import backend.model.options.QueryType;
+import backend.model.options.SynchronousCommit;
+import backend.model.query.Query;
+import backend.model.query.QueryFactory;
+import backend.model.request.DurabilityRequest;
+import backend.model.request.Index;
+import backend.model.result.DurabilityResult;
+import backend.model.result.DurabilitySetting;
+import backend.model.result.LatencyStats;
+import backend.model.workload.WorkloadFactory;
+import backend.service.load.LoadGenerator;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+/**
+ * {@code DurabilityBenchmarkService} measures the price of durability for write queries. Unlike the other
+ * benchmarks, the writes are committed, so that the commit itself is measured:
+ * <ul>
+ *     <li>Couchbase executes the write query with each durability level.</li>
+ *     <li>PostgreSQL executes the write query with each {@code synchronous_commit} value and commit batch size,
+ *     a transaction containing one batch of writes.</li>
+ * </ul>
+ * Only the write queries that insert rows or documents with a known key prefix are accepted, so that the
+ * committed writes can be deleted once the benchmark is done.
+ *
+ * @author Eva Ray
+ */
+public class DurabilityBenchmarkService extends AbstractBenchmarkService {
+
+    /**
+     * Constructs a {@code DurabilityBenchmarkService} with a default console logger.
+     */
+    public DurabilityBenchmarkService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs a {@code DurabilityBenchmarkService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public DurabilityBenchmarkService(QueryFactory queryFactory, WorkloadFactory workloadFactory,
+                                      BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Runs a durability benchmark on the selected databases.
+     *
+     * @param request the durability request
+     * @return a map of durability results per database type
+     * @throws IllegalArgumentException if the selected query is not an INSERT or an UPSERT, if the number of
+     *                                  executions or a batch size is not positive, or if the Couchbase bucket
+     *                                  cannot satisfy a durability level
+     */
+    public Map<DBType, DurabilityResult> runDurabilityBenchmark(DurabilityRequest request) {
+        QueryType queryType = request.getSelectedQuery();
+        if (queryType != QueryType.INSERT && queryType != QueryType.UPSERT) {
+            throw new IllegalArgumentException("Durability benchmarks commit their writes, only INSERT and UPSERT "
+                    + "queries can be cleaned up afterwards");
+        }
+        if (request.getNumberOfExecutions() <= 0) {
+            throw new IllegalArgumentException("The number of executions must be positive");
+        }
+        if (request.getCommitBatchSizes().stream().anyMatch(size -> size <= 0)) {
+            throw new IllegalArgumentException("The commit batch sizes must be positive");
+        }
+        List<DatabaseManager> managers = getManagers(request.getSelectedDatabases());
+        for (DatabaseManager manager : managers) {
+            if (manager instanceof CouchbaseManager couchbaseManager) {
+                request.getDurabilityLevels().forEach(couchbaseManager::checkDurability);
+            }
+        }
+
+        logger.logHeader("DURABILITY BENCHMARK (" + queryType.getName() + ")");
+
+        Map<DBType, DurabilityResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+
+        for (DatabaseManager manager : managers) {
+            List<Index> indexList = getIndexes(request.getIndexes(), manager.getType());
+            Query query = queryFactory.getQuery(manager.getType(), queryType);
+
+            BenchmarkTask<List<DurabilitySetting>> task = (scope) -> {
+                List<DurabilitySetting> settings = new ArrayList<>();
+                // The committed writes are deleted when the snapshot is closed
+                try (DatasetSnapshot snapshot = manager.snapshot(scope, List.of(query))) {
+                    manager.warmup(query, scope);
+
+                    if (manager instanceof CouchbaseManager couchbaseManager) {
+                        for (DurabilityLevel level : request.getDurabilityLevels()) {
+                            settings.add(runCouchbase(couchbaseManager, scope, query, level, request));
+                        }
+                    } else if (manager instanceof PGManager pgManager) {
+                        for (SynchronousCommit mode : request.getSynchronousCommits()) {
+                            for (int batchSize : request.getCommitBatchSizes()) {
+                                settings.add(runPostgres(pgManager, scope, query, mode, batchSize, request));
+                            }
+                        }
+                    }
+                }
+                return settings;
+            };
+
+            executeBenchmarkForManager(manager, request.getSelectedSize(), indexList, task)
+                    .ifPresent(res -> results.put(
+                            manager.getType(),
+                            new DurabilityResult(res.indexInfo(), res.taskResult())
+                    ));
+        }
+        logger.logEnd();
+        return results;
+    }
+
+    /**
+     * Executes the write query on Couchbase with a durability level. Each write is committed on its own.
+     *
+     * @param manager the Couchbase manager
+     * @param scope   the scope of the benchmark
+     * @param query   the write query
+     * @param level   the durability level
+     * @param request the durability request
+     * @return the measurements of the durability level
+     * @throws Exception if the load cannot be generated
+     */
+    private DurabilitySetting runCouchbase(CouchbaseManager manager, String scope, Query query,
+                                           DurabilityLevel level, DurabilityRequest request) throws Exception {
+        logger.log("Running Couchbase writes with durability level " + level.getName());
+
+        LatencyStats stats = new LoadGenerator(request.getConcurrency(), 0).run(
+                // The query service applies the durability level to every mutation of the statement
+                () -> manager.openSession(scope, options -> options.raw("durability_level", level.getName())),
+                (session, index) -> session.execute(query),
+                request.getNumberOfExecutions()
+        ).toStats();
+
+        return new DurabilitySetting("durability_level=" + level.getName(), 1, stats);
+    }
+
+    /**
+     * Executes the write query on PostgreSQL with a {@code synchronous_commit} value. Each transaction executes
+     * a batch of writes and commits them.
+     *
+     * @param manager   the PostgreSQL manager
+     * @param scope     the scope of the benchmark
+     * @param query     the write query
+     * @param mode      the synchronous commit value
+     * @param batchSize the number of writes per transaction
+     * @param request   the durability request
+     * @return the measurements of the setting
+     * @throws Exception if the load cannot be generated
+     */
+    private DurabilitySetting runPostgres(PGManager manager, String scope, Query query, SynchronousCommit mode,
+                                          int batchSize, DurabilityRequest request) throws Exception {
+        logger.log("Running " + manager.getType().getName() + " writes with synchronous_commit=" + mode.getName()
+                + " and " + batchSize + " writes per commit");
+
+        LatencyStats stats = new LoadGenerator(request.getConcurrency(), 0).run(
+                () -> {
+                    PGSession session = manager.openSession(scope);
+                    Connection conn = session.getConnection();
+                    try (PreparedStatement pstmt = conn.prepareStatement("SELECT set_config('synchronous_commit', ?, false)")) {
+                        pstmt.setString(1, mode.getName());
+                        pstmt.execute();
+                    }
+                    conn.setAutoCommit(false);
+                    return session;
+                },
+                (session, index) -> {
+                    Connection conn = session.getConnection();
+                    try (Statement stmt = conn.createStatement()) {
+                        for (int i = 0; i < batchSize; i++) {
+                            stmt.execute(query.getQuery());
+                        }
+                        conn.commit();
+                    } catch (SQLException e) {
+                        conn.rollback();
+                        throw e;
+                    }
+                },
+                request.getNumberOfExecutions()
+        ).toStats();
+
+        return new DurabilitySetting("synchronous_commit=" + mode.getName(), batchSize, stats);
+    }
+}
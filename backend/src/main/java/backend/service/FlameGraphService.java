@@ -0,0 +1,76 @@
+package backend.service;
+
+import backend.model.options.DBType;
+import backend.model.request.FlameGraphDiffRequest;
+import backend.service.plan.FlameGraphExporter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * {@code FlameGraphService} exports the query plans of benchmark results as flame graphs in the collapsed-stack
+ * format, weighted by the exclusive time of each operator, and compares the plans of two results as a
+ * differential flame graph. It works on the JSON results returned by the benchmark endpoints, so that results
+ * saved by the frontend can be exported later.
+ *
+ * @author Eva Ray
+ */
+public class FlameGraphService {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    /**
+     * Exports the plans of benchmark results as collapsed stacks.
+     *
+     * @param benchmarkJson the benchmark results in JSON format
+     * @param categories    whether the frames are operator categories rather than native operator names
+     * @return the collapsed-stack text
+     * @throws IOException              if the results are not valid JSON
+     * @throws IllegalArgumentException if the results contain no plan
+     */
+    public String exportFlameGraph(String benchmarkJson, boolean categories) throws IOException {
+        String stacks = FlameGraphExporter.format(FlameGraphExporter.collapse(mapper.readTree(benchmarkJson),
+                categories));
+        if (stacks.isEmpty()) {
+            throw new IllegalArgumentException("The results contain no query plan");
+        }
+        return stacks;
+    }
+
+    /**
+     * Exports the difference between the plans of two benchmark results as differential collapsed stacks.
+     *
+     * @param request the differential flame graph request
+     * @return the differential collapsed-stack text
+     * @throws IllegalArgumentException if a side is missing, if a selected database is not in its results or if
+     *                                  the results contain no plan
+     */
+    public String exportDifferentialFlameGraph(FlameGraphDiffRequest request) {
+        if (request.getBefore() == null || request.getAfter() == null) {
+            throw new IllegalArgumentException("A differential flame graph needs before and after results");
+        }
+        JsonNode before = select(request.getBefore(), request.getBeforeDatabase());
+        JsonNode after = select(request.getAfter(), request.getAfterDatabase());
+
+        String stacks = FlameGraphExporter.formatDiff(FlameGraphExporter.collapse(before, request.isCategories()),
+                FlameGraphExporter.collapse(after, request.isCategories()));
+        if (stacks.isEmpty()) {
+            throw new IllegalArgumentException("The results contain no query plan");
+        }
+        return stacks;
+    }
+
+    /**
+     * Returns the results of one database, or all the results if no database is selected.
+     */
+    private JsonNode select(JsonNode results, DBType database) {
+        if (database == null) {
+            return results;
+        }
+        if (!results.has(database.name())) {
+            throw new IllegalArgumentException("The results contain no result for " + database.getName());
+        }
+        return results.get(database.name());
+    }
+}
@@ -0,0 +1,196 @@
+package backend.service;
+
+import backend.database.DatabaseManager;
+import backend.model.metadata.IndexCandidate;
+import backend.model.metadata.IndexInfo;
+import backend.model.options.DBType;
+import backend.model.options.QueryType;
+import backend.model.query.Query;
+import backend.model.query.QueryFactory;
+import backend.model.request.AdvisorRequest;
+import backend.model.request.Index;
+import backend.model.result.AdvisorResult;
+import backend.model.result.CandidateMeasurement;
+import backend.model.result.IndexAdvice;
+import backend.model.result.Result;
+import backend.model.workload.WorkloadFactory;
+import backend.service.index.IndexStateManager;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+
+import java.util.*;
+
+/**
+ * {@code IndexAdvisorService} recommends indexes for the predefined queries. For each query, the database proposes
+ * candidate indexes: Couchbase with its {@code ADVISE} statement, PostgreSQL from the sequential scans of the plan,
+ * filtered with hypothetical indexes when the {@code hypopg} extension is available. Each candidate is then built
+ * and measured on its own, and the candidates are ranked by latency gain per MB of index.
+ * <p>
+ * The baselines and the candidates of every query are obtained before any candidate is built. The candidates are
+ * then created and dropped through an {@link IndexStateManager}, one at a time, and each candidate is measured with
+ * every query that recommended it, so that a candidate recommended for several queries is only built once.
+ *
+ * @author Eva Ray
+ */
+public class IndexAdvisorService extends AbstractBenchmarkService {
+
+    /**
+     * Constructs an {@code IndexAdvisorService} with a default console logger.
+     */
+    public IndexAdvisorService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs an {@code IndexAdvisorService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public IndexAdvisorService(QueryFactory queryFactory, WorkloadFactory workloadFactory, BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Runs an index advisor benchmark on the selected databases.
+     *
+     * @param request the advisor request
+     * @return a map of advisor results per database type
+     * @throws IllegalArgumentException if a selected query is a write query or if a number is not positive
+     */
+    public Map<DBType, AdvisorResult> runAdvisorBenchmark(AdvisorRequest request) {
+        if (request.getSelectedQueries().stream().anyMatch(QueryType::isWrite)) {
+            throw new IllegalArgumentException("The index advisor only supports read queries");
+        }
+        if (request.getNumberOfExecutions() <= 0 || request.getMaxCandidates() <= 0) {
+            throw new IllegalArgumentException("The number of executions and the maximum number of candidates must be positive");
+        }
+
+        logger.logHeader("INDEX ADVISOR");
+
+        Map<DBType, AdvisorResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+
+        for (DatabaseManager manager : getManagers(request.getSelectedDatabases())) {
+            BenchmarkTask<Map<QueryType, IndexAdvice>> task = (scope) -> {
+                IndexStateManager indexState = new IndexStateManager(manager, scope);
+                try {
+                    return advise(manager, scope, indexState, request);
+                } finally {
+                    indexState.release();
+                }
+            };
+
+            // The advisor starts from a scope without benchmark indexes
+            executeBenchmarkForManager(manager, request.getSelectedSize(), List.of(), task, null,
+                    getSettings(request.getSettings(), manager.getType()))
+                    .ifPresent(res -> results.put(
+                            manager.getType(),
+                            new AdvisorResult(request.getSelectedSize(), res.taskResult())
+                    ));
+        }
+        logger.logEnd();
+        return results;
+    }
+
+    /**
+     * A candidate index recommended for a query.
+     */
+    private record Recommendation(QueryType queryType, IndexCandidate candidate) {
+    }
+
+    /**
+     * Measures the selected queries without benchmark index and collects their candidate indexes, then measures
+     * the queries with each of their candidates, and ranks the candidates of each query.
+     *
+     * @param manager    the database manager
+     * @param scope      the scope of the benchmark
+     * @param indexState the index state manager of the scope
+     * @param request    the advisor request
+     * @return the index advice of each query
+     * @throws Exception if a query cannot be measured without benchmark index
+     */
+    private Map<QueryType, IndexAdvice> advise(DatabaseManager manager, String scope, IndexStateManager indexState,
+                                               AdvisorRequest request) throws Exception {
+        int executions = request.getNumberOfExecutions();
+        Map<QueryType, Query> queries = new LinkedHashMap<>();
+        Map<QueryType, Double> baselineLatencies = new LinkedHashMap<>();
+        // The recommendations of the same candidate for several queries, by signature of the candidate
+        Map<String, List<Recommendation>> recommendations = new LinkedHashMap<>();
+
+        for (QueryType queryType : request.getSelectedQueries()) {
+            Query query = queryFactory.getQuery(manager.getType(), queryType);
+            queries.put(queryType, query);
+
+            logger.log("Measuring " + queryType.getName() + " without benchmark index");
+            baselineLatencies.put(queryType, manager.run(query, executions, scope, List.of()).getAvgExecutionTime());
+
+            List<IndexCandidate> candidates = manager.adviseIndexes(scope, query);
+            logger.log(candidates.size() + " candidate indexes recommended for " + queryType.getName());
+            if (candidates.size() > request.getMaxCandidates()) {
+                candidates = candidates.subList(0, request.getMaxCandidates());
+            }
+            for (IndexCandidate candidate : candidates) {
+                recommendations.computeIfAbsent(IndexStateManager.signature(candidate.getIndex()),
+                        signature -> new ArrayList<>()).add(new Recommendation(queryType, candidate));
+            }
+        }
+
+        Map<QueryType, List<CandidateMeasurement>> measurements = new LinkedHashMap<>();
+        queries.keySet().forEach(queryType -> measurements.put(queryType, new ArrayList<>()));
+        for (List<Recommendation> sameCandidate : recommendations.values()) {
+            for (Recommendation recommendation : sameCandidate) {
+                QueryType queryType = recommendation.queryType();
+                Index index = recommendation.candidate().getIndex();
+                try {
+                    logger.log("Measuring " + queryType.getName() + " with candidate " + index.getName()
+                            + " on " + index.getTable() + index.getFields());
+                    indexState.apply(List.of(index));
+                    Result result = manager.run(queries.get(queryType), executions, scope, List.of(index));
+
+                    IndexInfo info = manager.getIndexesInfo(scope).stream()
+                            .filter(i -> i.getIndexName().equals(index.getName()))
+                            .findFirst()
+                            .orElse(null);
+                    measurements.get(queryType).add(new CandidateMeasurement(recommendation.candidate(),
+                            result.getAvgExecutionTime(), baselineLatencies.get(queryType),
+                            info != null ? info.getIndexSize() : null,
+                            info != null ? info.getIndexBytes() : 0,
+                            info != null ? info.getBuildTime() : null));
+                } catch (Exception e) {
+                    logger.logError("Candidate " + index.getName() + " could not be measured for "
+                            + queryType.getName(), e);
+                }
+            }
+        }
+
+        Map<QueryType, IndexAdvice> advice = new LinkedHashMap<>();
+        for (QueryType queryType : queries.keySet()) {
+            advice.put(queryType, rank(baselineLatencies.get(queryType), measurements.get(queryType), request));
+        }
+        return advice;
+    }
+
+    /**
+     * Ranks the measured candidates of a query and recommends the best candidate of each table.
+     *
+     * @param baselineLatency the average latency of the query without benchmark index, in ms
+     * @param measurements    the measured candidates of the query
+     * @param request         the advisor request
+     * @return the index advice of the query
+     */
+    private IndexAdvice rank(double baselineLatency, List<CandidateMeasurement> measurements, AdvisorRequest request) {
+        // The candidates whose size is unknown are not ranked and come last
+        measurements.sort(Comparator.comparing(CandidateMeasurement::getGainPerMB,
+                Comparator.nullsLast(Comparator.<Double>reverseOrder())));
+
+        // The best candidate of each table is recommended, if its gain is significant
+        Map<String, Index> recommended = new LinkedHashMap<>();
+        for (CandidateMeasurement measurement : measurements) {
+            if (measurement.getGainPercent() >= request.getMinGainPercent()) {
+                recommended.putIfAbsent(measurement.getIndex().getTable(), measurement.getIndex());
+            }
+        }
+        return new IndexAdvice(baselineLatency, measurements, new ArrayList<>(recommended.values()));
+    }
+}
@@ -0,0 +1,281 @@
+package backend.service;
+
+import backend.database.DatabaseManager;
+import backend.model.metadata.IndexInfo;
+import backend.model.options.DBType;
+import backend.model.options.QueryType;
+import backend.model.query.QueryFactory;
+import backend.model.request.Index;
+import backend.model.request.IndexSearchRequest;
+import backend.model.result.IndexConfiguration;
+import backend.model.result.IndexSearchResult;
+import backend.model.workload.Workload;
+import backend.model.workload.WorkloadFactory;
+import backend.service.index.IndexStateManager;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+
+import java.util.*;
+
+/**
+ * {@code IndexSearchService} looks for the combination of candidate indexes that minimises the latency of a
+ * workload under a storage budget. Each evaluated combination is built with an {@link IndexStateManager}, so that
+ * only the indexes that differ from the previous combination are created or dropped, and the whole workload is
+ * measured on it, write queries included, so that the maintenance cost of the indexes is part of the latency.
+ * <p>
+ * The search starts with a greedy phase, which repeatedly adds the candidate that lowers the workload latency the
+ * most while the combination fits in the budget, followed by a local search, which tries to remove an index or to
+ * swap an index for another candidate until no neighbour is faster. The number of evaluated combinations is
+ * bounded, and every evaluated combination is part of the latency-versus-size Pareto frontier computation.
+ *
+ * @author Eva Ray
+ */
+public class IndexSearchService extends AbstractBenchmarkService {
+
+    /**
+     * Constructs an {@code IndexSearchService} with a default console logger.
+     */
+    public IndexSearchService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs an {@code IndexSearchService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public IndexSearchService(QueryFactory queryFactory, WorkloadFactory workloadFactory, BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Evaluates combinations of indexes of one database, and keeps track of the evaluated combinations.
+     */
+    private class Evaluator {
+
+        private final DatabaseManager manager;
+        private final String scope;
+        private final Workload workload;
+        private final Map<String, Index> pool;
+        private final IndexStateManager indexState;
+        private final IndexSearchRequest request;
+        private final long budgetBytes;
+        // Size of each candidate in bytes, known once it has been built
+        private final Map<String, Long> sizes = new HashMap<>();
+        private final Map<Set<String>, IndexConfiguration> evaluated = new LinkedHashMap<>();
+
+        Evaluator(DatabaseManager manager, String scope, Workload workload, Map<String, Index> pool,
+                  IndexStateManager indexState, IndexSearchRequest request) {
+            this.manager = manager;
+            this.scope = scope;
+            this.workload = workload;
+            this.pool = pool;
+            this.indexState = indexState;
+            this.request = request;
+            this.budgetBytes = (long) (request.getStorageBudgetMB() * 1_000_000);
+        }
+
+        /**
+         * Returns whether a combination is known to exceed the budget, from the sizes of its built candidates.
+         */
+        boolean exceedsBudget(Set<String> names) {
+            return names.stream().mapToLong(name -> sizes.getOrDefault(name, 0L)).sum() > budgetBytes;
+        }
+
+        /**
+         * Returns whether the maximum number of evaluations is reached.
+         */
+        boolean exhausted() {
+            return evaluated.size() >= request.getMaxEvaluations();
+        }
+
+        /**
+         * Builds a combination of indexes and measures the workload on it. A combination is only measured once.
+         *
+         * @param names the names of the indexes of the combination
+         * @return the measured configuration, or null if the maximum number of evaluations is reached
+         * @throws Exception if a query of the workload cannot be measured
+         */
+        IndexConfiguration evaluate(Set<String> names) throws Exception {
+            Set<String> key = new TreeSet<>(names);
+            if (evaluated.containsKey(key)) {
+                return evaluated.get(key);
+            }
+            if (exhausted()) {
+                return null;
+            }
+
+            logger.log("Evaluating " + (key.isEmpty() ? "no index" : key));
+            List<Index> indexes = key.stream().map(pool::get).toList();
+            indexState.apply(indexes);
+            for (IndexInfo info : manager.getIndexesInfo(scope)) {
+                if (key.contains(info.getIndexName())) {
+                    sizes.put(info.getIndexName(), info.getIndexBytes());
+                }
+            }
+
+            Map<QueryType, Double> queryLatencies = new TreeMap<>(Comparator.comparing(QueryType::getName));
+            double weightedLatency = 0;
+            double totalRatio = 0;
+            for (QueryType queryType : workload.getQueryTypes()) {
+                double ratio = workload.getRatioForType(queryType);
+                int executions = (int) Math.ceil(request.getNumberOfExecutions() * ratio);
+                double latency = manager.run(queryFactory.getQuery(manager.getType(), queryType), executions, scope,
+                        indexes).getAvgExecutionTime();
+                queryLatencies.put(queryType, latency);
+                weightedLatency += ratio * latency;
+                totalRatio += ratio;
+            }
+
+            long bytes = key.stream().mapToLong(name -> sizes.getOrDefault(name, 0L)).sum();
+            IndexConfiguration configuration = new IndexConfiguration(new ArrayList<>(key), bytes,
+                    bytes <= budgetBytes, totalRatio > 0 ? weightedLatency / totalRatio : 0, queryLatencies);
+            evaluated.put(key, configuration);
+            logger.log("Workload latency: " + configuration.getWorkloadLatency() + " ms with "
+                    + configuration.getIndexMB() + " MB of indexes");
+            return configuration;
+        }
+
+        /**
+         * Returns whether a configuration is within the budget and faster than another one.
+         */
+        boolean improves(IndexConfiguration candidate, IndexConfiguration current) {
+            return candidate != null && candidate.isWithinBudget()
+                    && candidate.getWorkloadLatency() < current.getWorkloadLatency();
+        }
+    }
+
+    /**
+     * Runs an index search on the selected databases.
+     *
+     * @param request the index search request
+     * @return a map of index search results per database type
+     * @throws IllegalArgumentException if no workload is selected, if a number is not positive or if two
+     *                                  candidates of a database have the same name
+     */
+    public Map<DBType, IndexSearchResult> runIndexSearch(IndexSearchRequest request) {
+        if (request.getSelectedWorkload() == null) {
+            throw new IllegalArgumentException("An index search needs a selected workload");
+        }
+        if (request.getNumberOfExecutions() <= 0 || request.getStorageBudgetMB() <= 0 || request.getMaxEvaluations() <= 0) {
+            throw new IllegalArgumentException("The number of executions, the storage budget and the maximum number "
+                    + "of evaluations must be positive");
+        }
+
+        Workload workload = workloadFactory.getWorkload(request.getSelectedWorkload());
+        logger.logHeader("INDEX SEARCH (" + request.getSelectedWorkload().getName().toUpperCase() + ", "
+                + request.getStorageBudgetMB() + " MB)");
+
+        Map<DBType, IndexSearchResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+
+        for (DatabaseManager manager : getManagers(request.getSelectedDatabases())) {
+            Map<String, Index> pool = new LinkedHashMap<>();
+            for (Index index : getIndexes(request.getCandidates(), manager.getType())) {
+                if (pool.put(index.getName(), index) != null) {
+                    throw new IllegalArgumentException("Two candidates of " + manager.getType() + " are named "
+                            + index.getName());
+                }
+            }
+
+            BenchmarkTask<IndexSearchResult> task = (scope) -> {
+                IndexStateManager indexState = new IndexStateManager(manager, scope);
+                try {
+                    return search(new Evaluator(manager, scope, workload, pool, indexState, request));
+                } finally {
+                    indexState.release();
+                }
+            };
+
+            // The search starts from a scope without benchmark indexes
+            executeBenchmarkForManager(manager, request.getSelectedSize(), List.of(), task, null,
+                    getSettings(request.getSettings(), manager.getType()))
+                    .ifPresent(res -> results.put(manager.getType(), res.taskResult()));
+        }
+        logger.logEnd();
+        return results;
+    }
+
+    /**
+     * Searches the best combination of candidates with a greedy phase followed by a local search.
+     *
+     * @param evaluator the evaluator of the combinations
+     * @return the result of the search
+     * @throws Exception if a combination cannot be measured
+     */
+    private IndexSearchResult search(Evaluator evaluator) throws Exception {
+        IndexConfiguration baseline = evaluator.evaluate(Set.of());
+        IndexConfiguration current = baseline;
+
+        // Greedy phase: add the candidate that lowers the latency the most
+        logger.log("Greedy phase");
+        while (!evaluator.exhausted()) {
+            IndexConfiguration bestNext = null;
+            for (String candidate : evaluator.pool.keySet()) {
+                Set<String> next = new HashSet<>(current.getIndexes());
+                if (!next.add(candidate) || evaluator.exceedsBudget(next)) {
+                    continue;
+                }
+                IndexConfiguration configuration = evaluator.evaluate(next);
+                if (evaluator.improves(configuration, bestNext != null ? bestNext : current)) {
+                    bestNext = configuration;
+                }
+            }
+            if (bestNext == null) {
+                break;
+            }
+            current = bestNext;
+        }
+
+        // Local search: remove an index, or swap it for another candidate, while it lowers the latency
+        logger.log("Local search phase");
+        boolean improved = true;
+        while (improved && !evaluator.exhausted()) {
+            improved = false;
+            for (Set<String> neighbour : neighbours(current.getIndexes(), evaluator.pool.keySet())) {
+                if (evaluator.exceedsBudget(neighbour)) {
+                    continue;
+                }
+                IndexConfiguration configuration = evaluator.evaluate(neighbour);
+                if (evaluator.improves(configuration, current)) {
+                    current = configuration;
+                    improved = true;
+                    break;
+                }
+            }
+        }
+
+        List<IndexConfiguration> evaluations = new ArrayList<>(evaluator.evaluated.values());
+        List<IndexConfiguration> frontier = evaluations.stream()
+                .filter(configuration -> evaluations.stream().noneMatch(other -> other.dominates(configuration)))
+                .sorted(Comparator.comparingLong(IndexConfiguration::getIndexBytes))
+                .toList();
+        return new IndexSearchResult(baseline, current, frontier, evaluations);
+    }
+
+    /**
+     * Returns the neighbours of a combination for the local search: the combination without one of its indexes,
+     * and the combination with one of its indexes replaced by another candidate.
+     *
+     * @param current    the names of the indexes of the combination
+     * @param candidates the names of all the candidates
+     * @return the neighbour combinations
+     */
+    private List<Set<String>> neighbours(List<String> current, Set<String> candidates) {
+        List<Set<String>> neighbours = new ArrayList<>();
+        for (String removed : current) {
+            Set<String> without = new HashSet<>(current);
+            without.remove(removed);
+            neighbours.add(without);
+            for (String added : candidates) {
+                if (!current.contains(added)) {
+                    Set<String> swapped = new HashSet<>(without);
+                    swapped.add(added);
+                    neighbours.add(swapped);
+                }
+            }
+        }
+        return neighbours;
+    }
+}
@@ -0,0 +1,238 @@
+package backend.service;
+
+import backend.database.BenchmarkSession;
+import backend.database.DatabaseManager;
+import backend.database.DatasetSnapshot;
+import backend.model.options.DBType;
+import backend.model.options.QueryType;
+import backend.model.query.Query;
+import backend.model.query.QueryFactory;
+import backend.model.request.Index;
+import backend.model.request.InterferenceRequest;
+import backend.model.request.QueryClass;
+import backend.model.result.ClassInterference;
+import backend.model.result.InterferenceResult;
+import backend.model.result.LatencyStats;
+import backend.model.workload.WorkloadFactory;
+import backend.model.workload.WorkloadQuery;
+import backend.service.load.LoadGenerator;
+import backend.service.load.LoadResult;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@code InterferenceBenchmarkService} measures the interference between classes of queries that share the
+ * same database, for example analytical scans executed next to point lookups.
+ * <p>
+ * For each database, every class is first executed alone with its own concurrency and rate, then all the
+ * classes are executed at the same time. While some classes are still being measured, the classes that already
+ * recorded all their executions keep generating load, so that each class is measured under interference
+ * during its whole run.
+ *
+ * @author Eva Ray
+ */
+public class InterferenceBenchmarkService extends AbstractBenchmarkService {
+
+    /**
+     * Constructs a {@code InterferenceBenchmarkService} with a default console logger.
+     */
+    public InterferenceBenchmarkService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs a {@code InterferenceBenchmarkService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public InterferenceBenchmarkService(QueryFactory queryFactory, WorkloadFactory workloadFactory,
+                                        BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Runs an interference benchmark on the selected databases.
+     *
+     * @param request the interference request
+     * @return a map of interference results per database type
+     * @throws IllegalArgumentException if less than two query classes are defined
+     */
+    public Map<DBType, InterferenceResult> runInterferenceBenchmark(InterferenceRequest request) {
+        List<QueryClass> classes = request.getQueryClasses();
+        if (classes == null || classes.size() < 2) {
+            throw new IllegalArgumentException("An interference benchmark needs at least two query classes");
+        }
+
+        logger.logHeader("INTERFERENCE BENCHMARK (" + classes.size() + " CLASSES)");
+
+        Map<DBType, InterferenceResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+
+        for (DatabaseManager manager : getManagers(request.getSelectedDatabases())) {
+            List<Index> indexList = getIndexes(request.getIndexes(), manager.getType());
+
+            BenchmarkTask<Map<String, ClassInterference>> task = (scope) -> {
+                Map<String, List<Query>> sequences = buildSequences(manager, classes, request.getNumberOfExecutions());
+                List<Query> distinctQueries = sequences.values().stream()
+                        .flatMap(List::stream)
+                        .distinct()
+                        .toList();
+
+                Map<String, LatencyStats> isolated = new LinkedHashMap<>();
+                Map<String, LatencyStats> mixed;
+                // Write classes modify the dataset, which is restored when the snapshot is closed
+                try (DatasetSnapshot snapshot = manager.snapshot(scope, distinctQueries)) {
+                    // Every execution of both phases may consume a seeded document, and the classes keep running
+                    // in the concurrent phase until all of them are recorded
+                    int seedCount = DatabaseManager.WARMUP_EXECUTIONS + 2 * classes.stream()
+                            .mapToInt(queryClass -> executions(queryClass, request.getNumberOfExecutions()))
+                            .sum();
+                    for (Query query : distinctQueries) {
+                        manager.seed(query, scope, seedCount);
+                    }
+                    // Warm up every distinct query once, so that both phases start with the same cache state
+                    distinctQueries.forEach(query -> manager.warmup(query, scope));
+
+                    for (QueryClass queryClass : classes) {
+                        logger.log("Running class " + queryClass.getName() + " alone");
+                        LoadResult result = newGenerator(queryClass)
+                                .run(() -> manager.openSession(scope), operation(sequences.get(queryClass.getName())),
+                                        executions(queryClass, request.getNumberOfExecutions()));
+                        isolated.put(queryClass.getName(), result.toStats());
+                    }
+
+                    logger.log("Running all classes concurrently");
+                    mixed = runConcurrently(manager, scope, classes, sequences, request.getNumberOfExecutions());
+                }
+
+                Map<String, ClassInterference> interference = new LinkedHashMap<>();
+                for (QueryClass queryClass : classes) {
+                    List<QueryType> types = queryClass.resolveQueries(workloadFactory).stream()
+                            .map(WorkloadQuery::getType)
+                            .toList();
+                    interference.put(queryClass.getName(), new ClassInterference(types,
+                            queryClass.getConcurrency(), queryClass.getRate(),
+                            isolated.get(queryClass.getName()), mixed.get(queryClass.getName())));
+                }
+                return interference;
+            };
+
+            executeBenchmarkForManager(manager, request.getSelectedSize(), indexList, task)
+                    .ifPresent(res -> results.put(
+                            manager.getType(),
+                            new InterferenceResult(res.indexInfo(), res.taskResult())
+                    ));
+        }
+        logger.logEnd();
+        return results;
+    }
+
+    /**
+     * Executes all the classes at the same time. A class that recorded all its executions keeps generating
+     * unrecorded load until every class is done.
+     *
+     * @param manager            the database manager
+     * @param scope              the scope of the benchmark
+     * @param classes            the query classes
+     * @param sequences          the sequence of queries of each class
+     * @param defaultExecutions  the number of executions of the classes that do not define their own
+     * @return the latency statistics of each class
+     */
+    private Map<String, LatencyStats> runConcurrently(DatabaseManager manager, String scope, List<QueryClass> classes,
+                                                      Map<String, List<Query>> sequences, int defaultExecutions) {
+        AtomicInteger remainingClasses = new AtomicInteger(classes.size());
+        AtomicBoolean allRecorded = new AtomicBoolean(false);
+
+        ExecutorService executor = Executors.newFixedThreadPool(classes.size());
+        try {
+            Map<String, CompletableFuture<LoadResult>> futures = new LinkedHashMap<>();
+            for (QueryClass queryClass : classes) {
+                futures.put(queryClass.getName(), CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return newGenerator(queryClass).run(
+                                () -> manager.openSession(scope),
+                                operation(sequences.get(queryClass.getName())),
+                                executions(queryClass, defaultExecutions),
+                                () -> !allRecorded.get(),
+                                () -> {
+                                    if (remainingClasses.decrementAndGet() == 0) {
+                                        allRecorded.set(true);
+                                    }
+                                });
+                    } catch (Exception e) {
+                        throw new CompletionException(e);
+                    }
+                }, executor));
+            }
+
+            Map<String, LatencyStats> stats = new LinkedHashMap<>();
+            for (Map.Entry<String, CompletableFuture<LoadResult>> entry : futures.entrySet()) {
+                stats.put(entry.getKey(), entry.getValue().join().toStats());
+            }
+            return stats;
+        } finally {
+            allRecorded.set(true);
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Builds the sequence of queries executed by each class.
+     *
+     * @param manager           the database manager
+     * @param classes           the query classes
+     * @param defaultExecutions the number of executions of the classes that do not define their own
+     * @return the sequence of queries of each class, by class name
+     */
+    private Map<String, List<Query>> buildSequences(DatabaseManager manager, List<QueryClass> classes,
+                                                    int defaultExecutions) {
+        Map<String, List<Query>> sequences = new HashMap<>();
+        for (QueryClass queryClass : classes) {
+            if (executions(queryClass, defaultExecutions) <= 0) {
+                throw new IllegalArgumentException("Query class " + queryClass.getName() + " has no executions");
+            }
+            List<Query> sequence = queryClass.buildSequence(workloadFactory, executions(queryClass, defaultExecutions))
+                    .stream()
+                    .map(type -> queryFactory.getQuery(manager.getType(), type))
+                    .toList();
+            if (sequences.put(queryClass.getName(), sequence) != null) {
+                throw new IllegalArgumentException("Duplicate query class name: " + queryClass.getName());
+            }
+        }
+        return sequences;
+    }
+
+    /**
+     * Returns the operation that executes the queries of a sequence. Background operations, executed once the
+     * sequence is completed, start again from the beginning of the sequence.
+     *
+     * @param sequence the sequence of queries
+     * @return the operation
+     */
+    private LoadGenerator.Operation<BenchmarkSession> operation(List<Query> sequence) {
+        return (session, index) -> session.execute(sequence.get(index % sequence.size()));
+    }
+
+    /**
+     * Creates a load generator with the concurrency and rate of a class.
+     */
+    private LoadGenerator newGenerator(QueryClass queryClass) {
+        return new LoadGenerator(queryClass.getConcurrency(), queryClass.getRate());
+    }
+
+    /**
+     * Returns the number of recorded executions of a class.
+     */
+    private int executions(QueryClass queryClass, int defaultExecutions) {
+        return queryClass.getNumberOfExecutions() > 0 ? queryClass.getNumberOfExecutions() : defaultExecutions;
+    }
+}
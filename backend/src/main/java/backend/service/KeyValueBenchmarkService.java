@@ -0,0 +1,160 @@
+package backend.service;
+
+import backend.database.CouchbaseManager;
+import backend.database.DatabaseManager;
+import backend.database.PGManager;
+import backend.model.options.AccessPath;
+import backend.model.options.DBType;
+import backend.model.query.QueryFactory;
+import backend.model.request.Index;
+import backend.model.request.KeyValueRequest;
+import backend.model.result.AccessPathResult;
+import backend.model.result.KeyValueResult;
+import backend.model.workload.WorkloadFactory;
+import backend.service.load.LoadGenerator;
+import backend.service.load.LoadResult;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+
+import java.util.*;
+
+/**
+ * {@code KeyValueBenchmarkService} compares the access paths that retrieve documents or rows by key: the
+ * Couchbase KV service (single and bulk asynchronous gets), N1QL {@code USE KEYS} queries, and primary key
+ * lookups on the relational and JSONB tables.
+ * <p>
+ * The keys are sampled once from the first selected database, so that every database and access path retrieves
+ * the same keys. Each lookup retrieves one batch of keys, and lookups are executed by concurrent workers.
+ *
+ * @author Eva Ray
+ */
+public class KeyValueBenchmarkService extends AbstractBenchmarkService {
+
+    // Maximum number of lookups executed to warm up each access path
+    private static final int WARMUP_LOOKUPS = 10;
+
+    /**
+     * Constructs a {@code KeyValueBenchmarkService} with a default console logger.
+     */
+    public KeyValueBenchmarkService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs a {@code KeyValueBenchmarkService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public KeyValueBenchmarkService(QueryFactory queryFactory, WorkloadFactory workloadFactory,
+                                    BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Runs a key-value benchmark on the selected databases.
+     *
+     * @param request the key-value request
+     * @return a map of key-value results per database type
+     * @throws IllegalArgumentException if the collection has no common keys in all databases, if a number is not
+     *                                  positive or if no key can be sampled
+     */
+    public Map<DBType, KeyValueResult> runKeyValueBenchmark(KeyValueRequest request) {
+        String collection = request.getCollection();
+        if (!KEYED_COLLECTIONS.contains(collection)) {
+            throw new IllegalArgumentException("Key-value benchmarks are only available on the collections "
+                    + KEYED_COLLECTIONS + ", whose keys are the same in every database");
+        }
+        if (request.getNumberOfExecutions() <= 0 || request.getKeyCount() <= 0
+                || request.getBatchSizes().stream().anyMatch(size -> size <= 0)) {
+            throw new IllegalArgumentException("The number of executions, the key count and the batch sizes must be positive");
+        }
+
+        logger.logHeader("KEY-VALUE BENCHMARK (" + collection + ")");
+
+        List<String> keys = sampleKeys(request, collection, request.getKeyCount());
+        logger.log(keys.size() + " keys sampled from " + collection);
+
+        Map<DBType, KeyValueResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+
+        for (DatabaseManager manager : getManagers(request.getSelectedDatabases())) {
+            List<Index> indexList = getIndexes(request.getIndexes(), manager.getType());
+
+            BenchmarkTask<List<AccessPathResult>> task = (scope) -> {
+                List<AccessPathResult> accessPaths = new ArrayList<>();
+                for (AccessPath accessPath : request.getAccessPaths()) {
+                    if (!accessPath.supports(manager.getType())) {
+                        continue;
+                    }
+                    for (int batchSize : request.getBatchSizes()) {
+                        logger.log("Running " + accessPath.getName() + " with " + batchSize + " keys per lookup");
+                        // Warm up the access path, then measure it
+                        runAccessPath(manager, scope, accessPath, collection, keys, batchSize,
+                                Math.min(request.getNumberOfExecutions(), WARMUP_LOOKUPS), request.getConcurrency());
+                        LoadResult result = runAccessPath(manager, scope, accessPath, collection, keys, batchSize,
+                                request.getNumberOfExecutions(), request.getConcurrency());
+                        accessPaths.add(new AccessPathResult(accessPath, batchSize, result.toStats()));
+                    }
+                }
+                return accessPaths;
+            };
+
+            executeBenchmarkForManager(manager, request.getSelectedSize(), indexList, task)
+                    .ifPresent(res -> results.put(
+                            manager.getType(),
+                            new KeyValueResult(res.indexInfo(), res.taskResult())
+                    ));
+        }
+        logger.logEnd();
+        return results;
+    }
+
+    /**
+     * Executes lookups with an access path.
+     *
+     * @param manager     the database manager
+     * @param scope       the scope of the benchmark
+     * @param accessPath  the access path
+     * @param collection  the collection of the documents
+     * @param keys        the sampled keys
+     * @param batchSize   the number of keys per lookup
+     * @param lookups     the number of lookups
+     * @param concurrency the number of concurrent workers
+     * @return the measured latencies
+     * @throws Exception if the load cannot be generated
+     */
+    private LoadResult runAccessPath(DatabaseManager manager, String scope, AccessPath accessPath, String collection,
+                                     List<String> keys, int batchSize, int lookups, int concurrency) throws Exception {
+        LoadGenerator generator = new LoadGenerator(concurrency, 0);
+
+        return switch (accessPath) {
+            case KV_GET -> generator.run(() -> ((CouchbaseManager) manager).openSession(scope),
+                    (session, index) -> session.get(collection, batch(keys, index, batchSize)), lookups);
+            case N1QL_USE_KEYS -> generator.run(() -> ((CouchbaseManager) manager).openSession(scope),
+                    (session, index) -> session.getWithQuery(collection, batch(keys, index, batchSize)), lookups);
+            case PRIMARY_KEY -> {
+                PGManager pgManager = (PGManager) manager;
+                String keyColumn = pgManager.getKeyColumn(collection);
+                yield generator.run(() -> pgManager.openSession(scope),
+                        (session, index) -> session.getByKeys(collection, keyColumn, batch(keys, index, batchSize)), lookups);
+            }
+        };
+    }
+
+    /**
+     * Returns the keys retrieved by a lookup. Successive lookups go through the sampled keys in order.
+     *
+     * @param keys      the sampled keys
+     * @param index     the index of the lookup
+     * @param batchSize the number of keys per lookup
+     * @return the keys of the lookup
+     */
+    private List<String> batch(List<String> keys, int index, int batchSize) {
+        List<String> batch = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            batch.add(keys.get((int) (((long) index * batchSize + i) % keys.size())));
+        }
+        return batch;
+    }
+}
@@ -0,0 +1,333 @@
+package backend.service;
+
+import backend.database.DatabaseManager;
+import backend.database.DatasetSnapshot;
+import backend.model.options.DBSize;
+import backend.model.options.DBType;
+import backend.model.options.QueryType;
+import backend.model.query.Query;
+import backend.model.query.QueryFactory;
+import backend.model.request.Index;
+import backend.model.request.MatrixRequest;
+import backend.model.result.MatrixResult;
+import backend.model.result.MatrixRow;
+import backend.model.workload.WorkloadFactory;
+import backend.service.index.IndexStateManager;
+import backend.service.index.SweepPlanner;
+import backend.service.load.LoadGenerator;
+import backend.service.load.LoadResult;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+import backend.service.matrix.MatrixCheckpoint;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@code MatrixBenchmarkService} measures every combination of databases, dataset sizes, index sets, settings,
+ * queries and concurrency levels described by a single request, and returns one row per combination, or cell.
+ * <p>
+ * The cells are not measured in the order of the request, but in the order that disturbs the databases the
+ * least. The cells of a scope are measured together, so that the caches of the database only switch from one
+ * dataset to another once. Within a scope, the index sets are ordered by the {@link SweepPlanner} and kept by an
+ * {@link IndexStateManager}, so that only the indexes that differ from the previous set are built. The cells of
+ * an index set are then grouped by query, so that a query keeps its data in cache across its settings and
+ * concurrency levels, which are cheap to change.
+ * <p>
+ * Every cell is measured by a {@link LoadGenerator} whose workers each open their own session, one worker per
+ * level of concurrency, so that the latencies of all the concurrency levels are measured the same way, on the
+ * client side. The writes of the cells are restored by a snapshot. Each measured cell is written to a
+ * {@link MatrixCheckpoint}, from which an interrupted matrix is resumed.
+ *
+ * @author Eva Ray
+ */
+public class MatrixBenchmarkService extends AbstractBenchmarkService {
+
+    private static final String DEFAULT_SET = "default";
+
+    /**
+     * A cell of the matrix, with the indexes and the settings of its database.
+     */
+    private record Cell(DBSize size, String indexSet, List<Index> indexes, String settingsName,
+                        Map<String, String> settings, QueryType query, int concurrency) {
+    }
+
+    /**
+     * Constructs a {@code MatrixBenchmarkService} with a default console logger.
+     */
+    public MatrixBenchmarkService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs a {@code MatrixBenchmarkService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public MatrixBenchmarkService(QueryFactory queryFactory, WorkloadFactory workloadFactory, BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Runs a benchmark matrix on the selected databases.
+     *
+     * @param request the matrix request
+     * @return the rows of the matrix, one per cell
+     * @throws IllegalArgumentException if the matrix has no query or no size, if a number is not positive, or if
+     *                                  a setting is not supported by its database
+     */
+    public MatrixResult runMatrixBenchmark(MatrixRequest request) {
+        List<DBSize> sizes = request.getSelectedSizes() != null && !request.getSelectedSizes().isEmpty()
+                ? request.getSelectedSizes()
+                : request.getSelectedSize() != null ? List.of(request.getSelectedSize()) : List.of();
+        if (sizes.isEmpty()) {
+            throw new IllegalArgumentException("A matrix needs at least one size");
+        }
+        if (request.getSelectedQueries() == null || request.getSelectedQueries().isEmpty()) {
+            throw new IllegalArgumentException("A matrix needs at least one query");
+        }
+        if (request.getNumberOfExecutions() <= 0 || request.getConcurrencies() == null
+                || request.getConcurrencies().isEmpty() || request.getConcurrencies().stream().anyMatch(c -> c <= 0)) {
+            throw new IllegalArgumentException("The number of executions and the concurrencies must be positive");
+        }
+        // A concurrency given twice is measured once, in one cell
+        List<Integer> concurrencies = request.getConcurrencies().stream().distinct().toList();
+        Map<String, Map<DBType, List<Index>>> indexSets = named(request.getIndexSets(), request.getIndexes());
+        Map<String, Map<DBType, Map<String, String>>> settingsSets = named(request.getSettingsSets(),
+                request.getSettings());
+
+        List<DatabaseManager> managers = getManagers(request.getSelectedDatabases());
+        // The settings are checked before the first cell, so that an invalid setting does not stop the matrix
+        for (DatabaseManager manager : managers) {
+            try {
+                settingsSets.values().forEach(set -> manager.setSessionSettings(getSettings(set, manager.getType())));
+            } finally {
+                manager.setSessionSettings(Map.of());
+            }
+        }
+
+        int cellCount = managers.size() * sizes.size() * indexSets.size() * settingsSets.size()
+                * request.getSelectedQueries().size() * concurrencies.size();
+        logger.logHeader("BENCHMARK MATRIX (" + cellCount + " cells)");
+
+        MatrixCheckpoint checkpoint = new MatrixCheckpoint(request.getCheckpointFile(), request.isResume());
+        List<MatrixRow> rows = new ArrayList<>();
+        int measured = 0;
+        int resumed = 0;
+        int created = 0;
+        int dropped = 0;
+        int order = 0;
+        // The concurrency levels of a cell group are measured in increasing order
+        List<Integer> increasingConcurrencies = concurrencies.stream().sorted().toList();
+
+        for (DatabaseManager manager : managers) {
+            DBType type = manager.getType();
+            Function<String, Set<String>> signatures = name -> getIndexes(indexSets.get(name), type).stream()
+                    .map(IndexStateManager::signature)
+                    .collect(Collectors.toSet());
+            List<String> indexSetOrder = SweepPlanner.order(new ArrayList<>(indexSets.keySet()), signatures);
+            logger.log("Order of the index sets of " + type.getName() + ": " + indexSetOrder + ", "
+                    + SweepPlanner.churn(indexSetOrder, signatures) + " index changes per size");
+
+            for (DBSize size : sizes) {
+                IndexStateManager indexState = new IndexStateManager(manager, getScope(type, size));
+                try {
+                    for (String indexSet : indexSetOrder) {
+                        for (QueryType queryType : request.getSelectedQueries()) {
+                            for (String settingsName : settingsSets.keySet()) {
+                                for (int concurrency : increasingConcurrencies) {
+                                    Cell cell = new Cell(size, indexSet, getIndexes(indexSets.get(indexSet), type),
+                                            settingsName, getSettings(settingsSets.get(settingsName), type),
+                                            queryType, concurrency);
+                                    order++;
+                                    String key = cellKey(type, cell, request.getNumberOfExecutions());
+                                    Optional<MatrixRow> previous = checkpoint.get(key);
+                                    if (previous.isPresent()) {
+                                        rows.add(resumedRow(previous.get(), cell, order));
+                                        resumed++;
+                                        continue;
+                                    }
+
+                                    logger.log("Cell " + order + "/" + cellCount + ": " + describe(type, cell));
+                                    MatrixRow row = measureCell(manager, cell, indexState, request);
+                                    row.setExecutionOrder(order);
+                                    rows.add(row);
+                                    measured++;
+                                    // Failed cells are measured again when the matrix is resumed
+                                    if (!row.isFailed()) {
+                                        checkpoint.record(key, row);
+                                    }
+                                }
+                            }
+                        }
+                    }
+                } finally {
+                    logger.log("Dropping the indexes of the matrix for " + type + " " + size.getName());
+                    indexState.release();
+                    created += indexState.getCreatedCount();
+                    dropped += indexState.getDroppedCount();
+                }
+            }
+        }
+
+        rows.sort(requestOrder(request, sizes, indexSets.keySet(), settingsSets.keySet(), concurrencies));
+        logger.log(measured + " cells measured, " + resumed + " cells resumed from the checkpoint");
+        logger.logEnd();
+        return new MatrixResult(rows, measured, resumed, created, dropped, checkpoint.getFileName());
+    }
+
+    /**
+     * Measures a cell of the matrix.
+     *
+     * @param manager    the database manager
+     * @param cell       the cell
+     * @param indexState the index state manager of the scope of the cell
+     * @param request    the matrix request
+     * @return the row of the cell, marked as failed if the cell could not be measured
+     */
+    private MatrixRow measureCell(DatabaseManager manager, Cell cell, IndexStateManager indexState,
+                                  MatrixRequest request) {
+        Query query = queryFactory.getQuery(manager.getType(), cell.query());
+        int executions = request.getNumberOfExecutions();
+
+        BenchmarkTask<MatrixRow> task = (scope) -> {
+            MatrixRow row = newRow(manager.getType(), cell);
+            // The writes of the workers are restored when the snapshot is closed
+            try (DatasetSnapshot snapshot = manager.snapshot(scope, List.of(query))) {
+                manager.seed(query, scope, DatabaseManager.WARMUP_EXECUTIONS + executions);
+                manager.warmup(query, scope);
+                LoadResult load = new LoadGenerator(cell.concurrency(), 0).run(
+                        () -> manager.openSession(scope),
+                        (session, i) -> session.execute(query),
+                        executions);
+                row.measured(load.toStats());
+            }
+            return row;
+        };
+
+        return executeBenchmarkForManager(manager, cell.size(), cell.indexes(), task, indexState, cell.settings())
+                .map(BenchmarkResult::taskResult)
+                .orElseGet(() -> {
+                    MatrixRow row = newRow(manager.getType(), cell);
+                    row.setFailed(true);
+                    return row;
+                });
+    }
+
+    /**
+     * Returns the named sets of a request, or a single default set with the common value of the request.
+     *
+     * @param sets    the named sets of the request, possibly null or empty
+     * @param common  the common value of the request, possibly null
+     * @param <T>     the type of the sets
+     * @return the named sets, in the order of the request
+     */
+    private <T> Map<String, T> named(Map<String, T> sets, T common) {
+        Map<String, T> named = new LinkedHashMap<>();
+        if (sets != null && !sets.isEmpty()) {
+            named.putAll(sets);
+        } else {
+            named.put(DEFAULT_SET, common);
+        }
+        return named;
+    }
+
+    /**
+     * Returns the key of a cell in the checkpoint. The key contains the definition of the indexes and the settings
+     * rather than their names, and the number of executions, so that a changed cell is not resumed.
+     *
+     * @param type       the database of the cell
+     * @param cell       the cell
+     * @param executions the number of executions of the cell
+     * @return the key of the cell
+     */
+    private String cellKey(DBType type, Cell cell, int executions) {
+        List<String> indexes = cell.indexes().stream().map(IndexStateManager::signature).sorted().toList();
+        return String.join("#", type.name(), cell.size().name(), String.valueOf(indexes),
+                String.valueOf(new TreeMap<>(cell.settings())), cell.query().name(),
+                String.valueOf(cell.concurrency()), String.valueOf(executions));
+    }
+
+    /**
+     * Returns a new row identifying a cell, without measurement.
+     */
+    private MatrixRow newRow(DBType type, Cell cell) {
+        return new MatrixRow(type, cell.size(), cell.indexSet(), cell.settingsName(), cell.query(), cell.concurrency());
+    }
+
+    /**
+     * Returns the row of a cell read from the checkpoint, with the names of the current request, since the names
+     * are not part of the key of the cell.
+     */
+    private MatrixRow resumedRow(MatrixRow previous, Cell cell, int order) {
+        previous.setIndexSet(cell.indexSet());
+        previous.setSettings(cell.settingsName());
+        previous.setExecutionOrder(order);
+        previous.setResumed(true);
+        return previous;
+    }
+
+    /**
+     * Returns a readable description of a cell for the logs.
+     */
+    private String describe(DBType type, Cell cell) {
+        return type.getName() + ", " + cell.size().getName() + ", indexes " + cell.indexSet() + ", settings "
+                + cell.settingsName() + ", " + cell.query().getName() + ", concurrency " + cell.concurrency();
+    }
+
+    /**
+     * Returns the comparator that sorts the rows in the order of the request, from the database to the
+     * concurrency.
+     */
+    private Comparator<MatrixRow> requestOrder(MatrixRequest request, List<DBSize> sizes, Set<String> indexSets,
+                                               Set<String> settingsSets, List<Integer> concurrencies) {
+        List<String> indexSetNames = new ArrayList<>(indexSets);
+        List<String> settingsNames = new ArrayList<>(settingsSets);
+        return Comparator.<MatrixRow>comparingInt(row -> request.getSelectedDatabases().indexOf(row.getDatabase()))
+                .thenComparingInt(row -> sizes.indexOf(row.getSize()))
+                .thenComparingInt(row -> indexSetNames.indexOf(row.getIndexSet()))
+                .thenComparingInt(row -> settingsNames.indexOf(row.getSettings()))
+                .thenComparingInt(row -> request.getSelectedQueries().indexOf(row.getQuery()))
+                .thenComparingInt(row -> concurrencies.indexOf(row.getConcurrency()));
+    }
+
+    /**
+     * Exports the rows of a matrix as CSV, with one line per cell and one column per attribute of the rows.
+     * The measurements that a cell does not have are left empty.
+     *
+     * @param result the result of the matrix
+     * @return the CSV table
+     */
+    public String exportCsv(MatrixResult result) {
+        StringBuilder csv = new StringBuilder("database,size,indexSet,settings,query,concurrency,executionOrder,"
+                + "failed,resumed,avgLatency,standardDeviation,percentile50,percentile95,percentile99,throughput,"
+                + "errors\n");
+        for (MatrixRow row : result.getRows()) {
+            csv.append(String.join(",", row.getDatabase().name(), row.getSize().name(), csvText(row.getIndexSet()),
+                    csvText(row.getSettings()), row.getQuery().name(), String.valueOf(row.getConcurrency()),
+                    String.valueOf(row.getExecutionOrder()), String.valueOf(row.isFailed()),
+                    String.valueOf(row.isResumed()), csvValue(row.getAvgLatency()),
+                    csvValue(row.getStandardDeviation()), csvValue(row.getPercentile50()),
+                    csvValue(row.getPercentile95()), csvValue(row.getPercentile99()), csvValue(row.getThroughput()),
+                    csvValue(row.getErrors()))).append('\n');
+        }
+        return csv.toString();
+    }
+
+    /**
+     * Quotes a text for CSV.
+     */
+    private String csvText(String text) {
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Formats an optional measurement for CSV.
+     */
+    private String csvValue(Object value) {
+        return value != null ? value.toString() : "";
+    }
+}
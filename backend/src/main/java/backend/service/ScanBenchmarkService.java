@@ -0,0 +1,245 @@
+package backend.service;
+
+import backend.database.*;
+import backend.model.options.DBType;
+import backend.model.options.ScanPath;
+import backend.model.query.QueryFactory;
+import backend.model.request.Index;
+import backend.model.request.KeyRange;
+import backend.model.request.ScanRequest;
+import backend.model.result.LatencyStats;
+import backend.model.result.ScanMeasurement;
+import backend.model.result.ScanResult;
+import backend.model.workload.WorkloadFactory;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.kv.ScanTerm;
+import com.couchbase.client.java.kv.ScanType;
+
+import java.util.*;
+
+/**
+ * {@code ScanBenchmarkService} compares the ways to stream many documents or rows from a collection. Couchbase
+ * KV range and sampling scans are compared with the equivalent N1QL queries and with PostgreSQL queries over an
+ * ordered range of primary keys or a sample of the table.
+ * <p>
+ * Each scan is executed sequentially until its whole result is consumed, and the streaming throughput is
+ * reported in documents and megabytes per second.
+ *
+ * @author Eva Ray
+ */
+public class ScanBenchmarkService extends AbstractBenchmarkService {
+
+    // Seed of the sampling scans, so that successive benchmarks return the same documents
+    private static final long SAMPLE_SEED = 42;
+    // The N1QL and SQL samples are the first documents by MD5 hash of their key salted with the seed, so that
+    // both engines return the same sample
+    private static final String SAMPLE_SALT = String.valueOf(SAMPLE_SEED);
+
+    /**
+     * A scan executed with the session of a database.
+     */
+    @FunctionalInterface
+    private interface ScanOperation {
+
+        /**
+         * Executes the scan and consumes its whole result.
+         *
+         * @return the number and size of the returned documents
+         * @throws Exception if the scan fails
+         */
+        ScanVolume scan() throws Exception;
+    }
+
+    /**
+     * Constructs a {@code ScanBenchmarkService} with a default console logger.
+     */
+    public ScanBenchmarkService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs a {@code ScanBenchmarkService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public ScanBenchmarkService(QueryFactory queryFactory, WorkloadFactory workloadFactory, BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Runs a scan benchmark on the selected databases.
+     *
+     * @param request the scan request
+     * @return a map of scan results per database type
+     * @throws IllegalArgumentException if the collection has no common keys in all databases or if a number is
+     *                                  not positive
+     */
+    public Map<DBType, ScanResult> runScanBenchmark(ScanRequest request) {
+        String collection = request.getCollection();
+        if (!KEYED_COLLECTIONS.contains(collection)) {
+            throw new IllegalArgumentException("Scan benchmarks are only available on the collections "
+                    + KEYED_COLLECTIONS + ", whose keys are the same in every database");
+        }
+        if (request.getNumberOfExecutions() <= 0
+                || request.getSampleSizes().stream().anyMatch(size -> size <= 0)
+                || request.getBatchItemLimits().stream().anyMatch(limit -> limit <= 0)
+                || request.getBatchByteLimits().stream().anyMatch(limit -> limit <= 0)) {
+            throw new IllegalArgumentException("The number of executions, the sample sizes and the batch limits must be positive");
+        }
+
+        logger.logHeader("SCAN BENCHMARK (" + collection + ")");
+
+        Map<DBType, ScanResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+
+        for (DatabaseManager manager : getManagers(request.getSelectedDatabases())) {
+            List<Index> indexList = getIndexes(request.getIndexes(), manager.getType());
+
+            BenchmarkTask<List<ScanMeasurement>> task = (scope) -> {
+                List<ScanMeasurement> scans = new ArrayList<>();
+                for (ScanPath scanPath : request.getScanPaths()) {
+                    if (!scanPath.supports(manager.getType())) {
+                        continue;
+                    }
+                    if (scanPath.isSampling()) {
+                        for (int sampleSize : request.getSampleSizes()) {
+                            scans.addAll(runScanPath(manager, scope, scanPath, collection, null, sampleSize, request));
+                        }
+                    } else {
+                        for (KeyRange range : request.getRanges()) {
+                            scans.addAll(runScanPath(manager, scope, scanPath, collection, range, 0, request));
+                        }
+                    }
+                }
+                return scans;
+            };
+
+            executeBenchmarkForManager(manager, request.getSelectedSize(), indexList, task)
+                    .ifPresent(res -> results.put(
+                            manager.getType(),
+                            new ScanResult(res.indexInfo(), res.taskResult())
+                    ));
+        }
+        logger.logEnd();
+        return results;
+    }
+
+    /**
+     * Measures a scan path over a range or a sample size. KV scans are measured with every combination of batch
+     * limits.
+     *
+     * @param manager    the database manager
+     * @param scope      the scope of the benchmark
+     * @param scanPath   the scan path
+     * @param collection the scanned collection
+     * @param range      the scanned range, or null for a sampling scan
+     * @param sampleSize the number of sampled documents, for a sampling scan
+     * @param request    the scan request
+     * @return the measurements of the scan path
+     * @throws Exception if a session cannot be opened
+     */
+    private List<ScanMeasurement> runScanPath(DatabaseManager manager, String scope, ScanPath scanPath,
+                                              String collection, KeyRange range, int sampleSize,
+                                              ScanRequest request) throws Exception {
+        String target = range != null ? range.toString() : sampleSize + " documents";
+        int executions = request.getNumberOfExecutions();
+        List<ScanMeasurement> measurements = new ArrayList<>();
+
+        if (manager instanceof CouchbaseManager couchbaseManager) {
+            try (CouchbaseSession session = couchbaseManager.openSession(scope)) {
+                if (scanPath.isKeyValue()) {
+                    ScanType scanType = range != null
+                            ? ScanType.rangeScan(ScanTerm.inclusive(range.getFrom()), ScanTerm.exclusive(range.getTo()))
+                            : ScanType.samplingScan(sampleSize, SAMPLE_SEED);
+                    for (int itemLimit : request.getBatchItemLimits()) {
+                        for (int byteLimit : request.getBatchByteLimits()) {
+                            logger.log("Running " + scanPath.getName() + " over " + target + " with batches of "
+                                    + itemLimit + " documents and " + byteLimit + " bytes");
+                            measurements.add(measure(scanPath, target, itemLimit, byteLimit, executions,
+                                    () -> session.scan(collection, scanType, itemLimit, byteLimit)));
+                        }
+                    }
+                } else {
+                    // N1QL compares strings by their bytes, like the "C" collation of the SQL range
+                    String statement = range != null
+                            ? "SELECT RAW c FROM `" + collection + "` c WHERE META(c).id >= $from AND META(c).id < $to"
+                            + " ORDER BY META(c).id"
+                            : "SELECT RAW c FROM `" + collection + "` c"
+                            + " ORDER BY HASHBYTES(META(c).id || $salt, \"md5\") LIMIT $limit";
+                    JsonObject parameters = range != null
+                            ? JsonObject.create().put("from", range.getFrom()).put("to", range.getTo())
+                            : JsonObject.create().put("salt", SAMPLE_SALT).put("limit", sampleSize);
+                    logger.log("Running " + scanPath.getName() + " over " + target);
+                    measurements.add(measure(scanPath, target, null, null, executions,
+                            () -> session.scanWithQuery(statement, parameters)));
+                }
+            }
+        } else if (manager instanceof PGManager pgManager) {
+            String keyColumn = pgManager.getKeyColumn(collection);
+            try (PGSession session = pgManager.openSession(scope)) {
+                logger.log("Running " + scanPath.getName() + " over " + target);
+                if (range != null) {
+                    // The keys are compared by their bytes, like the KV and N1QL ranges
+                    String sql = String.format("SELECT * FROM \"%1$s\" WHERE %2$s COLLATE \"C\" >= ? AND %2$s COLLATE \"C\" < ?"
+                            + " ORDER BY %2$s COLLATE \"C\"", collection, keyColumn);
+                    measurements.add(measure(scanPath, target, null, null, executions,
+                            () -> session.scan(sql, range.getFrom(), range.getTo())));
+                } else {
+                    String sql = String.format("SELECT * FROM \"%1$s\" ORDER BY md5(%2$s || ?) LIMIT ?",
+                            collection, keyColumn);
+                    measurements.add(measure(scanPath, target, null, null, executions,
+                            () -> session.scan(sql, SAMPLE_SALT, sampleSize)));
+                }
+            }
+        }
+        return measurements;
+    }
+
+    /**
+     * Executes a scan once to warm up, then measures it a number of times.
+     *
+     * @param scanPath       the scan path
+     * @param target         the scanned range or the sample size
+     * @param batchItemLimit the maximum number of documents per batch, or null if the scan is not a KV scan
+     * @param batchByteLimit the maximum number of bytes per batch, or null if the scan is not a KV scan
+     * @param executions     the number of measured scans
+     * @param operation      the scan
+     * @return the measurements of the scan
+     */
+    private ScanMeasurement measure(ScanPath scanPath, String target, Integer batchItemLimit, Integer batchByteLimit,
+                                    int executions, ScanOperation operation) {
+        double[] latencies = new double[executions];
+        int succeeded = 0;
+        long errors = 0;
+        long totalDocuments = 0;
+        long totalBytes = 0;
+        double totalTimeMs = 0;
+
+        for (int i = -1; i < executions; i++) {
+            try {
+                long start = System.nanoTime();
+                ScanVolume volume = operation.scan();
+                double elapsedMs = (System.nanoTime() - start) / 1_000_000.0;
+
+                // The first scan only warms up the caches
+                if (i >= 0) {
+                    latencies[succeeded++] = elapsedMs;
+                    totalDocuments += volume.documents();
+                    totalBytes += volume.bytes();
+                    totalTimeMs += elapsedMs;
+                }
+            } catch (Exception e) {
+                if (i >= 0 && errors++ == 0) {
+                    System.err.println("Error during scan: " + e.getMessage());
+                }
+            }
+        }
+
+        LatencyStats stats = LatencyStats.of(Arrays.copyOf(latencies, succeeded), errors, totalTimeMs);
+        return new ScanMeasurement(scanPath, target, batchItemLimit, batchByteLimit, stats,
+                totalDocuments, totalBytes, totalTimeMs);
+    }
+}
@@ -0,0 +1,197 @@
+package backend.service;
+
+import backend.database.DatabaseManager;
+import backend.database.PGManager;
+import backend.model.options.DBType;
+import backend.model.options.QueryType;
+import backend.model.query.Query;
+import backend.model.query.QueryFactory;
+import backend.model.request.ExtendedStatistics;
+import backend.model.request.Index;
+import backend.model.request.StatisticsRequest;
+import backend.model.result.PlanOperator;
+import backend.model.result.Result;
+import backend.model.result.StatisticsComparison;
+import backend.model.result.StatisticsResult;
+import backend.model.workload.WorkloadFactory;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+import backend.service.plan.PlanFingerprint;
+
+import java.util.*;
+
+/**
+ * {@code StatisticsExperimentService} measures the effect of the planner statistics on the plans of PostgreSQL.
+ * The selected queries are measured, which gives the accuracy of the row estimates of their plans, then the
+ * statistics of the tables read by the queries are improved and the queries are measured again. The statistics
+ * can be refreshed with {@code ANALYZE}, computed with a higher statistics target, and completed with extended
+ * statistics, such as expression statistics on JSONB fields.
+ * <p>
+ * Unless the request asks to keep them, the extended statistics created by the experiment are dropped at the end,
+ * and the tables analysed with a higher target are analysed again with the default target.
+ *
+ * @author Eva Ray
+ */
+public class StatisticsExperimentService extends AbstractBenchmarkService {
+
+    /**
+     * Constructs a {@code StatisticsExperimentService} with a default console logger.
+     */
+    public StatisticsExperimentService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs a {@code StatisticsExperimentService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public StatisticsExperimentService(QueryFactory queryFactory, WorkloadFactory workloadFactory, BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Runs a statistics experiment on the selected databases.
+     *
+     * @param request the statistics request
+     * @return a map of statistics results per database type
+     * @throws IllegalArgumentException if a selected database is not PostgreSQL, if a selected query is a write
+     *                                  query, if a number is not positive or if extended statistics are incomplete
+     */
+    public Map<DBType, StatisticsResult> runStatisticsExperiment(StatisticsRequest request) {
+        if (request.getSelectedDatabases().contains(DBType.COUCHBASE)) {
+            throw new IllegalArgumentException("The statistics experiment only supports PostgreSQL databases");
+        }
+        if (request.getSelectedQueries() == null || request.getSelectedQueries().isEmpty()
+                || request.getSelectedQueries().stream().anyMatch(QueryType::isWrite)) {
+            throw new IllegalArgumentException("The statistics experiment needs at least one read query");
+        }
+        if (request.getNumberOfExecutions() <= 0
+                || (request.getStatisticsTarget() != null && request.getStatisticsTarget() <= 0)) {
+            throw new IllegalArgumentException("The number of executions and the statistics target must be positive");
+        }
+        if (request.getExtendedStatistics() != null && request.getExtendedStatistics().values().stream()
+                .flatMap(List::stream)
+                .anyMatch(s -> s.getName() == null || s.getTable() == null
+                        || s.getExpressions() == null || s.getExpressions().isEmpty())) {
+            throw new IllegalArgumentException("Extended statistics need a name, a table and at least one expression");
+        }
+
+        logger.logHeader("STATISTICS EXPERIMENT");
+
+        Map<DBType, StatisticsResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+
+        for (DatabaseManager manager : getManagers(request.getSelectedDatabases())) {
+            PGManager pgManager = (PGManager) manager;
+            List<Index> indexList = getIndexes(request.getIndexes(), manager.getType());
+            List<ExtendedStatistics> statistics = request.getExtendedStatistics() != null
+                    ? request.getExtendedStatistics().getOrDefault(manager.getType(), List.of())
+                    : List.of();
+
+            BenchmarkTask<StatisticsResult> task = (scope) -> runExperiment(pgManager, scope, indexList, statistics, request);
+
+            executeBenchmarkForManager(manager, request.getSelectedSize(), indexList, task, null,
+                    getSettings(request.getSettings(), manager.getType()))
+                    .ifPresent(res -> results.put(manager.getType(), res.taskResult()));
+        }
+        logger.logEnd();
+        return results;
+    }
+
+    /**
+     * Measures the queries, improves the statistics, measures the queries again and restores the statistics.
+     *
+     * @param manager    the PostgreSQL manager
+     * @param scope      the scope of the experiment
+     * @param indexList  the indexes of the experiment
+     * @param statistics the extended statistics to create
+     * @param request    the statistics request
+     * @return the result of the experiment
+     * @throws Exception if the statistics cannot be changed
+     */
+    private StatisticsResult runExperiment(PGManager manager, String scope, List<Index> indexList,
+                                           List<ExtendedStatistics> statistics, StatisticsRequest request) throws Exception {
+        logger.log("Measuring the queries with the current statistics");
+        Map<QueryType, Result> before = measure(manager, scope, indexList, request);
+
+        // The tables read by the queries, and those of the extended statistics
+        Set<String> tables = new LinkedHashSet<>();
+        before.values().stream().filter(Objects::nonNull).forEach(result -> collectRelations(result.getPlan(), tables));
+        statistics.forEach(s -> tables.add(s.getTable()));
+
+        List<String> created = new ArrayList<>();
+        boolean analyze = request.isAnalyze() || request.getStatisticsTarget() != null || !statistics.isEmpty();
+        try {
+            for (ExtendedStatistics s : statistics) {
+                if (manager.createStatistics(scope, s)) {
+                    created.add(s.getName());
+                }
+            }
+            if (analyze) {
+                logger.log("Analysing " + tables);
+                manager.analyzeTables(scope, tables, request.getStatisticsTarget());
+            }
+
+            logger.log("Measuring the queries with the improved statistics");
+            Map<QueryType, Result> after = measure(manager, scope, indexList, request);
+
+            Map<QueryType, StatisticsComparison> comparisons = new LinkedHashMap<>();
+            for (QueryType queryType : request.getSelectedQueries()) {
+                Result b = before.get(queryType);
+                Result a = after.get(queryType);
+                if (b == null || a == null) {
+                    logger.log("No comparison for " + queryType.getName() + ", it could not be measured");
+                    continue;
+                }
+                comparisons.put(queryType, new StatisticsComparison(b.getAvgExecutionTime(), a.getAvgExecutionTime(),
+                        b.getCardinality(), a.getCardinality(), shape(b), shape(a)));
+            }
+            return new StatisticsResult(analyze ? new ArrayList<>(tables) : List.of(), created, comparisons);
+        } finally {
+            if (request.isRestoreStatistics()) {
+                for (String name : created) {
+                    manager.dropStatistics(scope, name);
+                }
+                if (analyze && request.getStatisticsTarget() != null) {
+                    logger.log("Analysing " + tables + " again with the default statistics target");
+                    manager.analyzeTables(scope, tables, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Measures each selected query.
+     */
+    private Map<QueryType, Result> measure(PGManager manager, String scope, List<Index> indexList,
+                                           StatisticsRequest request) throws Exception {
+        Map<QueryType, Result> results = new LinkedHashMap<>();
+        for (QueryType queryType : request.getSelectedQueries()) {
+            Query query = queryFactory.getQuery(manager.getType(), queryType);
+            results.put(queryType, manager.run(query, request.getNumberOfExecutions(), scope, indexList));
+        }
+        return results;
+    }
+
+    /**
+     * Adds the tables read by a plan to a set.
+     */
+    private void collectRelations(PlanOperator operator, Set<String> tables) {
+        if (operator == null) {
+            return;
+        }
+        if (operator.getRelation() != null) {
+            tables.add(operator.getRelation());
+        }
+        operator.getChildren().forEach(child -> collectRelations(child, tables));
+    }
+
+    /**
+     * Returns the shape of the plan of a result, or null if it has no plan.
+     */
+    private String shape(Result result) {
+        return result.getPlan() != null ? PlanFingerprint.shape(result.getPlan()) : null;
+    }
+}
@@ -0,0 +1,157 @@
+package backend.service;
+
+import backend.database.DatabaseManager;
+import backend.model.options.DBType;
+import backend.model.query.Query;
+import backend.model.query.QueryFactory;
+import backend.model.request.Index;
+import backend.model.request.SweepRequest;
+import backend.model.request.SweepRun;
+import backend.model.result.Result;
+import backend.model.result.ResultWithIndex;
+import backend.model.result.SweepResult;
+import backend.model.result.SweepRunResult;
+import backend.model.workload.WorkloadFactory;
+import backend.service.index.IndexStateManager;
+import backend.service.index.SweepPlanner;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@code SweepBenchmarkService} measures a series of predefined queries, each with its own set of indexes, on the
+ * same scope. Building an index on a large dataset can take much longer than measuring a query, so the indexes
+ * are not created and dropped around each run: an {@link IndexStateManager} creates or drops only the indexes
+ * that differ from the previous run, and the {@link SweepPlanner} orders the runs to keep this difference small.
+ * The indexes created by the sweep are dropped once all the runs are done. Each run can also override the
+ * session-level settings of the request, so that a sweep measures a query under several configurations.
+ *
+ * @author Eva Ray
+ */
+public class SweepBenchmarkService extends AbstractBenchmarkService {
+
+    /**
+     * Constructs a {@code SweepBenchmarkService} with a default console logger.
+     */
+    public SweepBenchmarkService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs a {@code SweepBenchmarkService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public SweepBenchmarkService(QueryFactory queryFactory, WorkloadFactory workloadFactory, BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Runs a sweep on the selected databases.
+     *
+     * @param request the sweep request
+     * @return a map of sweep results per database type
+     * @throws IllegalArgumentException if the sweep has no run, if a run has no query, if the number of
+     *                                  executions is not positive or if a setting of a run is not supported or
+     *                                  has an invalid value
+     */
+    public Map<DBType, SweepResult> runSweepBenchmark(SweepRequest request) {
+        if (request.getRuns() == null || request.getRuns().isEmpty()) {
+            throw new IllegalArgumentException("A sweep needs at least one run");
+        }
+        if (request.getRuns().stream().anyMatch(run -> run.getSelectedQuery() == null)) {
+            throw new IllegalArgumentException("Every run of a sweep needs a selected query");
+        }
+        if (request.getNumberOfExecutions() <= 0) {
+            throw new IllegalArgumentException("The number of executions must be positive");
+        }
+
+        List<DatabaseManager> managers = getManagers(request.getSelectedDatabases());
+        // The settings of every run are checked before the first run, so that an invalid setting does not stop
+        // the sweep
+        for (DatabaseManager manager : managers) {
+            try {
+                request.getRuns().forEach(run -> manager.setSessionSettings(runSettings(request, run, manager)));
+            } finally {
+                manager.setSessionSettings(Map.of());
+            }
+        }
+
+        logger.logHeader("SWEEP BENCHMARK (" + request.getRuns().size() + " runs)");
+
+        Map<DBType, SweepResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+
+        for (DatabaseManager manager : managers) {
+            String scope = getScope(manager.getType(), request.getSelectedSize());
+            Function<SweepRun, List<Index>> runIndexes = run -> getIndexes(
+                    run.getIndexes() != null ? run.getIndexes() : request.getIndexes(), manager.getType());
+            Function<SweepRun, Set<String>> signatures = run -> runIndexes.apply(run).stream()
+                    .map(IndexStateManager::signature)
+                    .collect(Collectors.toSet());
+
+            List<SweepRun> order = request.isReorderRuns()
+                    ? SweepPlanner.order(request.getRuns(), signatures)
+                    : request.getRuns();
+            logger.log("Index churn of the sweep: " + SweepPlanner.churn(order, signatures) + " index changes, "
+                    + SweepPlanner.churn(request.getRuns(), signatures) + " in the order of the request");
+
+            IndexStateManager indexState = new IndexStateManager(manager, scope);
+            Map<SweepRun, SweepRunResult> runResults = new IdentityHashMap<>();
+            try {
+                for (int i = 0; i < order.size(); i++) {
+                    SweepRun run = order.get(i);
+                    List<Index> indexList = runIndexes.apply(run);
+                    Query query = queryFactory.getQuery(manager.getType(), run.getSelectedQuery());
+                    BenchmarkTask<Result> task = (s) -> manager.run(query, request.getNumberOfExecutions(), s, indexList);
+                    Map<String, String> settings = runSettings(request, run, manager);
+
+                    logger.log("Run " + (i + 1) + "/" + order.size() + ": " + runName(run));
+                    ResultWithIndex result = executeBenchmarkForManager(manager, request.getSelectedSize(), indexList,
+                            task, indexState, settings)
+                            .map(res -> new ResultWithIndex(res.taskResult(), res.indexInfo()))
+                            .orElse(null);
+                    runResults.put(run, new SweepRunResult(runName(run), run.getSelectedQuery(), i, result));
+                }
+            } finally {
+                logger.log("Dropping the indexes of the sweep for " + manager.getType());
+                indexState.release();
+            }
+
+            List<SweepRunResult> ordered = request.getRuns().stream().map(runResults::get).toList();
+            int buildsWithoutReuse = request.getRuns().stream().mapToInt(run -> runIndexes.apply(run).size()).sum();
+            results.put(manager.getType(), new SweepResult(ordered, indexState.getCreatedCount(),
+                    indexState.getDroppedCount(), buildsWithoutReuse));
+        }
+        logger.logEnd();
+        return results;
+    }
+
+    /**
+     * Returns the session-level settings of a run, which override those of the request.
+     *
+     * @param request the sweep request
+     * @param run     the run
+     * @param manager the database manager
+     * @return the settings of the run for the database
+     */
+    private Map<String, String> runSettings(SweepRequest request, SweepRun run, DatabaseManager manager) {
+        Map<String, String> settings = new TreeMap<>(getSettings(request.getSettings(), manager.getType()));
+        settings.putAll(getSettings(run.getSettings(), manager.getType()));
+        return settings;
+    }
+
+    /**
+     * Returns the name of a run, or the name of its query if it has none.
+     *
+     * @param run the run
+     * @return the name of the run
+     */
+    private String runName(SweepRun run) {
+        return run.getName() != null ? run.getName() : run.getSelectedQuery().getName();
+    }
+}
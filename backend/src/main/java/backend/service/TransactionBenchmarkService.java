@@ -0,0 +1,354 @@
+package backend.service;
+
+import backend.database.*;
+import backend.model.options.DBType;
+import backend.model.options.IsolationLevel;
+import backend.model.query.QueryFactory;
+import backend.model.request.Index;
+import backend.model.request.TransactionRequest;
+import backend.model.result.LatencyStats;
+import backend.model.result.TransactionResult;
+import backend.model.result.TransactionSetting;
+import backend.model.workload.WorkloadFactory;
+import backend.service.load.LoadGenerator;
+import backend.service.logging.BenchmarkLogger;
+import backend.service.logging.ConsoleLogger;
+import com.couchbase.client.java.Collection;
+import com.couchbase.client.java.json.JsonObject;
+import com.couchbase.client.java.transactions.TransactionGetResult;
+import com.couchbase.client.java.transactions.config.TransactionOptions;
+import org.apache.commons.math3.distribution.ZipfDistribution;
+import org.apache.commons.math3.random.RandomGenerator;
+import org.apache.commons.math3.random.Well19937c;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * {@code TransactionBenchmarkService} measures multi-document read-modify-write transactions under contention.
+ * Each transaction reads several documents or rows, increments one of their counters and commits:
+ * <ul>
+ *     <li>Couchbase executes the transactions with ACID transactions, which retry conflicting attempts
+ *     internally until their timeout.</li>
+ *     <li>PostgreSQL executes them with each isolation level. Serialization failures and deadlocks are retried
+ *     by the benchmark, up to a maximum number of retries.</li>
+ * </ul>
+ * The keys are drawn from a set of hot keys with a Zipf distribution, the same for every database. The modified
+ * documents are saved before the benchmark and restored once it is done.
+ *
+ * @author Eva Ray
+ */
+public class TransactionBenchmarkService extends AbstractBenchmarkService {
+
+    // Counter incremented by the transactions in each collection
+    private static final Map<String, String> COUNTER_FIELDS = Map.of("business", "review_count", "review", "useful");
+    // SQL states of the serialization failures and deadlocks, after which a transaction can be retried
+    private static final Set<String> RETRYABLE_STATES = Set.of("40001", "40P01");
+    // Seed of the key sequences, so that every database executes the same transactions
+    private static final long KEY_SEED = 42;
+    // Maximum number of transactions executed to warm up each database
+    private static final int WARMUP_TRANSACTIONS = 10;
+
+    /**
+     * A transaction executed with the session of a database.
+     *
+     * @param <S> the type of session
+     */
+    @FunctionalInterface
+    private interface TransactionOperation<S> {
+
+        /**
+         * Executes a transaction, retrying it if needed.
+         *
+         * @param session the session of the worker
+         * @param keys    the keys accessed by the transaction
+         * @param retries counts the retried attempts
+         * @param commit  accumulates the commit time in nanoseconds
+         * @throws Exception if the transaction is aborted
+         */
+        void execute(S session, List<String> keys, AtomicLong retries, AtomicLong commit) throws Exception;
+    }
+
+    /**
+     * Constructs a {@code TransactionBenchmarkService} with a default console logger.
+     */
+    public TransactionBenchmarkService() {
+        this(QueryFactory.getInstance(), WorkloadFactory.getInstance(), new ConsoleLogger());
+    }
+
+    /**
+     * Constructs a {@code TransactionBenchmarkService} with custom factories and logger.
+     *
+     * @param queryFactory    the factory for creating queries
+     * @param workloadFactory the factory for creating workloads
+     * @param logger          the benchmark logger
+     */
+    public TransactionBenchmarkService(QueryFactory queryFactory, WorkloadFactory workloadFactory,
+                                       BenchmarkLogger logger) {
+        super(queryFactory, workloadFactory, logger);
+    }
+
+    /**
+     * Runs a transaction benchmark on the selected databases.
+     *
+     * @param request the transaction request
+     * @return a map of transaction results per database type
+     * @throws IllegalArgumentException if the collection has no counter, if a number is not positive, if a skew is
+     *                                  negative, if the Couchbase bucket cannot satisfy the durability level or if
+     *                                  there are less hot keys than documents per transaction
+     */
+    public Map<DBType, TransactionResult> runTransactionBenchmark(TransactionRequest request) {
+        String collection = request.getCollection();
+        if (!COUNTER_FIELDS.containsKey(collection)) {
+            throw new IllegalArgumentException("Transaction benchmarks are only available on the collections "
+                    + COUNTER_FIELDS.keySet());
+        }
+        if (request.getNumberOfExecutions() <= 0 || request.getDocumentsPerTransaction() <= 0
+                || request.getConcurrencies().stream().anyMatch(concurrency -> concurrency <= 0)
+                || request.getMaxRetries() < 0) {
+            throw new IllegalArgumentException("The number of executions, the documents per transaction and the "
+                    + "concurrencies must be positive, and the maximum number of retries must not be negative");
+        }
+        if (request.getSkews().stream().anyMatch(skew -> skew < 0)) {
+            throw new IllegalArgumentException("The skews must not be negative");
+        }
+        List<DatabaseManager> managers = getManagers(request.getSelectedDatabases());
+        for (DatabaseManager manager : managers) {
+            if (manager instanceof CouchbaseManager couchbaseManager) {
+                couchbaseManager.checkDurability(request.getDurabilityLevel());
+            }
+        }
+
+        logger.logHeader("TRANSACTION BENCHMARK (" + collection + ")");
+
+        List<String> hotKeys = sampleKeys(request, collection, request.getHotKeyCount());
+        if (hotKeys.size() < request.getDocumentsPerTransaction()) {
+            throw new IllegalArgumentException("Only " + hotKeys.size() + " hot keys could be sampled, less than "
+                    + "the number of documents per transaction");
+        }
+        logger.log(hotKeys.size() + " hot keys sampled from " + collection);
+
+        Map<DBType, TransactionResult> results = new TreeMap<>(Comparator.comparing(DBType::getName));
+
+        for (DatabaseManager manager : managers) {
+            List<Index> indexList = getIndexes(request.getIndexes(), manager.getType());
+
+            BenchmarkTask<List<TransactionSetting>> task = (scope) -> {
+                List<TransactionSetting> settings = new ArrayList<>();
+                // The transactions commit their modifications, which are restored when the snapshot is closed
+                try (DatasetSnapshot snapshot = manager.snapshot(scope, collection, hotKeys)) {
+                    for (double skew : request.getSkews()) {
+                        List<List<String>> transactions = buildTransactions(hotKeys, skew, request);
+                        for (int concurrency : request.getConcurrencies()) {
+                            if (manager instanceof CouchbaseManager couchbaseManager) {
+                                settings.add(runCouchbase(couchbaseManager, scope, transactions, skew, concurrency, request));
+                            } else if (manager instanceof PGManager pgManager) {
+                                for (IsolationLevel level : request.getIsolationLevels()) {
+                                    settings.add(runPostgres(pgManager, scope, transactions, level, skew, concurrency, request));
+                                }
+                            }
+                        }
+                    }
+                }
+                return settings;
+            };
+
+            executeBenchmarkForManager(manager, request.getSelectedSize(), indexList, task)
+                    .ifPresent(res -> results.put(
+                            manager.getType(),
+                            new TransactionResult(res.indexInfo(), res.taskResult())
+                    ));
+        }
+        logger.logEnd();
+        return results;
+    }
+
+    /**
+     * Executes the transactions on Couchbase with ACID transactions. The commit latency is the time between the
+     * end of the last attempt and the end of the transaction, which includes the commit and the unstaging of
+     * the documents.
+     *
+     * @param manager      the Couchbase manager
+     * @param scope        the scope of the benchmark
+     * @param transactions the keys accessed by each transaction
+     * @param skew         the exponent of the Zipf distribution of the keys
+     * @param concurrency  the number of concurrent transactions
+     * @param request      the transaction request
+     * @return the measurements of the setting
+     * @throws Exception if the load cannot be generated
+     */
+    private TransactionSetting runCouchbase(CouchbaseManager manager, String scope, List<List<String>> transactions,
+                                            double skew, int concurrency, TransactionRequest request) throws Exception {
+        String counter = COUNTER_FIELDS.get(request.getCollection());
+        TransactionOptions options = TransactionOptions.transactionOptions().durabilityLevel(
+                com.couchbase.client.core.msg.kv.DurabilityLevel.valueOf(request.getDurabilityLevel().name()));
+
+        TransactionOperation<CouchbaseSession> operation = (session, keys, retries, commit) -> {
+            Collection collection = session.getScope().collection(request.getCollection());
+            AtomicInteger attempts = new AtomicInteger();
+            AtomicLong attemptEnd = new AtomicLong();
+            try {
+                manager.transactions().run(ctx -> {
+                    attempts.incrementAndGet();
+                    for (String key : keys) {
+                        TransactionGetResult document = ctx.get(collection, key);
+                        JsonObject content = document.contentAsObject();
+                        Number value = content.getNumber(counter);
+                        ctx.replace(document, content.put(counter, (value != null ? value.intValue() : 0) + 1));
+                    }
+                    attemptEnd.set(System.nanoTime());
+                }, options);
+                commit.addAndGet(System.nanoTime() - attemptEnd.get());
+            } finally {
+                retries.addAndGet(Math.max(0, attempts.get() - 1));
+            }
+        };
+
+        return run(manager.getType().getName(), "durability_level=" + request.getDurabilityLevel().getName(),
+                () -> manager.openSession(scope), operation, transactions, skew, concurrency);
+    }
+
+    /**
+     * Executes the transactions on PostgreSQL with an isolation level. A transaction that fails with a
+     * serialization failure or a deadlock is rolled back and retried.
+     *
+     * @param manager      the PostgreSQL manager
+     * @param scope        the scope of the benchmark
+     * @param transactions the keys accessed by each transaction
+     * @param level        the isolation level
+     * @param skew         the exponent of the Zipf distribution of the keys
+     * @param concurrency  the number of concurrent transactions
+     * @param request      the transaction request
+     * @return the measurements of the setting
+     * @throws Exception if the load cannot be generated
+     */
+    private TransactionSetting runPostgres(PGManager manager, String scope, List<List<String>> transactions,
+                                           IsolationLevel level, double skew, int concurrency,
+                                           TransactionRequest request) throws Exception {
+        String table = request.getCollection();
+        String counter = COUNTER_FIELDS.get(table);
+        String keyColumn = manager.getKeyColumn(table);
+        String selectSQL;
+        String updateSQL;
+        if (manager.getType() == DBType.POSTGRESQL_JSONB) {
+            selectSQL = String.format("SELECT (data->>'%s')::int FROM \"%s\" WHERE %s = ?", counter, table, keyColumn);
+            updateSQL = String.format("UPDATE \"%s\" SET data = jsonb_set(data, '{%s}', to_jsonb(?::int)) WHERE %s = ?",
+                    table, counter, keyColumn);
+        } else {
+            selectSQL = String.format("SELECT %s FROM \"%s\" WHERE %s = ?", counter, table, keyColumn);
+            updateSQL = String.format("UPDATE \"%s\" SET %s = ? WHERE %s = ?", table, counter, keyColumn);
+        }
+
+        TransactionOperation<PGSession> operation = (session, keys, retries, commit) -> {
+            Connection conn = session.getConnection();
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    for (String key : keys) {
+                        int value = 0;
+                        try (PreparedStatement select = conn.prepareStatement(selectSQL)) {
+                            select.setString(1, key);
+                            try (ResultSet rs = select.executeQuery()) {
+                                if (rs.next()) {
+                                    value = rs.getInt(1);
+                                }
+                            }
+                        }
+                        try (PreparedStatement update = conn.prepareStatement(updateSQL)) {
+                            update.setInt(1, value + 1);
+                            update.setString(2, key);
+                            update.executeUpdate();
+                        }
+                    }
+                    long commitStart = System.nanoTime();
+                    conn.commit();
+                    commit.addAndGet(System.nanoTime() - commitStart);
+                    return;
+                } catch (SQLException e) {
+                    conn.rollback();
+                    if (!RETRYABLE_STATES.contains(e.getSQLState()) || attempt >= request.getMaxRetries()) {
+                        throw e;
+                    }
+                    retries.incrementAndGet();
+                }
+            }
+        };
+
+        return run(manager.getType().getName(), "isolation=" + level.getName(),
+                () -> {
+                    PGSession session = manager.openSession(scope);
+                    session.getConnection().setAutoCommit(false);
+                    session.getConnection().setTransactionIsolation(level.getLevel());
+                    return session;
+                },
+                operation, transactions, skew, concurrency);
+    }
+
+    /**
+     * Warms up a setting, then measures its transactions.
+     *
+     * @param database       the name of the database
+     * @param setting        the description of the setting
+     * @param sessionFactory opens the session of a worker
+     * @param operation      the transaction
+     * @param transactions   the keys accessed by each transaction
+     * @param skew           the exponent of the Zipf distribution of the keys
+     * @param concurrency    the number of concurrent transactions
+     * @param <S>            the type of session
+     * @return the measurements of the setting
+     * @throws Exception if the load cannot be generated
+     */
+    private <S extends AutoCloseable> TransactionSetting run(String database, String setting,
+                                                             LoadGenerator.SessionFactory<S> sessionFactory,
+                                                             TransactionOperation<S> operation,
+                                                             List<List<String>> transactions, double skew,
+                                                             int concurrency) throws Exception {
+        logger.log("Running " + database + " transactions with " + setting + ", skew " + skew + " and "
+                + concurrency + " concurrent transactions");
+
+        AtomicLong retries = new AtomicLong();
+        AtomicLong commitNanos = new AtomicLong();
+        LoadGenerator.Operation<S> load = (session, index) ->
+                operation.execute(session, transactions.get(index), retries, commitNanos);
+
+        new LoadGenerator(1, 0).run(sessionFactory, load, Math.min(transactions.size(), WARMUP_TRANSACTIONS));
+        retries.set(0);
+        commitNanos.set(0);
+
+        LatencyStats stats = new LoadGenerator(concurrency, 0).run(sessionFactory, load, transactions.size()).toStats();
+        double avgCommitLatency = stats.getCount() > 0 ? commitNanos.get() / 1_000_000.0 / stats.getCount() : 0;
+
+        return new TransactionSetting(setting, skew, concurrency, stats, avgCommitLatency, retries.get());
+    }
+
+    /**
+     * Draws the keys accessed by each transaction. The keys of a transaction are distinct, and are drawn from the
+     * hot keys with a Zipf distribution of the given exponent, or uniformly if the exponent is 0.
+     *
+     * @param hotKeys the hot keys, the first ones being the most accessed
+     * @param skew    the exponent of the Zipf distribution
+     * @param request the transaction request
+     * @return the keys of each transaction
+     */
+    private List<List<String>> buildTransactions(List<String> hotKeys, double skew, TransactionRequest request) {
+        RandomGenerator random = new Well19937c(KEY_SEED);
+        Supplier<Integer> nextRank = skew > 0
+                ? new ZipfDistribution(random, hotKeys.size(), skew)::sample
+                : () -> random.nextInt(hotKeys.size()) + 1;
+
+        List<List<String>> transactions = new ArrayList<>(request.getNumberOfExecutions());
+        for (int i = 0; i < request.getNumberOfExecutions(); i++) {
+            Set<String> keys = new LinkedHashSet<>();
+            while (keys.size() < request.getDocumentsPerTransaction()) {
+                keys.add(hotKeys.get(nextRank.get() - 1));
+            }
+            transactions.add(new ArrayList<>(keys));
+        }
+        return transactions;
+    }
+}
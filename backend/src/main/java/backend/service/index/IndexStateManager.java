@@ -0,0 +1,135 @@
+package backend.service.index;
+
+import backend.database.DatabaseManager;
+import backend.model.metadata.IndexInfo;
+import backend.model.request.Index;
+
+import java.util.*;
+
+/**
+ * The {@code IndexStateManager} class keeps the indexes of a scope in the state required by successive benchmark
+ * runs. Instead of creating the indexes before each run and dropping them after it, the desired indexes of a run
+ * are compared with the indexes already present in the scope, and only the difference is created or dropped.
+ * <p>
+ * Only the indexes created by the state manager are ever dropped. An index that already exists in the scope
+ * under a desired name, but was not created by the state manager, is reused as is and left in place when the
+ * state manager is released.
+ *
+ * @author Eva Ray
+ */
+public class IndexStateManager {
+
+    private final DatabaseManager manager;
+    private final String scope;
+    // Indexes created by the state manager and still present in the scope, by name
+    private final Map<String, Index> created = new LinkedHashMap<>();
+    private int createdCount = 0;
+    private int droppedCount = 0;
+
+    /**
+     * Constructs a new {@code IndexStateManager} for a scope of a database.
+     *
+     * @param manager the database manager
+     * @param scope   the managed scope
+     */
+    public IndexStateManager(DatabaseManager manager, String scope) {
+        this.manager = manager;
+        this.scope = scope;
+    }
+
+    /**
+     * Brings the scope to the desired set of indexes. The indexes created by the state manager that are not
+     * desired anymore, or whose definition changed, are dropped, and the missing indexes are created.
+     *
+     * @param desired the indexes needed by the next run
+     */
+    public void apply(List<Index> desired) {
+        Map<String, Index> desiredByName = new LinkedHashMap<>();
+        for (Index index : desired) {
+            desiredByName.put(index.getName(), index);
+        }
+
+        List<Index> toDrop = new ArrayList<>();
+        for (Index index : created.values()) {
+            Index wanted = desiredByName.get(index.getName());
+            if (wanted == null || !signature(wanted).equals(signature(index))) {
+                toDrop.add(index);
+            }
+        }
+        if (!toDrop.isEmpty()) {
+            manager.dropIndexes(scope, toDrop);
+            toDrop.forEach(index -> created.remove(index.getName()));
+            droppedCount += toDrop.size();
+        }
+
+        Set<String> existing = new HashSet<>();
+        for (IndexInfo info : manager.getIndexesInfo(scope)) {
+            existing.add(info.getIndexName());
+        }
+
+        List<Index> toCreate = new ArrayList<>();
+        for (Index index : desiredByName.values()) {
+            if (created.containsKey(index.getName())) {
+                continue;
+            }
+            if (existing.contains(index.getName())) {
+                System.out.println("Index " + index.getName() + " already exists in " + scope + ", it is reused");
+                continue;
+            }
+            toCreate.add(index);
+        }
+        if (!toCreate.isEmpty()) {
+            manager.createIndexes(scope, toCreate);
+            toCreate.forEach(index -> created.put(index.getName(), index));
+            createdCount += toCreate.size();
+        }
+
+        System.out.println("Index state of " + scope + ": " + toCreate.size() + " created, " + toDrop.size()
+                + " dropped, " + (desiredByName.size() - toCreate.size()) + " reused");
+    }
+
+    /**
+     * Drops all the indexes created by the state manager.
+     */
+    public void release() {
+        if (created.isEmpty()) {
+            return;
+        }
+        manager.dropIndexes(scope, new ArrayList<>(created.values()));
+        droppedCount += created.size();
+        created.clear();
+    }
+
+    /**
+     * Returns the number of indexes created since the state manager was constructed.
+     *
+     * @return the number of created indexes
+     */
+    public int getCreatedCount() {
+        return createdCount;
+    }
+
+    /**
+     * Returns the number of indexes dropped since the state manager was constructed.
+     *
+     * @return the number of dropped indexes
+     */
+    public int getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Returns a signature of the definition of an index. Two indexes with the same signature can be used
+     * interchangeably by a benchmark run.
+     *
+     * @param index the index
+     * @return the signature of the index
+     */
+    public static String signature(Index index) {
+        return String.join("|", index.getName(), index.getTable(), String.valueOf(index.getFields()),
+                String.valueOf(index.getIndexType()), String.valueOf(index.getWhere()),
+                String.valueOf(index.getInclude()), String.valueOf(index.getOpclass()),
+                String.valueOf(index.getArrayKey()), String.valueOf(index.getPartitionBy()),
+                String.valueOf(index.getNumPartitions()), String.valueOf(index.getNumReplicas()));
+    }
+}
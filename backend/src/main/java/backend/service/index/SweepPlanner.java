@@ -0,0 +1,89 @@
+package backend.service.index;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * The {@code SweepPlanner} class orders the runs of a sweep so that the indexes change as little as possible
+ * between successive runs. The index churn of two successive runs is the number of indexes that must be created
+ * or dropped to go from one to the other, that is the size of the symmetric difference of their index sets.
+ * <p>
+ * Finding the order with the smallest total churn is a travelling salesman problem, so the planner uses the
+ * nearest neighbour heuristic: starting from a scope without benchmark indexes, it repeatedly picks the run
+ * closest to the current index set, and keeps the order of the request between runs at the same distance.
+ *
+ * @author Eva Ray
+ */
+public final class SweepPlanner {
+
+    private SweepPlanner() {
+    }
+
+    /**
+     * Orders the runs of a sweep to minimise the index churn.
+     *
+     * @param runs    the runs, in the order of the request
+     * @param indexes the function returning the index signatures needed by a run
+     * @param <T>     the type of the runs
+     * @return the runs in execution order
+     */
+    public static <T> List<T> order(List<T> runs, Function<T, Set<String>> indexes) {
+        List<T> remaining = new ArrayList<>(runs);
+        List<T> ordered = new ArrayList<>(runs.size());
+        Set<String> current = Collections.emptySet();
+
+        while (!remaining.isEmpty()) {
+            int best = 0;
+            int bestDistance = Integer.MAX_VALUE;
+            for (int i = 0; i < remaining.size(); i++) {
+                int distance = distance(current, indexes.apply(remaining.get(i)));
+                if (distance < bestDistance) {
+                    best = i;
+                    bestDistance = distance;
+                }
+            }
+            T next = remaining.remove(best);
+            ordered.add(next);
+            current = indexes.apply(next);
+        }
+        return ordered;
+    }
+
+    /**
+     * Returns the number of index creations and drops needed to execute runs in a given order, from a scope
+     * without benchmark indexes and back to it.
+     *
+     * @param runs    the runs, in execution order
+     * @param indexes the function returning the index signatures needed by a run
+     * @param <T>     the type of the runs
+     * @return the total index churn
+     */
+    public static <T> int churn(List<T> runs, Function<T, Set<String>> indexes) {
+        int churn = 0;
+        Set<String> current = Collections.emptySet();
+        for (T run : runs) {
+            Set<String> next = indexes.apply(run);
+            churn += distance(current, next);
+            current = next;
+        }
+        return churn + current.size();
+    }
+
+    /**
+     * Returns the size of the symmetric difference of two index sets.
+     */
+    private static int distance(Set<String> from, Set<String> to) {
+        int distance = 0;
+        for (String index : from) {
+            if (!to.contains(index)) {
+                distance++;
+            }
+        }
+        for (String index : to) {
+            if (!from.contains(index)) {
+                distance++;
+            }
+        }
+        return distance;
+    }
+}
@@ -0,0 +1,205 @@
+package backend.service.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * The {@code LoadGenerator} class executes a number of operations against a database with a fixed number of
+ * concurrent workers, and measures the latency of each operation on the client side.
+ * <p>
+ * Each worker opens its own session with the provided factory, so that sessions never need to be thread-safe.
+ * The load is either closed (each worker starts a new operation as soon as the previous one completes) or
+ * paced at a target rate. In the paced mode, the latency is measured from the moment the operation should have
+ * started, so that a saturated database is not hidden by workers that fall behind schedule.
+ * <p>
+ * Once the requested number of operations is recorded, the workers can keep generating unrecorded background
+ * load, which is used to keep interfering with other workloads that are still being measured.
+ *
+ * @author Eva Ray
+ */
+public class LoadGenerator {
+
+    /**
+     * Opens the session used by one worker.
+     *
+     * @param <S> the type of session
+     */
+    @FunctionalInterface
+    public interface SessionFactory<S extends AutoCloseable> {
+
+        /**
+         * Opens a new session.
+         *
+         * @return the session
+         * @throws Exception if the session cannot be opened
+         */
+        S open() throws Exception;
+    }
+
+    /**
+     * An operation executed by a worker with its own session.
+     *
+     * @param <S> the type of session
+     */
+    @FunctionalInterface
+    public interface Operation<S> {
+
+        /**
+         * Executes the operation.
+         *
+         * @param session the session of the worker
+         * @param index   the index of the operation, starting at 0
+         * @throws Exception if the operation fails
+         */
+        void execute(S session, int index) throws Exception;
+    }
+
+    private final int concurrency;
+    private final double targetRate;
+
+    /**
+     * Constructs a new {@code LoadGenerator}.
+     *
+     * @param concurrency the number of concurrent workers
+     * @param targetRate  the target number of operations per second for all workers, or 0 for a closed load
+     */
+    public LoadGenerator(int concurrency, double targetRate) {
+        this.concurrency = Math.max(1, concurrency);
+        this.targetRate = Math.max(0, targetRate);
+    }
+
+    /**
+     * Executes a number of operations and blocks until they are completed.
+     *
+     * @param sessionFactory the factory used by each worker to open its session
+     * @param operation      the operation to execute
+     * @param operations     the number of operations to record
+     * @param <S>            the type of session
+     * @return the measured latencies
+     * @throws Exception if the workers cannot be run
+     */
+    public <S extends AutoCloseable> LoadResult run(SessionFactory<S> sessionFactory, Operation<S> operation,
+                                                    int operations) throws Exception {
+        return run(sessionFactory, operation, operations, () -> false, () -> {
+        });
+    }
+
+    /**
+     * Executes a number of operations and blocks until they are completed. After the recorded operations,
+     * unrecorded operations are executed as long as {@code keepRunning} returns {@code true}.
+     *
+     * @param sessionFactory the factory used by each worker to open its session
+     * @param operation      the operation to execute
+     * @param operations     the number of operations to record
+     * @param keepRunning    tells whether background operations must still be executed
+     * @param onRecorded     called once, when all the recorded operations are completed
+     * @param <S>            the type of session
+     * @return the measured latencies
+     * @throws Exception if the workers cannot be run
+     */
+    public <S extends AutoCloseable> LoadResult run(SessionFactory<S> sessionFactory, Operation<S> operation,
+                                                    int operations, BooleanSupplier keepRunning,
+                                                    Runnable onRecorded) throws Exception {
+        double[] latencies = new double[operations];
+        boolean[] succeeded = new boolean[operations];
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+
+        // The callback must be called exactly once, even if some workers fail
+        AtomicBoolean notified = new AtomicBoolean();
+        Runnable notifyRecorded = () -> {
+            if (notified.compareAndSet(false, true)) {
+                onRecorded.run();
+            }
+        };
+
+        if (operations == 0) {
+            notifyRecorded.run();
+        }
+
+        long intervalNanos = targetRate > 0 ? (long) (1_000_000_000L / targetRate) : 0;
+        long start = System.nanoTime();
+        AtomicLong lastRecordedEnd = new AtomicLong(start);
+
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int w = 0; w < concurrency; w++) {
+                workers.add(executor.submit(() -> {
+                    try (S session = sessionFactory.open()) {
+                        while (true) {
+                            int index = nextIndex.getAndIncrement();
+                            boolean recorded = index < operations;
+                            if (!recorded && !keepRunning.getAsBoolean()) {
+                                break;
+                            }
+
+                            // In paced mode, wait for the scheduled start of the operation
+                            long operationStart = System.nanoTime();
+                            if (intervalNanos > 0) {
+                                long scheduled = start + index * intervalNanos;
+                                while (System.nanoTime() < scheduled) {
+                                    LockSupport.parkNanos(scheduled - System.nanoTime());
+                                }
+                                operationStart = scheduled;
+                            }
+
+                            try {
+                                operation.execute(session, index);
+                                if (recorded) {
+                                    long end = System.nanoTime();
+                                    latencies[index] = (end - operationStart) / 1_000_000.0;
+                                    succeeded[index] = true;
+                                    lastRecordedEnd.accumulateAndGet(end, Math::max);
+                                }
+                            } catch (Exception e) {
+                                if (recorded && errors.incrementAndGet() == 1) {
+                                    System.err.println("Error during load generation: " + e.getMessage());
+                                }
+                            }
+
+                            if (recorded && completed.incrementAndGet() == operations) {
+                                notifyRecorded.run();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            // Wait for all the workers, even if one of them failed, and report the first failure
+            ExecutionException failure = null;
+            for (Future<?> worker : workers) {
+                try {
+                    worker.get();
+                } catch (ExecutionException e) {
+                    failure = failure == null ? e : failure;
+                }
+            }
+            if (failure != null) {
+                throw new Exception("Load generation failed: " + failure.getCause().getMessage(), failure.getCause());
+            }
+        } finally {
+            notifyRecorded.run();
+            executor.shutdownNow();
+        }
+
+        List<Double> measured = new ArrayList<>();
+        for (int i = 0; i < operations; i++) {
+            if (succeeded[i]) {
+                measured.add(latencies[i]);
+            }
+        }
+        double wallTimeMs = (lastRecordedEnd.get() - start) / 1_000_000.0;
+        return new LoadResult(measured.stream().mapToDouble(d -> d).toArray(), errors.get(), wallTimeMs);
+    }
+}
@@ -0,0 +1,24 @@
+package backend.service.load;
+
+import backend.model.result.LatencyStats;
+
+/**
+ * The {@code LoadResult} record holds the raw measurements produced by a {@link LoadGenerator} run.
+ *
+ * @param latencies  the latencies of the successful operations, in milliseconds
+ * @param errors     the number of operations that failed
+ * @param wallTimeMs the time between the start of the run and the end of the last recorded operation
+ *
+ * @author Eva Ray
+ */
+public record LoadResult(double[] latencies, long errors, double wallTimeMs) {
+
+    /**
+     * Summarizes the measurements into latency statistics.
+     *
+     * @return the statistics of the run
+     */
+    public LatencyStats toStats() {
+        return LatencyStats.of(latencies, errors, wallTimeMs);
+    }
+}
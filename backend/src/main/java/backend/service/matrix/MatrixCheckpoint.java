@@ -0,0 +1,179 @@
+package backend.service.matrix;
+
+import backend.model.result.MatrixRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The {@code MatrixCheckpoint} class keeps the measured cells of a benchmark matrix in a JSON Lines file, one line
+ * per cell, so that a matrix interrupted by a failure or a restart of the backend can be resumed without measuring
+ * its cells again. Each line is written as soon as its cell is measured, and a truncated last line is ignored.
+ * <p>
+ * The cells are identified by a key built from their definition rather than from the names of the request, so
+ * that a cell whose indexes, settings or number of executions changed is measured again.
+ * <p>
+ * The checkpoint files are kept in a single directory, {@code checkpoints} in the working directory of the backend
+ * unless another directory is given with the {@code checkpointDir} system property. A request only gives the name
+ * of its file, so that it cannot read, overwrite or delete a file outside this directory.
+ * <p>
+ * If the file cannot be read or written, the matrix is still run, but cannot be resumed.
+ *
+ * @author Eva Ray
+ */
+public class MatrixCheckpoint {
+
+    private static final String DIRECTORY_PROPERTY = "checkpointDir";
+    private static final String DEFAULT_DIRECTORY = "checkpoints";
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Path path;
+    private final Map<String, MatrixRow> rows = new LinkedHashMap<>();
+
+    /**
+     * A line of the checkpoint file.
+     * Getters and setters are mandatory for the conversion from and to JSON.
+     */
+    public static class Entry {
+
+        private String cell;
+        private MatrixRow row;
+
+        public Entry() {
+        }
+
+        public Entry(String cell, MatrixRow row) {
+            this.cell = cell;
+            this.row = row;
+        }
+
+        public String getCell() {
+            return cell;
+        }
+
+        public void setCell(String cell) {
+            this.cell = cell;
+        }
+
+        public MatrixRow getRow() {
+            return row;
+        }
+
+        public void setRow(MatrixRow row) {
+            this.row = row;
+        }
+    }
+
+    /**
+     * Opens a checkpoint file of the checkpoint directory.
+     *
+     * @param fileName the name of the file, or null for a checkpoint that is not saved
+     * @param resume   true to read the cells already in the file, false to start a new file
+     * @throws IllegalArgumentException if the name contains a path separator or {@code ..}
+     */
+    public MatrixCheckpoint(String fileName, boolean resume) {
+        this.path = fileName == null || fileName.isBlank() ? null : resolve(fileName);
+        if (this.path == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(this.path.getParent());
+            if (resume && Files.exists(this.path)) {
+                load();
+            } else {
+                Files.deleteIfExists(this.path);
+            }
+        } catch (IOException e) {
+            System.err.println("Error while opening the matrix checkpoint " + path + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the path of a checkpoint file in the checkpoint directory.
+     *
+     * @param fileName the name of the file
+     * @return the path of the file
+     * @throws IllegalArgumentException if the name contains a path separator or {@code ..}
+     */
+    private static Path resolve(String fileName) {
+        if (fileName.contains("/") || fileName.contains("\\") || fileName.contains("..")) {
+            throw new IllegalArgumentException("The checkpoint file must be a file name, without path separator "
+                    + "or '..': " + fileName);
+        }
+        Path directory = Path.of(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY)).toAbsolutePath().normalize();
+        Path path = directory.resolve(fileName).normalize();
+        if (!directory.equals(path.getParent())) {
+            throw new IllegalArgumentException("The checkpoint file must be a file name: " + fileName);
+        }
+        return path;
+    }
+
+    /**
+     * Returns the row of a cell already measured.
+     *
+     * @param cell the key of the cell
+     * @return the row of the cell, or empty if the cell is not in the checkpoint
+     */
+    public Optional<MatrixRow> get(String cell) {
+        return Optional.ofNullable(rows.get(cell));
+    }
+
+    /**
+     * Adds a measured cell to the checkpoint and appends it to the file.
+     *
+     * @param cell the key of the cell
+     * @param row  the row of the cell
+     */
+    public void record(String cell, MatrixRow row) {
+        rows.put(cell, row);
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.writeString(path, mapper.writeValueAsString(new Entry(cell, row)) + System.lineSeparator(),
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Error while saving the matrix checkpoint: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns the name of the checkpoint file, in the checkpoint directory.
+     *
+     * @return the name of the file, or null if the checkpoint is not saved
+     */
+    public String getFileName() {
+        return path != null ? path.getFileName().toString() : null;
+    }
+
+    /**
+     * Reads the cells of the checkpoint file. The last cell of a key wins, and the lines that cannot be read,
+     * such as a line truncated by an interruption, are ignored.
+     */
+    private void load() throws IOException {
+        String content = Files.readString(path, StandardCharsets.UTF_8);
+        for (String line : content.split("\\R")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                Entry entry = mapper.readValue(line, Entry.class);
+                rows.put(entry.getCell(), entry.getRow());
+            } catch (IOException e) {
+                System.err.println("Ignoring an unreadable line of the matrix checkpoint: " + e.getMessage());
+            }
+        }
+        // A truncated last line is ended, so that the next cell is written on its own line
+        if (!content.isEmpty() && !content.endsWith("\n")) {
+            Files.writeString(path, System.lineSeparator(), StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+        System.out.println(rows.size() + " cells read from the matrix checkpoint " + path);
+    }
+}
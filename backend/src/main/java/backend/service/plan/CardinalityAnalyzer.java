@@ -0,0 +1,135 @@
+package backend.service.plan;
+
+import backend.model.options.OperatorCategory;
+import backend.model.result.CardinalityReport;
+import backend.model.result.Misestimate;
+import backend.model.result.PlanOperator;
+
+import java.util.*;
+
+/**
+ * The {@code CardinalityAnalyzer} class measures how well the planner estimated the rows of each operator of a
+ * PostgreSQL plan. The operators with a q-error of at least {@value #MIN_Q_ERROR} are misestimates, and each of
+ * them is connected to the operator whose choice depends on the estimate: the nearest join above it, whose method
+ * and order were chosen for the estimated rows, or the scan itself, whose access path was chosen for them.
+ * <p>
+ * JSONB path predicates, such as {@code data->>'city' = 'Nashville'}, are estimated with default selectivities
+ * unless expression statistics exist, which is a common source of large q-errors and of slow joins.
+ *
+ * @author Eva Ray
+ */
+public final class CardinalityAnalyzer {
+
+    private static final double MIN_Q_ERROR = 2;
+    private static final int MAX_MISESTIMATES = 5;
+    private static final Set<OperatorCategory> JOINS = EnumSet.of(OperatorCategory.HASH_JOIN,
+            OperatorCategory.NESTED_LOOP_JOIN, OperatorCategory.MERGE_JOIN);
+    private static final Set<OperatorCategory> SCANS = EnumSet.of(OperatorCategory.FULL_SCAN,
+            OperatorCategory.INDEX_SCAN, OperatorCategory.FETCH);
+
+    private CardinalityAnalyzer() {
+    }
+
+    /**
+     * Analyses the row estimates of a plan.
+     *
+     * @param plan the root operator of the plan
+     * @return the cardinality report, or null if the plan has no row estimate
+     */
+    public static CardinalityReport analyse(PlanOperator plan) {
+        if (plan == null) {
+            return null;
+        }
+        List<Double> qErrors = new ArrayList<>();
+        List<Misestimate> misestimates = new ArrayList<>();
+        visit(plan, new ArrayDeque<>(), qErrors, misestimates);
+        if (qErrors.isEmpty()) {
+            return null;
+        }
+
+        double max = qErrors.stream().mapToDouble(Double::doubleValue).max().orElse(1);
+        double mean = Math.exp(qErrors.stream().mapToDouble(Math::log).average().orElse(0));
+        misestimates.sort(Comparator.comparingDouble(Misestimate::getQError).reversed());
+        return new CardinalityReport(qErrors.size(), max, mean,
+                new ArrayList<>(misestimates.subList(0, Math.min(MAX_MISESTIMATES, misestimates.size()))));
+    }
+
+    /**
+     * Collects the q-error of an operator and of its children, with the misestimates.
+     *
+     * @param operator     the operator
+     * @param ancestors    the ancestors of the operator, the closest first
+     * @param qErrors      the q-errors of the plan
+     * @param misestimates the misestimates of the plan
+     */
+    private static void visit(PlanOperator operator, Deque<PlanOperator> ancestors, List<Double> qErrors,
+                              List<Misestimate> misestimates) {
+        Double qError = operator.getQError();
+        if (qError != null) {
+            qErrors.add(qError);
+            if (qError >= MIN_Q_ERROR) {
+                misestimates.add(misestimate(operator, ancestors));
+            }
+        }
+        ancestors.push(operator);
+        for (PlanOperator child : operator.getChildren()) {
+            visit(child, ancestors, qErrors, misestimates);
+        }
+        ancestors.pop();
+    }
+
+    /**
+     * Describes the misestimate of an operator and the operator whose choice depends on it.
+     */
+    private static Misestimate misestimate(PlanOperator operator, Deque<PlanOperator> ancestors) {
+        long loops = operator.getLoops() != null ? Math.max(operator.getLoops(), 1) : 1;
+        long estimated = operator.getEstimatedRows() != null ? operator.getEstimatedRows() : 0;
+        long actual = operator.getRowsOut() != null ? operator.getRowsOut() / loops : 0;
+        boolean underestimated = actual > estimated;
+
+        PlanOperator affected = ancestors.stream()
+                // A join has two inputs, unlike the hash table of a hash join
+                .filter(ancestor -> JOINS.contains(ancestor.getCategory()) && ancestor.getChildren().size() > 1)
+                .findFirst()
+                .orElse(SCANS.contains(operator.getCategory()) || ancestors.isEmpty() ? operator : ancestors.peek());
+
+        return new Misestimate(operator.getOperator(), operator.getCategory(), operator.getRelation(),
+                operator.getCondition(), estimated, actual, loops, operator.getQError(), underestimated,
+                operator.getInclusiveTime(), affected.getOperator(), affected.getInclusiveTime(),
+                diagnose(operator, affected, underestimated, estimated, actual));
+    }
+
+    /**
+     * Explains how a misestimate may have led to a slow choice of the affected operator.
+     */
+    private static String diagnose(PlanOperator operator, PlanOperator affected, boolean underestimated,
+                                   long estimated, long actual) {
+        String rows = estimated + " estimated rows, " + actual + " actual rows";
+        OperatorCategory category = affected.getCategory();
+        if (underestimated && operator.getMetrics() != null && operator.getMetrics().isSpilled()) {
+            return operator.getOperator() + " sized for " + rows + ": it spilled to disk";
+        }
+        if (category == OperatorCategory.NESTED_LOOP_JOIN && underestimated) {
+            return affected.getOperator() + " chosen for " + rows + " of " + operator.getOperator()
+                    + ": a hash or merge join is usually faster for that many rows";
+        }
+        if ((category == OperatorCategory.HASH_JOIN || category == OperatorCategory.MERGE_JOIN) && !underestimated) {
+            return affected.getOperator() + " chosen for " + rows + " of " + operator.getOperator()
+                    + ": a nested loop over an index may be faster for that few rows";
+        }
+        if (JOINS.contains(category) && affected == operator) {
+            return operator.getOperator() + " produced " + rows + ": the operators above it were planned for the estimate";
+        }
+        if (JOINS.contains(category)) {
+            return "Join order and method of " + affected.getOperator() + " chosen for " + rows + " of "
+                    + operator.getOperator();
+        }
+        if (affected == operator && category == OperatorCategory.FULL_SCAN && !underestimated) {
+            return operator.getOperator() + " chosen for " + rows + ": an index scan may be faster";
+        }
+        if (affected == operator && SCANS.contains(category) && underestimated) {
+            return operator.getOperator() + " chosen for " + rows + ": a sequential or bitmap scan may be faster";
+        }
+        return affected.getOperator() + " planned for " + rows + " of " + operator.getOperator();
+    }
+}
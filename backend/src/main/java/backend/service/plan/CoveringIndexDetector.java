@@ -0,0 +1,300 @@
+package backend.service.plan;
+
+import backend.model.request.Index;
+import backend.model.result.CoveringOpportunity;
+import backend.parser.CouchbaseTimingsParser.ProfileNode;
+
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The {@code CoveringIndexDetector} class finds the Couchbase queries that a covering index would speed up. In
+ * the profile of a query, a {@code Fetch} operator that follows an index scan reads from the data service the
+ * documents whose keys the index returned, because the index does not contain all the fields the query reads.
+ * The detector reports the share of the time of the query spent in each such fetch, and generates a covering
+ * index candidate with the fields of the fetched documents that the expressions of the plan reference.
+ * <p>
+ * When the scanned index is one of the indexes of the benchmark, the candidate keeps its keys and its condition,
+ * and covers the other fields as trailing keys. Otherwise, the filtered fields are the keys of the candidate and
+ * the other fields are covered. A query that reads whole documents, such as {@code SELECT r.*}, cannot be covered.
+ *
+ * @author Eva Ray
+ */
+public final class CoveringIndexDetector {
+
+    private static final String FETCH = "Fetch";
+    // Operators that only group other operators, a fetch may be the first operator they run
+    private static final Set<String> GROUPS = Set.of("Sequence", "Parallel");
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private CoveringIndexDetector() {
+    }
+
+    /**
+     * Detects the fetches that follow an index scan in a profile, and generates a covering index candidate for
+     * each of them.
+     *
+     * @param profile the root node of the profile
+     * @param indexes the indexes of the benchmark, whose definition is reused for the scanned indexes
+     * @return the covering opportunities, from the largest fetch share
+     */
+    public static List<CoveringOpportunity> detect(ProfileNode profile, List<Index> indexes) {
+        List<CoveringOpportunity> opportunities = new ArrayList<>();
+        if (profile == null) {
+            return opportunities;
+        }
+        double total = profile.toPlanOperator().getInclusiveTime();
+        List<ProfileNode> nodes = new ArrayList<>();
+        flatten(profile, nodes);
+
+        List<ProfileNode[]> fetches = new ArrayList<>();
+        findFetches(profile, fetches);
+        Set<String> names = new HashSet<>();
+        for (ProfileNode[] pair : fetches) {
+            opportunities.add(opportunity(pair[0], pair[1], nodes, indexes, total, names));
+        }
+        opportunities.sort(Comparator.comparingDouble(CoveringOpportunity::getFetchShare).reversed());
+        return opportunities;
+    }
+
+    /**
+     * Returns the share of the time of a query spent fetching documents, all fetches included.
+     *
+     * @param profile the root node of the profile
+     * @return the fetch share in percent
+     */
+    public static double fetchShare(ProfileNode profile) {
+        if (profile == null) {
+            return 0;
+        }
+        double total = profile.toPlanOperator().getInclusiveTime();
+        List<ProfileNode> nodes = new ArrayList<>();
+        flatten(profile, nodes);
+        double fetchTime = nodes.stream().filter(node -> FETCH.equals(node.operator()))
+                .mapToDouble(ProfileNode::time)
+                .sum();
+        return total > 0 ? fetchTime / total * 100 : 0;
+    }
+
+    /**
+     * Finds the fetches that follow an index scan among the children of a node and of its descendants.
+     *
+     * @param node    the node
+     * @param fetches the list to which the pairs of scan and fetch are added
+     */
+    private static void findFetches(ProfileNode node, List<ProfileNode[]> fetches) {
+        ProfileNode scan = null;
+        for (ProfileNode child : node.children()) {
+            ProfileNode fetch = scan != null ? leadingFetch(child) : null;
+            if (fetch != null) {
+                fetches.add(new ProfileNode[]{scan, fetch});
+                scan = null;
+            } else {
+                scan = indexScan(child);
+            }
+            findFetches(child, fetches);
+        }
+    }
+
+    /**
+     * Returns the index scan done by an operator: the operator itself, or the first index scan of an operator
+     * that combines scans, such as {@code IntersectScan} or {@code DistinctScan}.
+     */
+    private static ProfileNode indexScan(ProfileNode node) {
+        if (node.operator().startsWith("IndexScan")) {
+            return node;
+        }
+        if (node.operator().endsWith("Scan")) {
+            for (ProfileNode child : node.children()) {
+                ProfileNode scan = indexScan(child);
+                if (scan != null) {
+                    return scan;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the fetch run first by an operator: the operator itself, or the first operator of a group.
+     */
+    private static ProfileNode leadingFetch(ProfileNode node) {
+        if (FETCH.equals(node.operator())) {
+            return node;
+        }
+        if (GROUPS.contains(node.operator()) && !node.children().isEmpty()) {
+            return leadingFetch(node.children().get(0));
+        }
+        return null;
+    }
+
+    /**
+     * Builds the covering opportunity of a fetch.
+     *
+     * @param scan    the index scan before the fetch
+     * @param fetch   the fetch
+     * @param nodes   all the nodes of the profile
+     * @param indexes the indexes of the benchmark
+     * @param total   the total time of the query, in ms
+     * @param names   the names of the candidates already generated, to keep them unique
+     * @return the covering opportunity
+     */
+    private static CoveringOpportunity opportunity(ProfileNode scan, ProfileNode fetch, List<ProfileNode> nodes,
+                                                   List<Index> indexes, double total, Set<String> names) {
+        String keyspace = fetch.keyspace() != null ? fetch.keyspace() : scan.keyspace();
+        String alias = fetch.alias() != null ? fetch.alias() : keyspace;
+        double share = total > 0 ? fetch.time() / total * 100 : 0;
+
+        Pattern reference = Pattern.compile("(?i)(meta\\(\\s*)?`" + Pattern.quote(alias) + "`((?:\\.`[^`]+`)*)");
+        Set<String> filtered = new LinkedHashSet<>();
+        Set<String> referenced = new LinkedHashSet<>();
+        boolean wholeDocument = false;
+        for (ProfileNode node : nodes) {
+            boolean filter = node.operator().equals("Filter") || node.operator().contains("Join")
+                    || node.operator().contains("Nest");
+            for (String expression : node.expressions()) {
+                Matcher matcher = reference.matcher(expression);
+                while (matcher.find()) {
+                    if (matcher.group(1) != null) {
+                        // META() is part of every index
+                        continue;
+                    }
+                    if (matcher.group(2).isEmpty()) {
+                        wholeDocument = true;
+                        continue;
+                    }
+                    String field = field(matcher.group(2));
+                    referenced.add(field);
+                    if (filter) {
+                        filtered.add(field);
+                    }
+                }
+            }
+        }
+        List<String> fields = withoutNested(referenced);
+
+        Index scanned = indexes.stream()
+                .filter(index -> index.getName().equals(scan.index()) && index.getTable().equals(keyspace))
+                .findFirst()
+                .orElse(null);
+        Index candidate = null;
+        String reason = null;
+        if (wholeDocument) {
+            reason = "The query reads whole documents of " + alias + ", no index can cover it";
+        } else if (fields.isEmpty()) {
+            reason = "No field of " + alias + " is referenced by the plan";
+        } else if (scanned != null) {
+            candidate = extend(scanned, fields, names);
+            if (candidate == null) {
+                reason = "Index " + scanned.getName() + " already contains the referenced fields";
+            }
+        } else {
+            List<String> keys = withoutNested(filtered);
+            if (keys.isEmpty()) {
+                keys = List.of(fields.get(0));
+            }
+            candidate = new Index();
+            candidate.setName(uniqueName("cover_" + keyspace, names));
+            candidate.setTable(keyspace);
+            candidate.setFields(keys);
+            candidate.setInclude(missing(keys, fields));
+        }
+
+        return new CoveringOpportunity(keyspace, alias, scan.index(), fetch.itemsOut(), fetch.time(), share, fields,
+                candidate, reason);
+    }
+
+    /**
+     * Returns a copy of a scanned index that also covers the referenced fields it does not contain.
+     *
+     * @return the covering index, or null if the index already contains all the fields
+     */
+    private static Index extend(Index scanned, List<String> fields, Set<String> names) {
+        List<String> keys = new ArrayList<>();
+        if (scanned.getFields() != null) {
+            keys.addAll(scanned.getFields());
+        }
+        if (scanned.getInclude() != null) {
+            keys.addAll(scanned.getInclude());
+        }
+        List<String> covered = missing(keys, fields);
+        if (covered.isEmpty()) {
+            return null;
+        }
+        List<String> include = new ArrayList<>(scanned.getInclude() != null ? scanned.getInclude() : List.of());
+        include.addAll(covered);
+
+        Index index = new Index();
+        index.setName(uniqueName("cover_" + scanned.getName(), names));
+        index.setTable(scanned.getTable());
+        index.setFields(scanned.getFields());
+        index.setType(scanned.getIndexType());
+        index.setWhere(scanned.getWhere());
+        index.setInclude(include);
+        index.setArrayKey(scanned.getArrayKey());
+        index.setPartitionBy(scanned.getPartitionBy());
+        index.setNumPartitions(scanned.getNumPartitions());
+        index.setNumReplicas(scanned.getNumReplicas());
+        return index;
+    }
+
+    /**
+     * Returns the fields that are not contained in keys, neither as such nor through a parent field.
+     */
+    private static List<String> missing(List<String> keys, List<String> fields) {
+        Set<String> normalised = new HashSet<>();
+        keys.forEach(key -> normalised.add(key.replace("`", "").strip()));
+        List<String> missing = new ArrayList<>();
+        for (String field : fields) {
+            String path = field.replace("`", "");
+            if (normalised.stream().noneMatch(key -> path.equals(key) || path.startsWith(key + "."))) {
+                missing.add(field);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Removes the fields nested in another field of the set, which covers them.
+     */
+    private static List<String> withoutNested(Set<String> fields) {
+        return fields.stream()
+                .filter(field -> fields.stream().noneMatch(other -> field.startsWith(other + ".")))
+                .toList();
+    }
+
+    /**
+     * Converts a path of backquoted identifiers, such as {@code .`attributes`.`WiFi`}, into an index key. Only
+     * the identifiers that need it are backquoted.
+     */
+    private static String field(String path) {
+        List<String> segments = new ArrayList<>();
+        Matcher matcher = Pattern.compile("`([^`]+)`").matcher(path);
+        while (matcher.find()) {
+            String segment = matcher.group(1);
+            segments.add(IDENTIFIER.matcher(segment).matches() ? segment : "`" + segment + "`");
+        }
+        return String.join(".", segments);
+    }
+
+    /**
+     * Returns a valid index name, made unique among the names already generated.
+     */
+    private static String uniqueName(String name, Set<String> names) {
+        String base = name.replaceAll("[^A-Za-z0-9_]", "_");
+        String unique = base;
+        for (int i = 2; !names.add(unique); i++) {
+            unique = base + "_" + i;
+        }
+        return unique;
+    }
+
+    /**
+     * Adds a node and its descendants to a list.
+     */
+    private static void flatten(ProfileNode node, List<ProfileNode> nodes) {
+        nodes.add(node);
+        node.children().forEach(child -> flatten(child, nodes));
+    }
+}
@@ -0,0 +1,164 @@
+package backend.service.plan;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.*;
+
+/**
+ * The {@code FlameGraphExporter} class exports the structured plans of benchmark results in the collapsed-stack
+ * format read by flame graph tools such as {@code flamegraph.pl} or speedscope. Each line is a stack of frames
+ * separated by semicolons followed by a weight: the frames go from the database and the query down to the
+ * operator, and the weight is the exclusive time of the operator in microseconds, so that the width of each
+ * frame in the flame graph is the inclusive time of the operator.
+ * <p>
+ * The exporter reads results in their JSON form, so that it works both on results just measured and on results
+ * saved by the frontend. Every object with a {@code plan} field is exported, and the names of the objects that
+ * lead to it (database type, query type, run name) become the first frames of its stacks.
+ * <p>
+ * A differential export puts two weights on each line, before and after, in the format of {@code difffolded.pl},
+ * so that {@code flamegraph.pl} can colour the frames that became slower or faster.
+ *
+ * @author Eva Ray
+ */
+public final class FlameGraphExporter {
+
+    // Fields that only group results and do not name them
+    private static final Set<String> CONTAINER_FIELDS = Set.of("results", "result", "runs");
+
+    private FlameGraphExporter() {
+    }
+
+    /**
+     * Collapses the plans of benchmark results into weighted stacks.
+     *
+     * @param results    the benchmark results, in JSON form
+     * @param categories whether the frames are the engine-neutral categories of the operators rather than their
+     *                   native names, which makes the stacks of PostgreSQL and Couchbase comparable
+     * @return the exclusive time in microseconds of each stack, ordered by stack
+     */
+    public static Map<String, Long> collapse(JsonNode results, boolean categories) {
+        Map<String, Long> stacks = new TreeMap<>();
+        collect(results, new ArrayList<>(), categories, stacks);
+        return stacks;
+    }
+
+    /**
+     * Formats collapsed stacks, one {@code stack weight} line per stack with a positive weight.
+     *
+     * @param stacks the weighted stacks
+     * @return the collapsed-stack text
+     */
+    public static String format(Map<String, Long> stacks) {
+        StringBuilder sb = new StringBuilder();
+        stacks.forEach((stack, weight) -> {
+            if (weight > 0) {
+                sb.append(stack).append(' ').append(weight).append('\n');
+            }
+        });
+        return sb.toString();
+    }
+
+    /**
+     * Formats the difference of two sets of collapsed stacks, one {@code stack before after} line per stack.
+     * A stack present on one side only has a weight of 0 on the other side.
+     *
+     * @param before the weighted stacks of the reference
+     * @param after  the weighted stacks compared to the reference
+     * @return the differential collapsed-stack text
+     */
+    public static String formatDiff(Map<String, Long> before, Map<String, Long> after) {
+        Set<String> stacks = new TreeSet<>(before.keySet());
+        stacks.addAll(after.keySet());
+
+        StringBuilder sb = new StringBuilder();
+        for (String stack : stacks) {
+            long beforeWeight = before.getOrDefault(stack, 0L);
+            long afterWeight = after.getOrDefault(stack, 0L);
+            if (beforeWeight > 0 || afterWeight > 0) {
+                sb.append(stack).append(' ').append(beforeWeight).append(' ').append(afterWeight).append('\n');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Walks a JSON tree and collapses every plan found in it, with the names leading to it as first frames.
+     */
+    private static void collect(JsonNode node, List<String> path, boolean categories, Map<String, Long> stacks) {
+        if (node == null) {
+            return;
+        }
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (field.getKey().equals("plan")) {
+                    if (field.getValue().has("operator")) {
+                        collapseOperator(field.getValue(), path, categories, stacks);
+                    }
+                } else if (CONTAINER_FIELDS.contains(field.getKey())) {
+                    collect(field.getValue(), path, categories, stacks);
+                } else if (field.getValue().isContainerNode()) {
+                    collect(field.getValue(), append(path, field.getKey()), categories, stacks);
+                }
+            }
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                JsonNode element = node.get(i);
+                String name = element.hasNonNull("name") ? element.get("name").asText() : String.valueOf(i);
+                collect(element, append(path, name), categories, stacks);
+            }
+        }
+    }
+
+    /**
+     * Adds the exclusive time of an operator to its stack, then collapses its children.
+     */
+    private static void collapseOperator(JsonNode operator, List<String> path, boolean categories,
+                                         Map<String, Long> stacks) {
+        List<String> stack = append(path, frame(operator, categories));
+        long weight = Math.round(operator.path("exclusiveTime").asDouble() * 1000);
+        stacks.merge(String.join(";", stack), weight, Long::sum);
+        for (JsonNode child : operator.path("children")) {
+            collapseOperator(child, stack, categories, stacks);
+        }
+    }
+
+    /**
+     * Returns the frame of an operator: its category, or its native name followed by the table and index read.
+     */
+    private static String frame(JsonNode operator, boolean categories) {
+        if (categories) {
+            JsonNode category = operator.get("category");
+            return sanitize(category == null || category.isNull() ? "OTHER" : category.asText());
+        }
+        StringBuilder frame = new StringBuilder(operator.path("operator").asText());
+        List<String> targets = new ArrayList<>();
+        if (operator.hasNonNull("relation")) {
+            targets.add(operator.get("relation").asText());
+        }
+        if (operator.hasNonNull("index")) {
+            targets.add(operator.get("index").asText());
+        }
+        if (!targets.isEmpty()) {
+            frame.append(" [").append(String.join("/", targets)).append(']');
+        }
+        return sanitize(frame.toString());
+    }
+
+    /**
+     * Returns a copy of a path with one more frame.
+     */
+    private static List<String> append(List<String> path, String frame) {
+        List<String> next = new ArrayList<>(path);
+        next.add(sanitize(frame));
+        return next;
+    }
+
+    /**
+     * Removes the characters that separate frames and lines in the collapsed-stack format.
+     */
+    private static String sanitize(String frame) {
+        return frame.replace(';', ',').replace('\n', ' ').replace('\r', ' ');
+    }
+}
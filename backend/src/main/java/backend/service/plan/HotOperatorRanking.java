@@ -0,0 +1,77 @@
+package backend.service.plan;
+
+import backend.model.options.QueryType;
+import backend.model.result.HotOperator;
+import backend.model.result.PlanOperator;
+import backend.model.result.Result;
+
+import java.util.*;
+
+/**
+ * The {@code HotOperatorRanking} class ranks the operators in which a workload spends its time, from the
+ * structured plans of its queries. Each query contributes the exclusive times of its operators for one execution,
+ * weighted by its ratio in the workload, so that the ranking reflects the mix of the workload rather than the
+ * slowest query alone.
+ *
+ * @author Eva Ray
+ */
+public final class HotOperatorRanking {
+
+    private HotOperatorRanking() {
+    }
+
+    /**
+     * Accumulates the operators of one group.
+     */
+    private static final class Group {
+        private final PlanOperator example;
+        private double time;
+        private final Set<QueryType> queries = new LinkedHashSet<>();
+
+        Group(PlanOperator example) {
+            this.example = example;
+        }
+    }
+
+    /**
+     * Ranks the operators of the plans of a workload by weighted exclusive time.
+     *
+     * @param results the results of the queries of the workload
+     * @param weights the ratio of each query in the workload, a query without ratio has a weight of 1
+     * @return the operators, from the most to the least expensive
+     */
+    public static List<HotOperator> rank(Map<QueryType, Result> results, Map<QueryType, Double> weights) {
+        Map<List<Object>, Group> groups = new LinkedHashMap<>();
+        for (Map.Entry<QueryType, Result> entry : results.entrySet()) {
+            if (entry.getValue() == null || entry.getValue().getPlan() == null) {
+                continue;
+            }
+            double weight = weights.getOrDefault(entry.getKey(), 1.0);
+            accumulate(entry.getValue().getPlan(), entry.getKey(), weight, groups);
+        }
+
+        double total = groups.values().stream().mapToDouble(group -> group.time).sum();
+        return groups.values().stream()
+                .filter(group -> group.time > 0)
+                .sorted(Comparator.comparingDouble((Group group) -> group.time).reversed())
+                .map(group -> new HotOperator(group.example.getCategory(), group.example.getOperator(),
+                        group.example.getRelation(), group.example.getIndex(), group.example.getCondition(),
+                        group.time, total > 0 ? group.time / total * 100 : 0, new ArrayList<>(group.queries)))
+                .toList();
+    }
+
+    /**
+     * Adds the weighted exclusive time of an operator and of its children to their groups.
+     */
+    private static void accumulate(PlanOperator operator, QueryType queryType, double weight,
+                                   Map<List<Object>, Group> groups) {
+        List<Object> key = Arrays.asList(operator.getCategory(), operator.getOperator(), operator.getRelation(),
+                operator.getIndex(), operator.getCondition());
+        Group group = groups.computeIfAbsent(key, k -> new Group(operator));
+        group.time += operator.getExclusiveTime() * weight;
+        group.queries.add(queryType);
+        for (PlanOperator child : operator.getChildren()) {
+            accumulate(child, queryType, weight, groups);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package backend.service.plan;
+
+import backend.model.result.PlanOperator;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * The {@code PlanFingerprint} class identifies the shape of a plan: its operators, the tables and indexes they
+ * read and how they are nested. Times, row counts and conditions are left out, so that two executions of the same
+ * plan have the same fingerprint even if their timings or their parameter values differ, while a change of join
+ * method, of access path or of join order changes the fingerprint.
+ *
+ * @author Eva Ray
+ */
+public final class PlanFingerprint {
+
+    private static final int FINGERPRINT_LENGTH = 16;
+
+    private PlanFingerprint() {
+    }
+
+    /**
+     * Returns the shape of a plan on one line, for example
+     * {@code Hash Join(Seq Scan[orders], Hash(Index Scan[customers/idx_country]))}.
+     *
+     * @param plan the root operator of the plan
+     * @return the shape of the plan
+     */
+    public static String shape(PlanOperator plan) {
+        StringBuilder sb = new StringBuilder(plan.getOperator());
+        if (plan.getRelation() != null || plan.getIndex() != null) {
+            sb.append('[');
+            if (plan.getRelation() != null) {
+                sb.append(plan.getRelation());
+            }
+            if (plan.getIndex() != null) {
+                sb.append(plan.getRelation() != null ? "/" : "").append(plan.getIndex());
+            }
+            sb.append(']');
+        }
+        if (!plan.getChildren().isEmpty()) {
+            sb.append('(');
+            for (int i = 0; i < plan.getChildren().size(); i++) {
+                sb.append(i > 0 ? ", " : "").append(shape(plan.getChildren().get(i)));
+            }
+            sb.append(')');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the fingerprint of a plan, a short hash of its shape.
+     *
+     * @param plan the root operator of the plan
+     * @return the fingerprint of the plan, in hexadecimal
+     */
+    public static String fingerprint(PlanOperator plan) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(shape(plan).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash).substring(0, FINGERPRINT_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform supports SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+}
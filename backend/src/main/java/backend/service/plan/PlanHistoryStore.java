@@ -0,0 +1,152 @@
+package backend.service.plan;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * The {@code PlanHistoryStore} class keeps the plans of the previous benchmark runs in a JSON file, so that the
+ * plan of a run can be compared with the plan of the previous run of the same query. The runs are grouped by a
+ * key that identifies the query, the database, the scope and the indexes, and only the most recent runs of each
+ * key are kept.
+ * <p>
+ * The history is shared by all the benchmarks of the backend, hence the singleton. The file is
+ * {@code plan_history.json} in the working directory of the backend, unless another path is given with the
+ * {@code planHistoryFile} system property. If the file cannot be read or written, the history is only kept in
+ * memory.
+ *
+ * @author Eva Ray
+ */
+public final class PlanHistoryStore {
+
+    private static final String HISTORY_PATH_PROPERTY = "planHistoryFile";
+    private static final String DEFAULT_HISTORY_PATH = "plan_history.json";
+    private static final int MAX_RUNS_PER_KEY = 20;
+
+    private static PlanHistoryStore instance;
+
+    private final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+    private final File file;
+    private final Map<String, List<PlanRun>> history;
+
+    /**
+     * The plan of one benchmark run, as stored in the history file.
+     * Getters and setters are mandatory for the conversion from and to JSON.
+     */
+    public static class PlanRun {
+
+        private String fingerprint;
+        private String shape;
+        private String recordedAt;
+        private double avgLatency;
+
+        public PlanRun() {
+        }
+
+        public PlanRun(String fingerprint, String shape, String recordedAt, double avgLatency) {
+            this.fingerprint = fingerprint;
+            this.shape = shape;
+            this.recordedAt = recordedAt;
+            this.avgLatency = avgLatency;
+        }
+
+        public String getFingerprint() {
+            return fingerprint;
+        }
+
+        public void setFingerprint(String fingerprint) {
+            this.fingerprint = fingerprint;
+        }
+
+        public String getShape() {
+            return shape;
+        }
+
+        public void setShape(String shape) {
+            this.shape = shape;
+        }
+
+        public String getRecordedAt() {
+            return recordedAt;
+        }
+
+        public void setRecordedAt(String recordedAt) {
+            this.recordedAt = recordedAt;
+        }
+
+        public double getAvgLatency() {
+            return avgLatency;
+        }
+
+        public void setAvgLatency(double avgLatency) {
+            this.avgLatency = avgLatency;
+        }
+    }
+
+    private PlanHistoryStore(File file) {
+        this.file = file;
+        this.history = load();
+    }
+
+    /**
+     * Returns the unique instance of the plan history store.
+     *
+     * @return the plan history store
+     */
+    public static synchronized PlanHistoryStore getInstance() {
+        if (instance == null) {
+            instance = new PlanHistoryStore(new File(System.getProperty(HISTORY_PATH_PROPERTY, DEFAULT_HISTORY_PATH)));
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the most recent run of a key.
+     *
+     * @param key the key of the query
+     * @return the most recent run, or empty if the query was never run
+     */
+    public synchronized Optional<PlanRun> last(String key) {
+        List<PlanRun> runs = history.get(key);
+        return runs == null || runs.isEmpty() ? Optional.empty() : Optional.of(runs.get(runs.size() - 1));
+    }
+
+    /**
+     * Adds a run to the history of a key and saves the history.
+     *
+     * @param key the key of the query
+     * @param run the run to add
+     */
+    public synchronized void record(String key, PlanRun run) {
+        List<PlanRun> runs = history.computeIfAbsent(key, k -> new ArrayList<>());
+        runs.add(run);
+        if (runs.size() > MAX_RUNS_PER_KEY) {
+            runs.subList(0, runs.size() - MAX_RUNS_PER_KEY).clear();
+        }
+        try {
+            mapper.writeValue(file, history);
+        } catch (IOException e) {
+            System.err.println("Error while saving the plan history: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the history file, or returns an empty history if there is none.
+     */
+    private Map<String, List<PlanRun>> load() {
+        if (!file.exists()) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            return mapper.readValue(file, new TypeReference<LinkedHashMap<String, List<PlanRun>>>() {
+            });
+        } catch (IOException e) {
+            System.err.println("Error while reading the plan history, starting a new one: " + e.getMessage());
+            return new LinkedHashMap<>();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package backend.service.plan;
+
+import backend.model.result.PlanOperator;
+import backend.model.result.PlanStability;
+import backend.model.result.PlanVariant;
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * The {@code PlanStabilityTracker} class analyses the plans of the sampled executions of a benchmark run. It groups
+ * the executions by plan fingerprint, with the latency statistics of each plan, counts the plan changes between
+ * successive samples, and compares the most frequent plan with the one of the previous run stored in the
+ * {@link PlanHistoryStore}.
+ *
+ * @author Eva Ray
+ */
+public final class PlanStabilityTracker {
+
+    /**
+     * The plan of a sampled execution and its latency.
+     *
+     * @param execution the number of the execution in the run, starting at 1
+     * @param latency   the latency of the execution, in ms
+     * @param plan      the plan of the execution
+     */
+    public record Sample(int execution, double latency, PlanOperator plan) {
+    }
+
+    private PlanStabilityTracker() {
+    }
+
+    /**
+     * Accumulates the sampled executions of one plan.
+     */
+    private static final class Group {
+        private final String shape;
+        private final List<Sample> samples = new ArrayList<>();
+
+        Group(String shape) {
+            this.shape = shape;
+        }
+    }
+
+    /**
+     * Analyses the sampled executions of a run and records the plan of the run in the history.
+     *
+     * @param key            the key of the query in the history, which identifies the query, the database, the
+     *                       scope and the indexes
+     * @param samples        the sampled executions, in execution order
+     * @param sampleInterval the number of executions between two samples
+     * @return the plan stability of the run, or null if no execution was sampled
+     */
+    public static PlanStability analyse(String key, List<Sample> samples, int sampleInterval) {
+        if (samples.isEmpty()) {
+            return null;
+        }
+
+        Map<String, Group> groups = new LinkedHashMap<>();
+        int planChanges = 0;
+        String previous = null;
+        for (Sample sample : samples) {
+            String fingerprint = PlanFingerprint.fingerprint(sample.plan());
+            groups.computeIfAbsent(fingerprint, f -> new Group(PlanFingerprint.shape(sample.plan())))
+                    .samples.add(sample);
+            if (previous != null && !previous.equals(fingerprint)) {
+                planChanges++;
+                System.out.println("Plan change at execution " + sample.execution() + ": " + previous + " -> " + fingerprint);
+            }
+            previous = fingerprint;
+        }
+
+        List<PlanVariant> variants = new ArrayList<>();
+        for (Map.Entry<String, Group> entry : groups.entrySet()) {
+            List<Sample> groupSamples = entry.getValue().samples;
+            DescriptiveStatistics stats = new DescriptiveStatistics(
+                    groupSamples.stream().mapToDouble(Sample::latency).toArray());
+            variants.add(new PlanVariant(entry.getKey(), entry.getValue().shape, groupSamples.size(),
+                    groupSamples.get(0).execution(), groupSamples.get(groupSamples.size() - 1).execution(),
+                    stats.getMean(), groupSamples.size() > 1 ? stats.getStandardDeviation() : 0,
+                    stats.getPercentile(95)));
+        }
+        // Stable sort, the first plan used wins between plans used by as many samples
+        variants.sort(Comparator.comparingInt(PlanVariant::getSampledExecutions).reversed());
+        PlanVariant dominant = variants.get(0);
+
+        PlanHistoryStore store = PlanHistoryStore.getInstance();
+        Optional<PlanHistoryStore.PlanRun> previousRun = store.last(key);
+        previousRun.filter(run -> !run.getFingerprint().equals(dominant.getFingerprint()))
+                .ifPresent(run -> System.out.println("Plan changed since the run of " + run.getRecordedAt() + ": "
+                        + run.getFingerprint() + " -> " + dominant.getFingerprint()));
+        double avgLatency = samples.stream().mapToDouble(Sample::latency).average().orElse(0);
+        store.record(key, new PlanHistoryStore.PlanRun(dominant.getFingerprint(), dominant.getShape(),
+                Instant.now().truncatedTo(ChronoUnit.SECONDS).toString(), avgLatency));
+
+        return new PlanStability(sampleInterval, samples.size(), planChanges, dominant.getFingerprint(), variants,
+                previousRun.map(PlanHistoryStore.PlanRun::getFingerprint).orElse(null),
+                previousRun.map(PlanHistoryStore.PlanRun::getRecordedAt).orElse(null));
+    }
+}
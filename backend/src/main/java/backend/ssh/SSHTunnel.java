@@ -1,13 +1,16 @@
 package backend.ssh;
 
+import com.jcraft.jsch.ChannelExec;
 import com.jcraft.jsch.JSch;
 import com.jcraft.jsch.JSchException;
 import com.jcraft.jsch.Session;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Properties;
 
 /**
@@ -181,6 +184,47 @@ public class SSHTunnel {
         }
     }
 
+    /**
+     * Executes a command on the host of the databases through the SSH connection of the tunnel, and waits for it
+     * to complete.
+     *
+     * @param command the shell command to execute
+     * @return the standard output of the command
+     * @throws JSchException if the tunnel is not open or if the command cannot be started
+     * @throws IOException   if the output cannot be read or if the command fails
+     */
+    public String exec(String command) throws JSchException, IOException {
+        if (session == null || !session.isConnected()) {
+            throw new JSchException("The SSH tunnel is not open");
+        }
+        ChannelExec channel = (ChannelExec) session.openChannel("exec");
+        try {
+            channel.setCommand(command);
+            ByteArrayOutputStream error = new ByteArrayOutputStream();
+            channel.setErrStream(error);
+            InputStream output = channel.getInputStream();
+            channel.connect();
+
+            String result = new String(output.readAllBytes(), StandardCharsets.UTF_8);
+            // The exit status is only known once the channel is closed
+            while (!channel.isClosed()) {
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the command " + command);
+                }
+            }
+            if (channel.getExitStatus() != 0) {
+                throw new IOException("The command " + command + " failed with status " + channel.getExitStatus()
+                        + ": " + error.toString(StandardCharsets.UTF_8).strip());
+            }
+            return result;
+        } finally {
+            channel.disconnect();
+        }
+    }
+
     // Singleton instance
     private static SSHTunnel instance;
 
@@ -25,5 +25,8 @@ ALTER SYSTEM SET max_parallel_workers_per_gather = 0;
 -- Update maximum number of worker processes
 ALTER SYSTEM SET max_worker_processes = 8;
 
+-- Measure the time spent reading and writing blocks, reported by EXPLAIN (ANALYZE, BUFFERS)
+ALTER SYSTEM SET track_io_timing = on;
+
 -- Reload configuration without restarting
 SELECT pg_reload_conf();
\ No newline at end of file
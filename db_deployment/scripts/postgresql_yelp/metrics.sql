@@ -37,7 +37,8 @@ $$ LANGUAGE plpgsql;
 
 -- Enhanced benchmark function that returns additional statistics
 DROP FUNCTION IF EXISTS benchmark_query3(integer,text);
-CREATE OR REPLACE FUNCTION public.benchmark_query3(n_runs INT, query TEXT)
+DROP FUNCTION IF EXISTS benchmark_query3(integer,text,boolean);
+CREATE OR REPLACE FUNCTION public.benchmark_query3(n_runs INT, query TEXT, rollback_runs BOOLEAN DEFAULT FALSE)
     RETURNS TABLE(
                      avg_time_ms DOUBLE PRECISION,
                      stddev_time_ms DOUBLE PRECISION,
@@ -47,7 +48,10 @@ CREATE OR REPLACE FUNCTION public.benchmark_query3(n_runs INT, query TEXT)
                      total_shared_hit_blocks BIGINT,
                      total_shared_read_blocks BIGINT,
                      avg_shared_hit_blocks DOUBLE PRECISION,
-                     avg_shared_read_blocks DOUBLE PRECISION
+                     avg_shared_read_blocks DOUBLE PRECISION,
+                     sampled_runs INT[],
+                     sampled_times_ms DOUBLE PRECISION[],
+                     sampled_explains JSON[]
                  ) AS $$
 DECLARE
     execution_times DOUBLE PRECISION[] := '{}';
@@ -65,11 +69,28 @@ DECLARE
     -- Accumulated buffer statistics
     total_s_hit BIGINT := 0;
     total_s_read BIGINT := 0;
+
+    -- Plans of sampled runs, to detect plan changes during the benchmark (at most 50 plans are kept)
+    sample_interval INT := GREATEST(CEIL(n_runs / 50.0)::INT, 1);
+    s_runs INT[] := '{}';
+    s_times DOUBLE PRECISION[] := '{}';
+    s_explains JSON[] := '{}';
 BEGIN
     -- Run query n_runs times and collect execution times and buffer statistics
     FOR i IN 1..n_runs LOOP
             -- Execute query with EXPLAIN ANALYZE for each run
-            EXECUTE format('EXPLAIN (ANALYZE, FORMAT JSON, BUFFERS) %s', query) INTO explain_result;
+            IF rollback_runs THEN
+                -- The writes of the run are undone by rolling back the subtransaction of the block, so that
+                -- every run finds the rows as the first one did instead of behind the versions of the previous runs
+                BEGIN
+                    EXECUTE format('EXPLAIN (ANALYZE, FORMAT JSON, BUFFERS, WAL) %s', query) INTO explain_result;
+                    RAISE SQLSTATE 'BQRBK';
+                EXCEPTION
+                    WHEN SQLSTATE 'BQRBK' THEN NULL;
+                END;
+            ELSE
+                EXECUTE format('EXPLAIN (ANALYZE, FORMAT JSON, BUFFERS, WAL) %s', query) INTO explain_result;
+            END IF;
 
             -- Save the first explain result for output
             IF i = 1 THEN
@@ -92,6 +113,13 @@ BEGIN
 
             -- Add to execution times array
             execution_times := array_append(execution_times, execution_time);
+
+            -- Keep the plan of sampled runs
+            IF (i - 1) % sample_interval = 0 THEN
+                s_runs := array_append(s_runs, i);
+                s_times := array_append(s_times, execution_time);
+                s_explains := array_append(s_explains, explain_result);
+            END IF;
         END LOOP;
 
     -- Calculate statistics using the helper function
@@ -106,7 +134,10 @@ BEGIN
                              total_s_hit,
                              total_s_read,
                              (total_s_hit::DOUBLE PRECISION / n_runs),
-                             (total_s_read::DOUBLE PRECISION / n_runs);
+                             (total_s_read::DOUBLE PRECISION / n_runs),
+                             s_runs,
+                             s_times,
+                             s_explains;
         END LOOP;
 END
 $$ LANGUAGE plpgsql;
@@ -150,7 +181,8 @@ $$ LANGUAGE plpgsql;
 
 -- Enhanced benchmark function that returns additional statistics
 DROP FUNCTION IF EXISTS yelp_small.benchmark_query3(integer,text);
-CREATE OR REPLACE FUNCTION yelp_small.benchmark_query3(n_runs INT, query TEXT)
+DROP FUNCTION IF EXISTS yelp_small.benchmark_query3(integer,text,boolean);
+CREATE OR REPLACE FUNCTION yelp_small.benchmark_query3(n_runs INT, query TEXT, rollback_runs BOOLEAN DEFAULT FALSE)
     RETURNS TABLE(
                      avg_time_ms DOUBLE PRECISION,
                      stddev_time_ms DOUBLE PRECISION,
@@ -160,7 +192,10 @@ CREATE OR REPLACE FUNCTION yelp_small.benchmark_query3(n_runs INT, query TEXT)
                      total_shared_hit_blocks BIGINT,
                      total_shared_read_blocks BIGINT,
                      avg_shared_hit_blocks DOUBLE PRECISION,
-                     avg_shared_read_blocks DOUBLE PRECISION
+                     avg_shared_read_blocks DOUBLE PRECISION,
+                     sampled_runs INT[],
+                     sampled_times_ms DOUBLE PRECISION[],
+                     sampled_explains JSON[]
                  ) AS $$
 DECLARE
     execution_times DOUBLE PRECISION[] := '{}';
@@ -178,11 +213,28 @@ DECLARE
     -- Accumulated buffer statistics
     total_s_hit BIGINT := 0;
     total_s_read BIGINT := 0;
+
+    -- Plans of sampled runs, to detect plan changes during the benchmark (at most 50 plans are kept)
+    sample_interval INT := GREATEST(CEIL(n_runs / 50.0)::INT, 1);
+    s_runs INT[] := '{}';
+    s_times DOUBLE PRECISION[] := '{}';
+    s_explains JSON[] := '{}';
 BEGIN
     -- Run query n_runs times and collect execution times and buffer statistics
     FOR i IN 1..n_runs LOOP
             -- Execute query with EXPLAIN ANALYZE for each run
-            EXECUTE format('EXPLAIN (ANALYZE, FORMAT JSON, BUFFERS) %s', query) INTO explain_result;
+            IF rollback_runs THEN
+                -- The writes of the run are undone by rolling back the subtransaction of the block, so that
+                -- every run finds the rows as the first one did instead of behind the versions of the previous runs
+                BEGIN
+                    EXECUTE format('EXPLAIN (ANALYZE, FORMAT JSON, BUFFERS, WAL) %s', query) INTO explain_result;
+                    RAISE SQLSTATE 'BQRBK';
+                EXCEPTION
+                    WHEN SQLSTATE 'BQRBK' THEN NULL;
+                END;
+            ELSE
+                EXECUTE format('EXPLAIN (ANALYZE, FORMAT JSON, BUFFERS, WAL) %s', query) INTO explain_result;
+            END IF;
 
             -- Save the first explain result for output
             IF i = 1 THEN
@@ -205,6 +257,13 @@ BEGIN
 
             -- Add to execution times array
             execution_times := array_append(execution_times, execution_time);
+
+            -- Keep the plan of sampled runs
+            IF (i - 1) % sample_interval = 0 THEN
+                s_runs := array_append(s_runs, i);
+                s_times := array_append(s_times, execution_time);
+                s_explains := array_append(s_explains, explain_result);
+            END IF;
         END LOOP;
 
     -- Calculate statistics using the helper function
@@ -219,7 +278,10 @@ BEGIN
                              total_s_hit,
                              total_s_read,
                              (total_s_hit::DOUBLE PRECISION / n_runs),
-                             (total_s_read::DOUBLE PRECISION / n_runs);
+                             (total_s_read::DOUBLE PRECISION / n_runs),
+                             s_runs,
+                             s_times,
+                             s_explains;
         END LOOP;
 END
 $$ LANGUAGE plpgsql;
@@ -263,7 +325,8 @@ $$ LANGUAGE plpgsql;
 
 -- Enhanced benchmark function that returns additional statistics
 DROP FUNCTION IF EXISTS yelp_medium.benchmark_query3(integer,text);
-CREATE OR REPLACE FUNCTION yelp_medium.benchmark_query3(n_runs INT, query TEXT)
+DROP FUNCTION IF EXISTS yelp_medium.benchmark_query3(integer,text,boolean);
+CREATE OR REPLACE FUNCTION yelp_medium.benchmark_query3(n_runs INT, query TEXT, rollback_runs BOOLEAN DEFAULT FALSE)
     RETURNS TABLE(
                      avg_time_ms DOUBLE PRECISION,
                      stddev_time_ms DOUBLE PRECISION,
@@ -273,7 +336,10 @@ CREATE OR REPLACE FUNCTION yelp_medium.benchmark_query3(n_runs INT, query TEXT)
                      total_shared_hit_blocks BIGINT,
                      total_shared_read_blocks BIGINT,
                      avg_shared_hit_blocks DOUBLE PRECISION,
-                     avg_shared_read_blocks DOUBLE PRECISION
+                     avg_shared_read_blocks DOUBLE PRECISION,
+                     sampled_runs INT[],
+                     sampled_times_ms DOUBLE PRECISION[],
+                     sampled_explains JSON[]
                  ) AS $$
 DECLARE
     execution_times DOUBLE PRECISION[] := '{}';
@@ -291,11 +357,28 @@ DECLARE
     -- Accumulated buffer statistics
     total_s_hit BIGINT := 0;
     total_s_read BIGINT := 0;
+
+    -- Plans of sampled runs, to detect plan changes during the benchmark (at most 50 plans are kept)
+    sample_interval INT := GREATEST(CEIL(n_runs / 50.0)::INT, 1);
+    s_runs INT[] := '{}';
+    s_times DOUBLE PRECISION[] := '{}';
+    s_explains JSON[] := '{}';
 BEGIN
     -- Run query n_runs times and collect execution times and buffer statistics
     FOR i IN 1..n_runs LOOP
             -- Execute query with EXPLAIN ANALYZE for each run
-            EXECUTE format('EXPLAIN (ANALYZE, FORMAT JSON, BUFFERS) %s', query) INTO explain_result;
+            IF rollback_runs THEN
+                -- The writes of the run are undone by rolling back the subtransaction of the block, so that
+                -- every run finds the rows as the first one did instead of behind the versions of the previous runs
+                BEGIN
+                    EXECUTE format('EXPLAIN (ANALYZE, FORMAT JSON, BUFFERS, WAL) %s', query) INTO explain_result;
+                    RAISE SQLSTATE 'BQRBK';
+                EXCEPTION
+                    WHEN SQLSTATE 'BQRBK' THEN NULL;
+                END;
+            ELSE
+                EXECUTE format('EXPLAIN (ANALYZE, FORMAT JSON, BUFFERS, WAL) %s', query) INTO explain_result;
+            END IF;
 
             -- Save the first explain result for output
             IF i = 1 THEN
@@ -318,6 +401,13 @@ BEGIN
 
             -- Add to execution times array
             execution_times := array_append(execution_times, execution_time);
+
+            -- Keep the plan of sampled runs
+            IF (i - 1) % sample_interval = 0 THEN
+                s_runs := array_append(s_runs, i);
+                s_times := array_append(s_times, execution_time);
+                s_explains := array_append(s_explains, explain_result);
+            END IF;
         END LOOP;
 
     -- Calculate statistics using the helper function
@@ -332,7 +422,10 @@ BEGIN
                              total_s_hit,
                              total_s_read,
                              (total_s_hit::DOUBLE PRECISION / n_runs),
-                             (total_s_read::DOUBLE PRECISION / n_runs);
+                             (total_s_read::DOUBLE PRECISION / n_runs),
+                             s_runs,
+                             s_times,
+                             s_explains;
         END LOOP;
 END
 $$ LANGUAGE plpgsql;
\ No newline at end of file